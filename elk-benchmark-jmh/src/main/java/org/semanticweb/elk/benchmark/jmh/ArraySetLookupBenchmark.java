@@ -0,0 +1,132 @@
+/*-
+ * #%L
+ * ELK JMH Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.benchmark.jmh;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
+import org.semanticweb.elk.util.collections.ArraySlicedSet;
+
+/**
+ * Measures the lookup performance of {@link ArrayHashSet} and
+ * {@link ArraySlicedSet}, which are used for storing subsumers and
+ * sub-conclusions during saturation, compared to {@link HashSet}. Half of the
+ * looked up elements are contained in the set, the other half are not. The
+ * elements are {@link IndexedClass}es, which use the identity hash code, like
+ * during saturation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArraySetLookupBenchmark {
+
+	/**
+	 * the number of slices of {@link ArraySlicedSet}
+	 */
+	private static final int SLICES_ = 3;
+
+	/**
+	 * the number of elements in the sets
+	 */
+	@Param({ "8", "64", "1024", "16384" })
+	public int size;
+
+	private Set<IndexedClass> arrayHashSet_, hashSet_;
+
+	private ArraySlicedSet<IndexedClass> arraySlicedSet_;
+
+	/**
+	 * the elements to look up
+	 */
+	private IndexedClass[] lookups_;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SyntheticOntology ontology = new SyntheticOntology(
+				SyntheticOntologyGenerator.Shape.TREE, 2 * size, 1, 0, 0, 42);
+		List<IndexedClass> classes = ontology.getClasses();
+		arrayHashSet_ = new ArrayHashSet<IndexedClass>();
+		hashSet_ = new HashSet<IndexedClass>();
+		arraySlicedSet_ = new ArraySlicedSet<IndexedClass>(SLICES_);
+		lookups_ = new IndexedClass[classes.size()];
+		for (int i = 0; i < classes.size(); i++) {
+			IndexedClass element = classes.get(i);
+			lookups_[i] = element;
+			if (i % 2 == 0) {
+				arrayHashSet_.add(element);
+				hashSet_.add(element);
+				arraySlicedSet_.add(i % SLICES_, element);
+			}
+		}
+	}
+
+	@Benchmark
+	public int arrayHashSetContains() {
+		return countContained(arrayHashSet_);
+	}
+
+	@Benchmark
+	public int hashSetContains() {
+		return countContained(hashSet_);
+	}
+
+	@Benchmark
+	public int arraySlicedSetContains() {
+		int found = 0;
+		for (int i = 0; i < lookups_.length; i++) {
+			if (arraySlicedSet_.contains(i % SLICES_, lookups_[i])) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+	private int countContained(Set<IndexedClass> set) {
+		int found = 0;
+		for (int i = 0; i < lookups_.length; i++) {
+			if (set.contains(lookups_[i])) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+}
@@ -0,0 +1,125 @@
+/*-
+ * #%L
+ * ELK JMH Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.reasoner.DummyProgressMonitor;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.config.SaturationScheduler;
+import org.semanticweb.elk.reasoner.config.SaturationStorage;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.saturation.ClassExpressionSaturation;
+import org.semanticweb.elk.reasoner.saturation.ClassExpressionSaturationFactory;
+import org.semanticweb.elk.reasoner.saturation.SaturationState;
+import org.semanticweb.elk.reasoner.saturation.SaturationStateFactory;
+import org.semanticweb.elk.reasoner.saturation.rules.factories.RuleApplicationAdditionFactory;
+import org.semanticweb.elk.reasoner.saturation.rules.factories.RuleApplicationInput;
+
+/**
+ * Measures the throughput of {@link ClassExpressionSaturationFactory}: every
+ * benchmark operation saturates all classes of a {@link SyntheticOntology}
+ * from scratch using the given number of workers and the given
+ * {@link SaturationScheduler}. Comparing the results for different numbers of
+ * workers shows how saturation scales with each scheduler; the results for
+ * different {@link SaturationStorage}s show the overhead of storing contexts
+ * in arrays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClassExpressionSaturationBenchmark {
+
+	/**
+	 * the number of concurrent workers used for saturation
+	 */
+	@Param({ "1", "2", "4", "8" })
+	public int workers;
+
+	/**
+	 * the {@link SaturationScheduler} for distributing active contexts between
+	 * the workers
+	 */
+	@Param({ "SHARED", "WORK_STEALING" })
+	public String scheduler;
+
+	/**
+	 * the {@link SaturationStorage} for the created contexts
+	 */
+	@Param({ "OBJECTS", "ARRAYS" })
+	public String storage;
+
+	private SyntheticOntology ontology_;
+
+	private SaturationState<?> saturationState_;
+
+	@Setup(Level.Trial)
+	public void setUp(SyntheticOntologyState state) {
+		ontology_ = state.getOntology();
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.SATURATION_SCHEDULER,
+				scheduler);
+		config.setParameter(ReasonerConfiguration.NUM_OF_WORKING_THREADS,
+				String.valueOf(workers));
+		config.setParameter(ReasonerConfiguration.SATURATION_STORAGE,
+				storage);
+		saturationState_ = SaturationStateFactory
+				.createSaturationState(ontology_.getIndex(), config);
+	}
+
+	/**
+	 * Removes the contexts created by the previous invocation; the contexts
+	 * are assigned to the indexed objects, so they must be cleared for the
+	 * saturation to start from scratch
+	 */
+	@Setup(Level.Invocation)
+	public void resetContexts() {
+		saturationState_.getContextModifyingWriter().resetContexts();
+	}
+
+	@Benchmark
+	public SaturationState<?> saturateAllClasses() {
+		new ClassExpressionSaturation<IndexedClass>(ontology_.getClasses(),
+				ontology_.getExecutor(), workers, new DummyProgressMonitor(),
+				new RuleApplicationAdditionFactory<RuleApplicationInput>(
+						SyntheticOntology.NO_INTERRUPTS, saturationState_))
+								.process();
+		return saturationState_;
+	}
+
+}
@@ -0,0 +1,149 @@
+/*-
+ * #%L
+ * ELK JMH Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectProperty;
+import org.semanticweb.elk.reasoner.saturation.ContextImpl;
+import org.semanticweb.elk.reasoner.saturation.conclusions.classes.SaturationConclusionBaseFactory;
+import org.semanticweb.elk.reasoner.saturation.conclusions.model.ClassConclusion;
+import org.semanticweb.elk.reasoner.saturation.conclusions.model.SaturationConclusion;
+
+/**
+ * Measures the cost of {@link ContextImpl#addConclusion(ClassConclusion)} and
+ * {@link ContextImpl#containsConclusion(ClassConclusion)} for a mix of
+ * conclusions typical for saturation: composed and decomposed subsumers and
+ * backward links. The time is reported for processing all conclusions of one
+ * context.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ContextImplBenchmark {
+
+	/**
+	 * the number of subsumers derived in the context
+	 */
+	@Param({ "16", "128", "1024" })
+	public int subsumerCount;
+
+	private IndexedClass root_;
+
+	private ClassConclusion[] conclusions_;
+
+	/**
+	 * the context that already contains all {@link #conclusions_}
+	 */
+	private ContextImpl filledContext_;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SyntheticOntology ontology = new SyntheticOntology(
+				SyntheticOntologyGenerator.Shape.TREE, subsumerCount, 4, 0, 0,
+				42);
+		SaturationConclusion.Factory factory = SaturationConclusionBaseFactory
+				.getInstance();
+		List<IndexedClass> classes = ontology.getClasses();
+		List<IndexedObjectProperty> properties = new ArrayList<IndexedObjectProperty>(
+				ontology.getIndex().getObjectProperties());
+		root_ = classes.get(0);
+		List<ClassConclusion> conclusions = new ArrayList<ClassConclusion>();
+		conclusions.add(factory.getContextInitialization(root_));
+		for (int i = 0; i < classes.size(); i++) {
+			IndexedClass subsumer = classes.get(i);
+			conclusions.add(
+					factory.getSubClassInclusionDecomposed(root_, subsumer));
+			conclusions
+					.add(factory.getSubClassInclusionComposed(root_, subsumer));
+			if (i % 4 == 0) {
+				conclusions.add(factory.getBackwardLink(root_,
+						properties.get(i % properties.size()), subsumer));
+			}
+		}
+		conclusions_ = conclusions.toArray(new ClassConclusion[0]);
+		filledContext_ = fill(new ContextImpl(root_));
+	}
+
+	private ContextImpl fill(ContextImpl context) {
+		for (ClassConclusion conclusion : conclusions_) {
+			context.addConclusion(conclusion);
+		}
+		return context;
+	}
+
+	/**
+	 * @return the new context to which all conclusions were added
+	 */
+	@Benchmark
+	public ContextImpl addNew() {
+		return fill(new ContextImpl(root_));
+	}
+
+	/**
+	 * @return the number of conclusions that were added; should be 0 since
+	 *         all conclusions are already contained in the context
+	 */
+	@Benchmark
+	public int addExisting() {
+		int added = 0;
+		for (ClassConclusion conclusion : conclusions_) {
+			if (filledContext_.addConclusion(conclusion)) {
+				added++;
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * @return the number of conclusions contained in the context
+	 */
+	@Benchmark
+	public int containsExisting() {
+		int found = 0;
+		for (ClassConclusion conclusion : conclusions_) {
+			if (filledContext_.containsConclusion(conclusion)) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+}
@@ -0,0 +1,123 @@
+/*-
+ * #%L
+ * ELK JMH Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.benchmark.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.reasoner.indexing.classes.DirectIndex;
+import org.semanticweb.elk.reasoner.indexing.classes.ModifiableIndexedObjectBaseFactory;
+import org.semanticweb.elk.reasoner.indexing.model.CachedIndexedClass;
+import org.semanticweb.elk.reasoner.indexing.model.CachedIndexedObjectSomeValuesFrom;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedObjectSomeValuesFrom;
+
+/**
+ * Measures the resolution of structurally equal indexed objects in the
+ * indexed object cache of a {@link DirectIndex}, which is performed for every
+ * indexed sub-expression during loading of axioms and conversion of queries.
+ * The time is reported for resolving all classes, respectively, all
+ * existential restrictions of the ontology.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IndexedObjectResolutionBenchmark {
+
+	private DirectIndex index_;
+
+	/**
+	 * the objects structurally equal to the cached {@link IndexedClass}es
+	 */
+	private CachedIndexedClass[] classes_;
+
+	/**
+	 * the objects structurally equal to the cached existential restrictions
+	 */
+	private CachedIndexedObjectSomeValuesFrom[] existentials_;
+
+	@Setup(Level.Trial)
+	public void setUp(SyntheticOntologyState state) {
+		SyntheticOntology ontology = state.getOntology();
+		ModifiableIndexedObjectBaseFactory factory = new ModifiableIndexedObjectBaseFactory();
+		index_ = ontology.getIndex();
+		List<IndexedClass> classes = ontology.getClasses();
+		classes_ = new CachedIndexedClass[classes.size()];
+		for (int i = 0; i < classes_.length; i++) {
+			classes_[i] = factory
+					.getIndexedClass(classes.get(i).getElkEntity());
+		}
+		List<ModifiableIndexedObjectSomeValuesFrom> existentials = ontology
+				.getExistentials();
+		existentials_ = new CachedIndexedObjectSomeValuesFrom[existentials
+				.size()];
+		for (int i = 0; i < existentials_.length; i++) {
+			ModifiableIndexedObjectSomeValuesFrom existential = existentials
+					.get(i);
+			existentials_[i] = factory.getIndexedObjectSomeValuesFrom(
+					existential.getProperty(), existential.getFiller());
+		}
+	}
+
+	/**
+	 * @return the number of resolved classes
+	 */
+	@Benchmark
+	public int resolveClasses() {
+		int resolved = 0;
+		for (CachedIndexedClass input : classes_) {
+			if (index_.resolve(input) != null) {
+				resolved++;
+			}
+		}
+		return resolved;
+	}
+
+	/**
+	 * @return the number of resolved existential restrictions
+	 */
+	@Benchmark
+	public int resolveExistentials() {
+		int resolved = 0;
+		for (CachedIndexedObjectSomeValuesFrom input : existentials_) {
+			if (index_.resolve(input) != null) {
+				resolved++;
+			}
+		}
+		return resolved;
+	}
+
+}
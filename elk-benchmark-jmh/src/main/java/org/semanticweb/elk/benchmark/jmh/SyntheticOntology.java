@@ -0,0 +1,172 @@
+/*-
+ * #%L
+ * ELK JMH Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.liveontologies.puli.Producer;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.reasoner.DummyProgressMonitor;
+import org.semanticweb.elk.reasoner.ReasonerComputationWithInputs;
+import org.semanticweb.elk.reasoner.indexing.classes.ChangeIndexingProcessor;
+import org.semanticweb.elk.reasoner.indexing.classes.DirectIndex;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverterImpl;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverter;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverterImpl;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedPropertyChain;
+import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedObjectSomeValuesFrom;
+import org.semanticweb.elk.reasoner.saturation.properties.PropertyHierarchyCompositionComputationFactory;
+import org.semanticweb.elk.reasoner.stages.PropertyHierarchyCompositionState;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentExecutor;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentExecutors;
+import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
+
+/**
+ * An ontology produced by {@link SyntheticOntologyGenerator} and loaded into a
+ * {@link DirectIndex}. Provides access to the relevant indexed objects of the
+ * ontology and the infrastructure for running low-level reasoning
+ * computations over the index.
+ */
+public class SyntheticOntology {
+
+	/**
+	 * the {@link InterruptMonitor} that never interrupts benchmarks
+	 */
+	public static final InterruptMonitor NO_INTERRUPTS = new InterruptMonitor() {
+
+		@Override
+		public boolean isInterrupted() {
+			return false;
+		}
+
+	};
+
+	private final ElkObject.Factory objectFactory_;
+
+	private final SyntheticOntologyGenerator generator_;
+
+	private final DirectIndex index_;
+
+	private final ConcurrentExecutor executor_;
+
+	/**
+	 * the {@link IndexedClass}es for classes of the generated ontology in the
+	 * order of their generation
+	 */
+	private final List<IndexedClass> classes_;
+
+	/**
+	 * the {@link ModifiableIndexedObjectSomeValuesFrom}s occurring in the
+	 * ontology
+	 */
+	private final List<ModifiableIndexedObjectSomeValuesFrom> existentials_;
+
+	/**
+	 * Generates and indexes a new ontology with the given parameters
+	 *
+	 * @param shape
+	 * @param classCount
+	 * @param propertyCount
+	 * @param existentialDensity
+	 * @param definitionDensity
+	 * @param seed
+	 *
+	 * @see SyntheticOntologyGenerator#SyntheticOntologyGenerator(ElkObject.Factory,
+	 *      SyntheticOntologyGenerator.Shape, int, int, double, double, long)
+	 */
+	public SyntheticOntology(SyntheticOntologyGenerator.Shape shape,
+			int classCount, int propertyCount, double existentialDensity,
+			double definitionDensity, long seed) {
+		this.objectFactory_ = new ElkObjectEntityRecyclingFactory();
+		this.generator_ = new SyntheticOntologyGenerator(objectFactory_,
+				shape, classCount, propertyCount, existentialDensity,
+				definitionDensity, seed);
+		this.index_ = new DirectIndex(objectFactory_);
+		this.executor_ = ConcurrentExecutors.create("elk-benchmark");
+		ElkAxiomProcessor inserter = new ChangeIndexingProcessor(
+				new ElkAxiomConverterImpl(objectFactory_, index_, 1),
+				ChangeIndexingProcessor.ADDITION);
+		for (ElkAxiom axiom : generator_.generate()) {
+			inserter.visit(axiom);
+		}
+		ElkPolarityExpressionConverter converter = new ElkPolarityExpressionConverterImpl(
+				objectFactory_, index_);
+		this.classes_ = new ArrayList<IndexedClass>(classCount);
+		for (ElkClass elkClass : generator_.getClasses()) {
+			classes_.add((IndexedClass) elkClass.accept(converter));
+		}
+		this.existentials_ = new ArrayList<ModifiableIndexedObjectSomeValuesFrom>();
+		for (IndexedClassExpression expression : index_
+				.getClassExpressions()) {
+			if (expression instanceof ModifiableIndexedObjectSomeValuesFrom) {
+				existentials_.add(
+						(ModifiableIndexedObjectSomeValuesFrom) expression);
+			}
+		}
+	}
+
+	public ElkObject.Factory getObjectFactory() {
+		return objectFactory_;
+	}
+
+	public DirectIndex getIndex() {
+		return index_;
+	}
+
+	public ConcurrentExecutor getExecutor() {
+		return executor_;
+	}
+
+	public List<IndexedClass> getClasses() {
+		return classes_;
+	}
+
+	public List<ModifiableIndexedObjectSomeValuesFrom> getExistentials() {
+		return existentials_;
+	}
+
+	/**
+	 * Computes the saturation of the object properties of this ontology; this
+	 * computation is required before saturation of class expressions
+	 *
+	 * @param maxWorkers
+	 *            the maximal number of concurrent workers used for the
+	 *            computation
+	 */
+	public void saturateProperties(int maxWorkers) {
+		new ReasonerComputationWithInputs<IndexedPropertyChain, PropertyHierarchyCompositionComputationFactory>(
+				new ArrayList<IndexedPropertyChain>(
+						index_.getPropertyChains()),
+				new PropertyHierarchyCompositionComputationFactory(
+						NO_INTERRUPTS, Producer.Dummy.get(),
+						PropertyHierarchyCompositionState.Dispatcher.DUMMY),
+				executor_, maxWorkers, new DummyProgressMonitor()).process();
+	}
+
+}
@@ -0,0 +1,233 @@
+/*-
+ * #%L
+ * ELK JMH Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+
+/**
+ * Generates random EL ontologies of a configurable size and shape. The
+ * generated ontologies consist of a class hierarchy (a chain, a tree, or a
+ * directed acyclic graph), a tree-shaped hierarchy of object properties with a
+ * transitive root, existential restrictions on the right-hand side of
+ * subclass axioms, and class definitions using conjunctions of named classes
+ * and existential restrictions. The ontology is determined by the parameters
+ * and the seed, so the same parameters always produce the same ontology.
+ */
+public class SyntheticOntologyGenerator {
+
+	/**
+	 * The shape of the told class hierarchy of the generated ontology
+	 */
+	public enum Shape {
+		/**
+		 * every class is a subclass of the previously generated class
+		 */
+		CHAIN,
+		/**
+		 * every class has exactly one told superclass; classes have a bounded
+		 * number of told subclasses
+		 */
+		TREE,
+		/**
+		 * like {@link #TREE}, but every class can have an additional told
+		 * superclass
+		 */
+		DAG;
+	}
+
+	private static final String PREFIX_ = "http://www.example.org/synthetic#";
+
+	/**
+	 * the maximal number of told subclasses of every class for
+	 * {@link Shape#TREE} and {@link Shape#DAG}
+	 */
+	private static final int BRANCHING_ = 4;
+
+	private final ElkObject.Factory factory_;
+
+	private final Shape shape_;
+
+	private final int classCount_;
+
+	private final int propertyCount_;
+
+	/**
+	 * the average number of existential restrictions that are told subsumers
+	 * of a class
+	 */
+	private final double existentialDensity_;
+
+	/**
+	 * the ratio of classes that are defined using conjunctions
+	 */
+	private final double definitionDensity_;
+
+	private final long seed_;
+
+	/**
+	 * Creates a new generator of ontologies using the given parameters
+	 *
+	 * @param factory
+	 *            the {@link ElkObject.Factory} used to create the axioms
+	 * @param shape
+	 *            the shape of the told class hierarchy
+	 * @param classCount
+	 *            the number of named classes in the generated ontology
+	 * @param propertyCount
+	 *            the number of object properties in the generated ontology
+	 * @param existentialDensity
+	 *            the average number of existential restrictions that are
+	 *            told subsumers of a class
+	 * @param definitionDensity
+	 *            the ratio (between 0 and 1) of classes that are defined by
+	 *            equivalence axioms
+	 * @param seed
+	 *            the seed for the random number generator
+	 */
+	public SyntheticOntologyGenerator(ElkObject.Factory factory, Shape shape,
+			int classCount, int propertyCount, double existentialDensity,
+			double definitionDensity, long seed) {
+		if (classCount <= 0 || propertyCount <= 0) {
+			throw new IllegalArgumentException(
+					"The number of classes and properties must be positive!");
+		}
+		this.factory_ = factory;
+		this.shape_ = shape;
+		this.classCount_ = classCount;
+		this.propertyCount_ = propertyCount;
+		this.existentialDensity_ = existentialDensity;
+		this.definitionDensity_ = definitionDensity;
+		this.seed_ = seed;
+	}
+
+	/**
+	 * @return the classes of the generated ontology in the order of their
+	 *         generation; the told superclasses of every class are generated
+	 *         before this class
+	 */
+	public List<ElkClass> getClasses() {
+		List<ElkClass> result = new ArrayList<ElkClass>(classCount_);
+		for (int i = 0; i < classCount_; i++) {
+			result.add(getClass(i));
+		}
+		return result;
+	}
+
+	/**
+	 * @return the object properties of the generated ontology
+	 */
+	public List<ElkObjectProperty> getObjectProperties() {
+		List<ElkObjectProperty> result = new ArrayList<ElkObjectProperty>(
+				propertyCount_);
+		for (int i = 0; i < propertyCount_; i++) {
+			result.add(getObjectProperty(i));
+		}
+		return result;
+	}
+
+	/**
+	 * @return the axioms of the generated ontology; every call of this method
+	 *         returns the same axioms
+	 */
+	public List<ElkAxiom> generate() {
+		Random random = new Random(seed_);
+		List<ElkAxiom> result = new ArrayList<ElkAxiom>();
+		// property hierarchy
+		for (int i = 1; i < propertyCount_; i++) {
+			result.add(factory_.getSubObjectPropertyOfAxiom(
+					getObjectProperty(i), getObjectProperty((i - 1) / 2)));
+		}
+		result.add(factory_.getTransitiveObjectPropertyAxiom(
+				getObjectProperty(0)));
+		// class hierarchy
+		for (int i = 1; i < classCount_; i++) {
+			ElkClass subClass = getClass(i);
+			switch (shape_) {
+			case CHAIN:
+				result.add(factory_.getSubClassOfAxiom(subClass,
+						getClass(i - 1)));
+				break;
+			case DAG:
+				if (i > 1 && random.nextBoolean()) {
+					result.add(factory_.getSubClassOfAxiom(subClass,
+							getClass(random.nextInt(i))));
+				}
+				// fall through
+			case TREE:
+				result.add(factory_.getSubClassOfAxiom(subClass,
+						getClass((i - 1) / BRANCHING_)));
+				break;
+			default:
+				throw new IllegalArgumentException(
+						"Unsupported shape: " + shape_);
+			}
+		}
+		// existential restrictions
+		for (int i = 0; i < classCount_; i++) {
+			int count = (int) existentialDensity_;
+			if (random.nextDouble() < existentialDensity_ - count) {
+				count++;
+			}
+			for (int j = 0; j < count; j++) {
+				result.add(factory_.getSubClassOfAxiom(getClass(i),
+						getExistential(random)));
+			}
+		}
+		// definitions
+		for (int i = 1; i < classCount_; i++) {
+			if (random.nextDouble() >= definitionDensity_) {
+				continue;
+			}
+			// define using classes generated earlier to avoid trivial cycles
+			ElkClassExpression conjunct = getClass(random.nextInt(i));
+			result.add(factory_.getEquivalentClassesAxiom(getClass(i),
+					factory_.getObjectIntersectionOf(conjunct,
+							getExistential(random))));
+		}
+		return result;
+	}
+
+	private ElkClass getClass(int index) {
+		return factory_.getClass(new ElkFullIri(PREFIX_ + "C" + index));
+	}
+
+	private ElkObjectProperty getObjectProperty(int index) {
+		return factory_
+				.getObjectProperty(new ElkFullIri(PREFIX_ + "R" + index));
+	}
+
+	private ElkClassExpression getExistential(Random random) {
+		return factory_.getObjectSomeValuesFrom(
+				getObjectProperty(random.nextInt(propertyCount_)),
+				getClass(random.nextInt(classCount_)));
+	}
+
+}
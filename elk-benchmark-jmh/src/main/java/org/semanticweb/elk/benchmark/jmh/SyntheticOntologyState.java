@@ -0,0 +1,70 @@
+/*-
+ * #%L
+ * ELK JMH Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The JMH state holding a {@link SyntheticOntology} shared by all threads of
+ * a benchmark. The size and the shape of the ontology can be changed from the
+ * command line, e.g., {@code -p classCount=100000 -p shape=DAG}.
+ */
+@State(Scope.Benchmark)
+public class SyntheticOntologyState {
+
+	@Param({ "TREE", "DAG" })
+	public SyntheticOntologyGenerator.Shape shape;
+
+	@Param({ "10000" })
+	public int classCount;
+
+	@Param({ "16" })
+	public int propertyCount;
+
+	@Param({ "1.0" })
+	public double existentialDensity;
+
+	@Param({ "0.1" })
+	public double definitionDensity;
+
+	@Param({ "42" })
+	public long seed;
+
+	private SyntheticOntology ontology_;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		ontology_ = new SyntheticOntology(shape, classCount, propertyCount,
+				existentialDensity, definitionDensity, seed);
+		ontology_.saturateProperties(
+				Runtime.getRuntime().availableProcessors());
+	}
+
+	public SyntheticOntology getOntology() {
+		return ontology_;
+	}
+
+}
@@ -0,0 +1,120 @@
+/*-
+ * #%L
+ * ELK JMH Microbenchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.reasoner.DummyProgressMonitor;
+import org.semanticweb.elk.reasoner.ReasonerComputationWithInputs;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.reduction.TransitiveReductionFactory;
+import org.semanticweb.elk.reasoner.reduction.TransitiveReductionJob;
+import org.semanticweb.elk.reasoner.reduction.TransitiveReductionListener;
+import org.semanticweb.elk.reasoner.saturation.ClassExpressionSaturation;
+import org.semanticweb.elk.reasoner.saturation.SaturationState;
+import org.semanticweb.elk.reasoner.saturation.SaturationStateFactory;
+import org.semanticweb.elk.reasoner.saturation.rules.factories.RuleApplicationAdditionFactory;
+import org.semanticweb.elk.reasoner.saturation.rules.factories.RuleApplicationInput;
+
+/**
+ * Measures the throughput of {@link TransitiveReductionFactory}: every
+ * benchmark operation computes the equivalent classes and the direct
+ * subsumers of all classes of a {@link SyntheticOntology}. The classes are
+ * saturated before the measurement, so only the transitive reduction is
+ * measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransitiveReductionBenchmark {
+
+	/**
+	 * the number of concurrent workers used for transitive reduction
+	 */
+	@Param({ "1", "2", "4", "8" })
+	public int workers;
+
+	private SyntheticOntology ontology_;
+
+	private SaturationState<?> saturationState_;
+
+	@Setup(Level.Trial)
+	public void setUp(SyntheticOntologyState state) {
+		ontology_ = state.getOntology();
+		saturationState_ = SaturationStateFactory
+				.createSaturationState(ontology_.getIndex());
+		new ClassExpressionSaturation<IndexedClass>(ontology_.getClasses(),
+				ontology_.getExecutor(), workers, new DummyProgressMonitor(),
+				new RuleApplicationAdditionFactory<RuleApplicationInput>(
+						SyntheticOntology.NO_INTERRUPTS, saturationState_))
+								.process();
+	}
+
+	/**
+	 * @return the number of processed transitive reduction jobs
+	 */
+	@Benchmark
+	public int reduceAllClasses() {
+		List<TransitiveReductionJob<IndexedClass>> jobs = new ArrayList<TransitiveReductionJob<IndexedClass>>(
+				ontology_.getClasses().size());
+		for (IndexedClass input : ontology_.getClasses()) {
+			jobs.add(new TransitiveReductionJob<IndexedClass>(input));
+		}
+		final AtomicInteger finished = new AtomicInteger();
+		new ReasonerComputationWithInputs<TransitiveReductionJob<IndexedClass>, TransitiveReductionFactory<IndexedClass, TransitiveReductionJob<IndexedClass>>>(
+				jobs,
+				new TransitiveReductionFactory<IndexedClass, TransitiveReductionJob<IndexedClass>>(
+						SyntheticOntology.NO_INTERRUPTS, saturationState_,
+						workers,
+						new TransitiveReductionListener<TransitiveReductionJob<IndexedClass>>() {
+
+							@Override
+							public void notifyFinished(
+									TransitiveReductionJob<IndexedClass> job) {
+								finished.incrementAndGet();
+							}
+
+						}),
+				ontology_.getExecutor(), workers, new DummyProgressMonitor())
+						.process();
+		return finished.get();
+	}
+
+}
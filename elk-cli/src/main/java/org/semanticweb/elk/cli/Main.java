@@ -35,9 +35,12 @@ import java.io.IOException;
 import org.apache.log4j.Level;
 import org.semanticweb.elk.exceptions.ElkException;
 import org.semanticweb.elk.loading.AxiomLoader;
+import org.semanticweb.elk.loading.Owl2ParallelStreamLoader;
 import org.semanticweb.elk.loading.Owl2StreamLoader;
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityInterningFactory;
 import org.semanticweb.elk.owl.parsing.Owl2ParserFactory;
 import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
 import org.semanticweb.elk.reasoner.ElkInconsistentOntologyException;
@@ -102,6 +105,10 @@ public class Main {
 				.acceptsAll(asList("workers", "w"),
 						"number of concurrent worker threads")
 				.withRequiredArg().ofType(Integer.class);
+		OptionSpec<Integer> nParsers = parser
+				.acceptsAll(asList("parsers", "p"),
+						"number of concurrent parser threads; by default, the input is parsed in one thread")
+				.withRequiredArg().ofType(Integer.class);
 		OptionSpec<String> logging = parser
 				.acceptsAll(asList("logging", "l"),
 						"logging level for log4j; default INFO")
@@ -172,11 +179,24 @@ public class Main {
 
 		// create reasoner
 		ReasonerFactory reasoningFactory = new ReasonerFactory();
-		Owl2ParserFactory parserFactory = new Owl2FunctionalStyleParserFactory();
-		AxiomLoader.Factory loader = new Owl2StreamLoader.Factory(parserFactory,
-				options.valueOf(inputFile));
-		Reasoner reasoner = reasoningFactory.createReasoner(loader,
-				configuration);
+		Reasoner reasoner;
+		if (options.has(nParsers)) {
+			// the parsers running concurrently need a thread-safe factory;
+			// entities are created once and shared with the reasoner
+			ElkObject.Factory objectFactory = new ElkObjectEntityInterningFactory();
+			Owl2ParserFactory parserFactory = new Owl2FunctionalStyleParserFactory(
+					objectFactory);
+			AxiomLoader.Factory loader = new Owl2ParallelStreamLoader.Factory(
+					parserFactory, options.valueOf(inputFile),
+					options.valueOf(nParsers));
+			reasoner = reasoningFactory.createReasoner(objectFactory, loader,
+					configuration);
+		} else {
+			Owl2ParserFactory parserFactory = new Owl2FunctionalStyleParserFactory();
+			AxiomLoader.Factory loader = new Owl2StreamLoader.Factory(
+					parserFactory, options.valueOf(inputFile));
+			reasoner = reasoningFactory.createReasoner(loader, configuration);
+		}
 
 		try {
 			if (options.has(satisfiable)) {
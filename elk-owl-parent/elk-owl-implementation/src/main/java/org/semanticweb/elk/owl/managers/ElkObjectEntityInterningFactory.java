@@ -0,0 +1,233 @@
+package org.semanticweb.elk.owl.managers;
+
+/*
+ * #%L
+ * ELK OWL Model Implementation
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.semanticweb.elk.owl.implementation.ElkObjectBaseFactory;
+import org.semanticweb.elk.owl.interfaces.ElkAnnotationProperty;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkDataProperty;
+import org.semanticweb.elk.owl.interfaces.ElkDatatype;
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.interfaces.ElkObjectDelegatingFactory;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkAbbreviatedIri;
+import org.semanticweb.elk.owl.iris.ElkIri;
+import org.semanticweb.elk.owl.visitors.ElkEntityVisitor;
+
+/**
+ * A thread-safe {@link ElkObject.Factory} that materializes every
+ * {@link ElkEntity} only once. Unlike {@link ElkObjectEntityRecyclingFactory},
+ * the {@link ElkEntity} for a given {@link ElkIri} is looked up before it is
+ * created, so no new object is allocated for entities that have been seen
+ * before, and the lookup can be performed from several threads, e.g., by
+ * parsers running in parallel. The
+ * {@link ElkEntity}s are referenced weakly, so entities that are no longer
+ * used can be garbage collected. The {@link ElkIri} of the first created
+ * {@link ElkEntity} is kept, thus entities with {@link ElkAbbreviatedIri}s
+ * store only their local names in addition to the shared prefixes.
+ */
+public class ElkObjectEntityInterningFactory
+		extends ElkObjectDelegatingFactory {
+
+	private final InterningTable<ElkAnnotationProperty> annotationProperties_ = new InterningTable<ElkAnnotationProperty>();
+
+	private final InterningTable<ElkClass> classes_ = new InterningTable<ElkClass>();
+
+	private final InterningTable<ElkDataProperty> dataProperties_ = new InterningTable<ElkDataProperty>();
+
+	private final InterningTable<ElkDatatype> datatypes_ = new InterningTable<ElkDatatype>();
+
+	private final InterningTable<ElkNamedIndividual> namedIndividuals_ = new InterningTable<ElkNamedIndividual>();
+
+	private final InterningTable<ElkObjectProperty> objectProperties_ = new InterningTable<ElkObjectProperty>();
+
+	/**
+	 * returns the canonical representative of the visited {@link ElkEntity}
+	 */
+	private final ElkEntityVisitor<ElkEntity> interner_ = new ElkEntityVisitor<ElkEntity>() {
+
+		@Override
+		public ElkEntity visit(ElkAnnotationProperty elkAnnotationProperty) {
+			return annotationProperties_.intern(elkAnnotationProperty);
+		}
+
+		@Override
+		public ElkEntity visit(ElkClass elkClass) {
+			return classes_.intern(elkClass);
+		}
+
+		@Override
+		public ElkEntity visit(ElkDataProperty elkDataProperty) {
+			return dataProperties_.intern(elkDataProperty);
+		}
+
+		@Override
+		public ElkEntity visit(ElkDatatype elkDatatype) {
+			return datatypes_.intern(elkDatatype);
+		}
+
+		@Override
+		public ElkEntity visit(ElkNamedIndividual elkNamedIndividual) {
+			return namedIndividuals_.intern(elkNamedIndividual);
+		}
+
+		@Override
+		public ElkEntity visit(ElkObjectProperty elkObjectProperty) {
+			return objectProperties_.intern(elkObjectProperty);
+		}
+
+	};
+
+	public ElkObjectEntityInterningFactory(ElkObject.Factory factory) {
+		super(factory);
+	}
+
+	public ElkObjectEntityInterningFactory() {
+		this(new ElkObjectBaseFactory());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected <C extends ElkObject> C filter(C candidate) {
+		if (candidate instanceof ElkEntity)
+			return (C) ((ElkEntity) candidate).accept(interner_);
+		else
+			return candidate;
+	}
+
+	@Override
+	public ElkAnnotationProperty getAnnotationProperty(ElkIri iri) {
+		ElkAnnotationProperty result = annotationProperties_.get(iri);
+		return result == null ? super.getAnnotationProperty(iri) : result;
+	}
+
+	@Override
+	public ElkClass getClass(ElkIri iri) {
+		ElkClass result = classes_.get(iri);
+		return result == null ? super.getClass(iri) : result;
+	}
+
+	@Override
+	public ElkDataProperty getDataProperty(ElkIri iri) {
+		ElkDataProperty result = dataProperties_.get(iri);
+		return result == null ? super.getDataProperty(iri) : result;
+	}
+
+	@Override
+	public ElkDatatype getDatatype(ElkIri iri) {
+		ElkDatatype result = datatypes_.get(iri);
+		return result == null ? super.getDatatype(iri) : result;
+	}
+
+	@Override
+	public ElkNamedIndividual getNamedIndividual(ElkIri iri) {
+		ElkNamedIndividual result = namedIndividuals_.get(iri);
+		return result == null ? super.getNamedIndividual(iri) : result;
+	}
+
+	@Override
+	public ElkObjectProperty getObjectProperty(ElkIri iri) {
+		ElkObjectProperty result = objectProperties_.get(iri);
+		return result == null ? super.getObjectProperty(iri) : result;
+	}
+
+	/**
+	 * A concurrent table of weakly referenced {@link ElkEntity}s of the same
+	 * type indexed by their {@link ElkIri}s
+	 * 
+	 * @param <E>
+	 *            the type of the stored {@link ElkEntity}s
+	 */
+	private static class InterningTable<E extends ElkEntity> {
+
+		private final ConcurrentHashMap<ElkIri, Entry<E>> entries_ = new ConcurrentHashMap<ElkIri, Entry<E>>();
+
+		private final ReferenceQueue<E> referenceQueue_ = new ReferenceQueue<E>();
+
+		/**
+		 * @param iri
+		 * @return the {@link ElkEntity} with the given {@link ElkIri} stored in
+		 *         this table or {@code null} if there is no such
+		 *         {@link ElkEntity}
+		 */
+		E get(ElkIri iri) {
+			Entry<E> entry = entries_.get(iri);
+			return entry == null ? null : entry.get();
+		}
+
+		/**
+		 * @param entity
+		 * @return the {@link ElkEntity} stored in this table with the same
+		 *         {@link ElkIri} as the given {@link ElkEntity}; if there is no
+		 *         such {@link ElkEntity}, the given {@link ElkEntity} is stored
+		 *         and returned
+		 */
+		E intern(E entity) {
+			expungeStaleEntries();
+			ElkIri iri = entity.getIri();
+			Entry<E> entry = new Entry<E>(entity, iri, referenceQueue_);
+			for (;;) {
+				Entry<E> previous = entries_.putIfAbsent(iri, entry);
+				if (previous == null)
+					return entity;
+				// else
+				E existing = previous.get();
+				if (existing != null)
+					return existing;
+				// else the previous entity was garbage collected
+				if (entries_.replace(iri, previous, entry))
+					return entity;
+			}
+		}
+
+		private void expungeStaleEntries() {
+			Reference<? extends E> reference;
+			while ((reference = referenceQueue_.poll()) != null) {
+				entries_.remove(((Entry<?>) reference).iri_, reference);
+			}
+		}
+
+	}
+
+	private static class Entry<E> extends WeakReference<E> {
+
+		/**
+		 * the key under which this {@link Entry} is stored
+		 */
+		final ElkIri iri_;
+
+		Entry(E referent, ElkIri iri, ReferenceQueue<? super E> queue) {
+			super(referent, queue);
+			this.iri_ = iri;
+		}
+
+	}
+
+}
@@ -0,0 +1,142 @@
+package org.semanticweb.elk.owl.managers;
+
+/*-
+ * #%L
+ * ELK OWL Model Implementation
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkAbbreviatedIri;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.iris.ElkIri;
+import org.semanticweb.elk.owl.iris.ElkPrefixImpl;
+
+/**
+ * Tests for {@link ElkObjectEntityInterningFactory}
+ */
+public class ElkObjectEntityInterningFactoryTest {
+
+	private static final String PREFIX_ = "http://example.org/interning#";
+
+	private static final int THREADS_ = 8;
+
+	private static final int ENTITIES_ = 1000;
+
+	@Test
+	public void testEqualIrisGiveSameEntities() {
+		ElkObject.Factory factory = new ElkObjectEntityInterningFactory();
+		ElkClass first = factory.getClass(new ElkFullIri(PREFIX_ + "A"));
+		assertSame(first, factory.getClass(new ElkFullIri(PREFIX_ + "A")));
+		// abbreviated IRIs are equal to the corresponding full IRIs
+		ElkIri abbreviated = new ElkAbbreviatedIri(
+				new ElkPrefixImpl(":", new ElkFullIri(PREFIX_)), "A");
+		assertSame(first, factory.getClass(abbreviated));
+		// the entities of complex objects are interned as well
+		ElkClass second = factory.getClass(new ElkFullIri(PREFIX_ + "B"));
+		assertSame(second,
+				factory.getSubClassOfAxiom(
+						factory.getClass(new ElkFullIri(PREFIX_ + "A")),
+						factory.getClass(new ElkFullIri(PREFIX_ + "B")))
+						.getSuperClassExpression());
+	}
+
+	@Test
+	public void testEntitiesOfDifferentTypesAreDistinct() {
+		ElkObject.Factory factory = new ElkObjectEntityInterningFactory();
+		ElkIri iri = new ElkFullIri(PREFIX_ + "X");
+		List<ElkEntity> entities = new ArrayList<ElkEntity>();
+		entities.add(factory.getAnnotationProperty(iri));
+		entities.add(factory.getClass(iri));
+		entities.add(factory.getDataProperty(iri));
+		entities.add(factory.getDatatype(iri));
+		entities.add(factory.getNamedIndividual(iri));
+		entities.add(factory.getObjectProperty(iri));
+		for (int i = 0; i < entities.size(); i++) {
+			assertEquals(iri, entities.get(i).getIri());
+			for (int j = i + 1; j < entities.size(); j++) {
+				assertNotSame(entities.get(i), entities.get(j));
+			}
+		}
+		assertSame(entities.get(0), factory.getAnnotationProperty(iri));
+		assertSame(entities.get(1), factory.getClass(iri));
+		assertSame(entities.get(2), factory.getDataProperty(iri));
+		assertSame(entities.get(3), factory.getDatatype(iri));
+		assertSame(entities.get(4), factory.getNamedIndividual(iri));
+		assertSame(entities.get(5), factory.getObjectProperty(iri));
+	}
+
+	@Test
+	public void testConcurrentInterning() throws Exception {
+		final ElkObject.Factory factory = new ElkObjectEntityInterningFactory();
+		final CyclicBarrier start = new CyclicBarrier(THREADS_);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS_);
+		try {
+			List<Future<ElkClass[]>> results = new ArrayList<Future<ElkClass[]>>();
+			for (int t = 0; t < THREADS_; t++) {
+				final int offset = t * ENTITIES_ / THREADS_;
+				results.add(executor.submit(new Callable<ElkClass[]>() {
+
+					@Override
+					public ElkClass[] call() throws Exception {
+						ElkClass[] result = new ElkClass[ENTITIES_];
+						start.await();
+						// every thread starts with different entities
+						for (int i = 0; i < ENTITIES_; i++) {
+							int next = (offset + i) % ENTITIES_;
+							result[next] = factory.getClass(
+									new ElkFullIri(PREFIX_ + next));
+						}
+						return result;
+					}
+
+				}));
+			}
+			ElkClass[] expected = results.get(0).get();
+			for (Future<ElkClass[]> result : results) {
+				ElkClass[] actual = result.get();
+				for (int i = 0; i < ENTITIES_; i++) {
+					assertSame(expected[i], actual[i]);
+				}
+			}
+			for (int i = 0; i < ENTITIES_; i++) {
+				assertSame(expected[i],
+						factory.getClass(new ElkFullIri(PREFIX_ + i)));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,194 @@
+/*-
+ * #%L
+ * ELK OWL API Binding
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.owlapi;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.reasoner.taxonomy.FreshNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+import org.semanticweb.elk.util.collections.Conditions;
+import org.semanticweb.elk.util.collections.TinyLfuCachePolicy;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.reasoner.impl.OWLClassNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLClassNodeSet;
+import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNodeSet;
+import org.semanticweb.owlapi.reasoner.impl.OWLObjectPropertyNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLObjectPropertyNodeSet;
+
+/**
+ * Converts the {@link Node}s of ELK taxonomies to OWL API nodes using
+ * {@link ElkConverter} and keeps the results for the nodes that are converted
+ * most frequently, so that the same nodes do not need to be converted again
+ * for every query. The converted nodes are stored by identity of the ELK
+ * {@link Node}s, which do not change their members as long as the ontology
+ * does not change; hence the cache must be cleared using {@link #clear()}
+ * whenever the changes of the ontology are loaded into the reasoner. The
+ * number of stored nodes is bounded and the nodes to be evicted are chosen by
+ * {@link TinyLfuCachePolicy}. The methods of this class can be called
+ * concurrently.
+ */
+class ElkNodeConversionCache {
+
+	private final ElkConverter elkConverter_;
+
+	/**
+	 * the converted OWL API nodes for the cached ELK nodes
+	 */
+	private final Map<Node<?>, org.semanticweb.owlapi.reasoner.Node<?>> convertedNodes_ = new IdentityHashMap<Node<?>, org.semanticweb.owlapi.reasoner.Node<?>>();
+
+	/**
+	 * decides which nodes should be kept in {@link #convertedNodes_}
+	 */
+	private final TinyLfuCachePolicy<Node<?>> policy_;
+
+	/**
+	 * @param elkConverter
+	 *            the {@link ElkConverter} used for converting the nodes that
+	 *            are not cached
+	 * @param maximumSize
+	 *            the maximal number of cached nodes, must be positive
+	 */
+	ElkNodeConversionCache(ElkConverter elkConverter, int maximumSize) {
+		this.elkConverter_ = elkConverter;
+		this.policy_ = new TinyLfuCachePolicy<Node<?>>(maximumSize);
+	}
+
+	public OWLClassNode convertClassNode(Node<ElkClass> node) {
+		OWLClassNode result = (OWLClassNode) getCached(node);
+		if (result == null) {
+			result = elkConverter_.convertClassNode(node);
+			cache(node, result);
+		}
+		return result;
+	}
+
+	public OWLClassNodeSet convertClassNodes(
+			Iterable<? extends Node<ElkClass>> nodes) {
+		Set<org.semanticweb.owlapi.reasoner.Node<OWLClass>> owlNodes = new HashSet<org.semanticweb.owlapi.reasoner.Node<OWLClass>>();
+		for (Node<ElkClass> node : nodes) {
+			owlNodes.add(convertClassNode(node));
+		}
+		return new OWLClassNodeSet(owlNodes);
+	}
+
+	public OWLNamedIndividualNode convertIndividualNode(
+			Node<ElkNamedIndividual> node) {
+		OWLNamedIndividualNode result = (OWLNamedIndividualNode) getCached(
+				node);
+		if (result == null) {
+			result = elkConverter_.convertIndividualNode(node);
+			cache(node, result);
+		}
+		return result;
+	}
+
+	public OWLNamedIndividualNodeSet convertIndividualNodes(
+			Iterable<? extends Node<ElkNamedIndividual>> nodes) {
+		Set<org.semanticweb.owlapi.reasoner.Node<OWLNamedIndividual>> owlNodes = new HashSet<org.semanticweb.owlapi.reasoner.Node<OWLNamedIndividual>>();
+		for (Node<ElkNamedIndividual> node : nodes) {
+			owlNodes.add(convertIndividualNode(node));
+		}
+		return new OWLNamedIndividualNodeSet(owlNodes);
+	}
+
+	public OWLObjectPropertyNode convertObjectPropertyNode(
+			final Node<ElkObjectProperty> node) {
+		OWLObjectPropertyNode result = (OWLObjectPropertyNode) getCached(
+				node);
+		if (result == null) {
+			result = elkConverter_.convertObjectPropertyNode(node);
+			cache(node, result);
+		}
+		return result;
+	}
+
+	public OWLObjectPropertyNodeSet convertObjectPropertyNodes(
+			final Iterable<? extends Node<ElkObjectProperty>> nodes) {
+		Set<org.semanticweb.owlapi.reasoner.Node<OWLObjectPropertyExpression>> owlNodes = new HashSet<org.semanticweb.owlapi.reasoner.Node<OWLObjectPropertyExpression>>();
+		for (final Node<ElkObjectProperty> node : nodes) {
+			owlNodes.add(convertObjectPropertyNode(node));
+		}
+		return new OWLObjectPropertyNodeSet(owlNodes);
+	}
+
+	/**
+	 * Removes all cached nodes; should be called when the taxonomies may
+	 * change
+	 */
+	public synchronized void clear() {
+		convertedNodes_.clear();
+		policy_.clear();
+	}
+
+	/**
+	 * @return the number of conversions for which the cached nodes were used
+	 */
+	public synchronized long getHitCount() {
+		return policy_.getHitCount();
+	}
+
+	/**
+	 * @return the number of conversions for which the cached nodes could not
+	 *         be used
+	 */
+	public synchronized long getMissCount() {
+		return policy_.getMissCount();
+	}
+
+	private synchronized org.semanticweb.owlapi.reasoner.Node<?> getCached(
+			Node<?> node) {
+		if (node instanceof FreshNode) {
+			// created for every query
+			return null;
+		}
+		// else
+		if (!policy_.access(node)) {
+			return null;
+		}
+		// else
+		return convertedNodes_.get(node);
+	}
+
+	private synchronized void cache(Node<?> node,
+			org.semanticweb.owlapi.reasoner.Node<?> converted) {
+		if (!policy_.contains(node)) {
+			// fresh, or evicted or cleared since the access
+			return;
+		}
+		// else
+		convertedNodes_.put(node, converted);
+		while (policy_.isOverCapacity()) {
+			convertedNodes_.remove(
+					policy_.evict(Conditions.<Node<?>> trueCondition()));
+		}
+	}
+
+}
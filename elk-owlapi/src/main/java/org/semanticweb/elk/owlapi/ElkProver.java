@@ -21,15 +21,31 @@
  */
 package org.semanticweb.elk.owlapi;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.liveontologies.owlapi.proof.OWLProver;
 import org.liveontologies.puli.DynamicProof;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.exceptions.ElkRuntimeException;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owlapi.proofs.ElkOwlProof;
+import org.semanticweb.elk.owlapi.wrapper.OwlConverter;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.reasoner.UnsupportedEntailmentTypeException;
 
 public class ElkProver extends DelegatingOWLReasoner<ElkReasoner>
 		implements OWLProver {
 
+	private static final OwlConverter OWL_CONVERTER_ = OwlConverter
+			.getInstance();
+
+	private static final ElkConverter ELK_CONVERTER_ = ElkConverter
+			.getInstance();
+
 	public ElkProver(ElkReasoner elkReasoner) {
 		super(elkReasoner);
 	}
@@ -40,4 +56,41 @@ public class ElkProver extends DelegatingOWLReasoner<ElkReasoner>
 		return ElkOwlProof.create(getDelegate(), entailment);
 	}
 
+	/**
+	 * Returns the proofs for all given entailments. The conclusions used in
+	 * the proofs are traced together using one (parallel) run of the tracing
+	 * computation, which is faster than obtaining the proofs one by one using
+	 * {@link #getProof(OWLAxiom)}.
+	 * 
+	 * @param entailments
+	 *            the {@link OWLAxiom}s for which to return the proofs
+	 * @return the map from the given {@link OWLAxiom}s to their proofs
+	 * @throws UnsupportedEntailmentTypeException
+	 *             if some of the entailments is not supported
+	 */
+	public Map<OWLAxiom, DynamicProof<OWLAxiom>> getProofs(
+			Collection<? extends OWLAxiom> entailments)
+			throws UnsupportedEntailmentTypeException {
+		final ElkReasoner reasoner = getDelegate();
+		final List<ElkAxiom> elkEntailments = new ArrayList<ElkAxiom>(
+				entailments.size());
+		for (final OWLAxiom entailment : entailments) {
+			elkEntailments.add(OWL_CONVERTER_.convert(entailment));
+		}
+		try {
+			reasoner.getInternalReasoner().explainEntailments(elkEntailments);
+		} catch (final ElkException e) {
+			throw ELK_CONVERTER_.convert(e);
+		} catch (final ElkRuntimeException e) {
+			throw ELK_CONVERTER_.convert(e);
+		}
+		// the proofs are now generated from the traced conclusions
+		final Map<OWLAxiom, DynamicProof<OWLAxiom>> result = new LinkedHashMap<OWLAxiom, DynamicProof<OWLAxiom>>(
+				entailments.size());
+		for (final OWLAxiom entailment : entailments) {
+			result.put(entailment, ElkOwlProof.create(reasoner, entailment));
+		}
+		return result;
+	}
+
 }
@@ -27,7 +27,10 @@ package org.semanticweb.elk.owlapi;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -102,6 +105,11 @@ public class ElkReasoner implements OWLReasoner {
 	private static final Logger LOGGER_ = LoggerFactory
 			.getLogger(ElkReasoner.class);
 
+	/**
+	 * the maximal number of taxonomy nodes whose conversion is cached
+	 */
+	private static final int NODE_CONVERSION_CACHE_SIZE_ = 8192;
+
 	// OWL API related objects
 	private final OWLOntology owlOntology_;
 	private final OWLOntologyManager owlOntologymanager_;
@@ -130,6 +138,9 @@ public class ElkReasoner implements OWLReasoner {
 	private final OwlConverter owlConverter_;
 	/** Converter from ELK OWL to OWL API */
 	private final ElkConverter elkConverter_;
+
+	/** caches the conversion of the nodes returned by the reasoner */
+	private final ElkNodeConversionCache nodeConversionCache_;
 	/** this object is used to load pending changes */
 	private volatile OwlChangesLoaderFactory bufferedChangesLoader_;
 	/** configurations required for ELK reasoner */
@@ -146,10 +157,12 @@ public class ElkReasoner implements OWLReasoner {
 	 */
 	private boolean loadBeforeChanges_ = true;
 	/**
-	 * {@code true} if it is required to reload the whole ontology next time the
-	 * changes should be flushed
+	 * the ontologies whose axioms are loaded or scheduled to be loaded into
+	 * the reasoner; changes in other ontologies are ignored; compared by
+	 * identity since the hash codes of ontologies change together with their
+	 * ontology IDs
 	 */
-	private boolean ontologyReloadRequired_;
+	private Set<OWLOntology> importsClosure_;
 
 	ElkReasoner(OWLOntology ontology, boolean isBufferingMode,
 			ElkReasonerConfiguration elkConfig,
@@ -171,6 +184,8 @@ public class ElkReasoner implements OWLReasoner {
 		this.objectFactory_ = internalReasoner.getElkFactory();
 		this.owlConverter_ = OwlConverter.getInstance();
 		this.elkConverter_ = ElkConverter.getInstance();
+		this.nodeConversionCache_ = new ElkNodeConversionCache(elkConverter_,
+				NODE_CONVERSION_CACHE_SIZE_);
 
 		this.config_ = elkConfig.getElkConfiguration();
 		this.isAllowFreshEntities = elkConfig
@@ -185,7 +200,6 @@ public class ElkReasoner implements OWLReasoner {
 			// changes are flushed
 			reasoner_.registerAxiomLoader(bufferedChangesLoader_);
 		}
-		this.ontologyReloadRequired_ = false;
 	}
 
 	ElkReasoner(OWLOntology ontology, boolean isBufferingMode,
@@ -202,8 +216,19 @@ public class ElkReasoner implements OWLReasoner {
 		return objectFactory_;
 	}
 
+	private static Set<OWLOntology> identitySetOf(
+			Collection<OWLOntology> ontologies) {
+		Set<OWLOntology> result = Collections
+				.newSetFromMap(new IdentityHashMap<OWLOntology, Boolean>());
+		result.addAll(ontologies);
+		return result;
+	}
+
 	private void initReasoner(final Reasoner reasoner) {
 		this.reasoner_ = reasoner;
+		// the nodes converted from the previous reasoner are not valid
+		this.nodeConversionCache_.clear();
+		this.importsClosure_ = identitySetOf(owlOntology_.getImportsClosure());
 		this.reasoner_.registerAxiomLoader(new OwlOntologyLoader.Factory(
 				owlOntology_, this.mainProgressMonitor_));
 		this.reasoner_.setAllowFreshEntities(isAllowFreshEntities);
@@ -288,7 +313,7 @@ public class ElkReasoner implements OWLReasoner {
 			final ElkObjectProperty elkClass) throws FreshEntitiesException,
 			InconsistentOntologyException, ElkException {
 		try {
-			return elkConverter_.convertObjectPropertyNode(
+			return nodeConversionCache_.convertObjectPropertyNode(
 					reasoner_.getObjectPropertyNode(elkClass));
 		} catch (ElkException e) {
 			throw elkConverter_.convert(e);
@@ -318,6 +343,7 @@ public class ElkReasoner implements OWLReasoner {
 				.removeOntologyChangeListener(ontologyChangeListener_);
 		owlOntologymanager_.removeOntologyChangeProgessListener(
 				ontologyChangeProgressListener_);
+		nodeConversionCache_.clear();
 		try {
 			for (;;) {
 				try {
@@ -339,20 +365,13 @@ public class ElkReasoner implements OWLReasoner {
 		LOGGER_.trace("flush()");
 
 		try {
-			if (ontologyReloadRequired_) {
-				/**
-				 * re-creates a new instance of reasoner for the parameters,
-				 * since a reasoner can do initial load only once
-				 */
-				initReasoner(new ReasonerFactory().createReasoner(reasoner_,
-						objectFactory_, config_));
-				bufferedChangesLoader_ = new OwlChangesLoaderFactory(
-						this.secondaryProgressMonitor_);
-				ontologyReloadRequired_ = false;
-			} else if (bufferedChangesLoader_.isLoadingFinished()) {
+			if (bufferedChangesLoader_.isLoadingFinished()) {
 				// no changes
 				return;
-			} else if (isBufferingMode_) {
+			}
+			// else the taxonomies can change
+			nodeConversionCache_.clear();
+			if (isBufferingMode_) {
 				// in buffering mode, new changes need to be buffered
 				// separately in order not to mix them with the flushed 
 				// changes that now need to be loaded
@@ -510,7 +529,7 @@ public class ElkReasoner implements OWLReasoner {
 
 		checkInterrupted();
 		try {
-			return elkConverter_.convertClassNode(
+			return nodeConversionCache_.convertClassNode(
 					reasoner_.getEquivalentClasses(owlConverter_.convert(ce)));
 		} catch (ElkUnsupportedReasoningTaskException e) {
 			throw unsupportedOwlApiMethod(
@@ -546,7 +565,7 @@ public class ElkReasoner implements OWLReasoner {
 		checkInterrupted();
 		if (pe instanceof OWLObjectProperty) {
 			try {
-				return elkConverter_.convertObjectPropertyNode(
+				return nodeConversionCache_.convertObjectPropertyNode(
 						reasoner_.getObjectPropertyNode(
 								owlConverter_.convert((OWLObjectProperty) pe)));
 			} catch (final ElkUnsupportedReasoningTaskException e) {
@@ -587,7 +606,7 @@ public class ElkReasoner implements OWLReasoner {
 
 		checkInterrupted();
 		try {
-			return elkConverter_.convertIndividualNodes(
+			return nodeConversionCache_.convertIndividualNodes(
 					reasoner_.getInstances(owlConverter_.convert(ce), direct));
 		} catch (ElkUnsupportedReasoningTaskException e) {
 			throw unsupportedOwlApiMethod(
@@ -735,7 +754,7 @@ public class ElkReasoner implements OWLReasoner {
 		LOGGER_.trace("getSubClasses(OWLClassExpression, boolean)");
 		checkInterrupted();
 		try {
-			return elkConverter_.convertClassNodes(
+			return nodeConversionCache_.convertClassNodes(
 					reasoner_.getSubClasses(owlConverter_.convert(ce), direct));
 		} catch (ElkUnsupportedReasoningTaskException e) {
 			throw unsupportedOwlApiMethod(
@@ -772,7 +791,7 @@ public class ElkReasoner implements OWLReasoner {
 
 		if (pe instanceof OWLObjectProperty) {
 			try {
-				return elkConverter_.convertObjectPropertyNodes(
+				return nodeConversionCache_.convertObjectPropertyNodes(
 						reasoner_.getSubObjectProperties(
 								owlConverter_.convert((OWLObjectProperty) pe),
 								direct));
@@ -798,7 +817,7 @@ public class ElkReasoner implements OWLReasoner {
 		LOGGER_.trace("getSuperClasses(OWLClassExpression, boolean)");
 		checkInterrupted();
 		try {
-			return elkConverter_.convertClassNodes(reasoner_
+			return nodeConversionCache_.convertClassNodes(reasoner_
 					.getSuperClasses(owlConverter_.convert(ce), direct));
 		} catch (ElkUnsupportedReasoningTaskException e) {
 			throw unsupportedOwlApiMethod(
@@ -835,7 +854,7 @@ public class ElkReasoner implements OWLReasoner {
 
 		if (pe instanceof OWLObjectProperty) {
 			try {
-				return elkConverter_.convertObjectPropertyNodes(
+				return nodeConversionCache_.convertObjectPropertyNodes(
 						reasoner_.getSuperObjectProperties(
 								owlConverter_.convert((OWLObjectProperty) pe),
 								direct));
@@ -909,7 +928,7 @@ public class ElkReasoner implements OWLReasoner {
 		LOGGER_.trace("getTypes(OWLNamedIndividual, boolean)");
 		checkInterrupted();
 		try {
-			return elkConverter_.convertClassNodes(
+			return nodeConversionCache_.convertClassNodes(
 					reasoner_.getTypes(owlConverter_.convert(ind), direct));
 		} catch (ElkUnsupportedReasoningTaskException e) {
 			throw unsupportedOwlApiMethod(
@@ -1138,35 +1157,68 @@ public class ElkReasoner implements OWLReasoner {
 		@Override
 		public void ontologiesChanged(List<? extends OWLOntologyChange> changes)
 				throws OWLException {
-			Set<OWLOntology> importClosure = null;
+			boolean importsClosureChanged = false;
 			for (OWLOntologyChange change : changes) {
-				OWLOntology changedOntology = change.getOntology();
-				if (!changedOntology.equals(owlOntology_)) {
-					if (importClosure == null) {
-						importClosure = owlOntology_.getImportsClosure();
-					}
-					if (!importClosure.contains(changedOntology)) {
-						LOGGER_.trace(
-								"Ignoring the change not applicable to the current ontology: {}"
-										+ change);
-						continue;
-					}
-				}
-
 				if (!change.isAxiomChange()) {
+					/*
+					 * import changes and changes of ontology IDs can change
+					 * the imports closure; annotation changes have no effect
+					 * on reasoning
+					 */
+					LOGGER_.trace("Non-axiom change: {}", change);
+					importsClosureChanged = true;
+					continue;
+				}
+				// else
+				if (!importsClosure_.contains(change.getOntology())) {
+					/*
+					 * either not applicable to the current ontology, or the
+					 * axioms of this ontology are loaded completely by
+					 * updateImportsClosure()
+					 */
 					LOGGER_.trace(
-							"Non-axiom change: {}\n The ontology will be reloaded.",
+							"Ignoring the change not applicable to the current ontology: {}",
 							change);
-					// cannot handle non-axiom changes incrementally
-					ontologyReloadRequired_ = true;
-				} else {
-					bufferedChangesLoader_.registerChange(change);
+					continue;
 				}
+				// else
+				bufferedChangesLoader_.registerChange(change);
 			}
+			if (importsClosureChanged)
+				updateImportsClosure();
 			if (!isBufferingMode_)
 				flush();
 		}
 
+		/**
+		 * Registers the removal of all axioms of the ontologies that are no
+		 * longer in the imports closure of the root ontology, and the addition
+		 * of all axioms of the ontologies that are new in the imports closure.
+		 * Since the changes are applied to the ontologies before they are
+		 * reported, the axioms of the removed ontologies include the changes
+		 * already registered for them, and the axioms of the added ontologies
+		 * include the changes ignored for them.
+		 */
+		private void updateImportsClosure() {
+			Set<OWLOntology> importsClosure = identitySetOf(
+					owlOntology_.getImportsClosure());
+			for (OWLOntology ontology : importsClosure_) {
+				if (!importsClosure.contains(ontology)) {
+					LOGGER_.trace("Ontology removed from imports closure: {}",
+							ontology);
+					bufferedChangesLoader_.registerRemoval(ontology);
+				}
+			}
+			for (OWLOntology ontology : importsClosure) {
+				if (!importsClosure_.contains(ontology)) {
+					LOGGER_.trace("Ontology added to imports closure: {}",
+							ontology);
+					bufferedChangesLoader_.registerAddition(ontology);
+				}
+			}
+			importsClosure_ = importsClosure;
+		}
+
 	}
 
 	private class OntologyChangeProgressListener
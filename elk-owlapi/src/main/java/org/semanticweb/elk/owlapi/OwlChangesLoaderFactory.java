@@ -22,9 +22,11 @@
  */
 package org.semanticweb.elk.owlapi;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 
 import org.semanticweb.elk.loading.AbstractAxiomLoader;
@@ -36,6 +38,7 @@ import org.semanticweb.elk.reasoner.ProgressMonitor;
 import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
 import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
 import org.semanticweb.owlapi.model.RemoveAxiom;
 import org.slf4j.Logger;
@@ -57,16 +60,19 @@ class OwlChangesLoaderFactory implements AxiomLoader.Factory {
 	private static final Logger LOGGER_ = LoggerFactory
 			.getLogger(OwlChangesLoaderFactory.class);
 
+	private static final OwlConverter OWL_CONVERTER_ = OwlConverter
+			.getInstance();
+
 	private final ProgressMonitor progressMonitor;
 
-	/** list to accumulate the unprocessed changes to the ontology */
-	private final LinkedList<OWLOntologyChange> pendingChanges_;
+	/** queue to accumulate the unprocessed changes to the ontology */
+	private final Queue<OWLOntologyChange> pendingChanges_;
 
 	private Loader loader_ = null;
 
 	OwlChangesLoaderFactory(final ProgressMonitor progressMonitor) {
 		this.progressMonitor = progressMonitor;
-		this.pendingChanges_ = new LinkedList<OWLOntologyChange>();
+		this.pendingChanges_ = new ArrayDeque<OWLOntologyChange>();
 	}
 
 	private synchronized void load(final InterruptMonitor interrupter,
@@ -79,6 +85,9 @@ class OwlChangesLoaderFactory implements AxiomLoader.Factory {
 			
 			LOGGER_.trace("{}: {}", status, changesCount);
 			
+			// the same visitor converts all changes
+			OwlOntologyChangeProcessorVisitor loader = new OwlOntologyChangeProcessorVisitor(
+					axiomInserter, axiomDeleter);
 			int currentAxiom = 0;
 			for (;;) {
 				if (interrupter.isInterrupted())
@@ -86,15 +95,6 @@ class OwlChangesLoaderFactory implements AxiomLoader.Factory {
 				OWLOntologyChange change = pendingChanges_.poll();
 				if (change == null)
 					break;
-				if (!change.isAxiomChange()) {
-					ElkLoadingException exception = new ElkLoadingException(
-							"Cannot apply non-axiom change!");
-					LOGGER_.error(exception.getMessage(), exception);
-					throw exception;
-				}
-
-				OwlOntologyChangeProcessorVisitor loader = new OwlOntologyChangeProcessorVisitor(
-						axiomInserter, axiomDeleter);
 
 				change.accept(loader);
 				ElkLoadingException error = loader.getError();
@@ -121,6 +121,36 @@ class OwlChangesLoaderFactory implements AxiomLoader.Factory {
 		pendingChanges_.add(change);
 	}
 
+	/**
+	 * Registers the addition of all axioms of the given {@link OWLOntology},
+	 * e.g., when this ontology is added to the imports closure
+	 * 
+	 * @param ontology
+	 */
+	synchronized void registerAddition(OWLOntology ontology) {
+		LOGGER_.trace("Registering addition of: {}", ontology);
+
+		for (OWLAxiom axiom : ontology.getAxioms()) {
+			if (OWL_CONVERTER_.isRelevantAxiom(axiom))
+				pendingChanges_.add(new AddAxiom(ontology, axiom));
+		}
+	}
+
+	/**
+	 * Registers the removal of all axioms of the given {@link OWLOntology},
+	 * e.g., when this ontology is removed from the imports closure
+	 * 
+	 * @param ontology
+	 */
+	synchronized void registerRemoval(OWLOntology ontology) {
+		LOGGER_.trace("Registering removal of: {}", ontology);
+
+		for (OWLAxiom axiom : ontology.getAxioms()) {
+			if (OWL_CONVERTER_.isRelevantAxiom(axiom))
+				pendingChanges_.add(new RemoveAxiom(ontology, axiom));
+		}
+	}
+
 	Set<OWLAxiom> getPendingAxiomAdditions() {
 		Set<OWLAxiom> added = new HashSet<OWLAxiom>();
 		for (OWLOntologyChange change : pendingChanges_) {
@@ -141,8 +171,8 @@ class OwlChangesLoaderFactory implements AxiomLoader.Factory {
 		return removed;
 	}
 
-	List<OWLOntologyChange> getPendingChanges() {
-		return pendingChanges_;
+	synchronized List<OWLOntologyChange> getPendingChanges() {
+		return new ArrayList<OWLOntologyChange>(pendingChanges_);
 	}
 
 	private class Loader extends AbstractAxiomLoader {
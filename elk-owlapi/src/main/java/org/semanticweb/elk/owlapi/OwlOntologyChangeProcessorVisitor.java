@@ -88,29 +88,40 @@ class OwlOntologyChangeProcessorVisitor implements
 
 	}
 
+	/**
+	 * Changes that do not add or remove axioms; the changes of the imports
+	 * closure are registered as axiom changes of the respective ontologies.
+	 * 
+	 * @param change
+	 */
+	protected void ignore(OWLOntologyChange change) {
+		if (LOGGER_.isTraceEnabled())
+			LOGGER_.trace("ignoring " + change);
+	}
+
 	@Override
 	public void visit(SetOntologyID change) {
-		defaultVisit(change);
+		ignore(change);
 	}
 
 	@Override
 	public void visit(AddImport change) {
-		defaultVisit(change);
+		ignore(change);
 	}
 
 	@Override
 	public void visit(RemoveImport change) {
-		defaultVisit(change);
+		ignore(change);
 	}
 
 	@Override
 	public void visit(AddOntologyAnnotation change) {
-		defaultVisit(change);
+		ignore(change);
 	}
 
 	@Override
 	public void visit(RemoveOntologyAnnotation change) {
-		defaultVisit(change);
+		ignore(change);
 	}
 
 }
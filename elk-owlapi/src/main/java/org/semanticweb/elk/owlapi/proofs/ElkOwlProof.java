@@ -22,6 +22,7 @@
 package org.semanticweb.elk.owlapi.proofs;
 
 import java.util.Collection;
+import java.util.Collections;
 
 import org.liveontologies.puli.BaseProof;
 import org.liveontologies.puli.GenericDynamicProof;
@@ -36,6 +37,7 @@ import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owlapi.ElkConverter;
 import org.semanticweb.elk.owlapi.ElkReasoner;
 import org.semanticweb.elk.owlapi.wrapper.OwlConverter;
+import org.semanticweb.elk.reasoner.Reasoner;
 import org.semanticweb.elk.reasoner.entailments.model.EntailmentProof;
 import org.semanticweb.elk.reasoner.query.EntailmentQueryResult;
 import org.semanticweb.elk.reasoner.query.ProperEntailmentQueryResult;
@@ -101,8 +103,10 @@ public class ElkOwlProof extends BaseProof<OWLAxiom, ElkOwlInference>
 		try {
 
 			final ElkAxiom elkAxiom = owlConverter.convert(owlEntailment_);
-			final EntailmentQueryResult result = elkReasoner_
-					.getInternalReasoner().isEntailed(elkAxiom);
+			final Reasoner reasoner = elkReasoner_.getInternalReasoner();
+			// trace all conclusions used in the proof in one go
+			reasoner.explainEntailments(Collections.singleton(elkAxiom));
+			final EntailmentQueryResult result = reasoner.isEntailed(elkAxiom);
 			result.accept(ENTAILMENT_QUERY_RESULT_VISITOR);
 
 		} catch (final ElkException e) {
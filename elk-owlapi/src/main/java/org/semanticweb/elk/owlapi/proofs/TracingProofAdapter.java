@@ -39,7 +39,6 @@ import org.liveontologies.puli.Inference;
 import org.liveontologies.puli.InferenceJustifier;
 import org.liveontologies.puli.ModifiableProof;
 import org.liveontologies.puli.Proof;
-import org.liveontologies.puli.Proofs;
 import org.semanticweb.elk.exceptions.ElkException;
 import org.semanticweb.elk.exceptions.ElkRuntimeException;
 import org.semanticweb.elk.owl.interfaces.ElkAxiom;
@@ -60,7 +59,6 @@ import org.semanticweb.elk.reasoner.tracing.ConclusionBaseFactory;
 import org.semanticweb.elk.reasoner.tracing.DummyConclusionVisitor;
 import org.semanticweb.elk.reasoner.tracing.TracingInference;
 import org.semanticweb.elk.reasoner.tracing.TracingInferencePremiseVisitor;
-import org.semanticweb.elk.reasoner.tracing.TracingProof;
 import org.semanticweb.elk.util.collections.ArrayHashSet;
 import org.semanticweb.elk.util.collections.Operations;
 import org.semanticweb.owlapi.model.OWLAxiom;
@@ -141,7 +139,7 @@ public class TracingProofAdapter
 	private void convertEntailmentInferences(final Entailment goal,
 			final EntailmentProof evidence) {
 
-		final List<TracingProof> tracingProofs = new ArrayList<TracingProof>();
+		final List<Conclusion> reasons = new ArrayList<Conclusion>();
 
 		final Set<Entailment> done = new ArrayHashSet<Entailment>();
 		final Queue<Entailment> toDo = new LinkedList<Entailment>();
@@ -158,11 +156,7 @@ public class TracingProofAdapter
 				entailmentProof_.produce(wrapEntailmentInference(inf));
 				final Conclusion reason = getReason(inf);
 				if (reason != null) {
-					try {
-						tracingProofs.add(reasoner_.explainConclusion(reason));
-					} catch (final ElkException e) {
-						throw new ElkRuntimeException(e);
-					}
+					reasons.add(reason);
 				}
 
 				for (final Entailment premise : inf.getPremises()) {
@@ -178,11 +172,17 @@ public class TracingProofAdapter
 		 * TODO: Remove after tracing caching is finished.
 		 * 
 		 * This is to avoid completing tracing stage each time tracing
-		 * inferences are requested. After tracing caching is finished, tracing
+		 * inferences are requested. All reasons are traced together, so that
+		 * the tracing stage is completed only once and the conclusions are
+		 * traced in parallel. After tracing caching is finished, tracing
 		 * stage will not be completed if the inferences are cached, so
 		 * reasoner_.explainConclusion() can be called on demand.
 		 */
-		this.tracingProof_ = Proofs.union(tracingProofs);
+		try {
+			this.tracingProof_ = reasoner_.explainConclusions(reasons);
+		} catch (final ElkException e) {
+			throw new ElkRuntimeException(e);
+		}
 
 	}
 
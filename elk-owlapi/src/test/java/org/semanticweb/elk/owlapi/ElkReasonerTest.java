@@ -24,6 +24,7 @@ package org.semanticweb.elk.owlapi;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -34,7 +35,10 @@ import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.owlapi.model.AddAxiom;
 import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClass;
@@ -43,11 +47,14 @@ import org.semanticweb.owlapi.model.OWLImportsDeclaration;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyID;
 import org.semanticweb.owlapi.model.OWLOntologyIRIMapper;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 import org.semanticweb.owlapi.model.PrefixManager;
+import org.semanticweb.owlapi.model.RemoveAxiom;
 import org.semanticweb.owlapi.model.RemoveImport;
+import org.semanticweb.owlapi.model.SetOntologyID;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 import org.semanticweb.owlapi.util.DefaultPrefixManager;
@@ -63,6 +70,13 @@ import uk.ac.manchester.cs.owl.owlapi.OWLImportsDeclarationImpl;
  */
 public class ElkReasonerTest {
 
+	private static final IRI MAIN_IRI_ = IRI
+			.create("http://www.example.com/main");
+	private static final IRI EXT_IRI_ = IRI
+			.create("http://www.example.com/ext");
+	private static final PrefixManager PM_ = new DefaultPrefixManager(
+			"http://www.example.com/main#");
+
 	/**
 	 * Testing correctness of the reasoner with respect to ontology changes
 	 * 
@@ -402,7 +416,257 @@ public class ElkReasonerTest {
 		}
 
 	}
-	
+
+
+	/**
+	 * Testing that adding and removing import declarations, as well as
+	 * changing ontology annotations, is applied incrementally without
+	 * reloading the ontology
+	 */
+	@Test
+	public void testAddingRemovingImportWithoutReload() throws Exception {
+
+		OWLOntologyManager man = TestOWLManager.createOWLOntologyManager();
+		OWLDataFactory dataFactory = man.getOWLDataFactory();
+
+		OWLClass x = dataFactory.getOWLClass(":X", PM_);
+		OWLClass y = dataFactory.getOWLClass(":Y", PM_);
+		OWLClass z = dataFactory.getOWLClass(":Z", PM_);
+
+		OWLOntology main = man.createOntology(MAIN_IRI_);
+		man.addAxiom(main, dataFactory.getOWLSubClassOfAxiom(x, y));
+		OWLOntology ext = man.createOntology(EXT_IRI_);
+		man.addAxiom(ext, dataFactory.getOWLSubClassOfAxiom(y, z));
+
+		ElkReasoner reasoner = new ElkReasonerFactory().createReasoner(main);
+		Reasoner internalReasoner = reasoner.getInternalReasoner();
+
+		try {
+
+			assertFalse(reasoner.getSuperClasses(x, false).containsEntity(z));
+
+			OWLImportsDeclaration importExt = dataFactory
+					.getOWLImportsDeclaration(EXT_IRI_);
+			man.applyChange(new AddImport(main, importExt));
+			man.applyChange(new AddOntologyAnnotation(main,
+					dataFactory.getOWLAnnotation(dataFactory.getRDFSComment(),
+							dataFactory.getOWLLiteral("comment"))));
+			reasoner.flush();
+
+			assertSame(internalReasoner, reasoner.getInternalReasoner());
+			assertEquals(2, main.getImportsClosure().size());
+			assertTrue(reasoner.getSuperClasses(x, false).containsEntity(z));
+
+			man.applyChange(new RemoveImport(main, importExt));
+			reasoner.flush();
+
+			assertSame(internalReasoner, reasoner.getInternalReasoner());
+			assertEquals(1, main.getImportsClosure().size());
+			assertTrue(reasoner.getSuperClasses(x, true).containsEntity(y));
+			assertFalse(reasoner.getSuperClasses(x, false).containsEntity(z));
+			assertFalse(reasoner.getSuperClasses(y, false).containsEntity(z));
+
+		} finally {
+			reasoner.dispose();
+		}
+
+	}
+
+	/**
+	 * Testing that changes of ontology IDs are applied incrementally without
+	 * reloading the ontology
+	 * <p>
+	 * renaming an ontology to the IRI imported by the root ontology, and
+	 * renaming the root ontology together with changing its axioms
+	 */
+	@Test
+	public void testSetOntologyIdWithoutReload() throws Exception {
+
+		OWLOntologyManager man = TestOWLManager.createOWLOntologyManager();
+		OWLDataFactory dataFactory = man.getOWLDataFactory();
+
+		OWLClass x = dataFactory.getOWLClass(":X", PM_);
+		OWLClass y = dataFactory.getOWLClass(":Y", PM_);
+		OWLClass z = dataFactory.getOWLClass(":Z", PM_);
+		OWLClass w = dataFactory.getOWLClass(":W", PM_);
+
+		IRI renamedIri = IRI.create("http://www.example.com/renamed");
+		OWLOntology main = man.createOntology(MAIN_IRI_);
+		man.addAxiom(main, dataFactory.getOWLSubClassOfAxiom(x, y));
+		man.applyChange(new AddImport(main,
+				dataFactory.getOWLImportsDeclaration(renamedIri)));
+		OWLOntology ext = man.createOntology(EXT_IRI_);
+		man.addAxiom(ext, dataFactory.getOWLSubClassOfAxiom(y, z));
+
+		ElkReasoner reasoner = new ElkReasonerFactory().createReasoner(main);
+		Reasoner internalReasoner = reasoner.getInternalReasoner();
+
+		try {
+
+			assertFalse(reasoner.getSuperClasses(x, false).containsEntity(z));
+
+			man.applyChange(
+					new SetOntologyID(ext, new OWLOntologyID(renamedIri)));
+			reasoner.flush();
+
+			assertSame(internalReasoner, reasoner.getInternalReasoner());
+			assertEquals(2, main.getImportsClosure().size());
+			assertTrue(reasoner.getSuperClasses(x, false).containsEntity(z));
+
+			List<OWLOntologyChange> changes = new ArrayList<OWLOntologyChange>();
+			changes.add(new SetOntologyID(main, new OWLOntologyID(
+					IRI.create("http://www.example.com/main2"))));
+			changes.add(new AddAxiom(main,
+					dataFactory.getOWLSubClassOfAxiom(z, w)));
+			man.applyChanges(changes);
+			reasoner.flush();
+
+			assertSame(internalReasoner, reasoner.getInternalReasoner());
+			assertEquals(2, main.getImportsClosure().size());
+			assertTrue(reasoner.getSuperClasses(x, false).containsEntity(w));
+
+			// the axioms of the renamed ontology should not be loaded twice
+			man.removeAxiom(main, dataFactory.getOWLSubClassOfAxiom(x, y));
+			reasoner.flush();
+
+			assertFalse(reasoner.getSuperClasses(x, false).containsEntity(y));
+			man.addAxiom(main, dataFactory.getOWLSubClassOfAxiom(x, y));
+
+			man.applyChange(new SetOntologyID(ext, new OWLOntologyID(EXT_IRI_)));
+			reasoner.flush();
+
+			assertSame(internalReasoner, reasoner.getInternalReasoner());
+			assertEquals(1, main.getImportsClosure().size());
+			assertFalse(reasoner.getSuperClasses(x, false).containsEntity(z));
+			assertFalse(reasoner.getSuperClasses(x, false).containsEntity(w));
+
+		} finally {
+			reasoner.dispose();
+		}
+
+	}
+
+	/**
+	 * Testing that axiom changes of ontologies that enter or leave the imports
+	 * closure in the same batch of changes are applied exactly once
+	 */
+	@Test
+	public void testAxiomChangesWithImportChangesInOneBatch()
+			throws Exception {
+
+		OWLOntologyManager man = TestOWLManager.createOWLOntologyManager();
+		OWLDataFactory dataFactory = man.getOWLDataFactory();
+
+		OWLClass x = dataFactory.getOWLClass(":X", PM_);
+		OWLClass y = dataFactory.getOWLClass(":Y", PM_);
+		OWLClass z = dataFactory.getOWLClass(":Z", PM_);
+		OWLClass w = dataFactory.getOWLClass(":W", PM_);
+		OWLClass v = dataFactory.getOWLClass(":V", PM_);
+
+		OWLOntology main = man.createOntology(MAIN_IRI_);
+		man.addAxiom(main, dataFactory.getOWLSubClassOfAxiom(x, y));
+		OWLOntology ext = man.createOntology(EXT_IRI_);
+		man.addAxiom(ext, dataFactory.getOWLSubClassOfAxiom(y, z));
+		OWLImportsDeclaration importExt = dataFactory
+				.getOWLImportsDeclaration(EXT_IRI_);
+
+		ElkReasoner reasoner = new ElkReasonerFactory()
+				.createNonBufferingReasoner(main);
+		Reasoner internalReasoner = reasoner.getInternalReasoner();
+
+		try {
+
+			assertFalse(reasoner.getSuperClasses(x, false).containsEntity(z));
+
+			// the axiom is added to the ontology before it is imported
+			List<OWLOntologyChange> changes = new ArrayList<OWLOntologyChange>();
+			changes.add(new AddAxiom(ext,
+					dataFactory.getOWLSubClassOfAxiom(z, w)));
+			changes.add(new AddImport(main, importExt));
+			man.applyChanges(changes);
+
+			assertSame(internalReasoner, reasoner.getInternalReasoner());
+			assertTrue(reasoner.getSuperClasses(x, false).containsEntity(z));
+			assertTrue(reasoner.getSuperClasses(x, false).containsEntity(w));
+
+			// the axiom is added to the ontology before it is no longer
+			// imported
+			changes.clear();
+			changes.add(new AddAxiom(ext,
+					dataFactory.getOWLSubClassOfAxiom(w, v)));
+			changes.add(new RemoveImport(main, importExt));
+			man.applyChanges(changes);
+
+			assertSame(internalReasoner, reasoner.getInternalReasoner());
+			assertFalse(reasoner.getSuperClasses(x, false).containsEntity(z));
+			assertFalse(reasoner.getSuperClasses(x, false).containsEntity(v));
+			assertFalse(reasoner.getSuperClasses(w, false).containsEntity(v));
+
+			// the axiom is removed from the ontology before it is imported
+			changes.clear();
+			changes.add(new RemoveAxiom(ext,
+					dataFactory.getOWLSubClassOfAxiom(z, w)));
+			changes.add(new AddImport(main, importExt));
+			man.applyChanges(changes);
+
+			assertSame(internalReasoner, reasoner.getInternalReasoner());
+			assertTrue(reasoner.getSuperClasses(x, false).containsEntity(z));
+			assertFalse(reasoner.getSuperClasses(x, false).containsEntity(w));
+			assertTrue(reasoner.getSuperClasses(w, true).containsEntity(v));
+
+		} finally {
+			reasoner.dispose();
+		}
+
+	}
+
+	/**
+	 * Testing that converted nodes are reused until the ontology changes
+	 */
+	@Test
+	public void testNodeConversionCache() throws Exception {
+
+		OWLOntologyManager man = TestOWLManager.createOWLOntologyManager();
+		OWLDataFactory dataFactory = man.getOWLDataFactory();
+
+		// set up resolution of prefixes
+		PrefixManager pm = new DefaultPrefixManager();
+		pm.setDefaultPrefix("http://www.example.com/main#");
+		pm.setPrefix("A:", "http://www.example.com/A#");
+
+		// define query classes
+		OWLClass mainX = dataFactory.getOWLClass(":X", pm);
+		OWLClass mainY = dataFactory.getOWLClass(":Y", pm);
+		OWLClass extA = dataFactory.getOWLClass("A:A", pm);
+
+		// loading the root ontology
+		OWLOntology root = loadOntology(man, "root.owl");
+
+		// Create an ELK reasoner.
+		OWLReasoner reasoner = new ElkReasonerFactory().createReasoner(root);
+
+		try {
+
+			org.semanticweb.owlapi.reasoner.Node<OWLClass> node = reasoner
+					.getEquivalentClasses(mainY);
+			assertSame(node, reasoner.getEquivalentClasses(mainY));
+			assertFalse(node.contains(mainX));
+
+			// make :X and :Y equivalent
+			man.addAxiom(root, dataFactory.getOWLSubClassOfAxiom(mainY, mainX));
+			reasoner.flush();
+
+			node = reasoner.getEquivalentClasses(mainY);
+			assertTrue(node.contains(mainX));
+			assertSame(node, reasoner.getEquivalentClasses(mainX));
+			assertTrue(reasoner.getSuperClasses(mainY, true).containsEntity(
+					extA));
+
+		} finally {
+			reasoner.dispose();
+		}
+
+	}	
 	
 	/**
 	 * Testing correctness of the reasoner when changes are made to other, imported or not, ontologies
@@ -0,0 +1,244 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits an ontology document in OWL 2 functional-style syntax into chunks of
+ * text that can be parsed independently. The document is split only at the
+ * boundaries of the top-level elements of the ontology, such as axioms, so
+ * every chunk, when enclosed within {@code Ontology(} and {@code )} and
+ * provided with the prefix declarations of the document, forms a document
+ * that can be parsed on its own. The splitter only tracks the nesting of
+ * brackets; the brackets within full IRIs, quoted strings, and comments are
+ * ignored. Comments are not included in the returned text.
+ */
+class Owl2FunctionalStyleSplitter {
+
+	private static final String ONTOLOGY_KEYWORD_ = "Ontology";
+
+	private static final int BUFFER_SIZE_ = 1 << 13;
+
+	/**
+	 * the lexical states in which brackets are ignored
+	 */
+	private static final int DEFAULT_ = 0, FULL_IRI_ = 1, QUOTED_STRING_ = 2,
+			QUOTED_STRING_ESCAPE_ = 3, COMMENT_ = 4;
+
+	private final Reader reader_;
+
+	/**
+	 * the minimal length of the chunks after which the chunk is closed at the
+	 * next top-level element
+	 */
+	private final int chunkLength_;
+
+	private final char[] buffer_;
+
+	private int bufferPos_ = 0, bufferSize_ = 0;
+
+	private int state_ = DEFAULT_;
+
+	/**
+	 * the number of currently open brackets
+	 */
+	private int depth_ = 0;
+
+	/**
+	 * {@code true} if the beginning of the ontology has been found by
+	 * {@link #readHeader()}
+	 */
+	private boolean ontologyFound_ = false;
+
+	/**
+	 * {@code true} if the end of the ontology or the input has been reached
+	 */
+	private boolean finished_ = false;
+
+	/**
+	 * @param reader
+	 *            the {@link Reader} from which the document is read
+	 * @param chunkLength
+	 *            the minimal number of characters in chunks; only the last
+	 *            chunk can be shorter
+	 */
+	Owl2FunctionalStyleSplitter(Reader reader, int chunkLength) {
+		this.reader_ = reader;
+		this.chunkLength_ = chunkLength;
+		this.buffer_ = new char[BUFFER_SIZE_];
+	}
+
+	/**
+	 * Reads the beginning of the document until the opening bracket of the
+	 * ontology. This method should be called before {@link #nextChunk()}.
+	 * 
+	 * @return the text preceding the ontology, which consists of the prefix
+	 *         declarations, or the text of the whole document if the ontology
+	 *         could not be found
+	 * @throws IOException
+	 *             if the document cannot be read
+	 * @see #isOntologyFound()
+	 */
+	String readHeader() throws IOException {
+		StringBuilder header = new StringBuilder();
+		int elementStart = 0;
+		for (;;) {
+			switch (nextBracket(header)) {
+			case -1:
+				finished_ = true;
+				return header.toString();
+			case '(':
+				if (depth_++ == 0 && header
+						.substring(elementStart, header.length() - 1).trim()
+						.equals(ONTOLOGY_KEYWORD_)) {
+					ontologyFound_ = true;
+					return header.substring(0, elementStart);
+				}
+				break;
+			case ')':
+				if (--depth_ == 0) {
+					elementStart = header.length();
+				}
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * @return {@code true} if {@link #readHeader()} has found the beginning of
+	 *         the ontology
+	 */
+	boolean isOntologyFound() {
+		return ontologyFound_;
+	}
+
+	/**
+	 * @return the text of the next consecutive top-level elements of the
+	 *         ontology, or {@code null} if all elements have been returned
+	 * @throws IOException
+	 *             if the document cannot be read
+	 */
+	String nextChunk() throws IOException {
+		if (finished_) {
+			return null;
+		}
+		StringBuilder chunk = new StringBuilder(chunkLength_);
+		for (;;) {
+			switch (nextBracket(chunk)) {
+			case -1:
+				finished_ = true;
+				return chunk.toString();
+			case '(':
+				depth_++;
+				break;
+			case ')':
+				if (--depth_ == 0) {
+					// the end of the ontology
+					finished_ = true;
+					chunk.setLength(chunk.length() - 1);
+					return chunk.toString();
+				}
+				if (depth_ == 1 && chunk.length() >= chunkLength_) {
+					return chunk.toString();
+				}
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Appends the characters of the document to the given
+	 * {@link StringBuilder} until the next bracket that is not a part of a full
+	 * IRI, a quoted string, or a comment; comments are not appended
+	 * 
+	 * @param output
+	 * @return the found bracket or -1 if the end of the input is reached
+	 * @throws IOException
+	 */
+	private int nextBracket(StringBuilder output) throws IOException {
+		for (;;) {
+			if (bufferPos_ == bufferSize_) {
+				bufferSize_ = reader_.read(buffer_);
+				bufferPos_ = 0;
+				if (bufferSize_ < 0) {
+					bufferSize_ = 0;
+					return -1;
+				}
+				continue;
+			}
+			char c = buffer_[bufferPos_++];
+			switch (state_) {
+			case DEFAULT_:
+				switch (c) {
+				case '(':
+				case ')':
+					output.append(c);
+					return c;
+				case '<':
+					state_ = FULL_IRI_;
+					break;
+				case '"':
+					state_ = QUOTED_STRING_;
+					break;
+				case '#':
+					state_ = COMMENT_;
+					continue;
+				default:
+					break;
+				}
+				break;
+			case FULL_IRI_:
+				if (c == '>') {
+					state_ = DEFAULT_;
+				}
+				break;
+			case QUOTED_STRING_:
+				if (c == '\\') {
+					state_ = QUOTED_STRING_ESCAPE_;
+				} else if (c == '"') {
+					state_ = DEFAULT_;
+				}
+				break;
+			case QUOTED_STRING_ESCAPE_:
+				state_ = QUOTED_STRING_;
+				break;
+			case COMMENT_:
+				if (c != '\n' && c != '\r') {
+					continue;
+				}
+				state_ = DEFAULT_;
+				break;
+			default:
+				throw new IllegalStateException(
+						"Unknown lexical state: " + state_);
+			}
+			output.append(c);
+		}
+	}
+
+}
@@ -0,0 +1,492 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.semanticweb.elk.owl.implementation.ElkObjectBaseFactory;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.iris.ElkPrefix;
+import org.semanticweb.elk.owl.parsing.Owl2ParseException;
+import org.semanticweb.elk.owl.parsing.Owl2Parser;
+import org.semanticweb.elk.owl.parsing.Owl2ParserAxiomProcessor;
+import org.semanticweb.elk.owl.parsing.Owl2ParserFactory;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
+
+/**
+ * An {@link AxiomLoader} that loads an ontology in OWL 2 functional-style
+ * syntax using several {@link Owl2Parser}s running concurrently. The document
+ * is read by a separate thread, which splits the ontology at the boundaries of
+ * axioms into chunks of text using {@link Owl2FunctionalStyleSplitter}. The
+ * chunks are parsed by the parser threads, each using a new {@link Owl2Parser}
+ * created by the provided {@link Owl2ParserFactory} and provided with the
+ * prefix declarations of the document. The parsed axioms are passed in
+ * batches to {@link #load(ElkAxiomProcessor, ElkAxiomProcessor)}, which
+ * inserts them in the calling thread since the indexing is not thread-safe.
+ * When no batch is ready, the calling thread takes the next chunk itself and
+ * inserts the axioms directly while parsing it; the order of axioms is,
+ * therefore, not preserved.
+ * <p>
+ * Since the parsers are used concurrently, the {@link Owl2ParserFactory}
+ * should create objects using a thread-safe factory such as
+ * {@link ElkObjectBaseFactory}.
+ * 
+ * @see Owl2StreamLoader
+ */
+public class Owl2ParallelStreamLoader extends AbstractAxiomLoader
+		implements AxiomLoader {
+
+	/**
+	 * the default minimal number of characters in chunks parsed at once
+	 */
+	public static final int DEFAULT_CHUNK_LENGTH = 1 << 16;
+
+	/**
+	 * the maximum number of axioms in the exchange batch
+	 */
+	private static final int BATCH_LENGTH_ = 128;
+
+	/**
+	 * a special chunk to inform the parser threads that all chunks are
+	 * submitted
+	 */
+	private static final String POISON_CHUNK_ = new String();
+
+	/**
+	 * a special batch to detect that a parser thread has finished
+	 */
+	private static final ArrayList<ElkAxiom> POISON_BATCH_ = new ArrayList<ElkAxiom>(
+			1);
+
+	/**
+	 * used to create parsers for the chunks
+	 */
+	private final Owl2ParserFactory parserFactory_;
+	/**
+	 * the source of the ontology
+	 */
+	private final Reader reader_;
+	/**
+	 * the minimal number of characters in chunks
+	 */
+	private final int chunkLength_;
+	/**
+	 * a bounded queue through which the chunks are passed from the splitter to
+	 * the parser threads
+	 */
+	private final BlockingQueue<String> chunkExchanger_;
+	/**
+	 * a bounded queue through which batches of axioms are passed from the
+	 * parser threads to the axiom loader
+	 */
+	private final BlockingQueue<ArrayList<ElkAxiom>> axiomExchanger_;
+	/**
+	 * the thread in which the document is split into chunks
+	 */
+	private final Thread splitterThread_;
+	/**
+	 * the threads in which the chunks are parsed
+	 */
+	private final Thread[] parserThreads_;
+	/**
+	 * the prefixes declared in the document; assigned before the first chunk
+	 * is submitted
+	 */
+	private volatile List<ElkPrefix> prefixes_;
+	/**
+	 * {@code true} if the threads have started
+	 */
+	private boolean started_;
+	/**
+	 * the number of parser threads from which all axioms have been loaded
+	 */
+	private int finishedParsersCount_;
+	/**
+	 * {@code true} if all axioms have been loaded
+	 */
+	private volatile boolean finished_;
+	/**
+	 * the first exception created if something goes wrong
+	 */
+	private final AtomicReference<ElkLoadingException> exception_;
+
+	/**
+	 * Creates an {@link Owl2ParallelStreamLoader} which loads the ontology
+	 * from the given {@link Reader} using the given number of parser threads.
+	 * 
+	 * @param interrupter
+	 *            the {@link InterruptMonitor} that is checked for interruptions
+	 * @param parserFactory
+	 *            the {@link Owl2ParserFactory} used to create parsers for
+	 *            chunks
+	 * @param reader
+	 *            the source of the ontology in functional-style syntax
+	 * @param parserCount
+	 *            the number of threads parsing the chunks concurrently
+	 * @param chunkLength
+	 *            the minimal number of characters in chunks
+	 */
+	public Owl2ParallelStreamLoader(final InterruptMonitor interrupter,
+			Owl2ParserFactory parserFactory, Reader reader, int parserCount,
+			int chunkLength) {
+		super(interrupter);
+		if (parserCount <= 0) {
+			throw new IllegalArgumentException(
+					"The number of parsers must be positive: " + parserCount);
+		}
+		this.parserFactory_ = parserFactory;
+		this.reader_ = reader;
+		this.chunkLength_ = chunkLength;
+		this.chunkExchanger_ = new ArrayBlockingQueue<String>(2 * parserCount);
+		this.axiomExchanger_ = new ArrayBlockingQueue<ArrayList<ElkAxiom>>(
+				4 * parserCount);
+		this.splitterThread_ = new Thread(new Splitter(),
+				"elk-splitter-thread");
+		splitterThread_.setDaemon(true);
+		this.parserThreads_ = new Thread[parserCount];
+		for (int i = 0; i < parserCount; i++) {
+			Thread parserThread = new Thread(new Parser(),
+					"elk-parser-thread-" + i);
+			parserThread.setDaemon(true);
+			parserThreads_[i] = parserThread;
+		}
+		this.started_ = false;
+		this.finishedParsersCount_ = 0;
+		this.finished_ = false;
+		this.exception_ = new AtomicReference<ElkLoadingException>();
+	}
+
+	public Owl2ParallelStreamLoader(final InterruptMonitor interrupter,
+			Owl2ParserFactory parserFactory, Reader reader, int parserCount) {
+		this(interrupter, parserFactory, reader, parserCount,
+				DEFAULT_CHUNK_LENGTH);
+	}
+
+	@Override
+	public synchronized void load(ElkAxiomProcessor axiomInserter,
+			ElkAxiomProcessor axiomDeleter) throws ElkLoadingException {
+		if (finished_)
+			return;
+
+		if (!started_) {
+			splitterThread_.start();
+			for (Thread parserThread : parserThreads_) {
+				parserThread.start();
+			}
+			started_ = true;
+		}
+
+		ArrayList<ElkAxiom> nextBatch;
+		Owl2ParserAxiomProcessor chunkInserter = new ChunkInserter(
+				axiomInserter);
+
+		for (;;) {
+			if (isInterrupted())
+				break;
+			try {
+				nextBatch = axiomExchanger_.poll();
+				if (nextBatch == null) {
+					String chunk = chunkExchanger_.poll();
+					if (chunk == POISON_CHUNK_) {
+						// leave it for the parser threads
+						chunkExchanger_.put(chunk);
+					} else if (chunk != null) {
+						parseChunk(chunk, chunkInserter);
+						continue;
+					}
+					nextBatch = axiomExchanger_.take();
+				}
+			} catch (InterruptedException e) {
+				/*
+				 * we don't know for sure why the thread was interrupted, so we
+				 * need to obey; if interrupt was not relevant, the process will
+				 * restart; we need to restore the interrupt status so that the
+				 * called methods know that there was an interrupt
+				 */
+				Thread.currentThread().interrupt();
+				break;
+			}
+			if (nextBatch == POISON_BATCH_) {
+				if (++finishedParsersCount_ == parserThreads_.length) {
+					finished_ = true;
+					break;
+				}
+				continue;
+			}
+			for (int i = 0; i < nextBatch.size(); i++) {
+				ElkAxiom axiom = nextBatch.get(i);
+				axiomInserter.visit(axiom);
+			}
+		}
+		ElkLoadingException exception = exception_.get();
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+	@Override
+	public boolean isLoadingFinished() {
+		return finished_;
+	}
+
+	@Override
+	public synchronized void dispose() {
+		disposeParserResources();
+		this.chunkExchanger_.clear();
+		this.axiomExchanger_.clear();
+	}
+
+	/**
+	 * Frees the resources used by the parsers
+	 */
+	protected void disposeParserResources() {
+		try {
+			reader_.close();
+		} catch (IOException e) {
+			setException(new ElkLoadingException(
+					"Cannot close the input stream!", e));
+		}
+	}
+
+	/**
+	 * Parses the given chunk using a new {@link Owl2Parser} declared with the
+	 * prefixes of the document and passes the axioms to the given
+	 * {@link Owl2ParserAxiomProcessor}; the errors are remembered
+	 * 
+	 * @param chunk
+	 * @param processor
+	 */
+	private void parseChunk(String chunk, Owl2ParserAxiomProcessor processor) {
+		if (exception_.get() != null) {
+			// skip the remaining chunks
+			return;
+		}
+		try {
+			Owl2Parser parser = parserFactory_
+					.getParser(new StringReader("Ontology(" + chunk + ")"));
+			for (ElkPrefix prefix : prefixes_) {
+				parser.declarePrefix(prefix);
+			}
+			parser.accept(processor);
+		} catch (Throwable e) {
+			setException(
+					new ElkLoadingException("Cannot load the ontology!", e));
+		}
+	}
+
+	/**
+	 * Remembers the given exception if no exception has been remembered before
+	 * 
+	 * @param exception
+	 */
+	private void setException(ElkLoadingException exception) {
+		exception_.compareAndSet(null, exception);
+	}
+
+	/**
+	 * Reads the document and submits the chunks for parsing
+	 */
+	private class Splitter implements Runnable {
+		@Override
+		public void run() {
+			try {
+				Owl2FunctionalStyleSplitter splitter = new Owl2FunctionalStyleSplitter(
+						reader_, chunkLength_);
+				String header = splitter.readHeader();
+				PrefixCollector prefixCollector = new PrefixCollector();
+				/*
+				 * if the ontology is not found, the header is parsed as it is
+				 * to report the error
+				 */
+				parserFactory_.getParser(new StringReader(
+						splitter.isOntologyFound() ? header + "Ontology()"
+								: header))
+						.accept(prefixCollector);
+				prefixes_ = prefixCollector.prefixes_;
+				String chunk;
+				while (exception_.get() == null
+						&& (chunk = splitter.nextChunk()) != null) {
+					chunkExchanger_.put(chunk);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Throwable e) {
+				setException(new ElkLoadingException(
+						"Cannot load the ontology!", e));
+			}
+			try {
+				for (int i = 0; i < parserThreads_.length; i++) {
+					chunkExchanger_.put(POISON_CHUNK_);
+				}
+			} catch (InterruptedException e) {
+				/*
+				 * we don't know what is causing this but we need to obey;
+				 * consistency of the computation for such interrupt is not
+				 * guaranteed; restore the interrupt status and exit
+				 */
+				Thread.currentThread().interrupt();
+			} finally {
+				disposeParserResources();
+			}
+		}
+	}
+
+	/**
+	 * The parser worker used to parse the chunks of the ontology
+	 */
+	private class Parser implements Runnable {
+		@Override
+		public void run() {
+			try {
+				for (;;) {
+					String chunk = chunkExchanger_.take();
+					if (chunk == POISON_CHUNK_) {
+						break;
+					}
+					parseChunk(chunk, new Owl2ParserLoader.AxiomInserter(
+							axiomExchanger_, BATCH_LENGTH_));
+				}
+				axiomExchanger_.put(POISON_BATCH_);
+			} catch (InterruptedException e) {
+				/*
+				 * we don't know what is causing this but we need to obey;
+				 * consistency of the computation for such interrupt is not
+				 * guaranteed; restore the interrupt status and exit
+				 */
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Inserts the axioms of the chunks parsed by the loading thread
+	 */
+	private static class ChunkInserter implements Owl2ParserAxiomProcessor {
+
+		private final ElkAxiomProcessor axiomInserter_;
+
+		ChunkInserter(ElkAxiomProcessor axiomInserter) {
+			this.axiomInserter_ = axiomInserter;
+		}
+
+		@Override
+		public void visit(ElkAxiom elkAxiom) throws Owl2ParseException {
+			axiomInserter_.visit(elkAxiom);
+		}
+
+		@Override
+		public void visit(ElkPrefix elkPrefix) throws Owl2ParseException {
+			// the prefixes are declared in the header
+		}
+
+		@Override
+		public void finish() throws Owl2ParseException {
+			// nothing to do
+		}
+
+	}
+
+	/**
+	 * Collects the prefixes declared in the document
+	 */
+	private static class PrefixCollector implements Owl2ParserAxiomProcessor {
+
+		private final List<ElkPrefix> prefixes_ = new ArrayList<ElkPrefix>();
+
+		@Override
+		public void visit(ElkAxiom elkAxiom) throws Owl2ParseException {
+			// the header does not contain axioms
+		}
+
+		@Override
+		public void visit(ElkPrefix elkPrefix) throws Owl2ParseException {
+			prefixes_.add(elkPrefix);
+		}
+
+		@Override
+		public void finish() throws Owl2ParseException {
+			// nothing to do
+		}
+
+	}
+
+	public static class Factory implements AxiomLoader.Factory {
+
+		private final Owl2ParserFactory parserFactory_;
+		private final Reader reader_;
+		private final int parserCount_;
+
+		public Factory(final Owl2ParserFactory parserFactory,
+				final Reader reader, final int parserCount) {
+			this.parserFactory_ = parserFactory;
+			this.reader_ = reader;
+			this.parserCount_ = parserCount;
+		}
+
+		public Factory(final Owl2ParserFactory parserFactory,
+				final InputStream stream, final int parserCount) {
+			this(parserFactory,
+					new InputStreamReader(stream, Charset.forName("UTF-8")),
+					parserCount);
+		}
+
+		public Factory(final Owl2ParserFactory parserFactory, final File file,
+				final int parserCount) throws FileNotFoundException {
+			this(parserFactory, new FileInputStream(file), parserCount);
+		}
+
+		public Factory(final Owl2ParserFactory parserFactory,
+				final String text, final int parserCount) {
+			this(parserFactory, new StringReader(text), parserCount);
+		}
+
+		public Factory(final Owl2ParserFactory parserFactory, final File file)
+				throws FileNotFoundException {
+			this(parserFactory, file,
+					Runtime.getRuntime().availableProcessors());
+		}
+
+		@Override
+		public Owl2ParallelStreamLoader getAxiomLoader(
+				final InterruptMonitor interrupter) {
+			return new Owl2ParallelStreamLoader(interrupter, parserFactory_,
+					reader_, parserCount_);
+		}
+
+	}
+
+}
@@ -23,37 +23,46 @@
 package org.semanticweb.elk.loading;
 
 import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 
+import org.semanticweb.elk.io.MappedUtf8Reader;
+import org.semanticweb.elk.owl.parsing.Owl2Parser;
 import org.semanticweb.elk.owl.parsing.Owl2ParserFactory;
 import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
 
 /**
  * A {@link AxiomLoader} which loads ontology from streams (e.g., backed by
- * files or strings) using a given {@link Owl2ParserFactory}
+ * files or strings) using a given {@link Owl2ParserFactory}. To read a file
+ * through a {@link MappedUtf8Reader}, pass this reader to
+ * {@link Factory#Factory(Owl2ParserFactory, Reader)}.
  * 
  * @author "Yevgeny Kazakov"
  * @author Peter Skocovsky
  */
 public class Owl2StreamLoader extends Owl2ParserLoader implements AxiomLoader {
 
-	private final InputStream stream_;
+	/**
+	 * the source of the input, which should be closed after loading
+	 */
+	private final Closeable input_;
 
 	private Owl2StreamLoader(final InterruptMonitor interrupter,
-			Owl2ParserFactory parserFactory, InputStream stream) {
-		super(interrupter, parserFactory.getParser(stream));
-		this.stream_ = stream;
+			Owl2Parser parser, Closeable input) {
+		super(interrupter, parser);
+		this.input_ = input;
 	}
 
 	@Override
 	public void disposeParserResources() {
 		super.disposeParserResources();
 		try {
-			stream_.close();
+			input_.close();
 		} catch (IOException e) {
 			exception = new ElkLoadingException(
 					"Cannot close the input stream!", e);
@@ -63,12 +72,25 @@ public class Owl2StreamLoader extends Owl2ParserLoader implements AxiomLoader {
 	public static class Factory implements AxiomLoader.Factory {
 
 		private final Owl2ParserFactory parserFactory_;
+		/**
+		 * the input from which the ontology is loaded; exactly one of them is
+		 * not {@code null}
+		 */
 		private final InputStream stream_;
+		private final Reader reader_;
 
 		public Factory(final Owl2ParserFactory parserFactory,
 				final InputStream stream) {
 			this.parserFactory_ = parserFactory;
 			this.stream_ = stream;
+			this.reader_ = null;
+		}
+
+		public Factory(final Owl2ParserFactory parserFactory,
+				final Reader reader) {
+			this.parserFactory_ = parserFactory;
+			this.stream_ = null;
+			this.reader_ = reader;
 		}
 
 		public Factory(final Owl2ParserFactory parserFactory, final File file)
@@ -84,7 +106,13 @@ public class Owl2StreamLoader extends Owl2ParserLoader implements AxiomLoader {
 		@Override
 		public Owl2StreamLoader getAxiomLoader(
 				final InterruptMonitor interrupter) {
-			return new Owl2StreamLoader(interrupter, parserFactory_, stream_);
+			if (stream_ != null) {
+				return new Owl2StreamLoader(interrupter,
+						parserFactory_.getParser(stream_), stream_);
+			}
+			// else
+			return new Owl2StreamLoader(interrupter,
+					parserFactory_.getParser(reader_), reader_);
 		}
 
 	}
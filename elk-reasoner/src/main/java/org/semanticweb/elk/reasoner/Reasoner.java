@@ -22,6 +22,9 @@
  */
 package org.semanticweb.elk.reasoner;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -106,7 +109,7 @@ public class Reasoner extends AbstractReasonerState {
 	protected Reasoner(ElkObject.Factory elkFactory,
 			final ReasonerInterrupter interrupter,
 			ReasonerStageExecutor stageExecutor, ReasonerConfiguration config) {
-		super(elkFactory);
+		super(elkFactory, config);
 
 		this.stageExecutor_ = stageExecutor;
 		this.interrupter_ = interrupter;
@@ -177,6 +180,18 @@ public class Reasoner extends AbstractReasonerState {
 		setAllowIncrementalMode(config
 				.getParameterAsBoolean(ReasonerConfiguration.INCREMENTAL_MODE_ALLOWED));
 
+		setPublishTaxonomySnapshots(config
+				.getParameterAsBoolean(ReasonerConfiguration.TAXONOMY_SNAPSHOTS));
+
+		setLazyClassTaxonomy(config
+				.getParameterAsBoolean(ReasonerConfiguration.LAZY_CLASS_TAXONOMY));
+
+		setFineTaxonomyCleaning(config
+				.getParameterAsBoolean(ReasonerConfiguration.FINE_TAXONOMY_CLEANING));
+
+		setRealizationGrouping(config
+				.getParameterAsBoolean(ReasonerConfiguration.REALIZATION_GROUPING));
+
 	}
 
 	@Override
@@ -253,6 +268,25 @@ public class Reasoner extends AbstractReasonerState {
 		throw new ElkFreshEntitiesException(elkClass);
 	}
 
+	/**
+	 * Helper method to get a {@link TaxonomyNode} from the taxonomy for which
+	 * the super-nodes are computed. If the lazy class taxonomy is enabled, the
+	 * sub-nodes of this {@link TaxonomyNode} may be incomplete.
+	 * 
+	 * @param elkClass
+	 *            an {@link ElkClass} for which to find a {@link TaxonomyNode}
+	 * @return the {@link TaxonomyNode} for the given {@link ElkClass}
+	 * @see #setLazyClassTaxonomy(boolean)
+	 */
+	protected TaxonomyNode<ElkClass> getSuperTaxonomyNode(ElkClass elkClass)
+			throws ElkException {
+		final TaxonomyNode<ElkClass> node = getPartialTaxonomyNode(elkClass);
+		if (node != null)
+			return node;
+		// else fresh entities are answered using the whole taxonomy
+		return getTaxonomyNode(elkClass);
+	}
+
 	/**
 	 * Helper method to get an {@link InstanceNode} from the taxonomy.
 	 * 
@@ -360,7 +394,7 @@ public class Reasoner extends AbstractReasonerState {
 			ElkClassExpression classExpression)
 			throws ElkInconsistentOntologyException, ElkException {
 		if (classExpression instanceof ElkClass) {
-			return getTaxonomyNode((ElkClass) classExpression);
+			return getSuperTaxonomyNode((ElkClass) classExpression);
 		}
 		// else
 		
@@ -390,6 +424,39 @@ public class Reasoner extends AbstractReasonerState {
 		}
 	}
 
+	/**
+	 * Return the {@code Node}s containing equivalent classes of each of the
+	 * given {@link ElkClassExpression}s. The complex class expressions are
+	 * indexed and their results are computed together, which is considerably
+	 * faster than querying them one by one. Calling of this method may trigger
+	 * the computation of the taxonomy, if it has not been done yet.
+	 * 
+	 * @param classExpressions
+	 *            the {@link ElkClassExpression}s for which to return the
+	 *            {@link Node}s
+	 * @return a map from each given {@link ElkClassExpression} to the
+	 *         {@link Node} whose members are {@link ElkClass}es equivalent to
+	 *         this {@link ElkClassExpression}
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the result cannot be computed
+	 * @see #getEquivalentClasses(ElkClassExpression)
+	 */
+	public synchronized Map<ElkClassExpression, Node<ElkClass>> getEquivalentClasses(
+			final Iterable<? extends ElkClassExpression> classExpressions)
+			throws ElkInconsistentOntologyException, ElkException {
+		final Map<ElkClassExpression, Node<ElkClass>> result = queryEquivalentClasses(
+				getComplexClassExpressions(classExpressions));
+		for (final ElkClassExpression classExpression : classExpressions) {
+			if (classExpression instanceof ElkClass) {
+				result.put(classExpression,
+						getSuperTaxonomyNode((ElkClass) classExpression));
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Return the (direct or indirect) subclasses of the given
 	 * {@link ElkClassExpression} as specified by the parameter. The method
@@ -427,27 +494,7 @@ public class Reasoner extends AbstractReasonerState {
 			}
 			// else all nodes
 
-			final Taxonomy<ElkClass> taxonomy = getTaxonomy();
-
-			return TaxonomyNodeUtils.getAllReachable(Operations.map(subNodes,
-					new Operations.Transformation<Node<ElkClass>, TaxonomyNode<ElkClass>>() {
-
-						@Override
-						public TaxonomyNode<ElkClass> transform(
-								final Node<ElkClass> node) {
-							return taxonomy.getNode(node.getCanonicalMember());
-						}
-
-					}),
-					new Operations.Functor<TaxonomyNode<ElkClass>, Set<? extends TaxonomyNode<ElkClass>>>() {
-
-						@Override
-						public Set<? extends TaxonomyNode<ElkClass>> apply(
-								final TaxonomyNode<ElkClass> node) {
-							return node.getDirectSubNodes();
-						}
-
-					});
+			return getAllSubNodes(subNodes);
 		}
 
 	}
@@ -483,6 +530,46 @@ public class Reasoner extends AbstractReasonerState {
 		}
 	}
 
+	/**
+	 * Return the (direct or indirect) subclasses of each of the given
+	 * {@link ElkClassExpression}s as specified by the parameter. The complex
+	 * class expressions are indexed and their results are computed together,
+	 * which is considerably faster than querying them one by one. Calling of
+	 * this method may trigger the computation of the taxonomy, if it has not
+	 * been done yet.
+	 * 
+	 * @param classExpressions
+	 *            the {@link ElkClassExpression}s for which to return the
+	 *            subclass {@link Node}s
+	 * @param direct
+	 *            if {@code true}, only direct subclasses should be returned
+	 * @return a map from each given {@link ElkClassExpression} to the set of
+	 *         {@link Node}s for its direct or indirect subclasses according to
+	 *         the specified parameter
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the result cannot be computed
+	 * @see #getSubClasses(ElkClassExpression, boolean)
+	 */
+	public synchronized Map<ElkClassExpression, Set<? extends Node<ElkClass>>> getSubClasses(
+			final Iterable<? extends ElkClassExpression> classExpressions,
+			final boolean direct)
+			throws ElkInconsistentOntologyException, ElkException {
+		final Map<ElkClassExpression, Set<? extends Node<ElkClass>>> result = queryDirectSubClasses(
+				getComplexClassExpressions(classExpressions));
+		for (final ElkClassExpression classExpression : classExpressions) {
+			if (classExpression instanceof ElkClass) {
+				result.put(classExpression,
+						getSubClasses(classExpression, direct));
+			} else if (!direct) {
+				result.put(classExpression,
+						getAllSubNodes(result.get(classExpression)));
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Return the (direct or indirect) superclasses of the given
 	 * {@link ElkClassExpression} as specified by the parameter. The method
@@ -507,7 +594,7 @@ public class Reasoner extends AbstractReasonerState {
 			ElkClassExpression classExpression, boolean direct)
 			throws ElkInconsistentOntologyException, ElkException {
 		if (classExpression instanceof ElkClass) {
-			final TaxonomyNode<ElkClass> queryNode = getTaxonomyNode(
+			final TaxonomyNode<ElkClass> queryNode = getSuperTaxonomyNode(
 					(ElkClass) classExpression);
 			return direct ? queryNode.getDirectSuperNodes()
 					: queryNode.getAllSuperNodes();
@@ -520,27 +607,7 @@ public class Reasoner extends AbstractReasonerState {
 			}
 			// else all nodes
 
-			final Taxonomy<ElkClass> taxonomy = getTaxonomy();
-
-			return TaxonomyNodeUtils.getAllReachable(Operations.map(superNodes,
-					new Operations.Transformation<Node<ElkClass>, TaxonomyNode<ElkClass>>() {
-
-						@Override
-						public TaxonomyNode<ElkClass> transform(
-								final Node<ElkClass> node) {
-							return taxonomy.getNode(node.getCanonicalMember());
-						}
-
-					}),
-					new Operations.Functor<TaxonomyNode<ElkClass>, Set<? extends TaxonomyNode<ElkClass>>>() {
-
-						@Override
-						public Set<? extends TaxonomyNode<ElkClass>> apply(
-								final TaxonomyNode<ElkClass> node) {
-							return node.getDirectSuperNodes();
-						}
-
-					});
+			return getAllSuperNodes(superNodes);
 		}
 
 	}
@@ -577,6 +644,135 @@ public class Reasoner extends AbstractReasonerState {
 		}
 	}
 
+	/**
+	 * Return the (direct or indirect) superclasses of each of the given
+	 * {@link ElkClassExpression}s as specified by the parameter. The complex
+	 * class expressions are indexed and their results are computed together,
+	 * which is considerably faster than querying them one by one. Calling of
+	 * this method may trigger the computation of the taxonomy, if it has not
+	 * been done yet.
+	 * 
+	 * @param classExpressions
+	 *            the {@link ElkClassExpression}s for which to return the
+	 *            superclass {@link Node}s
+	 * @param direct
+	 *            if {@code true}, only direct superclasses are returned
+	 * @return a map from each given {@link ElkClassExpression} to the set of
+	 *         {@link Node}s for its direct or indirect superclasses according
+	 *         to the specified parameter
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the result cannot be computed
+	 * @see #getSuperClasses(ElkClassExpression, boolean)
+	 */
+	public synchronized Map<ElkClassExpression, Set<? extends Node<ElkClass>>> getSuperClasses(
+			final Iterable<? extends ElkClassExpression> classExpressions,
+			final boolean direct)
+			throws ElkInconsistentOntologyException, ElkException {
+		final Map<ElkClassExpression, Set<? extends Node<ElkClass>>> result = queryDirectSuperClasses(
+				getComplexClassExpressions(classExpressions));
+		for (final ElkClassExpression classExpression : classExpressions) {
+			if (classExpression instanceof ElkClass) {
+				result.put(classExpression,
+						getSuperClasses(classExpression, direct));
+			} else if (!direct) {
+				result.put(classExpression,
+						getAllSuperNodes(result.get(classExpression)));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param directSubNodes
+	 *            the {@link Node}s of the direct subclasses of some
+	 *            {@link ElkClassExpression}
+	 * @return the {@link Node}s of all subclasses of this
+	 *         {@link ElkClassExpression}
+	 * @throws ElkException
+	 *             if the result cannot be computed
+	 */
+	private Set<? extends Node<ElkClass>> getAllSubNodes(
+			final Set<? extends Node<ElkClass>> directSubNodes)
+			throws ElkException {
+
+		final Taxonomy<ElkClass> taxonomy = getTaxonomy();
+
+		return TaxonomyNodeUtils.getAllReachable(Operations.map(directSubNodes,
+				new Operations.Transformation<Node<ElkClass>, TaxonomyNode<ElkClass>>() {
+
+					@Override
+					public TaxonomyNode<ElkClass> transform(
+							final Node<ElkClass> node) {
+						return taxonomy.getNode(node.getCanonicalMember());
+					}
+
+				}),
+				new Operations.Functor<TaxonomyNode<ElkClass>, Set<? extends TaxonomyNode<ElkClass>>>() {
+
+					@Override
+					public Set<? extends TaxonomyNode<ElkClass>> apply(
+							final TaxonomyNode<ElkClass> node) {
+						return node.getDirectSubNodes();
+					}
+
+				});
+	}
+
+	/**
+	 * @param directSuperNodes
+	 *            the {@link Node}s of the direct superclasses of some
+	 *            {@link ElkClassExpression}
+	 * @return the {@link Node}s of all superclasses of this
+	 *         {@link ElkClassExpression}
+	 * @throws ElkException
+	 *             if the result cannot be computed
+	 */
+	private Set<? extends Node<ElkClass>> getAllSuperNodes(
+			final Set<? extends Node<ElkClass>> directSuperNodes)
+			throws ElkException {
+
+		final Taxonomy<ElkClass> taxonomy = getTaxonomy();
+
+		return TaxonomyNodeUtils.getAllReachable(Operations.map(
+				directSuperNodes,
+				new Operations.Transformation<Node<ElkClass>, TaxonomyNode<ElkClass>>() {
+
+					@Override
+					public TaxonomyNode<ElkClass> transform(
+							final Node<ElkClass> node) {
+						return taxonomy.getNode(node.getCanonicalMember());
+					}
+
+				}),
+				new Operations.Functor<TaxonomyNode<ElkClass>, Set<? extends TaxonomyNode<ElkClass>>>() {
+
+					@Override
+					public Set<? extends TaxonomyNode<ElkClass>> apply(
+							final TaxonomyNode<ElkClass> node) {
+						return node.getDirectSuperNodes();
+					}
+
+				});
+	}
+
+	/**
+	 * @param classExpressions
+	 * @return the {@link ElkClassExpression}s from the input that are not
+	 *         {@link ElkClass}es, i.e., those that need to be queried
+	 */
+	private static List<ElkClassExpression> getComplexClassExpressions(
+			final Iterable<? extends ElkClassExpression> classExpressions) {
+		final List<ElkClassExpression> result = new ArrayList<ElkClassExpression>();
+		for (final ElkClassExpression classExpression : classExpressions) {
+			if (!(classExpression instanceof ElkClass)) {
+				result.add(classExpression);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Return the (direct or indirect) sub-properties of the given
 	 * {@link ElkObjectProperty} as specified by the parameter. The method
@@ -794,7 +990,7 @@ public class Reasoner extends AbstractReasonerState {
 			ElkClassExpression classExpression) throws ElkException {
 
 		if (classExpression instanceof ElkClass) {
-			final TaxonomyNode<ElkClass> queryNode = getTaxonomyNode(
+			final TaxonomyNode<ElkClass> queryNode = getSuperTaxonomyNode(
 					(ElkClass) classExpression);
 			return !queryNode.contains(getElkFactory().getOwlNothing());
 		}
@@ -827,4 +1023,33 @@ public class Reasoner extends AbstractReasonerState {
 		}
 	}
 
+	/**
+	 * Check which of the given {@link ElkClassExpression}s are satisfiable.
+	 * The complex class expressions are indexed and their results are
+	 * computed together, which is considerably faster than checking them one
+	 * by one. Calling of this method may trigger the computation of the
+	 * taxonomy, if it has not been done yet.
+	 * 
+	 * @param classExpressions
+	 *            the {@link ElkClassExpression}s for which to check
+	 *            satisfiability
+	 * @return a map from each given {@link ElkClassExpression} to whether it
+	 *         is satisfiable
+	 * @throws ElkException
+	 *             if the result cannot be computed
+	 * @see #isSatisfiable(ElkClassExpression)
+	 */
+	public synchronized Map<ElkClassExpression, Boolean> isSatisfiable(
+			final Iterable<? extends ElkClassExpression> classExpressions)
+			throws ElkException {
+		final Map<ElkClassExpression, Boolean> result = querySatisfiability(
+				getComplexClassExpressions(classExpressions));
+		for (final ElkClassExpression classExpression : classExpressions) {
+			if (classExpression instanceof ElkClass) {
+				result.put(classExpression, isSatisfiable(classExpression));
+			}
+		}
+		return result;
+	}
+
 }
@@ -64,6 +64,26 @@ public class ReasonerFactory {
 				DEFAULT_STAGE_EXECUTOR, config);
 	}
 
+	/**
+	 * Creates a {@link Reasoner} that uses the given {@link ElkObject.Factory}
+	 * instead of its own {@link ElkObjectEntityRecyclingFactory}; the same
+	 * factory can be used for creating the loaded axioms, e.g., an
+	 * {@link org.semanticweb.elk.owl.managers.ElkObjectEntityInterningFactory}
+	 * shared with the parsers, so that the entities created during parsing
+	 * are shared with the reasoner
+	 * 
+	 * @param elkFactory
+	 * @param axiomLoaderFactory
+	 * @param config
+	 * @return the new {@link Reasoner}
+	 */
+	public Reasoner createReasoner(ElkObject.Factory elkFactory,
+			AxiomLoader.Factory axiomLoaderFactory,
+			ReasonerConfiguration config) {
+		return createReasoner(elkFactory, axiomLoaderFactory,
+				DEFAULT_INTERRUPTER, DEFAULT_STAGE_EXECUTOR, config);
+	}
+
 	Reasoner createReasoner(AxiomLoader.Factory axiomLoaderFactory,
 			final ReasonerInterrupter interrupter,
 			ReasonerStageExecutor stageExecutor, ReasonerConfiguration config) {
@@ -49,6 +49,65 @@ public class ReasonerConfiguration extends BaseConfiguration {
 	@Parameter(type = "java.lang.Boolean", value = "true")
 	public static final String INCREMENTAL_MODE_ALLOWED = "elk.reasoner.incremental.allowed";
 
+	@Parameter(type = "java.lang.Boolean", value = "false")
+	public static final String TAXONOMY_SNAPSHOTS = "elk.reasoner.taxonomy.snapshots";
+
+	@Parameter(type = "java.lang.Boolean", value = "false")
+	public static final String LAZY_CLASS_TAXONOMY = "elk.reasoner.taxonomy.lazy";
+
+	// if true, incremental changes keep the nodes of classes whose subsumers
+	// did not change
+	@Parameter(type = "java.lang.Boolean", value = "false")
+	public static final String FINE_TAXONOMY_CLEANING = "elk.reasoner.taxonomy.fine_cleaning";
+
+	// if true, only one individual is realized and checked for consistency for
+	// every group of individuals with the same told subsumers; the others get
+	// the same results
+	@Parameter(type = "java.lang.Boolean", value = "false")
+	public static final String REALIZATION_GROUPING = "elk.reasoner.realization.grouping";
+
+	// the maximal number of cached results of class expression queries and,
+	// separately, of entailment queries; each kind of queries has its own
+	// cache with this bound, so up to twice this number of results are kept
+	@Parameter(type = "java.lang.Integer", value = "512")
+	public static final String QUERY_CACHE_SIZE = "elk.reasoner.query.cache.size";
+
+	// the estimated number of bytes of each of the two query caches (see
+	// above), so the total can reach twice this value; not bounded if not
+	// positive
+	@Parameter(type = "java.lang.Long", value = "0")
+	public static final String QUERY_CACHE_MAX_BYTES = "elk.reasoner.query.cache.max_bytes";
+
+	// the number of traced conclusions kept for explanations; not bounded if
+	// not positive
+	@Parameter(type = "java.lang.Integer", value = "0")
+	public static final String TRACE_CACHE_SIZE = "elk.reasoner.tracing.cache.size";
+
+	// the estimated number of bytes of the traced inferences kept for
+	// explanations; not bounded if not positive
+	@Parameter(type = "java.lang.Long", value = "0")
+	public static final String TRACE_CACHE_MAX_BYTES = "elk.reasoner.tracing.cache.max_bytes";
+
+	// whether the traced inferences are stored compactly in arrays
+	@Parameter(type = "java.lang.Boolean", value = "false")
+	public static final String TRACE_COMPACT = "elk.reasoner.tracing.compact";
+
+	// the number of axioms indexed at once when checking entailment of a stream
+	@Parameter(type = "java.lang.Integer", value = "512")
+	public static final String ENTAILMENT_CHECKING_BATCH_SIZE = "elk.reasoner.entailment.batch_size";
+
+	@Parameter(type = "org.semanticweb.elk.reasoner.config.SaturationScheduler", value = "SHARED")
+	public static final String SATURATION_SCHEDULER = "elk.reasoner.saturation.scheduler";
+
+	@Parameter(type = "org.semanticweb.elk.util.concurrent.collections.ActivationStackType", value = "CONCURRENT_CHUNKED")
+	public static final String ACTIVATION_STACK = "elk.reasoner.saturation.activation_stack";
+
+	@Parameter(type = "org.semanticweb.elk.reasoner.config.SubsumerStorage", value = "OBJECTS")
+	public static final String SUBSUMER_STORAGE = "elk.reasoner.saturation.subsumer_storage";
+
+	@Parameter(type = "org.semanticweb.elk.reasoner.config.SaturationStorage", value = "OBJECTS")
+	public static final String SATURATION_STORAGE = "elk.reasoner.saturation.storage";
+
 	public final static String REASONER_CONFIG_PREFIX = "elk.reasoner";
 
 	public static ReasonerConfiguration getConfiguration() {
@@ -0,0 +1,38 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.config;
+
+/**
+ * Determines how the contexts activated during saturation are distributed
+ * between the workers applying the inference rules.
+ */
+public enum SaturationScheduler {
+	/**
+	 * all workers share one queue of activated contexts
+	 */
+	SHARED,
+	/**
+	 * every worker has its own queue of activated contexts; workers that run
+	 * out of contexts take them from the queues of other workers
+	 */
+	WORK_STEALING
+}
@@ -0,0 +1,44 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.config;
+
+/**
+ * Determines how the contexts created during saturation are stored.
+ */
+public enum SaturationStorage {
+	/**
+	 * every context is referenced from its root; the subsumers of contexts are
+	 * stored as determined by {@link SubsumerStorage}
+	 */
+	OBJECTS,
+	/**
+	 * the contexts are stored in arrays indexed by the ids of their roots; the
+	 * ids of the subsumers of all contexts are stored in large shared arrays
+	 * on the heap
+	 */
+	ARRAYS,
+	/**
+	 * like {@link #ARRAYS}, but the ids of the subsumers are stored outside of
+	 * the heap
+	 */
+	OFF_HEAP_ARRAYS
+}
@@ -0,0 +1,39 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.config;
+
+/**
+ * Determines how the subsumers derived during saturation are stored in
+ * contexts.
+ */
+public enum SubsumerStorage {
+	/**
+	 * the subsumers are stored in hash sets of object references
+	 */
+	OBJECTS,
+	/**
+	 * only the integer ids of the subsumers assigned by the index are stored
+	 * in primitive hash sets; this requires 4 bytes per slot regardless of the
+	 * size of object references
+	 */
+	IDS
+}
@@ -23,11 +23,15 @@ package org.semanticweb.elk.reasoner.consistency;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 
 import org.semanticweb.elk.reasoner.entailments.impl.IndividualInconsistencyEntailsOntologyInconsistencyImpl;
 import org.semanticweb.elk.reasoner.entailments.impl.OntologyInconsistencyImpl;
@@ -38,6 +42,7 @@ import org.semanticweb.elk.reasoner.entailments.model.EntailmentProof;
 import org.semanticweb.elk.reasoner.entailments.model.OntologyInconsistencyEntailmentInference;
 import org.semanticweb.elk.reasoner.indexing.classes.OntologyIndexDummyChangeListener;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClassEntity;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedIndividual;
@@ -50,6 +55,7 @@ import org.semanticweb.elk.reasoner.saturation.conclusions.classes.SaturationCon
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.ClassInconsistency;
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.SaturationConclusion;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.reasoner.saturation.rules.subsumers.SuperClassFromSubClassRule;
 import org.semanticweb.elk.reasoner.stages.PropertyHierarchyCompositionState;
 import org.semanticweb.elk.util.collections.Operations;
 import org.slf4j.Logger;
@@ -104,6 +110,26 @@ public class ConsistencyCheckingState {
 	 * the entities for which consistency needs to be checked
 	 */
 	private final Queue<IndexedClassEntity> toDoEntities_;
+	/**
+	 * if {@code true}, the individuals with the same told subsumers are
+	 * grouped and consistency is checked only for one individual from every
+	 * group
+	 */
+	private volatile boolean groupIndividuals_ = false;
+	/**
+	 * Maps every individual whose consistency was not checked to the
+	 * individual with the same told subsumers, called the representative,
+	 * that was checked instead. The context of the representative contains
+	 * a contradiction if and only if the context of the individual would
+	 * contain it.
+	 */
+	private final ConcurrentMap<IndexedIndividual, IndexedIndividual> representatives_ = new ConcurrentHashMap<IndexedIndividual, IndexedIndividual>();
+	/**
+	 * Maps every representative to the individuals which it was checked
+	 * for; these individuals should be checked again whenever the context
+	 * of the representative becomes not saturated.
+	 */
+	private final ConcurrentMap<IndexedIndividual, Set<IndexedIndividual>> groupMembers_ = new ConcurrentHashMap<IndexedIndividual, Set<IndexedIndividual>>();
 
 	private <C extends Context> ConsistencyCheckingState(
 			SaturationState<C> saturationState,
@@ -128,6 +154,8 @@ public class ConsistencyCheckingState {
 			@Override
 			public void individualRemoval(IndexedIndividual ind) {
 				inconsistentIndividuals_.remove(ind);
+				removeGroup(ind);
+				leaveGroup(ind);
 			}
 
 			@Override
@@ -150,6 +178,7 @@ public class ConsistencyCheckingState {
 						toDoEntities_.addAll(index.getIndividuals());
 						toDoEntities_.add(owlThing_);
 						inconsistentIndividuals_.clear();
+						clearGroups();
 						isOwlThingInconsistent_ = false;
 					}
 
@@ -160,6 +189,7 @@ public class ConsistencyCheckingState {
 							IndexedIndividual ind = (IndexedIndividual) root;
 							inconsistentIndividuals_.remove(ind);
 							toDoEntities_.add(ind);
+							removeGroup(ind);
 						} else if (root == owlThing_) {
 							isOwlThingInconsistent_ = false;
 							toDoEntities_.add(owlThing_);
@@ -248,10 +278,154 @@ public class ConsistencyCheckingState {
 		return size;
 	}
 
+	/**
+	 * Sets whether the individuals returned by {@link #getTestEntitites()}
+	 * should be grouped by their told subsumers
+	 * 
+	 * @param groupIndividuals
+	 */
+	public void setGroupIndividuals(boolean groupIndividuals) {
+		this.groupIndividuals_ = groupIndividuals;
+	}
+
+	/**
+	 * Removes from {@link #toDoEntities_} the individuals that have the same
+	 * told subsumers as some other individual in {@link #toDoEntities_} and
+	 * are not used in other axioms; consistency of such individuals is the
+	 * same as of this other individual, so their contexts do not need to be
+	 * saturated. The removed individuals are remembered, so that they are
+	 * checked again together with their representative.
+	 */
+	private synchronized void groupToDo() {
+		Map<Set<IndexedClassExpression>, IndexedIndividual> representativesBySubsumers = new HashMap<Set<IndexedClassExpression>, IndexedIndividual>();
+		Iterator<IndexedClassEntity> itr = toDoEntities_.iterator();
+		while (itr.hasNext()) {
+			IndexedClassEntity next = itr.next();
+			if (!(next instanceof IndexedIndividual) || !next.occurs()) {
+				continue;
+			}
+			// else
+			IndexedIndividual ind = (IndexedIndividual) next;
+			// the old group is not valid anymore
+			leaveGroup(ind);
+			Context context = saturationState_.getContext(ind);
+			if (context != null && context.isSaturated()) {
+				// already checked
+				continue;
+			}
+			// else
+			Set<IndexedClassExpression> subsumers = SuperClassFromSubClassRule
+					.getAllToldSubsumers(ind);
+			if (subsumers == null) {
+				continue;
+			}
+			// else
+			IndexedIndividual representative = representativesBySubsumers
+					.get(subsumers);
+			if (representative == null) {
+				representativesBySubsumers.put(subsumers, ind);
+				continue;
+			}
+			// else
+			if (representative == ind) {
+				// the entities may repeat
+				continue;
+			}
+			// else
+			itr.remove();
+			joinGroup(ind, representative);
+		}
+	}
+
+	private synchronized void joinGroup(IndexedIndividual ind,
+			IndexedIndividual representative) {
+		Set<IndexedIndividual> members = groupMembers_.get(representative);
+		if (members == null) {
+			members = Collections.newSetFromMap(
+					new ConcurrentHashMap<IndexedIndividual, Boolean>());
+			groupMembers_.put(representative, members);
+		}
+		members.add(ind);
+		representatives_.put(ind, representative);
+	}
+
+	private synchronized void leaveGroup(IndexedIndividual ind) {
+		IndexedIndividual representative = representatives_.remove(ind);
+		if (representative == null) {
+			return;
+		}
+		// else
+		Set<IndexedIndividual> members = groupMembers_.get(representative);
+		if (members == null) {
+			return;
+		}
+		// else
+		members.remove(ind);
+		if (members.isEmpty()) {
+			groupMembers_.remove(representative);
+		}
+	}
+
+	/**
+	 * Schedules the individuals checked by the given representative to be
+	 * checked again
+	 * 
+	 * @param representative
+	 */
+	private synchronized void removeGroup(IndexedIndividual representative) {
+		Set<IndexedIndividual> members = groupMembers_.remove(representative);
+		if (members == null) {
+			return;
+		}
+		// else
+		for (IndexedIndividual member : members) {
+			representatives_.remove(member);
+			toDoEntities_.add(member);
+		}
+	}
+
+	private synchronized void clearGroups() {
+		representatives_.clear();
+		groupMembers_.clear();
+	}
+
+	/**
+	 * Notifies this {@link ConsistencyCheckingState} that the rules for the
+	 * given premises were added to or removed from the ontology. The
+	 * individuals checked by the representatives must be checked again if
+	 * the rules for these individuals or their representatives change,
+	 * because the contexts of these individuals, which would be otherwise
+	 * modified, may not exist.
+	 * 
+	 * @param premises
+	 */
+	public void rulesChanged(
+			Iterable<? extends IndexedClassExpression> premises) {
+		if (representatives_.isEmpty()) {
+			return;
+		}
+		// else
+		for (IndexedClassExpression premise : premises) {
+			if (!(premise instanceof IndexedIndividual)) {
+				continue;
+			}
+			// else
+			IndexedIndividual ind = (IndexedIndividual) premise;
+			if (representatives_.containsKey(ind)) {
+				leaveGroup(ind);
+				toDoEntities_.add(ind);
+			}
+			removeGroup(ind);
+		}
+	}
+
 	public Collection<? extends IndexedClassEntity> getTestEntitites() {
 		if (isTriviallyConsistent_) {
 			return Collections.emptyList();
 		}
+		if (groupIndividuals_) {
+			groupToDo();
+		}
 		int size = pruneToDo();
 		// since getting the size of the queue is a linear operation,
 		// use the computed size
@@ -27,6 +27,7 @@ import org.semanticweb.elk.reasoner.indexing.model.CachedIndexedObject;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedObject;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectCache;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedClassExpression;
 import org.semanticweb.elk.reasoner.saturation.ExtendedContext;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
@@ -66,10 +67,25 @@ abstract class CachedIndexedClassExpressionImpl<T extends CachedIndexedClassExpr
 	 */
 	private volatile ExtendedContext context_ = null;
 
+	/**
+	 * the number assigned by the {@link IndexedObjectCache}
+	 */
+	private int id_ = -1;
+
 	CachedIndexedClassExpressionImpl(int structuralHash) {
 		super(structuralHash);
 	}
 
+	@Override
+	public final int getId() {
+		return id_;
+	}
+
+	@Override
+	public final void setId(int id) {
+		this.id_ = id;
+	}
+
 	@Override
 	public final LinkedSubsumerRule getCompositionRuleHead() {
 		return compositionRuleHead;
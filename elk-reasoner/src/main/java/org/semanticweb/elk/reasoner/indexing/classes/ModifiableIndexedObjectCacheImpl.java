@@ -22,12 +22,13 @@
 package org.semanticweb.elk.reasoner.indexing.classes;
 
 import java.util.ArrayList;
-
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
 import org.semanticweb.elk.owl.predefined.PredefinedElkEntityFactory;
 import org.semanticweb.elk.reasoner.indexing.model.CachedIndexedClass;
+import org.semanticweb.elk.reasoner.indexing.model.CachedIndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.CachedIndexedClassExpressionList;
 import org.semanticweb.elk.reasoner.indexing.model.CachedIndexedComplexClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.CachedIndexedComplexPropertyChain;
@@ -89,6 +90,19 @@ class ModifiableIndexedObjectCacheImpl implements ModifiableIndexedObjectCache {
 
 	private final List<IndexedObjectCache.ChangeListener> listeners_;
 
+	/**
+	 * the {@link IndexedClassExpression}s contained in this cache indexed by
+	 * {@link IndexedClassExpression#getId()}; the entries for the removed
+	 * {@link IndexedClassExpression}s are {@code null}
+	 */
+	private IndexedClassExpression[] classExpressionsById_;
+
+	/**
+	 * the number of {@link IndexedClassExpression}s for which the ids were
+	 * assigned, which is also the next id to be assigned
+	 */
+	private int classExpressionIdCount_ = 0;
+
 	public ModifiableIndexedObjectCacheImpl(
 			final PredefinedElkEntityFactory elkFactory, int initialSize) {
 		this.cachedComplexClassExpressions_ = new EntryCollection<CachedIndexedComplexClassExpression<?>>(
@@ -116,6 +130,7 @@ class ModifiableIndexedObjectCacheImpl implements ModifiableIndexedObjectCache {
 		this.owlBottomObjectProperty_ = new CachedIndexedObjectPropertyImpl(
 				elkFactory.getOwlBottomObjectProperty());
 		this.listeners_ = new ArrayList<IndexedObjectCache.ChangeListener>();
+		this.classExpressionsById_ = new IndexedClassExpression[initialSize];
 		add(owlThing_);
 		add(owlNothing_);
 		add(owlTopObjectProperty_);
@@ -182,6 +197,48 @@ class ModifiableIndexedObjectCacheImpl implements ModifiableIndexedObjectCache {
 		return owlBottomObjectProperty_;
 	}
 
+	@Override
+	public final IndexedClassExpression getClassExpression(int id) {
+		if (id < 0 || id >= classExpressionIdCount_)
+			return null;
+		// else
+		return classExpressionsById_[id];
+	}
+
+	/**
+	 * Assigns the next {@link IndexedClassExpression#getId()} to the given
+	 * {@link CachedIndexedClassExpression} if it was not assigned before and
+	 * registers the element under its id; the ids are never reused, so an
+	 * element that is added again after its removal gets its previous id.
+	 * Like other modifications of this cache, this method is not thread-safe.
+	 * 
+	 * @param element
+	 */
+	private void assignId(CachedIndexedClassExpression<?> element) {
+		int id = element.getId();
+		if (id >= 0) {
+			classExpressionsById_[id] = element;
+			return;
+		}
+		// else
+		if (classExpressionIdCount_ == classExpressionsById_.length)
+			classExpressionsById_ = Arrays.copyOf(classExpressionsById_,
+					Math.max(16, classExpressionsById_.length << 1));
+		classExpressionsById_[classExpressionIdCount_] = element;
+		element.setId(classExpressionIdCount_++);
+	}
+
+	/**
+	 * Unregisters the given {@link CachedIndexedClassExpression} removed from
+	 * this cache, so that it is not retained by the table of ids; its id
+	 * stays assigned
+	 * 
+	 * @param element
+	 */
+	private void releaseId(CachedIndexedClassExpression<?> element) {
+		classExpressionsById_[element.getId()] = null;
+	}
+
 	@Override
 	public <T extends CachedIndexedObject<T>> T resolve(
 			CachedIndexedObject<T> input) {
@@ -283,6 +340,7 @@ class ModifiableIndexedObjectCacheImpl implements ModifiableIndexedObjectCache {
 		@Override
 		public CachedIndexedClass filter(CachedIndexedClass element) {
 			cachedClasses_.addStructural(element);
+			assignId(element);
 			for (int i = 0; i < listeners_.size(); i++) {
 				IndexedObjectCache.ChangeListener listener = listeners_.get(i);
 				listener.classAddition(element);
@@ -294,6 +352,7 @@ class ModifiableIndexedObjectCacheImpl implements ModifiableIndexedObjectCache {
 		@Override
 		public CachedIndexedIndividual filter(CachedIndexedIndividual element) {
 			cachedIndividuals_.addStructural(element);
+			assignId(element);
 			for (int i = 0; i < listeners_.size(); i++) {
 				IndexedObjectCache.ChangeListener listener = listeners_.get(i);
 				listener.individualAddition(element);
@@ -305,6 +364,7 @@ class ModifiableIndexedObjectCacheImpl implements ModifiableIndexedObjectCache {
 		private <T extends CachedIndexedComplexClassExpression<T>> T defaultFilter(
 				T element) {
 			cachedComplexClassExpressions_.addStructural(element);
+			assignId(element);
 			for (int i = 0; i < listeners_.size(); i++) {
 				listeners_.get(i).classExpressionAddition(element);
 			}
@@ -385,6 +445,7 @@ class ModifiableIndexedObjectCacheImpl implements ModifiableIndexedObjectCache {
 			CachedIndexedClass result = cachedClasses_
 					.removeStructural(element);
 			if (result != null) {
+				releaseId(result);
 				for (int i = 0; i < listeners_.size(); i++) {
 					IndexedObjectCache.ChangeListener listener = listeners_.get(i);
 					listener.classRemoval(result);
@@ -399,6 +460,7 @@ class ModifiableIndexedObjectCacheImpl implements ModifiableIndexedObjectCache {
 			CachedIndexedIndividual result = cachedIndividuals_
 					.removeStructural(element);
 			if (result != null) {
+				releaseId(result);
 				for (int i = 0; i < listeners_.size(); i++) {
 					IndexedObjectCache.ChangeListener listener = listeners_.get(i);
 					listener.individualRemoval(result);
@@ -412,6 +474,7 @@ class ModifiableIndexedObjectCacheImpl implements ModifiableIndexedObjectCache {
 				T element) {
 			T result = cachedComplexClassExpressions_.removeStructural(element);
 			if (result != null) {
+				releaseId(result);
 				for (int i = 0; i < listeners_.size(); i++) {
 					listeners_.get(i).classExpressionRemoval(element);
 				}
@@ -66,6 +66,13 @@ public interface CachedIndexedClassExpression<T extends CachedIndexedClassExpres
 
 	}
 
+	/**
+	 * Assigns the value returned by {@link #getId()}; should be called only
+	 * by the {@link IndexedObjectCache} when this object is first added to it
+	 * 
+	 * @param id
+	 */
+	void setId(int id);
 	
 	T accept(Filter filter);
 
@@ -50,6 +50,16 @@ public interface IndexedClassExpression extends IndexedContextRoot {
 	 */
 	boolean occurs();
 
+	/**
+	 * @return the non-negative number assigned to this
+	 *         {@link IndexedClassExpression} when it was first added to the
+	 *         {@link IndexedObjectCache}, or {@code -1} if it was never added;
+	 *         different {@link IndexedClassExpression}s of the same cache have
+	 *         different numbers, which are consecutive starting from {@code 0}
+	 * @see IndexedObjectCache#getClassExpression(int)
+	 */
+	int getId();
+
 	String printOccurrenceNumbers();
 
 	/**
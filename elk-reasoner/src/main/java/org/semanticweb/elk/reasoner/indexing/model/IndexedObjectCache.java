@@ -101,6 +101,18 @@ public interface IndexedObjectCache {
 	 */
 	public IndexedObjectProperty getOwlBottomObjectProperty();
 
+	/**
+	 * @param id
+	 * @return the {@link IndexedClassExpression} that was added to this
+	 *         {@link IndexedObjectCache} with the given
+	 *         {@link IndexedClassExpression#getId()}, or {@code null} if there
+	 *         is no such {@link IndexedClassExpression} or it was removed
+	 *         from this {@link IndexedObjectCache}; the numbers are not
+	 *         reused, so the result is the same
+	 *         {@link IndexedClassExpression} if it was added again
+	 */
+	public IndexedClassExpression getClassExpression(int id);
+
 	/**
 	 * Registers a given {@link ChangeListener} with this {@link IndexedObjectCache}
 	 * 
@@ -0,0 +1,63 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.query;
+
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+
+/**
+ * Receives the results of checking entailment of a stream of axioms. The
+ * methods are called in the thread that checks the entailment. Each method
+ * returns whether the checking should continue, so the checking can be
+ * stopped as soon as the results for the remaining axioms are not needed.
+ */
+public interface EntailmentCheckingListener {
+
+	/**
+	 * Called when the given axiom is found to be entailed
+	 * 
+	 * @param axiom
+	 * @return {@code true} if the checking of the remaining axioms should
+	 *         continue and {@code false} otherwise
+	 */
+	boolean notifyEntailed(ElkAxiom axiom);
+
+	/**
+	 * Called when the given axiom is found not to be entailed
+	 * 
+	 * @param axiom
+	 * @return {@code true} if the checking of the remaining axioms should
+	 *         continue and {@code false} otherwise
+	 */
+	boolean notifyNotEntailed(ElkAxiom axiom);
+
+	/**
+	 * Called when the entailment of the given axiom cannot be checked, e.g.,
+	 * because axioms of this type or some of its class expressions are not
+	 * supported
+	 * 
+	 * @param axiom
+	 * @return {@code true} if the checking of the remaining axioms should
+	 *         continue and {@code false} otherwise
+	 */
+	boolean notifyUnsupported(ElkAxiom axiom);
+
+}
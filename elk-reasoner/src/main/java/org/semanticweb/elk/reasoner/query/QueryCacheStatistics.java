@@ -0,0 +1,103 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.query;
+
+import org.semanticweb.elk.util.collections.TinyLfuCachePolicy;
+
+/**
+ * The values of counters of a cache of query results at some point in time.
+ */
+public class QueryCacheStatistics {
+
+	private final int size_;
+
+	private final long weight_;
+
+	private final long hitCount_, missCount_, evictionCount_;
+
+	public QueryCacheStatistics(int size, long weight, long hitCount,
+			long missCount, long evictionCount) {
+		this.size_ = size;
+		this.weight_ = weight;
+		this.hitCount_ = hitCount;
+		this.missCount_ = missCount;
+		this.evictionCount_ = evictionCount;
+	}
+
+	public QueryCacheStatistics(TinyLfuCachePolicy<?> cache) {
+		this(cache.size(), cache.getWeight(), cache.getHitCount(),
+				cache.getMissCount(), cache.getEvictionCount());
+	}
+
+	/**
+	 * @return the number of cached queries
+	 */
+	public int getSize() {
+		return size_;
+	}
+
+	/**
+	 * @return the estimated number of bytes used by the cached queries
+	 */
+	public long getWeight() {
+		return weight_;
+	}
+
+	/**
+	 * @return the number of queries that were found in the cache
+	 */
+	public long getHitCount() {
+		return hitCount_;
+	}
+
+	/**
+	 * @return the number of queries that were not found in the cache
+	 */
+	public long getMissCount() {
+		return missCount_;
+	}
+
+	/**
+	 * @return the number of queries that were removed from the cache to keep
+	 *         it within its capacity
+	 */
+	public long getEvictionCount() {
+		return evictionCount_;
+	}
+
+	/**
+	 * @return the ratio of queries that were found in the cache, or
+	 *         {@code 0} if there were no queries
+	 */
+	public double getHitRate() {
+		long requestCount = hitCount_ + missCount_;
+		return requestCount == 0 ? 0 : (double) hitCount_ / requestCount;
+	}
+
+	@Override
+	public String toString() {
+		return "size: " + size_ + ", weight: " + weight_ + ", hits: "
+				+ hitCount_ + ", misses: " + missCount_ + ", evictions: "
+				+ evictionCount_;
+	}
+
+}
@@ -57,10 +57,10 @@ public abstract class AbstractSaturationState<EC extends ExtendedContext>
 	final OntologyIndex ontologyIndex;
 
 	/**
-	 * The queue containing all activated contexts (whose todo queue is not
-	 * empty). Every activated context occurs exactly once.
+	 * Keeps all activated contexts (whose todo queue is not empty). Every
+	 * activated context occurs exactly once.
 	 */
-	private final Queue<Context> activeContexts_ = new ConcurrentLinkedQueue<Context>();
+	private final ActiveContextScheduler activeContexts_;
 
 	/**
 	 * The queue containing all {@link Context}s of this {@link SaturationState}
@@ -92,9 +92,16 @@ public abstract class AbstractSaturationState<EC extends ExtendedContext>
 	private final List<SaturationState.ChangeListener<EC>> listeners_ = new ArrayList<SaturationState.ChangeListener<EC>>();
 
 	public AbstractSaturationState(OntologyIndex index,
-			ContextFactory<EC> factory) {
+			ContextFactory<EC> factory,
+			ActiveContextScheduler activeContextScheduler) {
 		this.ontologyIndex = index;
 		this.contextFactory = factory;
+		this.activeContexts_ = activeContextScheduler;
+	}
+
+	public AbstractSaturationState(OntologyIndex index,
+			ContextFactory<EC> factory) {
+		this(index, factory, new SharedActiveContextScheduler());
 	}
 
 	@Override
@@ -241,14 +248,20 @@ public abstract class AbstractSaturationState<EC extends ExtendedContext>
 
 		private final ContextModificationListener contextModificationListener_;
 
+		/**
+		 * used to add and retrieve the active contexts by this writer
+		 */
+		private final ActiveContextScheduler.Worker activeContextsWorker_;
+
 		private ContextModifyingWriter(
 				ContextModificationListener contextSaturationListener) {
 			this.contextModificationListener_ = contextSaturationListener;
+			this.activeContextsWorker_ = activeContexts_.getWorker();
 		}
 
 		@Override
 		public Context pollForActiveContext() {
-			return activeContexts_.poll();
+			return activeContextsWorker_.poll();
 		}
 
 		void produce(Context context, ClassInference inference) {
@@ -256,7 +269,7 @@ public abstract class AbstractSaturationState<EC extends ExtendedContext>
 			if (context.addToDo(inference)) {
 				LOGGER_.trace("{}: activated", context);
 				// context was activated
-				activeContexts_.add(context);
+				activeContextsWorker_.add(context);
 			}
 		}
 
@@ -0,0 +1,73 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation;
+
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+
+/**
+ * Keeps track of the activated {@link Context}s of a {@link SaturationState},
+ * i.e., those whose todo queue is not empty, and determines in which order
+ * they are processed by the workers. Each {@link SaturationStateWriter} uses
+ * its own {@link Worker} for adding and retrieving active {@link Context}s.
+ */
+public interface ActiveContextScheduler {
+
+	/**
+	 * @return a new {@link Worker} through which active {@link Context}s can
+	 *         be added and retrieved; different {@link Worker}s can be used
+	 *         concurrently, but every {@link Worker} should be used by at most
+	 *         one thread at a time
+	 */
+	Worker getWorker();
+
+	/**
+	 * Removes all active {@link Context}s from this
+	 * {@link ActiveContextScheduler}
+	 */
+	void clear();
+
+	/**
+	 * The local view of the {@link ActiveContextScheduler} used by one
+	 * {@link SaturationStateWriter}
+	 */
+	interface Worker {
+
+		/**
+		 * Schedules the given {@link Context}, which has been just activated,
+		 * for processing. Every activated {@link Context} should be added
+		 * exactly once.
+		 * 
+		 * @param context
+		 */
+		void add(Context context);
+
+		/**
+		 * Removes the next active {@link Context} to be processed
+		 * 
+		 * @return the removed {@link Context} or {@code null} if there are no
+		 *         active {@link Context}s in the {@link ActiveContextScheduler}
+		 */
+		Context poll();
+
+	}
+
+}
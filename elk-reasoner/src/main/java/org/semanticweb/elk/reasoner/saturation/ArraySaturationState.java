@@ -0,0 +1,340 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectCache;
+import org.semanticweb.elk.reasoner.indexing.model.OntologyIndex;
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.reasoner.saturation.inferences.ClassInference;
+import org.semanticweb.elk.util.collections.IntArena;
+import org.semanticweb.elk.util.collections.IntArenaHashSet;
+import org.semanticweb.elk.util.concurrent.collections.ActivationStack;
+
+/**
+ * A {@link SaturationState} for very large ontologies in which {@link Context}
+ * s are stored in arrays indexed by the values of
+ * {@link IndexedClassExpression#getId()} of their roots instead of being
+ * referenced from the roots. The arrays are split into chunks of a fixed size,
+ * which are allocated only when a {@link Context} with an id in the range of
+ * the chunk is created. The subsumers of all {@link Context}s are stored by
+ * their ids in an {@link IntArena}, which can be located outside of the heap.
+ * {@link Context}s for roots that are not {@link IndexedClassExpression}s,
+ * such as range fillers, are kept in a separate map.
+ */
+class ArraySaturationState extends AbstractSaturationState<ExtendedContext> {
+
+	/**
+	 * the binary logarithm of the number of {@link Context}s in a chunk
+	 */
+	private static final int CHUNK_BITS_ = 12;
+
+	private static final int CHUNK_SIZE_ = 1 << CHUNK_BITS_;
+
+	private static final int CHUNK_MASK_ = CHUNK_SIZE_ - 1;
+
+	private final ArrayContextFactory contextFactory_;
+
+	/**
+	 * the chunks of {@link Context}s indexed by the ids of their roots; some
+	 * elements can be {@code null}
+	 */
+	private volatile AtomicReferenceArray<ExtendedContext>[] chunks_;
+
+	/**
+	 * the {@link Context}s for the roots without ids
+	 */
+	private final ConcurrentHashMap<IndexedContextRoot, ExtendedContext> otherContexts_ = new ConcurrentHashMap<IndexedContextRoot, ExtendedContext>();
+
+	// the number of contexts created by this SaturationState
+	private final AtomicInteger contextCount_ = new AtomicInteger(0);
+
+	/**
+	 * @param index
+	 * @param contextFactory
+	 *            used to create the contexts of this {@link SaturationState}
+	 * @param activeContextScheduler
+	 *            determines the order in which the active contexts are
+	 *            processed
+	 */
+	public ArraySaturationState(OntologyIndex index,
+			ArrayContextFactory contextFactory,
+			ActiveContextScheduler activeContextScheduler) {
+		super(index, contextFactory, activeContextScheduler);
+		this.contextFactory_ = contextFactory;
+		this.chunks_ = newChunks(
+				(index.getClassExpressions().size() >> CHUNK_BITS_) + 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static AtomicReferenceArray<ExtendedContext>[] newChunks(
+			int length) {
+		return new AtomicReferenceArray[length];
+	}
+
+	/**
+	 * @param root
+	 * @return the id of the given {@link IndexedContextRoot} or {@code -1} if
+	 *         it is not assigned
+	 */
+	private static int getId(IndexedContextRoot root) {
+		if (root instanceof IndexedClassExpression)
+			return ((IndexedClassExpression) root).getId();
+		// else
+		return -1;
+	}
+
+	/**
+	 * @param id
+	 * @return the chunk that should contain the {@link Context} for the root
+	 *         with the given id, or {@code null} if this chunk was not created
+	 */
+	private AtomicReferenceArray<ExtendedContext> getChunk(int id) {
+		AtomicReferenceArray<ExtendedContext>[] chunks = chunks_;
+		int chunkIndex = id >>> CHUNK_BITS_;
+		if (chunkIndex >= chunks.length)
+			return null;
+		// else
+		return chunks[chunkIndex];
+	}
+
+	/**
+	 * @param id
+	 * @return the chunk that should contain the {@link Context} for the root
+	 *         with the given id; the chunk is created if necessary
+	 */
+	private AtomicReferenceArray<ExtendedContext> getCreateChunk(int id) {
+		AtomicReferenceArray<ExtendedContext> result = getChunk(id);
+		if (result != null)
+			return result;
+		// else
+		synchronized (this) {
+			AtomicReferenceArray<ExtendedContext>[] chunks = chunks_;
+			int chunkIndex = id >>> CHUNK_BITS_;
+			if (chunkIndex >= chunks.length)
+				chunks = Arrays.copyOf(chunks,
+						Math.max(chunkIndex + 1, chunks.length << 1));
+			result = chunks[chunkIndex];
+			if (result == null) {
+				result = new AtomicReferenceArray<ExtendedContext>(
+						CHUNK_SIZE_);
+				chunks[chunkIndex] = result;
+			}
+			// publish the changes
+			chunks_ = chunks;
+			return result;
+		}
+	}
+
+	@Override
+	public Collection<ExtendedContext> getContexts() {
+		return new AbstractCollection<ExtendedContext>() {
+
+			@Override
+			public Iterator<ExtendedContext> iterator() {
+				return new ContextIterator();
+			}
+
+			@Override
+			public int size() {
+				return contextCount_.get();
+			}
+
+		};
+	}
+
+	@Override
+	public ExtendedContext getContext(IndexedContextRoot root) {
+		int id = getId(root);
+		if (id < 0)
+			return otherContexts_.get(root);
+		// else
+		AtomicReferenceArray<ExtendedContext> chunk = getChunk(id);
+		if (chunk == null)
+			return null;
+		// else
+		return chunk.get(id & CHUNK_MASK_);
+	}
+
+	@Override
+	void resetContexts() {
+		synchronized (this) {
+			chunks_ = newChunks(chunks_.length);
+		}
+		otherContexts_.clear();
+		contextCount_.set(0);
+		// the subsumers of the removed contexts do not need to be freed
+		contextFactory_.resetArena();
+		for (int i = 0; i < getChangeListenerCount(); i++) {
+			getChangeListener(i).contextsClear();
+		}
+	}
+
+	@Override
+	ExtendedContext setIfAbsent(ExtendedContext context) {
+		IndexedContextRoot root = context.getRoot();
+		int id = getId(root);
+		ExtendedContext previous;
+		if (id < 0) {
+			previous = otherContexts_.putIfAbsent(root, context);
+		} else {
+			AtomicReferenceArray<ExtendedContext> chunk = getCreateChunk(id);
+			int pos = id & CHUNK_MASK_;
+			previous = chunk.compareAndSet(pos, null, context) ? null
+					: chunk.get(pos);
+		}
+		if (previous == null) {
+			contextCount_.incrementAndGet();
+			for (int i = 0; i < getChangeListenerCount(); i++) {
+				getChangeListener(i).contextAddition(context);
+			}
+		}
+		return previous;
+	}
+
+	/**
+	 * Iterates over the {@link Context}s in the chunks and then over the
+	 * remaining {@link Context}s
+	 */
+	private class ContextIterator implements Iterator<ExtendedContext> {
+
+		private final AtomicReferenceArray<ExtendedContext>[] chunksSnapshot_ = chunks_;
+
+		private final Iterator<ExtendedContext> otherContextsIterator_ = otherContexts_
+				.values().iterator();
+
+		// the index of the chunk and the position of the next context
+		private int chunkIndex_ = 0, pos_ = -1;
+
+		private ExtendedContext next_;
+
+		ContextIterator() {
+			seekNext();
+		}
+
+		private void seekNext() {
+			for (; chunkIndex_ < chunksSnapshot_.length; chunkIndex_++) {
+				AtomicReferenceArray<ExtendedContext> chunk = chunksSnapshot_[chunkIndex_];
+				if (chunk == null)
+					continue;
+				// else
+				while (++pos_ < CHUNK_SIZE_) {
+					next_ = chunk.get(pos_);
+					if (next_ != null)
+						return;
+				}
+				pos_ = -1;
+			}
+			next_ = otherContextsIterator_.hasNext()
+					? otherContextsIterator_.next()
+					: null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next_ != null;
+		}
+
+		@Override
+		public ExtendedContext next() {
+			if (next_ == null)
+				throw new NoSuchElementException("No next context");
+			ExtendedContext result = next_;
+			seekNext();
+			return result;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("Removal not supported");
+		}
+
+	}
+
+	/**
+	 * Creates instances of {@link ContextImpl} that store the ids of their
+	 * subsumers in {@link IntArenaHashSet}s of the same {@link IntArena}
+	 */
+	static class ArrayContextFactory
+			implements ContextFactory<ExtendedContext> {
+
+		private final ActivationStack.Factory toDoFactory_;
+
+		private final IndexedObjectCache subsumerIds_;
+
+		private final boolean direct_;
+
+		private volatile IntArena arena_;
+
+		/**
+		 * @param toDoFactory
+		 *            the {@link ActivationStack.Factory} used to create the
+		 *            stacks of unprocessed {@link ClassInference}s of the
+		 *            created contexts
+		 * @param subsumerIds
+		 *            the {@link IndexedObjectCache} that assigned the ids of
+		 *            the subsumers
+		 * @param direct
+		 *            if {@code true}, the ids of subsumers are stored outside
+		 *            of the heap
+		 */
+		ArrayContextFactory(ActivationStack.Factory toDoFactory,
+				IndexedObjectCache subsumerIds, boolean direct) {
+			this.toDoFactory_ = toDoFactory;
+			this.subsumerIds_ = subsumerIds;
+			this.direct_ = direct;
+			this.arena_ = new IntArena(direct);
+		}
+
+		/**
+		 * Starts storing the subsumers of the new contexts in a new
+		 * {@link IntArena}; the storage of the previously created contexts
+		 * is released when they are no longer used
+		 */
+		void resetArena() {
+			arena_ = new IntArena(direct_);
+		}
+
+		@Override
+		public ExtendedContext createContext(IndexedContextRoot root) {
+			IntArena arena = arena_;
+			return new ContextImpl(root,
+					toDoFactory_.<ClassInference> createStack(),
+					new IndexedClassExpressionIdSet(subsumerIds_,
+							new IntArenaHashSet(arena)),
+					new IndexedClassExpressionIdSet(subsumerIds_,
+							new IntArenaHashSet(arena)));
+		}
+
+	}
+
+}
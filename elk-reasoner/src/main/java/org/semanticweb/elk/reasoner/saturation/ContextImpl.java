@@ -57,7 +57,7 @@ import org.semanticweb.elk.util.collections.ArrayHashSet;
 import org.semanticweb.elk.util.collections.chains.AbstractChain;
 import org.semanticweb.elk.util.collections.chains.Chain;
 import org.semanticweb.elk.util.concurrent.collections.ActivationStack;
-import org.semanticweb.elk.util.concurrent.collections.SynchronizedArrayListActivationStack;
+import org.semanticweb.elk.util.concurrent.collections.ConcurrentChunkedActivationStack;
 
 /**
  * Context implementation that is used for EL reasoning. It provides data
@@ -152,10 +152,48 @@ public class ContextImpl implements ExtendedContext {
 	 * @param root
 	 */
 	public ContextImpl(IndexedContextRoot root) {
+		this(root, new ConcurrentChunkedActivationStack<ClassInference>());
+	}
+
+	/**
+	 * Construct a new {@link Context} for the given {@link IndexedContextRoot}
+	 * that uses the given {@link ActivationStack} to store unprocessed
+	 * {@link ClassInference}s. Initially, the context is not active.
+	 * 
+	 * @param root
+	 * @param toDo
+	 *            an empty {@link ActivationStack}
+	 */
+	public ContextImpl(IndexedContextRoot root,
+			ActivationStack<ClassInference> toDo) {
+		this(root, toDo, new ArrayHashSet<IndexedClassExpression>(16),
+				new ArrayHashSet<IndexedClassExpression>(8));
+	}
+
+	/**
+	 * Construct a new {@link Context} for the given {@link IndexedContextRoot}
+	 * that uses the given {@link ActivationStack} to store unprocessed
+	 * {@link ClassInference}s and the given {@link Set}s to store the derived
+	 * subsumers. Initially, the context is not active.
+	 * 
+	 * @param root
+	 * @param toDo
+	 *            an empty {@link ActivationStack}
+	 * @param composedSubsumers
+	 *            an empty {@link Set} to store the subsumers obtained by
+	 *            composition rules
+	 * @param decomposedSubsumers
+	 *            an empty {@link Set} to store the subsumers obtained by
+	 *            decomposition rules
+	 */
+	public ContextImpl(IndexedContextRoot root,
+			ActivationStack<ClassInference> toDo,
+			Set<IndexedClassExpression> composedSubsumers,
+			Set<IndexedClassExpression> decomposedSubsumers) {
 		this.root_ = root;
-		this.toDo_ = new SynchronizedArrayListActivationStack<ClassInference>();
-		this.composedSubsumers_ = new ArrayHashSet<IndexedClassExpression>(16);
-		this.decomposedSubsumers_ = new ArrayHashSet<IndexedClassExpression>(8);
+		this.toDo_ = toDo;
+		this.composedSubsumers_ = composedSubsumers;
+		this.decomposedSubsumers_ = decomposedSubsumers;
 	}
 
 	@Override
@@ -209,8 +247,9 @@ public class ContextImpl implements ExtendedContext {
 
 	SubContext getCreateSubContext(IndexedObjectProperty subRoot) {
 		if (subContextsByObjectProperty_ == null)
+			// most contexts have only few sub-contexts
 			subContextsByObjectProperty_ = new ArrayHashMap<IndexedObjectProperty, SubContext>(
-					3);
+					1);
 		SubContext result = subContextsByObjectProperty_.get(subRoot);
 		if (result == null) {
 			result = new SubContextImpl();
@@ -289,6 +328,15 @@ public class ContextImpl implements ExtendedContext {
 		return disjointnessAxioms_.get(disjoint);
 	}
 
+	@Override
+	public Set<? extends IndexedClassExpressionList> getDisjointExpressions() {
+		if (disjointnessAxioms_ == null) {
+			return Collections.emptySet();
+		}
+		// else
+		return disjointnessAxioms_.keySet();
+	}
+
 	@Override
 	public boolean isSaturated() {
 		return isSaturated_;
@@ -0,0 +1,147 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectCache;
+import org.semanticweb.elk.util.collections.IntArrayHashSet;
+import org.semanticweb.elk.util.collections.IntIterator;
+import org.semanticweb.elk.util.collections.IntSet;
+
+/**
+ * A {@link Set} of {@link IndexedClassExpression}s that stores only the
+ * values of {@link IndexedClassExpression#getId()} in an {@link IntSet}, such
+ * as {@link IntArrayHashSet}; the elements are recovered from the
+ * {@link IndexedObjectCache} that has assigned the ids. Only
+ * {@link IndexedClassExpression}s that were added to this
+ * {@link IndexedObjectCache} can be added to this set.
+ */
+class IndexedClassExpressionIdSet extends AbstractSet<IndexedClassExpression> {
+
+	private final IndexedObjectCache cache_;
+
+	private final IntSet ids_;
+
+	/**
+	 * @param cache
+	 *            the {@link IndexedObjectCache} that has assigned the ids of
+	 *            the elements
+	 * @param initialCapacity
+	 */
+	IndexedClassExpressionIdSet(IndexedObjectCache cache,
+			int initialCapacity) {
+		this(cache, new IntArrayHashSet(initialCapacity));
+	}
+
+	/**
+	 * @param cache
+	 *            the {@link IndexedObjectCache} that has assigned the ids of
+	 *            the elements
+	 * @param ids
+	 *            an empty {@link IntSet} used to store the ids of the
+	 *            elements
+	 */
+	IndexedClassExpressionIdSet(IndexedObjectCache cache, IntSet ids) {
+		this.cache_ = cache;
+		this.ids_ = ids;
+	}
+
+	@Override
+	public int size() {
+		return ids_.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return ids_.isEmpty();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof IndexedClassExpression))
+			return false;
+		// else
+		int id = ((IndexedClassExpression) o).getId();
+		return id >= 0 && ids_.contains(id);
+	}
+
+	@Override
+	public boolean add(IndexedClassExpression e) {
+		int id = e.getId();
+		if (id < 0)
+			throw new IllegalArgumentException(
+					e + ": not added to the index");
+		return ids_.add(id);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (!(o instanceof IndexedClassExpression))
+			return false;
+		// else
+		int id = ((IndexedClassExpression) o).getId();
+		return id >= 0 && ids_.remove(id);
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		boolean modified = false;
+		for (Object o : c) {
+			modified |= remove(o);
+		}
+		return modified;
+	}
+
+	@Override
+	public void clear() {
+		ids_.clear();
+	}
+
+	@Override
+	public Iterator<IndexedClassExpression> iterator() {
+		final IntIterator ids = ids_.iterator();
+		return new Iterator<IndexedClassExpression>() {
+
+			@Override
+			public boolean hasNext() {
+				return ids.hasNext();
+			}
+
+			@Override
+			public IndexedClassExpression next() {
+				return cache_.getClassExpression(ids.next());
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+	}
+
+}
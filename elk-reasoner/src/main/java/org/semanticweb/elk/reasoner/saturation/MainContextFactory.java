@@ -3,7 +3,12 @@
  */
 package org.semanticweb.elk.reasoner.saturation;
 
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectCache;
+import org.semanticweb.elk.reasoner.saturation.inferences.ClassInference;
+import org.semanticweb.elk.util.concurrent.collections.ActivationStack;
+import org.semanticweb.elk.util.concurrent.collections.ActivationStackType;
 
 /*
  * #%L
@@ -36,9 +41,58 @@ import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
  */
 public class MainContextFactory implements ContextFactory<ExtendedContext> {
 
+	/**
+	 * used to create the stacks of unprocessed inferences of contexts
+	 */
+	private final ActivationStack.Factory toDoFactory_;
+
+	/**
+	 * if not {@code null}, the subsumers of contexts are stored using their
+	 * ids assigned by this {@link IndexedObjectCache}
+	 */
+	private final IndexedObjectCache subsumerIds_;
+
+	/**
+	 * @param toDoFactory
+	 *            the {@link ActivationStack.Factory} used to create the stacks
+	 *            of unprocessed {@link ClassInference}s of the created
+	 *            contexts
+	 * @param subsumerIds
+	 *            if not {@code null}, the created contexts store only the
+	 *            {@link IndexedClassExpression#getId()} of the derived
+	 *            subsumers, which are recovered using this
+	 *            {@link IndexedObjectCache}
+	 */
+	public MainContextFactory(ActivationStack.Factory toDoFactory,
+			IndexedObjectCache subsumerIds) {
+		this.toDoFactory_ = toDoFactory;
+		this.subsumerIds_ = subsumerIds;
+	}
+
+	/**
+	 * @param toDoFactory
+	 *            the {@link ActivationStack.Factory} used to create the stacks
+	 *            of unprocessed {@link ClassInference}s of the created
+	 *            contexts
+	 */
+	public MainContextFactory(ActivationStack.Factory toDoFactory) {
+		this(toDoFactory, null);
+	}
+
+	public MainContextFactory() {
+		this(ActivationStackType.CONCURRENT_CHUNKED);
+	}
+
 	@Override
 	public ExtendedContext createContext(IndexedContextRoot root) {
-		return new ContextImpl(root);
+		if (subsumerIds_ == null)
+			return new ContextImpl(root,
+					toDoFactory_.<ClassInference> createStack());
+		// else
+		return new ContextImpl(root,
+				toDoFactory_.<ClassInference> createStack(),
+				new IndexedClassExpressionIdSet(subsumerIds_, 16),
+				new IndexedClassExpressionIdSet(subsumerIds_, 8));
 	}
 
 }
@@ -62,6 +62,21 @@ class ReferenceSaturationState
 		super(index, new MainContextFactory());
 	}
 
+	/**
+	 * 
+	 * @param index
+	 * @param contextFactory
+	 *            used to create the contexts of this {@link SaturationState}
+	 * @param activeContextScheduler
+	 *            determines the order in which the active contexts are
+	 *            processed
+	 */
+	public ReferenceSaturationState(OntologyIndex index,
+			MainContextFactory contextFactory,
+			ActiveContextScheduler activeContextScheduler) {
+		super(index, contextFactory, activeContextScheduler);
+	}
+
 	@Override
 	public Collection<ExtendedContext> getContexts() {
 		return new AbstractCollection<ExtendedContext>() {
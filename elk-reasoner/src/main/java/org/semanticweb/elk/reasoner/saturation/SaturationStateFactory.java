@@ -25,8 +25,14 @@ package org.semanticweb.elk.reasoner.saturation;
  * #L%
  */
 
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.config.SaturationScheduler;
+import org.semanticweb.elk.reasoner.config.SaturationStorage;
+import org.semanticweb.elk.reasoner.config.SubsumerStorage;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectCache;
 import org.semanticweb.elk.reasoner.indexing.model.OntologyIndex;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.util.concurrent.collections.ActivationStackType;
 
 /**
  * A simple factory for creating saturation states
@@ -48,4 +54,74 @@ public class SaturationStateFactory {
 		return new ReferenceSaturationState(ontologyIndex);
 		//return new MapSaturationState<ExtendedContext>(ontologyIndex, new MainContextFactory(), ontologyIndex.getIndexedClassExpressions().size());
 	}
+
+	/**
+	 * Creates a new {@link SaturationState} using the settings of the given
+	 * {@link ReasonerConfiguration}
+	 * 
+	 * @param ontologyIndex
+	 * @param config
+	 * @return the new state
+	 * 
+	 * @see ReasonerConfiguration#SATURATION_SCHEDULER
+	 * @see ReasonerConfiguration#ACTIVATION_STACK
+	 * @see ReasonerConfiguration#SUBSUMER_STORAGE
+	 * @see ReasonerConfiguration#SATURATION_STORAGE
+	 */
+	public static SaturationState<? extends Context> createSaturationState(
+			OntologyIndex ontologyIndex, ReasonerConfiguration config) {
+		ActivationStackType toDoFactory = ActivationStackType.valueOf(
+				config.getParameter(ReasonerConfiguration.ACTIVATION_STACK));
+		SaturationStorage storage = SaturationStorage.valueOf(
+				config.getParameter(ReasonerConfiguration.SATURATION_STORAGE));
+		switch (storage) {
+		case OBJECTS:
+			return new ReferenceSaturationState(ontologyIndex,
+					new MainContextFactory(toDoFactory,
+							getSubsumerIds(ontologyIndex, config)),
+					createActiveContextScheduler(config));
+		case ARRAYS:
+		case OFF_HEAP_ARRAYS:
+			return new ArraySaturationState(ontologyIndex,
+					new ArraySaturationState.ArrayContextFactory(toDoFactory,
+							ontologyIndex,
+							storage == SaturationStorage.OFF_HEAP_ARRAYS),
+					createActiveContextScheduler(config));
+		default:
+			throw new IllegalArgumentException(
+					"Unsupported saturation storage: " + storage);
+		}
+	}
+
+	private static IndexedObjectCache getSubsumerIds(
+			OntologyIndex ontologyIndex, ReasonerConfiguration config) {
+		SubsumerStorage storage = SubsumerStorage.valueOf(
+				config.getParameter(ReasonerConfiguration.SUBSUMER_STORAGE));
+		switch (storage) {
+		case OBJECTS:
+			return null;
+		case IDS:
+			return ontologyIndex;
+		default:
+			throw new IllegalArgumentException(
+					"Unsupported subsumer storage: " + storage);
+		}
+	}
+
+	private static ActiveContextScheduler createActiveContextScheduler(
+			ReasonerConfiguration config) {
+		SaturationScheduler scheduler = SaturationScheduler.valueOf(
+				config.getParameter(ReasonerConfiguration.SATURATION_SCHEDULER));
+		switch (scheduler) {
+		case SHARED:
+			return new SharedActiveContextScheduler();
+		case WORK_STEALING:
+			return new WorkStealingActiveContextScheduler(
+					config.getParameterAsInt(
+							ReasonerConfiguration.NUM_OF_WORKING_THREADS));
+		default:
+			throw new IllegalArgumentException(
+					"Unsupported saturation scheduler: " + scheduler);
+		}
+	}
 }
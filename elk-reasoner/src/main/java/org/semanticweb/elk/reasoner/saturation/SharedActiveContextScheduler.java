@@ -0,0 +1,66 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+
+/**
+ * An {@link ActiveContextScheduler} in which all active {@link Context}s are
+ * kept in one queue shared by all {@link Worker}s.
+ */
+public class SharedActiveContextScheduler implements ActiveContextScheduler {
+
+	/**
+	 * The queue containing all activated contexts. Every activated context
+	 * occurs exactly once.
+	 */
+	private final Queue<Context> activeContexts_ = new ConcurrentLinkedQueue<Context>();
+
+	private final Worker worker_ = new Worker() {
+
+		@Override
+		public void add(Context context) {
+			activeContexts_.add(context);
+		}
+
+		@Override
+		public Context poll() {
+			return activeContexts_.poll();
+		}
+
+	};
+
+	@Override
+	public Worker getWorker() {
+		// all workers are the same
+		return worker_;
+	}
+
+	@Override
+	public void clear() {
+		activeContexts_.clear();
+	}
+
+}
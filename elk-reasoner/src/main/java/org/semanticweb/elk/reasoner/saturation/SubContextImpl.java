@@ -32,10 +32,10 @@ import org.semanticweb.elk.reasoner.saturation.conclusions.model.Propagation;
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.SubClassConclusion;
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.SubContextInitialization;
 import org.semanticweb.elk.reasoner.saturation.context.SubContext;
-import org.semanticweb.elk.util.collections.ArrayHashSet;
+import org.semanticweb.elk.util.collections.CompactArrayHashSet;
 
-public class SubContextImpl extends ArrayHashSet<IndexedContextRoot> implements
-		SubContext {
+public class SubContextImpl extends CompactArrayHashSet<IndexedContextRoot>
+		implements SubContext {
 
 	Set<IndexedObjectSomeValuesFrom> propagatedSubsumers_;
 
@@ -50,8 +50,9 @@ public class SubContextImpl extends ArrayHashSet<IndexedContextRoot> implements
 	private int size_ = 0;
 
 	public SubContextImpl() {
-		// represents the set of roots linked by the stored backward links
-		super(3);
+		// represents the set of roots linked by the stored backward links;
+		// usually, there is only one such root
+		super();
 	}
 
 	@Override
@@ -109,8 +110,7 @@ public class SubContextImpl extends ArrayHashSet<IndexedContextRoot> implements
 		@Override
 		public Boolean visit(Propagation subConclusion) {
 			if (propagatedSubsumers_ == null)
-				propagatedSubsumers_ = new ArrayHashSet<IndexedObjectSomeValuesFrom>(
-						3);
+				propagatedSubsumers_ = new CompactArrayHashSet<IndexedObjectSomeValuesFrom>();
 			return propagatedSubsumers_.add(subConclusion.getCarry());
 		}
 
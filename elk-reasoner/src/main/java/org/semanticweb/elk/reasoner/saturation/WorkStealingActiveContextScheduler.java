@@ -0,0 +1,127 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+
+/**
+ * An {@link ActiveContextScheduler} that keeps a separate queue of active
+ * {@link Context}s for every worker. New {@link Worker}s are assigned to the
+ * queues in a round-robin fashion. Each {@link Worker} adds the
+ * {@link Context}s it activates to its own queue and takes the
+ * {@link Context}s from this queue first; only when the own queue is empty,
+ * it takes (steals) the {@link Context}s from the queues of other
+ * {@link Worker}s. This way, {@link Context}s activated by a worker are
+ * usually processed by the same worker, and workers rarely compete for the
+ * same queue.
+ */
+public class WorkStealingActiveContextScheduler
+		implements ActiveContextScheduler {
+
+	/**
+	 * the queues of active {@link Context}s; every active {@link Context}
+	 * occurs in exactly one of them exactly once
+	 */
+	private final List<Queue<Context>> activeContexts_;
+
+	/**
+	 * the number of {@link Worker}s created so far; used for assigning the
+	 * queues to new workers
+	 */
+	private final AtomicInteger workerCount_ = new AtomicInteger(0);
+
+	/**
+	 * Creates a new {@link WorkStealingActiveContextScheduler} optimized for
+	 * the given number of concurrent workers
+	 * 
+	 * @param maxWorkers
+	 *            the maximal number of workers that are expected to process
+	 *            the {@link Context}s concurrently
+	 */
+	public WorkStealingActiveContextScheduler(int maxWorkers) {
+		int queueCount = Math.max(1, maxWorkers);
+		this.activeContexts_ = new ArrayList<Queue<Context>>(queueCount);
+		for (int i = 0; i < queueCount; i++) {
+			activeContexts_.add(new ConcurrentLinkedQueue<Context>());
+		}
+	}
+
+	@Override
+	public Worker getWorker() {
+		return new LocalWorker(
+				(workerCount_.getAndIncrement() & Integer.MAX_VALUE)
+						% activeContexts_.size());
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < activeContexts_.size(); i++) {
+			activeContexts_.get(i).clear();
+		}
+	}
+
+	private class LocalWorker implements Worker {
+
+		/**
+		 * the index of the queue of this {@link Worker}
+		 */
+		private final int home_;
+
+		private final Queue<Context> homeQueue_;
+
+		LocalWorker(int home) {
+			this.home_ = home;
+			this.homeQueue_ = activeContexts_.get(home);
+		}
+
+		@Override
+		public void add(Context context) {
+			homeQueue_.add(context);
+		}
+
+		@Override
+		public Context poll() {
+			Context result = homeQueue_.poll();
+			if (result != null) {
+				return result;
+			}
+			// else try to steal from other queues starting from the next one
+			int queueCount = activeContexts_.size();
+			for (int i = 1; i < queueCount; i++) {
+				result = activeContexts_.get((home_ + i) % queueCount).poll();
+				if (result != null) {
+					return result;
+				}
+			}
+			// all queues were empty when checked
+			return null;
+		}
+
+	}
+
+}
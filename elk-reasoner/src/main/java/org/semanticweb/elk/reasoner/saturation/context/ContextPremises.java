@@ -112,6 +112,13 @@ public interface ContextPremises {
 	 */
 	Set<? extends Integer> getSubsumerPositions(IndexedClassExpressionList disjoint);
 
+	/**
+	 * @return the {@link IndexedClassExpressionList}s for which
+	 *         {@link #getSubsumerPositions(IndexedClassExpressionList)} is not
+	 *         {@code null}
+	 */
+	Set<? extends IndexedClassExpressionList> getDisjointExpressions();
+
 	Iterable<? extends IndexedObjectSomeValuesFrom> getPropagatedSubsumers(
 			IndexedPropertyChain subRoot);
 }
\ No newline at end of file
@@ -112,6 +112,12 @@ public class HybridContextPremises implements ContextPremises {
 		return localPremises_.getSubsumerPositions(disjoint);
 	}
 
+	@Override
+	public Set<? extends IndexedClassExpressionList> getDisjointExpressions() {
+		// local
+		return localPremises_.getDisjointExpressions();
+	}
+
 	@Override
 	public Map<IndexedObjectProperty, ? extends SubContextPremises> getSubContextPremisesByObjectProperty() {
 		// non-local
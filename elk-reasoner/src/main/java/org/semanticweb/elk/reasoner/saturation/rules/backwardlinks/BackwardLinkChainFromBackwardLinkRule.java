@@ -33,7 +33,7 @@ import org.semanticweb.elk.reasoner.saturation.conclusions.model.ForwardLink;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
 import org.semanticweb.elk.reasoner.saturation.context.ContextPremises;
 import org.semanticweb.elk.reasoner.saturation.rules.ClassInferenceProducer;
-import org.semanticweb.elk.util.collections.HashSetMultimap;
+import org.semanticweb.elk.util.collections.CompactHashSetMultimap;
 import org.semanticweb.elk.util.collections.LazySetIntersection;
 import org.semanticweb.elk.util.collections.Multimap;
 import org.semanticweb.elk.util.collections.chains.Matcher;
@@ -71,8 +71,7 @@ public class BackwardLinkChainFromBackwardLinkRule
 	private BackwardLinkChainFromBackwardLinkRule(
 			LinkableBackwardLinkRule tail) {
 		super(tail);
-		this.forwardLinksByObjectProperty_ = new HashSetMultimap<IndexedPropertyChain, IndexedContextRoot>(
-				3);
+		this.forwardLinksByObjectProperty_ = new CompactHashSetMultimap<IndexedPropertyChain, IndexedContextRoot>();
 	}
 
 	/**
@@ -124,6 +123,19 @@ public class BackwardLinkChainFromBackwardLinkRule
 				.contains(link.getChain(), link.getTarget());
 	}
 
+	/**
+	 * @param context
+	 * @return the targets of all {@link ForwardLink}s stored in the given
+	 *         {@link Context} indexed by their chains, or {@code null} if no
+	 *         {@link ForwardLink} was stored in this {@link Context}
+	 */
+	public static Multimap<IndexedPropertyChain, IndexedContextRoot> getForwardLinksFor(
+			Context context) {
+		BackwardLinkChainFromBackwardLinkRule rule = context
+				.getBackwardLinkRuleChain().find(MATCHER_);
+		return rule == null ? null : rule.forwardLinksByObjectProperty_;
+	}
+
 	@Deprecated
 	public Multimap<IndexedPropertyChain, IndexedContextRoot> getForwardLinksByObjectProperty() {
 		return forwardLinksByObjectProperty_;
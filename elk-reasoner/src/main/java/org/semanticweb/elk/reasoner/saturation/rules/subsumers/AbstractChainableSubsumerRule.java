@@ -23,10 +23,12 @@ package org.semanticweb.elk.reasoner.saturation.rules.subsumers;
  */
 
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObject;
 import org.semanticweb.elk.reasoner.saturation.context.ContextPremises;
 import org.semanticweb.elk.reasoner.saturation.rules.ClassInferenceProducer;
 import org.semanticweb.elk.reasoner.saturation.rules.RuleVisitor;
 import org.semanticweb.elk.util.collections.chains.ModifiableLinkImpl;
+import org.semanticweb.elk.util.hashing.Hasher;
 
 /**
  * A skeleton implementation of {@link ChainableSubsumerRule}
@@ -63,4 +65,19 @@ abstract class AbstractChainableSubsumerRule extends
 				producer);
 	}
 
+	/**
+	 * @param hasher
+	 * @param objects
+	 * @return the hash code of the given {@link IndexedObject}s that does not
+	 *         depend on their order
+	 */
+	static int combinedHashCode(Hasher<IndexedObject> hasher,
+			Iterable<? extends IndexedObject> objects) {
+		int result = 0;
+		for (IndexedObject object : objects) {
+			result += hasher.hash(object);
+		}
+		return result;
+	}
+
 }
@@ -25,6 +25,7 @@ package org.semanticweb.elk.reasoner.saturation.rules.subsumers;
 import java.util.Map;
 
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObject;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectIntersectionOf;
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.SubClassInclusion;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
@@ -33,6 +34,8 @@ import org.semanticweb.elk.reasoner.saturation.inferences.SubClassInclusionCompo
 import org.semanticweb.elk.reasoner.saturation.rules.ClassInferenceProducer;
 import org.semanticweb.elk.util.collections.ArrayHashMap;
 import org.semanticweb.elk.util.collections.LazySetIntersection;
+import org.semanticweb.elk.util.hashing.HashGenerator;
+import org.semanticweb.elk.util.hashing.Hasher;
 
 /**
  * A skeleton for a {@link ChainableSubsumerRule} that produces {@link SubClassInclusion}
@@ -64,6 +67,17 @@ public abstract class AbstractObjectIntersectionFromConjunctRule extends
 		return conjunctionsByConjunct_;
 	}
 
+	@Override
+	public int structuralHashCode(Hasher<IndexedObject> hasher) {
+		int result = 0;
+		for (Map.Entry<IndexedClassExpression, IndexedObjectIntersectionOf> entry : conjunctionsByConjunct_
+				.entrySet()) {
+			result += HashGenerator.combineListHash(hasher.hash(entry.getKey()),
+					hasher.hash(entry.getValue()));
+		}
+		return HashGenerator.combineListHash(toString().hashCode(), result);
+	}
+
 	@Override
 	public void apply(IndexedClassExpression premise, ContextPremises premises,
 			ClassInferenceProducer producer) {
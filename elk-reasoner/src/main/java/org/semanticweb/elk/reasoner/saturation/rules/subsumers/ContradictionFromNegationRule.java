@@ -23,6 +23,7 @@ package org.semanticweb.elk.reasoner.saturation.rules.subsumers;
  */
 
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObject;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectComplementOf;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedObjectComplementOf;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableOntologyIndex;
@@ -34,6 +35,8 @@ import org.semanticweb.elk.util.collections.chains.Chain;
 import org.semanticweb.elk.util.collections.chains.Matcher;
 import org.semanticweb.elk.util.collections.chains.ReferenceFactory;
 import org.semanticweb.elk.util.collections.chains.SimpleTypeBasedMatcher;
+import org.semanticweb.elk.util.hashing.HashGenerator;
+import org.semanticweb.elk.util.hashing.Hasher;
 
 /**
  * A {@link ChainableSubsumerRule} producing {@link ClassInconsistency} when
@@ -141,6 +144,12 @@ public class ContradictionFromNegationRule extends
 		visitor.visit(this, premise, premises, producer);
 	}
 
+	@Override
+	public int structuralHashCode(Hasher<IndexedObject> hasher) {
+		return HashGenerator.combineListHash(NAME.hashCode(),
+				hasher.hash(negation_));
+	}
+
 	/**
 	 * @return {@code true} if this rule never does anything
 	 */
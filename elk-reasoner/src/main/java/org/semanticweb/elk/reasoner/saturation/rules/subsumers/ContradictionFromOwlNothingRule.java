@@ -25,6 +25,7 @@ package org.semanticweb.elk.reasoner.saturation.rules.subsumers;
 import org.semanticweb.elk.owl.predefined.PredefinedElkIris;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObject;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedClass;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableOntologyIndex;
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.ClassInconsistency;
@@ -35,6 +36,8 @@ import org.semanticweb.elk.util.collections.chains.Chain;
 import org.semanticweb.elk.util.collections.chains.Matcher;
 import org.semanticweb.elk.util.collections.chains.ReferenceFactory;
 import org.semanticweb.elk.util.collections.chains.SimpleTypeBasedMatcher;
+import org.semanticweb.elk.util.hashing.HashGenerator;
+import org.semanticweb.elk.util.hashing.Hasher;
 
 /**
  * A {@link ChainableSubsumerRule} producing {@link ClassInconsistency} when
@@ -122,6 +125,11 @@ public class ContradictionFromOwlNothingRule extends
 		visitor.visit(this, premise, premises, producer);
 	}
 
+	@Override
+	public int structuralHashCode(Hasher<IndexedObject> hasher) {
+		return HashGenerator.combineListHash(NAME.hashCode());
+	}
+
 	private static Matcher<ChainableSubsumerRule, ContradictionFromOwlNothingRule> MATCHER_ = new SimpleTypeBasedMatcher<ChainableSubsumerRule, ContradictionFromOwlNothingRule>(
 			ContradictionFromOwlNothingRule.class);
 
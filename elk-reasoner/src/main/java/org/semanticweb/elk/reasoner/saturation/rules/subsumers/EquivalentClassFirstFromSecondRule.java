@@ -29,6 +29,7 @@ import java.util.List;
 import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedEquivalentClassesAxiom;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObject;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedEquivalentClassesAxiom;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableOntologyIndex;
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.SubClassInclusion;
@@ -39,6 +40,8 @@ import org.semanticweb.elk.util.collections.chains.Chain;
 import org.semanticweb.elk.util.collections.chains.Matcher;
 import org.semanticweb.elk.util.collections.chains.ReferenceFactory;
 import org.semanticweb.elk.util.collections.chains.SimpleTypeBasedMatcher;
+import org.semanticweb.elk.util.hashing.HashGenerator;
+import org.semanticweb.elk.util.hashing.Hasher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -243,6 +246,12 @@ public class EquivalentClassFirstFromSecondRule extends AbstractChainableSubsume
 		visitor.visit(this, premise, premises, producer);
 	}
 
+	@Override
+	public int structuralHashCode(Hasher<IndexedObject> hasher) {
+		return HashGenerator.combineListHash(NAME.hashCode(),
+				combinedHashCode(hasher, firstEquivalentMembers_));
+	}
+
 	/**
 	 * @return {@code true} if this rule never does anything
 	 */
@@ -23,9 +23,11 @@ package org.semanticweb.elk.reasoner.saturation.rules.subsumers;
  */
 
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObject;
 import org.semanticweb.elk.reasoner.saturation.context.ContextPremises;
 import org.semanticweb.elk.reasoner.saturation.rules.ClassInferenceProducer;
 import org.semanticweb.elk.util.collections.chains.Link;
+import org.semanticweb.elk.util.hashing.Hasher;
 
 /**
  * A {@link SubsumerRule} that is linked to other such
@@ -42,4 +44,15 @@ public interface LinkedSubsumerRule extends
 			IndexedClassExpression premise, ContextPremises premises,
 			ClassInferenceProducer producer);
 
+	/**
+	 * @param hasher
+	 *            assigns hash codes to the {@link IndexedObject}s stored in
+	 *            this {@link LinkedSubsumerRule}
+	 * @return the hash code of this {@link LinkedSubsumerRule} computed from
+	 *         its name and the hash codes of the stored {@link IndexedObject}
+	 *         s; it does not depend on the order in which these objects were
+	 *         added to the rule
+	 */
+	public int structuralHashCode(Hasher<IndexedObject> hasher);
+
 }
@@ -24,10 +24,13 @@ package org.semanticweb.elk.reasoner.saturation.rules.subsumers;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObject;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedSubClassOfAxiom;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedSubClassOfAxiom;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableOntologyIndex;
@@ -39,6 +42,8 @@ import org.semanticweb.elk.util.collections.chains.Chain;
 import org.semanticweb.elk.util.collections.chains.Matcher;
 import org.semanticweb.elk.util.collections.chains.ReferenceFactory;
 import org.semanticweb.elk.util.collections.chains.SimpleTypeBasedMatcher;
+import org.semanticweb.elk.util.hashing.HashGenerator;
+import org.semanticweb.elk.util.hashing.Hasher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -95,6 +100,31 @@ public class SuperClassFromSubClassRule extends AbstractChainableSubsumerRule {
 		return toldSubsumers_;
 	}
 
+	/**
+	 * @param premise
+	 * @return the told subsumers of the given {@link IndexedClassExpression}
+	 *         if they are produced by the only rules applied to this
+	 *         {@link IndexedClassExpression}; in this case every
+	 *         {@link IndexedClassExpression} with the same told subsumers and
+	 *         no other occurrences in the ontology has the same subsumers;
+	 *         otherwise returns {@code null}
+	 */
+	public static Set<IndexedClassExpression> getAllToldSubsumers(
+			IndexedClassExpression premise) {
+		Set<IndexedClassExpression> result = new HashSet<IndexedClassExpression>();
+		LinkedSubsumerRule rule = premise.getCompositionRuleHead();
+		while (rule != null) {
+			if (!(rule instanceof SuperClassFromSubClassRule)) {
+				// e.g., the premise occurs negatively in some axioms
+				return null;
+			}
+			// else
+			result.addAll(((SuperClassFromSubClassRule) rule).toldSubsumers_);
+			rule = rule.next();
+		}
+		return result;
+	}
+
 	/**
 	 * 
 	 * @param subsumer
@@ -244,6 +274,12 @@ public class SuperClassFromSubClassRule extends AbstractChainableSubsumerRule {
 		visitor.visit(this, premise, premises, producer);
 	}
 
+	@Override
+	public int structuralHashCode(Hasher<IndexedObject> hasher) {
+		return HashGenerator.combineListHash(NAME.hashCode(),
+				combinedHashCode(hasher, toldSubsumers_));
+	}
+
 	/**
 	 * @return {@code true} if this rule never does anything
 	 */
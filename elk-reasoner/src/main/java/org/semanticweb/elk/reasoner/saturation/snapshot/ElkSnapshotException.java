@@ -0,0 +1,51 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation.snapshot;
+
+import org.semanticweb.elk.exceptions.ElkException;
+
+/**
+ * Exception that is thrown when a snapshot of the saturation state cannot be
+ * saved or restored, for example, because it was created for a different
+ * ontology or the file is corrupted.
+ */
+public class ElkSnapshotException extends ElkException {
+
+	private static final long serialVersionUID = 8166305893727815543L;
+
+	public ElkSnapshotException() {
+		super();
+	}
+
+	public ElkSnapshotException(String message) {
+		super(message);
+	}
+
+	public ElkSnapshotException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+	public ElkSnapshotException(Throwable cause) {
+		super(cause);
+	}
+
+}
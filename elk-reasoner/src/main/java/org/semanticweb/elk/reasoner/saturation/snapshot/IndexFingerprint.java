@@ -0,0 +1,142 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation.snapshot;
+
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpressionList;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedComplexPropertyChain;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObject;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectProperty;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedPropertyChain;
+import org.semanticweb.elk.reasoner.indexing.model.OntologyIndex;
+import org.semanticweb.elk.reasoner.saturation.rules.subsumers.LinkedSubsumerRule;
+import org.semanticweb.elk.util.hashing.HashGenerator;
+import org.semanticweb.elk.util.hashing.Hasher;
+
+/**
+ * Computes a fingerprint of the rules in an {@link OntologyIndex}, which
+ * changes when the indexed axioms change even if the indexed class
+ * expressions and property chains stay the same. The indexed objects are
+ * identified by their symbols in the snapshot, so the fingerprint computed
+ * for the same ontology does not depend on the object identities and on the
+ * order in which the axioms were indexed.
+ * 
+ * @see SaturationSnapshotWriter
+ * @see SaturationSnapshotReader
+ */
+abstract class IndexFingerprint
+		implements Hasher<IndexedObject>, IndexedPropertyChain.Visitor<Integer> {
+
+	/**
+	 * @param expression
+	 * @return the symbol of the given {@link IndexedClassExpression} or
+	 *         {@code -1} if it is not defined
+	 */
+	abstract int getSymbol(IndexedClassExpression expression);
+
+	/**
+	 * @param chain
+	 * @return the symbol of the given {@link IndexedPropertyChain} or
+	 *         {@code -1} if it is not defined
+	 */
+	abstract int getSymbol(IndexedPropertyChain chain);
+
+	/**
+	 * @param list
+	 * @return the symbol of the given {@link IndexedClassExpressionList} or
+	 *         {@code -1} if it is not defined
+	 */
+	abstract int getSymbol(IndexedClassExpressionList list);
+
+	/**
+	 * @param index
+	 * @return the fingerprint of the rules of the given {@link OntologyIndex}
+	 */
+	int compute(OntologyIndex index) {
+		int result = 0;
+		for (IndexedClassExpression ice : index.getClassExpressions()) {
+			int rulesHash = 0;
+			LinkedSubsumerRule rule = ice.getCompositionRuleHead();
+			while (rule != null) {
+				rulesHash += rule.structuralHashCode(this);
+				rule = rule.next();
+			}
+			result += HashGenerator.combineListHash(getSymbol(ice), rulesHash);
+		}
+		for (IndexedPropertyChain ipc : index.getPropertyChains()) {
+			result += HashGenerator.combineListHash(getSymbol(ipc),
+					ipc.accept(this));
+		}
+		return HashGenerator.combineListHash(result,
+				index.hasNegativeOwlThing() ? 1 : 0,
+				index.hasPositiveOwlNothing() ? 1 : 0);
+	}
+
+	/**
+	 * Hashes the {@link IndexedObject}s stored in the rules by their symbols;
+	 * the rules store only {@link IndexedClassExpression}s and
+	 * {@link IndexedClassExpressionList}s
+	 */
+	@Override
+	public int hash(IndexedObject object) {
+		if (object instanceof IndexedClassExpressionList) {
+			return HashGenerator.combineListHash(
+					getSymbol((IndexedClassExpressionList) object));
+		}
+		// else
+		return HashGenerator
+				.combineListHash(getSymbol((IndexedClassExpression) object));
+	}
+
+	private int getClassExpressionsHash(
+			Iterable<? extends IndexedClassExpression> expressions) {
+		int result = 0;
+		for (IndexedClassExpression expression : expressions) {
+			result += hash(expression);
+		}
+		return result;
+	}
+
+	private int getPropertyChainsHash(
+			Iterable<? extends IndexedPropertyChain> chains) {
+		int result = 0;
+		for (IndexedPropertyChain chain : chains) {
+			result += HashGenerator.combineListHash(getSymbol(chain));
+		}
+		return result;
+	}
+
+	@Override
+	public Integer visit(IndexedObjectProperty element) {
+		return HashGenerator.combineListHash(
+				getPropertyChainsHash(element.getToldSuperProperties()),
+				getPropertyChainsHash(element.getToldSubChains()),
+				getClassExpressionsHash(element.getToldRanges()));
+	}
+
+	@Override
+	public Integer visit(IndexedComplexPropertyChain element) {
+		return HashGenerator.combineListHash(
+				getPropertyChainsHash(element.getToldSuperProperties()));
+	}
+
+}
@@ -0,0 +1,172 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation.snapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * The constants and primitive encodings used in snapshots of the saturation
+ * state. A snapshot is a sequence of records, each starting with a tag byte.
+ * Symbol records define the indexed objects referenced by other records; a
+ * symbol is referenced by the position of its definition among all symbol
+ * definitions and is always defined before it is referenced. A context record
+ * starts a new context, and the conclusion records that follow are added to
+ * this context. The snapshot ends with the {@link #END} record that contains
+ * the numbers of defined indexed class expressions and indexed property
+ * chains, followed by the {@link IndexFingerprint} of the indexed rules. Integers are encoded using a variable number of bytes, so that
+ * small values take less space.
+ */
+class SaturationSnapshotFormat {
+
+	/**
+	 * the first bytes of every snapshot
+	 */
+	static final int MAGIC = 0x454C4B53; // "ELKS"
+
+	/**
+	 * the version of the format, should be increased after every
+	 * incompatible change
+	 */
+	static final int VERSION = 2;
+
+	static final Charset CHARSET = Charset.forName("UTF-8");
+
+	/* the end record */
+
+	static final byte END = 0;
+
+	/* symbol records */
+
+	static final byte CLASS = 1;
+
+	static final byte INDIVIDUAL = 2;
+
+	static final byte OBJECT_PROPERTY = 3;
+
+	static final byte DATA_HAS_VALUE = 4;
+
+	static final byte OBJECT_COMPLEMENT_OF = 5;
+
+	static final byte OBJECT_HAS_SELF = 6;
+
+	static final byte OBJECT_INTERSECTION_OF = 7;
+
+	static final byte OBJECT_SOME_VALUES_FROM = 8;
+
+	static final byte OBJECT_UNION_OF = 9;
+
+	static final byte COMPLEX_PROPERTY_CHAIN = 10;
+
+	static final byte CLASS_EXPRESSION_LIST = 11;
+
+	static final byte RANGE_FILLER = 12;
+
+	/* the context record */
+
+	static final byte CONTEXT = 32;
+
+	/* conclusion records */
+
+	static final byte CONTEXT_INITIALIZATION = 33;
+
+	static final byte SUBSUMER_COMPOSED = 34;
+
+	static final byte SUBSUMER_DECOMPOSED = 35;
+
+	static final byte BACKWARD_LINK = 36;
+
+	static final byte FORWARD_LINK = 37;
+
+	static final byte PROPAGATION = 38;
+
+	static final byte SUB_CONTEXT_INITIALIZATION = 39;
+
+	static final byte DISJOINT_SUBSUMER = 40;
+
+	static final byte CONTRADICTION = 41;
+
+	private SaturationSnapshotFormat() {
+		// only static methods
+	}
+
+	/**
+	 * Writes a non-negative integer using 7 bits of every byte; the highest
+	 * bit is set if more bytes follow
+	 * 
+	 * @param out
+	 * @param value
+	 * @throws IOException
+	 */
+	static void writeInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	static void writeString(DataOutput out, String value) throws IOException {
+		byte[] bytes = value.getBytes(CHARSET);
+		writeInt(out, bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads an integer written by {@link #writeInt(DataOutput, int)}
+	 * 
+	 * @param in
+	 * @return the integer read from the current position of the buffer
+	 * @throws ElkSnapshotException
+	 *             if the buffer does not contain a valid encoding of an
+	 *             integer
+	 */
+	static int readInt(ByteBuffer in) throws ElkSnapshotException {
+		int result = 0;
+		try {
+			for (int shift = 0; shift < 32; shift += 7) {
+				byte next = in.get();
+				result |= (next & 0x7F) << shift;
+				if ((next & 0x80) == 0) {
+					return result;
+				}
+			}
+		} catch (BufferUnderflowException e) {
+			throw new ElkSnapshotException("Unexpected end of snapshot", e);
+		}
+		throw new ElkSnapshotException("Malformed integer in snapshot");
+	}
+
+	static String readString(ByteBuffer in) throws ElkSnapshotException {
+		int length = readInt(in);
+		if (length > in.remaining()) {
+			throw new ElkSnapshotException("Unexpected end of snapshot");
+		}
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, CHARSET);
+	}
+
+}
@@ -0,0 +1,399 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation.snapshot;
+
+import static org.semanticweb.elk.reasoner.saturation.snapshot.SaturationSnapshotFormat.*;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.reasoner.indexing.classes.ModifiableIndexedObjectBaseFactory;
+import org.semanticweb.elk.reasoner.indexing.model.CachedIndexedObject;
+import org.semanticweb.elk.reasoner.indexing.model.CachedIndexedObjectSomeValuesFrom;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpressionList;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObject;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectProperty;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectSomeValuesFrom;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedPropertyChain;
+import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedObjectCache;
+import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedObjectProperty;
+import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedPropertyChain;
+import org.semanticweb.elk.reasoner.saturation.ContextCreatingSaturationStateWriter;
+import org.semanticweb.elk.reasoner.saturation.SaturationState;
+import org.semanticweb.elk.reasoner.saturation.conclusions.classes.SaturationConclusionBaseFactory;
+import org.semanticweb.elk.reasoner.saturation.conclusions.model.ClassConclusion;
+import org.semanticweb.elk.reasoner.saturation.conclusions.model.SaturationConclusion;
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.util.collections.ArrayHashMap;
+
+/**
+ * Restores the {@link Context}s of a {@link SaturationState} from a snapshot
+ * written by {@link SaturationSnapshotWriter}. The symbols of the snapshot are
+ * resolved against the given {@link ModifiableIndexedObjectCache}, which
+ * should contain the same indexed objects as the one for which the snapshot
+ * was written, and the {@link IndexFingerprint} of the rules of the ontology
+ * index should be the same; otherwise the snapshot is rejected. The snapshot is read from a
+ * {@link ByteBuffer}, so it can be read directly from a memory-mapped file.
+ * <p>
+ * The restored {@link Context}s are marked as saturated using
+ * {@link SaturationState#setContextsSaturated(int)}, so the listeners of the
+ * {@link SaturationState} are notified about them as if they were saturated
+ * by the inference rules.
+ * 
+ * @see SaturationSnapshotWriter
+ */
+public class SaturationSnapshotReader {
+
+	private final SaturationState<?> saturationState_;
+
+	private final ModifiableIndexedObjectCache index_;
+
+	private final ElkObject.Factory elkFactory_;
+
+	private final ModifiableIndexedObjectBaseFactory indexedFactory_ = new ModifiableIndexedObjectBaseFactory();
+
+	private final SaturationConclusion.Factory conclusionFactory_ = SaturationConclusionBaseFactory
+			.getInstance();
+
+	private final ByteBuffer in_;
+
+	/**
+	 * the resolved {@link IndexedObject}s in the order of their definitions
+	 */
+	private final List<IndexedObject> symbols_ = new ArrayList<IndexedObject>(
+			1024);
+
+	/**
+	 * the number of resolved {@link IndexedClassExpression}s and
+	 * {@link IndexedPropertyChain}s
+	 */
+	private int classExpressionCount_ = 0, propertyChainCount_ = 0;
+
+	private SaturationSnapshotReader(SaturationState<?> saturationState,
+			ModifiableIndexedObjectCache index, ElkObject.Factory elkFactory,
+			ByteBuffer input) {
+		this.saturationState_ = saturationState;
+		this.index_ = index;
+		this.elkFactory_ = elkFactory;
+		this.in_ = input;
+	}
+
+	/**
+	 * Restores the {@link Context}s saved in the snapshot read from the given
+	 * {@link ByteBuffer}. The {@link SaturationState} should not contain any
+	 * {@link Context}s.
+	 * 
+	 * @param saturationState
+	 *            the {@link SaturationState} in which the {@link Context}s
+	 *            are restored
+	 * @param index
+	 *            the {@link ModifiableIndexedObjectCache} for resolving the
+	 *            indexed objects of the snapshot; it should be the one used by
+	 *            the {@link SaturationState}
+	 * @param elkFactory
+	 *            used for creating entities from their IRIs
+	 * @param input
+	 *            the buffer from which the snapshot is read starting from its
+	 *            current position
+	 * @return the number of restored {@link Context}s
+	 * @throws ElkSnapshotException
+	 *             if the snapshot is malformed or does not correspond to the
+	 *             given {@link ModifiableIndexedObjectCache}; in this case,
+	 *             some {@link Context}s may be already restored
+	 */
+	public static int read(SaturationState<?> saturationState,
+			ModifiableIndexedObjectCache index, ElkObject.Factory elkFactory,
+			ByteBuffer input) throws ElkSnapshotException {
+		if (!saturationState.getContexts().isEmpty()) {
+			throw new IllegalStateException(
+					"Snapshot can be restored only to empty saturation state!");
+		}
+		try {
+			return new SaturationSnapshotReader(saturationState, index,
+					elkFactory, input).read();
+		} catch (BufferUnderflowException e) {
+			throw new ElkSnapshotException("Unexpected end of snapshot", e);
+		}
+	}
+
+	private int read() throws ElkSnapshotException {
+		if (in_.getInt() != MAGIC) {
+			throw new ElkSnapshotException("Not a saturation snapshot");
+		}
+		int version = in_.getInt();
+		if (version != VERSION) {
+			throw new ElkSnapshotException(
+					"Unsupported snapshot version: " + version);
+		}
+		ContextCreatingSaturationStateWriter<?> writer = saturationState_
+				.getContextCreatingWriter();
+		int contextCount = 0;
+		IndexedContextRoot root = null;
+		Context context = null;
+		for (;;) {
+			byte tag = in_.get();
+			switch (tag) {
+			case END:
+				if (root != null) {
+					writer.markAsNotSaturated(root);
+				}
+				checkCounts();
+				saturationState_.setContextsSaturated(
+						saturationState_.getContextMarkNonSaturatedCount());
+				return contextCount;
+			case CONTEXT:
+				if (root != null) {
+					writer.markAsNotSaturated(root);
+				}
+				root = getSymbol(IndexedContextRoot.class);
+				context = writer.getCreateContext(root);
+				contextCount++;
+				break;
+			case CONTEXT_INITIALIZATION:
+				add(context, conclusionFactory_.getContextInitialization(root));
+				break;
+			case SUBSUMER_COMPOSED:
+				add(context, conclusionFactory_.getSubClassInclusionComposed(
+						root, getSymbol(IndexedClassExpression.class)));
+				break;
+			case SUBSUMER_DECOMPOSED:
+				add(context, conclusionFactory_.getSubClassInclusionDecomposed(
+						root, getSymbol(IndexedClassExpression.class)));
+				break;
+			case BACKWARD_LINK:
+				IndexedObjectProperty relation = getSymbol(
+						IndexedObjectProperty.class);
+				add(context, conclusionFactory_.getBackwardLink(root, relation,
+						getSymbol(IndexedContextRoot.class)));
+				break;
+			case FORWARD_LINK:
+				IndexedPropertyChain chain = getSymbol(
+						IndexedPropertyChain.class);
+				add(context, conclusionFactory_.getForwardLink(root, chain,
+						getSymbol(IndexedContextRoot.class)));
+				break;
+			case PROPAGATION:
+				relation = getSymbol(IndexedObjectProperty.class);
+				add(context, conclusionFactory_.getPropagation(root, relation,
+						getSymbol(IndexedObjectSomeValuesFrom.class)));
+				break;
+			case SUB_CONTEXT_INITIALIZATION:
+				add(context, conclusionFactory_.getSubContextInitialization(
+						root, getSymbol(IndexedObjectProperty.class)));
+				break;
+			case DISJOINT_SUBSUMER:
+				IndexedClassExpressionList disjoint = getSymbol(
+						IndexedClassExpressionList.class);
+				add(context, conclusionFactory_.getDisjointSubsumer(root,
+						disjoint, readInt(in_)));
+				break;
+			case CONTRADICTION:
+				add(context, conclusionFactory_.getContradiction(root));
+				break;
+			default:
+				readSymbol(tag);
+			}
+		}
+	}
+
+	private void readSymbol(byte tag) throws ElkSnapshotException {
+		switch (tag) {
+		case CLASS:
+			defineClassExpression(indexedFactory_.getIndexedClass(
+					elkFactory_.getClass(new ElkFullIri(readString(in_)))));
+			break;
+		case INDIVIDUAL:
+			defineClassExpression(
+					indexedFactory_.getIndexedIndividual(elkFactory_
+							.getNamedIndividual(new ElkFullIri(readString(in_)))));
+			break;
+		case DATA_HAS_VALUE:
+			String relation = readString(in_);
+			String lexicalForm = readString(in_);
+			String datatype = readString(in_);
+			defineClassExpression(indexedFactory_.getIndexedDataHasValue(
+					elkFactory_.getDataHasValue(
+							elkFactory_.getDataProperty(new ElkFullIri(relation)),
+							elkFactory_.getLiteral(lexicalForm, elkFactory_
+									.getDatatype(new ElkFullIri(datatype))))));
+			break;
+		case OBJECT_COMPLEMENT_OF:
+			defineClassExpression(indexedFactory_.getIndexedObjectComplementOf(
+					getSymbol(ModifiableIndexedClassExpression.class)));
+			break;
+		case OBJECT_HAS_SELF:
+			defineClassExpression(indexedFactory_.getIndexedObjectHasSelf(
+					getSymbol(ModifiableIndexedObjectProperty.class)));
+			break;
+		case OBJECT_INTERSECTION_OF:
+			ModifiableIndexedClassExpression first = getSymbol(
+					ModifiableIndexedClassExpression.class);
+			defineClassExpression(indexedFactory_.getIndexedObjectIntersectionOf(
+					first, getSymbol(ModifiableIndexedClassExpression.class)));
+			break;
+		case OBJECT_SOME_VALUES_FROM:
+			ModifiableIndexedObjectProperty property = getSymbol(
+					ModifiableIndexedObjectProperty.class);
+			defineClassExpression(indexedFactory_.getIndexedObjectSomeValuesFrom(
+					property, getSymbol(ModifiableIndexedClassExpression.class)));
+			break;
+		case OBJECT_UNION_OF:
+			defineClassExpression(indexedFactory_
+					.getIndexedObjectUnionOf(getClassExpressionSymbols()));
+			break;
+		case OBJECT_PROPERTY:
+			propertyChainCount_++;
+			define(indexedFactory_.getIndexedObjectProperty(elkFactory_
+					.getObjectProperty(new ElkFullIri(readString(in_)))));
+			break;
+		case COMPLEX_PROPERTY_CHAIN:
+			property = getSymbol(ModifiableIndexedObjectProperty.class);
+			propertyChainCount_++;
+			define(indexedFactory_.getIndexedComplexPropertyChain(property,
+					getSymbol(ModifiableIndexedPropertyChain.class)));
+			break;
+		case CLASS_EXPRESSION_LIST:
+			define(indexedFactory_.getIndexedClassExpressionList(
+					getClassExpressionSymbols()));
+			break;
+		case RANGE_FILLER:
+			property = getSymbol(ModifiableIndexedObjectProperty.class);
+			CachedIndexedObjectSomeValuesFrom existential = resolve(
+					indexedFactory_.getIndexedObjectSomeValuesFrom(property,
+							getSymbol(ModifiableIndexedClassExpression.class)));
+			symbols_.add(existential.getRangeFiller());
+			break;
+		default:
+			throw new ElkSnapshotException("Unknown snapshot record: " + tag);
+		}
+	}
+
+	private <T extends CachedIndexedObject<T>> T resolve(
+			CachedIndexedObject<T> input) throws ElkSnapshotException {
+		T result = index_.resolve(input);
+		if (result == null) {
+			throw new ElkSnapshotException(
+					input + ": not found in the ontology");
+		}
+		return result;
+	}
+
+	private <T extends CachedIndexedObject<T>> void define(
+			CachedIndexedObject<T> input) throws ElkSnapshotException {
+		symbols_.add(resolve(input));
+	}
+
+	private <T extends CachedIndexedObject<T>> void defineClassExpression(
+			CachedIndexedObject<T> input) throws ElkSnapshotException {
+		classExpressionCount_++;
+		define(input);
+	}
+
+	private <T> T getSymbol(Class<T> type) throws ElkSnapshotException {
+		int symbol = readInt(in_);
+		if (symbol >= symbols_.size()) {
+			throw new ElkSnapshotException("Undefined symbol: " + symbol);
+		}
+		IndexedObject result = symbols_.get(symbol);
+		if (!type.isInstance(result)) {
+			throw new ElkSnapshotException(result + ": not an instance of "
+					+ type.getSimpleName());
+		}
+		return type.cast(result);
+	}
+
+	private List<ModifiableIndexedClassExpression> getClassExpressionSymbols()
+			throws ElkSnapshotException {
+		int size = readInt(in_);
+		List<ModifiableIndexedClassExpression> result = new ArrayList<ModifiableIndexedClassExpression>(
+				size);
+		for (int i = 0; i < size; i++) {
+			result.add(getSymbol(ModifiableIndexedClassExpression.class));
+		}
+		return result;
+	}
+
+	private static void add(Context context, ClassConclusion conclusion)
+			throws ElkSnapshotException {
+		if (context == null) {
+			throw new ElkSnapshotException(
+					conclusion + ": conclusion outside of context");
+		}
+		context.addConclusion(conclusion);
+	}
+
+	private void checkCounts() throws ElkSnapshotException {
+		int classExpressionCount = readInt(in_);
+		int propertyChainCount = readInt(in_);
+		if (classExpressionCount != classExpressionCount_
+				|| propertyChainCount != propertyChainCount_) {
+			throw new ElkSnapshotException("Snapshot is corrupted");
+		}
+		int fingerprint = readInt(in_);
+		if (classExpressionCount != index_.getClassExpressions().size()
+				|| propertyChainCount != index_.getPropertyChains().size()
+				|| fingerprint != computeFingerprint()) {
+			throw new ElkSnapshotException(
+					"Snapshot was created for a different ontology");
+		}
+	}
+
+	private int computeFingerprint() {
+		final Map<IndexedObject, Integer> symbols = new ArrayHashMap<IndexedObject, Integer>(
+				symbols_.size());
+		for (int i = 0; i < symbols_.size(); i++) {
+			symbols.put(symbols_.get(i), i);
+		}
+		return new IndexFingerprint() {
+
+			private int getSymbol(IndexedObject object) {
+				Integer result = symbols.get(object);
+				return result == null ? -1 : result;
+			}
+
+			@Override
+			int getSymbol(IndexedClassExpression expression) {
+				return getSymbol((IndexedObject) expression);
+			}
+
+			@Override
+			int getSymbol(IndexedPropertyChain chain) {
+				return getSymbol((IndexedObject) chain);
+			}
+
+			@Override
+			int getSymbol(IndexedClassExpressionList list) {
+				return getSymbol((IndexedObject) list);
+			}
+
+		}.compute(saturationState_.getOntologyIndex());
+	}
+
+}
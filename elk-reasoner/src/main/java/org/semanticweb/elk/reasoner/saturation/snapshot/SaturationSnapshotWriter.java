@@ -0,0 +1,402 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation.snapshot;
+
+import static org.semanticweb.elk.reasoner.saturation.snapshot.SaturationSnapshotFormat.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+import org.semanticweb.elk.exceptions.ElkRuntimeException;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpressionList;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedComplexPropertyChain;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedDataHasValue;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedIndividual;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObject;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectComplementOf;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectHasSelf;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectIntersectionOf;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectProperty;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectSomeValuesFrom;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectUnionOf;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedPropertyChain;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedRangeFiller;
+import org.semanticweb.elk.reasoner.indexing.model.OntologyIndex;
+import org.semanticweb.elk.reasoner.saturation.SaturationState;
+import org.semanticweb.elk.reasoner.saturation.conclusions.classes.SaturationConclusionBaseFactory;
+import org.semanticweb.elk.reasoner.saturation.conclusions.model.SaturationConclusion;
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.reasoner.saturation.context.SubContextPremises;
+import org.semanticweb.elk.reasoner.saturation.rules.backwardlinks.BackwardLinkChainFromBackwardLinkRule;
+import org.semanticweb.elk.util.collections.ArrayHashMap;
+import org.semanticweb.elk.util.collections.Multimap;
+
+/**
+ * Writes the {@link Context}s of a {@link SaturationState} in the format
+ * described in {@link SaturationSnapshotFormat}. Every {@link Context} is
+ * written as the list of conclusions from which it can be restored by
+ * {@link SaturationSnapshotReader}. In addition, the snapshot defines all
+ * {@link IndexedClassExpression}s and {@link IndexedPropertyChain}s of the
+ * {@link OntologyIndex} and contains the {@link IndexFingerprint} of its rules,
+ * which are used to check that the snapshot is restored for the same
+ * ontology.
+ * 
+ * @see SaturationSnapshotReader
+ */
+public class SaturationSnapshotWriter {
+
+	private final SaturationState<?> saturationState_;
+
+	private final DataOutputStream out_;
+
+	private final SaturationConclusion.Factory conclusionFactory_ = SaturationConclusionBaseFactory
+			.getInstance();
+
+	/**
+	 * the positions of the symbol definitions for the written
+	 * {@link IndexedObject}s
+	 */
+	private final Map<IndexedObject, Integer> symbols_ = new ArrayHashMap<IndexedObject, Integer>(
+			1024);
+
+	private final SymbolWriter symbolWriter_ = new SymbolWriter();
+
+	/**
+	 * the number of written symbol definitions for
+	 * {@link IndexedClassExpression}s and {@link IndexedPropertyChain}s
+	 */
+	private int classExpressionCount_ = 0, propertyChainCount_ = 0;
+
+	private SaturationSnapshotWriter(SaturationState<?> saturationState,
+			OutputStream output) {
+		this.saturationState_ = saturationState;
+		this.out_ = new DataOutputStream(new BufferedOutputStream(output));
+	}
+
+	/**
+	 * Writes the snapshot of the given {@link SaturationState} to the given
+	 * {@link OutputStream}. All {@link Context}s of the
+	 * {@link SaturationState} must be saturated.
+	 * 
+	 * @param saturationState
+	 * @param output
+	 * @throws IOException
+	 *             if writing to the {@link OutputStream} fails
+	 */
+	public static void write(SaturationState<?> saturationState,
+			OutputStream output) throws IOException {
+		SaturationSnapshotWriter writer = new SaturationSnapshotWriter(
+				saturationState, output);
+		try {
+			writer.write();
+		} catch (ElkRuntimeException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			// else
+			throw e;
+		}
+	}
+
+	private void write() throws IOException {
+		out_.writeInt(MAGIC);
+		out_.writeInt(VERSION);
+		for (Context context : saturationState_.getContexts()) {
+			if (!context.isSaturated()) {
+				throw new IllegalStateException(
+						context + ": context is not saturated");
+			}
+			writeContext(context);
+		}
+		// define the remaining objects of the index
+		OntologyIndex index = saturationState_.getOntologyIndex();
+		for (IndexedClassExpression ice : index.getClassExpressions()) {
+			getSymbol(ice);
+		}
+		for (IndexedPropertyChain ipc : index.getPropertyChains()) {
+			getSymbol(ipc);
+		}
+		// may define the remaining lists of disjoint class expressions
+		int fingerprint = new IndexFingerprint() {
+
+			@Override
+			int getSymbol(IndexedClassExpression expression) {
+				return SaturationSnapshotWriter.this.getSymbol(expression);
+			}
+
+			@Override
+			int getSymbol(IndexedPropertyChain chain) {
+				return SaturationSnapshotWriter.this.getSymbol(chain);
+			}
+
+			@Override
+			int getSymbol(IndexedClassExpressionList list) {
+				return SaturationSnapshotWriter.this.getSymbol(list);
+			}
+
+		}.compute(index);
+		out_.writeByte(END);
+		writeInt(out_, classExpressionCount_);
+		writeInt(out_, propertyChainCount_);
+		writeInt(out_, fingerprint);
+		out_.flush();
+	}
+
+	private void writeContext(Context context) throws IOException {
+		IndexedContextRoot root = context.getRoot();
+		writeRecord(CONTEXT, getSymbol(root));
+		if (context.isInitialized()) {
+			out_.writeByte(CONTEXT_INITIALIZATION);
+		}
+		for (IndexedClassExpression subsumer : context
+				.getComposedSubsumers()) {
+			writeRecord(SUBSUMER_COMPOSED, getSymbol(subsumer));
+		}
+		for (IndexedClassExpression subsumer : context
+				.getDecomposedSubsumers()) {
+			writeRecord(SUBSUMER_DECOMPOSED, getSymbol(subsumer));
+		}
+		for (Map.Entry<IndexedObjectProperty, ? extends SubContextPremises> entry : context
+				.getSubContextPremisesByObjectProperty().entrySet()) {
+			IndexedObjectProperty subRoot = entry.getKey();
+			SubContextPremises subContext = entry.getValue();
+			int subRootSymbol = getSymbol(subRoot);
+			if (subContext.isInitialized()) {
+				writeRecord(SUB_CONTEXT_INITIALIZATION, subRootSymbol);
+			}
+			for (IndexedContextRoot source : subContext.getLinkedRoots()) {
+				writeRecord(BACKWARD_LINK, subRootSymbol, getSymbol(source));
+			}
+			for (IndexedObjectSomeValuesFrom carry : context
+					.getPropagatedSubsumers(subRoot)) {
+				writeRecord(PROPAGATION, subRootSymbol, getSymbol(carry));
+			}
+		}
+		int rootSymbol = getSymbol(root);
+		for (IndexedObjectProperty relation : context
+				.getLocalReflexiveObjectProperties()) {
+			writeRecord(BACKWARD_LINK, getSymbol(relation), rootSymbol);
+		}
+		Multimap<IndexedPropertyChain, IndexedContextRoot> forwardLinks = BackwardLinkChainFromBackwardLinkRule
+				.getForwardLinksFor(context);
+		if (forwardLinks != null) {
+			for (IndexedPropertyChain chain : forwardLinks.keySet()) {
+				int chainSymbol = getSymbol(chain);
+				for (IndexedContextRoot target : forwardLinks.get(chain)) {
+					writeRecord(FORWARD_LINK, chainSymbol, getSymbol(target));
+				}
+			}
+		}
+		for (IndexedClassExpressionList disjoint : context
+				.getDisjointExpressions()) {
+			int disjointSymbol = getSymbol(disjoint);
+			for (Integer position : context.getSubsumerPositions(disjoint)) {
+				writeRecord(DISJOINT_SUBSUMER, disjointSymbol, position);
+			}
+		}
+		if (context.containsConclusion(
+				conclusionFactory_.getContradiction(root))) {
+			out_.writeByte(CONTRADICTION);
+		}
+	}
+
+	private void writeRecord(byte tag, int... values) throws IOException {
+		out_.writeByte(tag);
+		for (int i = 0; i < values.length; i++) {
+			writeInt(out_, values[i]);
+		}
+	}
+
+	private int getSymbol(IndexedContextRoot root) {
+		Integer result = symbols_.get(root);
+		if (result == null) {
+			result = root.accept(symbolWriter_);
+		}
+		return result;
+	}
+
+	private int getSymbol(IndexedPropertyChain chain) {
+		Integer result = symbols_.get(chain);
+		if (result == null) {
+			result = chain.accept(symbolWriter_);
+		}
+		return result;
+	}
+
+	private int getSymbol(IndexedClassExpressionList list) {
+		Integer result = symbols_.get(list);
+		if (result == null) {
+			result = symbolWriter_.visit(list);
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the definitions of symbols for {@link IndexedObject}s, which are
+	 * not yet defined; the symbols for sub-objects are defined first
+	 */
+	private class SymbolWriter implements IndexedContextRoot.Visitor<Integer>,
+			IndexedPropertyChain.Visitor<Integer>,
+			IndexedClassExpressionList.Visitor<Integer> {
+
+		private int define(IndexedObject object, byte tag, int... values) {
+			try {
+				writeRecord(tag, values);
+			} catch (IOException e) {
+				throw new ElkRuntimeException(e);
+			}
+			int result = symbols_.size();
+			symbols_.put(object, result);
+			return result;
+		}
+
+		private int define(IndexedObject object, byte tag, String... values) {
+			try {
+				out_.writeByte(tag);
+				for (int i = 0; i < values.length; i++) {
+					writeString(out_, values[i]);
+				}
+			} catch (IOException e) {
+				throw new ElkRuntimeException(e);
+			}
+			int result = symbols_.size();
+			symbols_.put(object, result);
+			return result;
+		}
+
+		private int defineClassExpression(IndexedClassExpression object,
+				byte tag, int... values) {
+			classExpressionCount_++;
+			return define(object, tag, values);
+		}
+
+		private int defineClassExpression(IndexedClassExpression object,
+				byte tag, String... values) {
+			classExpressionCount_++;
+			return define(object, tag, values);
+		}
+
+		private int[] getSymbols(
+				Iterable<? extends IndexedClassExpression> members,
+				int size) {
+			// the first element is the number of members
+			int[] result = new int[size + 1];
+			int i = 0;
+			result[i++] = size;
+			for (IndexedClassExpression member : members) {
+				result[i++] = getSymbol(member);
+			}
+			return result;
+		}
+
+		@Override
+		public Integer visit(IndexedClass element) {
+			return defineClassExpression(element, CLASS,
+					element.getElkEntity().getIri().getFullIriAsString());
+		}
+
+		@Override
+		public Integer visit(IndexedIndividual element) {
+			return defineClassExpression(element, INDIVIDUAL,
+					element.getElkEntity().getIri().getFullIriAsString());
+		}
+
+		@Override
+		public Integer visit(IndexedDataHasValue element) {
+			return defineClassExpression(element, DATA_HAS_VALUE,
+					element.getRelation().getIri().getFullIriAsString(),
+					element.getFiller().getLexicalForm(),
+					element.getFiller().getDatatype().getIri()
+							.getFullIriAsString());
+		}
+
+		@Override
+		public Integer visit(IndexedObjectComplementOf element) {
+			return defineClassExpression(element, OBJECT_COMPLEMENT_OF,
+					getSymbol(element.getNegated()));
+		}
+
+		@Override
+		public Integer visit(IndexedObjectHasSelf element) {
+			return defineClassExpression(element, OBJECT_HAS_SELF,
+					getSymbol(element.getProperty()));
+		}
+
+		@Override
+		public Integer visit(IndexedObjectIntersectionOf element) {
+			int first = getSymbol(element.getFirstConjunct());
+			int second = getSymbol(element.getSecondConjunct());
+			return defineClassExpression(element, OBJECT_INTERSECTION_OF,
+					first, second);
+		}
+
+		@Override
+		public Integer visit(IndexedObjectSomeValuesFrom element) {
+			int property = getSymbol(element.getProperty());
+			int filler = getSymbol(element.getFiller());
+			return defineClassExpression(element, OBJECT_SOME_VALUES_FROM,
+					property, filler);
+		}
+
+		@Override
+		public Integer visit(IndexedObjectUnionOf element) {
+			return defineClassExpression(element, OBJECT_UNION_OF, getSymbols(
+					element.getDisjuncts(), element.getDisjuncts().size()));
+		}
+
+		@Override
+		public Integer visit(IndexedRangeFiller element) {
+			int property = getSymbol(element.getProperty());
+			int filler = getSymbol(element.getFiller());
+			return define(element, RANGE_FILLER, property, filler);
+		}
+
+		@Override
+		public Integer visit(IndexedObjectProperty element) {
+			propertyChainCount_++;
+			return define(element, OBJECT_PROPERTY,
+					element.getElkEntity().getIri().getFullIriAsString());
+		}
+
+		@Override
+		public Integer visit(IndexedComplexPropertyChain element) {
+			int first = getSymbol(element.getFirstProperty());
+			int suffix = getSymbol(element.getSuffixChain());
+			propertyChainCount_++;
+			return define(element, COMPLEX_PROPERTY_CHAIN, first, suffix);
+		}
+
+		@Override
+		public Integer visit(IndexedClassExpressionList element) {
+			return define(element, CLASS_EXPRESSION_LIST, getSymbols(
+					element.getElements(), element.getElements().size()));
+		}
+
+	}
+
+}
@@ -22,11 +22,21 @@
  */
 package org.semanticweb.elk.reasoner.stages;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 
 import org.semanticweb.elk.exceptions.ElkException;
@@ -40,14 +50,18 @@ import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
 import org.semanticweb.elk.owl.interfaces.ElkObject;
 import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.interfaces.ElkSubClassOfAxiom;
 import org.semanticweb.elk.owl.interfaces.ElkSubObjectPropertyExpression;
+import org.semanticweb.elk.owl.predefined.PredefinedElkIris;
 import org.semanticweb.elk.owl.visitors.ElkSubObjectPropertyExpressionVisitor;
 import org.semanticweb.elk.reasoner.ElkInconsistentOntologyException;
 import org.semanticweb.elk.reasoner.ProgressMonitor;
 import org.semanticweb.elk.reasoner.ReasonerInterrupter;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
 import org.semanticweb.elk.reasoner.consistency.ConsistencyCheckingState;
 import org.semanticweb.elk.reasoner.indexing.classes.DifferentialIndex;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverterImpl;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkIndexingException;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverter;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverterImpl;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
@@ -58,8 +72,17 @@ import org.semanticweb.elk.reasoner.indexing.model.IndexedPropertyChain;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedPropertyChain;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableOntologyIndex;
 import org.semanticweb.elk.reasoner.indexing.model.OntologyIndex;
+import org.semanticweb.elk.reasoner.entailments.model.Entailment;
+import org.semanticweb.elk.reasoner.entailments.model.EntailmentInference;
+import org.semanticweb.elk.reasoner.entailments.model.EntailmentProof;
+import org.semanticweb.elk.reasoner.entailments.model.HasReason;
+import org.semanticweb.elk.reasoner.query.EntailmentCheckingListener;
 import org.semanticweb.elk.reasoner.query.EntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.ProperEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.QueryCacheStatistics;
 import org.semanticweb.elk.reasoner.query.QueryNode;
+import org.semanticweb.elk.reasoner.query.UnsupportedIndexingEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.UnsupportedQueryTypeEntailmentQueryResult;
 import org.semanticweb.elk.reasoner.saturation.SaturationState;
 import org.semanticweb.elk.reasoner.saturation.SaturationStateFactory;
 import org.semanticweb.elk.reasoner.saturation.SaturationStatistics;
@@ -67,22 +90,29 @@ import org.semanticweb.elk.reasoner.saturation.conclusions.classes.SaturationCon
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.ClassConclusion;
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.SaturationConclusion;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.reasoner.saturation.snapshot.ElkSnapshotException;
+import org.semanticweb.elk.reasoner.saturation.snapshot.SaturationSnapshotReader;
+import org.semanticweb.elk.reasoner.saturation.snapshot.SaturationSnapshotWriter;
 import org.semanticweb.elk.reasoner.taxonomy.ElkClassKeyProvider;
 import org.semanticweb.elk.reasoner.taxonomy.ElkIndividualKeyProvider;
 import org.semanticweb.elk.reasoner.taxonomy.ElkObjectPropertyKeyProvider;
 import org.semanticweb.elk.reasoner.taxonomy.OrphanInstanceNode;
+import org.semanticweb.elk.reasoner.taxonomy.InstanceTaxonomySnapshot;
 import org.semanticweb.elk.reasoner.taxonomy.OrphanTaxonomyNode;
 import org.semanticweb.elk.reasoner.taxonomy.OrphanTypeNode;
 import org.semanticweb.elk.reasoner.taxonomy.SingletoneInstanceTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.SingletoneTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.TaxonomySnapshot;
 import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.Node;
 import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNodeFactory;
 import org.semanticweb.elk.reasoner.tracing.Conclusion;
 import org.semanticweb.elk.reasoner.tracing.DummyConclusionVisitor;
 import org.semanticweb.elk.reasoner.tracing.TraceState;
 import org.semanticweb.elk.reasoner.tracing.TracingProof;
+import org.semanticweb.elk.util.collections.ArrayHashMap;
 import org.semanticweb.elk.util.collections.ArrayHashSet;
 import org.semanticweb.elk.util.concurrent.computation.ConcurrentExecutor;
 import org.slf4j.Logger;
@@ -166,6 +196,29 @@ public abstract class AbstractReasonerState {
 	 */
 	private boolean allowIncrementalMode_ = true;
 
+	/**
+	 * if {@code true}, snapshots of the taxonomies are published after they
+	 * are computed
+	 */
+	private boolean publishTaxonomySnapshots_ = false;
+
+	/**
+	 * if {@code true}, the nodes of the class taxonomy needed for answering
+	 * queries about super-classes are computed without computing the whole
+	 * class taxonomy
+	 */
+	private boolean lazyClassTaxonomy_ = false;
+
+	/**
+	 * the snapshot of the last computed class taxonomy
+	 */
+	private volatile TaxonomySnapshot<ElkClass> classTaxonomySnapshot_ = null;
+
+	/**
+	 * the snapshot of the last computed instance taxonomy
+	 */
+	private volatile InstanceTaxonomySnapshot<ElkClass, ElkNamedIndividual> instanceTaxonomySnapshot_ = null;
+
 	/**
 	 * if the property hierarchy correspond to the loading axioms
 	 */
@@ -183,14 +236,21 @@ public abstract class AbstractReasonerState {
 
 	private final ElkPolarityExpressionConverter expressionConverter_;
 
+	/**
+	 * the maximal number of axioms that are registered as entailment queries
+	 * at once by {@link #checkEntailment(Iterable, EntailmentCheckingListener)}
+	 */
+	private final int entailmentCheckingBatchSize_;
+
 	private final ElkSubObjectPropertyExpressionVisitor<ModifiableIndexedPropertyChain> subPropertyConverter_;
 
-	protected AbstractReasonerState(ElkObject.Factory elkFactory) {
+	protected AbstractReasonerState(ElkObject.Factory elkFactory,
+			ReasonerConfiguration config) {
 		this.elkFactory_ = elkFactory;
 		this.ontologyIndex = new DifferentialIndex(elkFactory);
 		this.propertyHierarchyCompositionState_ = new PropertyHierarchyCompositionState();
 		this.saturationState = SaturationStateFactory
-				.createSaturationState(ontologyIndex);
+				.createSaturationState(ontologyIndex, config);
 		this.consistencyCheckingState = ConsistencyCheckingState
 				.create(saturationState, propertyHierarchyCompositionState_);
 		this.instanceTaxonomyState = new InstanceTaxonomyState(saturationState,
@@ -207,11 +267,14 @@ public abstract class AbstractReasonerState {
 		this.subPropertyConverter_ = new ElkAxiomConverterImpl(elkFactory,
 				ontologyIndex);
 		this.traceState_ = new TraceState(saturationState,
-				propertyHierarchyCompositionState_, elkFactory, ontologyIndex);
+				propertyHierarchyCompositionState_, elkFactory, ontologyIndex,
+				config);
 		this.classExpressionQueryState_ = new ClassExpressionQueryState(
-				saturationState, elkFactory, ontologyIndex, factory_);
+				saturationState, elkFactory, ontologyIndex, factory_, config);
 		this.entailmentQueryState_ = new EntailmentQueryState(saturationState,
-				consistencyCheckingState, factory_);
+				consistencyCheckingState, factory_, config);
+		this.entailmentCheckingBatchSize_ = Math.max(1, config.getParameterAsInt(
+				ReasonerConfiguration.ENTAILMENT_CHECKING_BATCH_SIZE));
 	}
 
 	public ElkObject.Factory getElkFactory() {
@@ -241,6 +304,172 @@ public abstract class AbstractReasonerState {
 		return allowIncrementalMode_;
 	}
 
+	/**
+	 * @return the statistics of the cache of class expressions queried using
+	 *         methods such as
+	 *         {@link #querySatisfiability(ElkClassExpression)}
+	 */
+	public synchronized QueryCacheStatistics getClassExpressionQueryCacheStatistics() {
+		return classExpressionQueryState_.getCacheStatistics();
+	}
+
+	/**
+	 * @return the statistics of the cache of axioms queried for entailment
+	 */
+	public synchronized QueryCacheStatistics getEntailmentQueryCacheStatistics() {
+		return entailmentQueryState_.getCacheStatistics();
+	}
+
+	/**
+	 * @return the statistics of the conclusions traced for explanations using
+	 *         methods such as {@link #explainConclusions(Iterable)}
+	 */
+	public synchronized QueryCacheStatistics getTracingCacheStatistics() {
+		return traceState_.getCacheStatistics();
+	}
+
+	/**
+	 * Sets whether immutable snapshots of the class and instance taxonomies
+	 * should be created every time these taxonomies are computed. The
+	 * snapshots are created only when the whole taxonomy is computed; the
+	 * nodes computed on demand when the lazy class taxonomy is enabled are
+	 * not published until the class taxonomy is requested.
+	 * 
+	 * @param publish
+	 *            if {@code true}, the snapshots are created
+	 * @see #getClassTaxonomySnapshot()
+	 * @see #getInstanceTaxonomySnapshot()
+	 */
+	public synchronized void setPublishTaxonomySnapshots(boolean publish) {
+		publishTaxonomySnapshots_ = publish;
+		if (!publish) {
+			clearTaxonomySnapshots();
+		}
+	}
+
+	public synchronized boolean isPublishTaxonomySnapshots() {
+		return publishTaxonomySnapshots_;
+	}
+
+	/**
+	 * Sets whether the nodes of the class taxonomy needed for answering
+	 * queries about equivalent classes, super-classes, and satisfiability of
+	 * named classes should be computed on demand without computing the whole
+	 * class taxonomy
+	 * 
+	 * @param lazy
+	 *            if {@code true}, the nodes are computed on demand
+	 * @see #getPartialTaxonomyNode(ElkClass)
+	 */
+	public synchronized void setLazyClassTaxonomy(boolean lazy) {
+		lazyClassTaxonomy_ = lazy;
+	}
+
+	public synchronized boolean isLazyClassTaxonomy() {
+		return lazyClassTaxonomy_;
+	}
+
+	/**
+	 * Sets whether the incremental update of the class taxonomy should remove
+	 * only the nodes of the classes whose subsumers have changed (and
+	 * disconnect their direct sub-nodes) instead of the nodes of all classes
+	 * whose saturation was affected by the changes
+	 * 
+	 * @param fine
+	 *            if {@code true}, the nodes of classes with unchanged
+	 *            subsumers are kept in the taxonomy
+	 */
+	public synchronized void setFineTaxonomyCleaning(boolean fine) {
+		classTaxonomyState.setPruneUnchanged(fine);
+	}
+
+	/**
+	 * Sets whether the realization should group the individuals that have the
+	 * same told subsumers and are not used in other axioms, and compute the
+	 * types only for one individual of each group; the types of other
+	 * individuals in the group are copied without saturating their contexts.
+	 * The same grouping is used for checking consistency of the individuals
+	 * when {@code owl:Nothing} occurs positively in the ontology.
+	 * 
+	 * @param grouping
+	 *            if {@code true}, the individuals are grouped
+	 */
+	public synchronized void setRealizationGrouping(boolean grouping) {
+		instanceTaxonomyState.setGroupIndividuals(grouping);
+		consistencyCheckingState.setGroupIndividuals(grouping);
+	}
+
+	/**
+	 * Returns the snapshot of the class taxonomy created after the class
+	 * taxonomy was computed the last time. This method does not trigger any
+	 * reasoning and does not acquire the lock of the reasoner, thus it can be
+	 * called concurrently with other methods; the returned snapshot does not
+	 * reflect the changes made after the last classification. The snapshot is
+	 * removed once the reasoner applies changes that modify the saturation or
+	 * finds that the ontology is inconsistent. If the lazy class taxonomy is
+	 * enabled, no snapshot is created until the whole class taxonomy is
+	 * requested.
+	 * 
+	 * @return the last published snapshot of the class taxonomy, or
+	 *         {@code null} if the class taxonomy has not been computed since
+	 *         publishing of snapshots was enabled or since it was invalidated
+	 * @see #setPublishTaxonomySnapshots(boolean)
+	 * @see #setLazyClassTaxonomy(boolean)
+	 */
+	public TaxonomySnapshot<ElkClass> getClassTaxonomySnapshot() {
+		return classTaxonomySnapshot_;
+	}
+
+	/**
+	 * Returns the snapshot of the instance taxonomy created after the instance
+	 * taxonomy was computed the last time. This method does not trigger any
+	 * reasoning and does not acquire the lock of the reasoner, thus it can be
+	 * called concurrently with other methods; the returned snapshot does not
+	 * reflect the changes made after the last realization. The snapshot is
+	 * removed once the reasoner applies changes that modify the saturation or
+	 * finds that the ontology is inconsistent.
+	 * 
+	 * @return the last published snapshot of the instance taxonomy, or
+	 *         {@code null} if the instance taxonomy has not been computed
+	 *         since publishing of snapshots was enabled or since it was
+	 *         invalidated
+	 * @see #setPublishTaxonomySnapshots(boolean)
+	 */
+	public InstanceTaxonomySnapshot<ElkClass, ElkNamedIndividual> getInstanceTaxonomySnapshot() {
+		return instanceTaxonomySnapshot_;
+	}
+
+	/**
+	 * Creates a snapshot of the class taxonomy if publishing of snapshots is
+	 * enabled; should be called when the class taxonomy is complete
+	 */
+	synchronized void publishClassTaxonomySnapshot() {
+		if (publishTaxonomySnapshots_) {
+			classTaxonomySnapshot_ = new TaxonomySnapshot<ElkClass>(
+					classTaxonomyState.getTaxonomy());
+		}
+	}
+
+	/**
+	 * Creates a snapshot of the instance taxonomy if publishing of snapshots
+	 * is enabled; should be called when the instance taxonomy is complete
+	 */
+	synchronized void publishInstanceTaxonomySnapshot() {
+		if (publishTaxonomySnapshots_) {
+			instanceTaxonomySnapshot_ = new InstanceTaxonomySnapshot<ElkClass, ElkNamedIndividual>(
+					instanceTaxonomyState.getTaxonomy());
+		}
+	}
+
+	/**
+	 * Removes the published snapshots of the taxonomies; should be called
+	 * when the taxonomies are invalidated
+	 */
+	private void clearTaxonomySnapshots() {
+		classTaxonomySnapshot_ = null;
+		instanceTaxonomySnapshot_ = null;
+	}
+
 	public synchronized boolean isIncrementalMode() {
 		return ontologyIndex.isIncrementalMode();
 	}
@@ -369,6 +598,7 @@ public abstract class AbstractReasonerState {
 
 		if (changed) {
 			stageManager.consistencyCheckingStage.invalidateRecursive();
+			clearTaxonomySnapshots();
 		}
 
 	}
@@ -444,7 +674,12 @@ public abstract class AbstractReasonerState {
 		restoreSaturation();
 		complete(stageManager.consistencyCheckingStage);
 
-		return consistencyCheckingState.isInconsistent();
+		if (consistencyCheckingState.isInconsistent()) {
+			clearTaxonomySnapshots();
+			return true;
+		}
+		// else
+		return false;
 	}
 
 	/**
@@ -507,6 +742,69 @@ public abstract class AbstractReasonerState {
 		return result;
 	}
 
+	/**
+	 * Returns the node of the given class in the class taxonomy such that
+	 * this node and all its super-nodes are computed. If the lazy class
+	 * taxonomy is enabled, only the nodes for this class and its super-classes
+	 * are computed if the class taxonomy has not been computed yet; the
+	 * remaining nodes are computed when the class taxonomy is requested. The
+	 * direct sub-nodes of the returned node may be incomplete. If the lazy
+	 * class taxonomy is not enabled, or the class is unsatisfiable, the whole
+	 * class taxonomy is computed.
+	 * 
+	 * @param elkClass
+	 * @return the node of the given class in the class taxonomy or
+	 *         {@code null} if the class does not occur in the ontology
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the reasoning process cannot be completed successfully
+	 * @see #setLazyClassTaxonomy(boolean)
+	 */
+	protected synchronized TaxonomyNode<ElkClass> getPartialTaxonomyNode(
+			final ElkClass elkClass)
+			throws ElkInconsistentOntologyException, ElkException {
+
+		if (!lazyClassTaxonomy_) {
+			return getTaxonomy().getNode(elkClass);
+		}
+		// else
+		ruleAndConclusionStats.reset();
+
+		// also restores saturation and cleans the taxonomy if necessary
+		if (isInconsistent()) {
+			throw new ElkInconsistentOntologyException();
+		}
+
+		final Taxonomy<ElkClass> taxonomy = classTaxonomyState.getTaxonomy();
+		if (stageManager.classTaxonomyComputationStage.isCompleted()) {
+			return taxonomy.getNode(elkClass);
+		}
+		// else
+		final IndexedClassExpression converted = elkClass
+				.accept(expressionConverter_);
+		if (!(converted instanceof IndexedClass)
+				|| !converted.occurs()) {
+			// fresh class
+			return null;
+		}
+		// else
+		classTaxonomyState.addToAddLazily((IndexedClass) converted);
+		// the top node is needed for the nodes without named super-classes
+		classTaxonomyState.addToAddLazily(ontologyIndex.getOwlThing());
+		stageManager.partialClassTaxonomyComputationStage
+				.invalidateRecursive();
+		complete(stageManager.partialClassTaxonomyComputationStage);
+
+		final TaxonomyNode<ElkClass> node = taxonomy.getNode(elkClass);
+		if (node == null || node.equals(taxonomy.getBottomNode())) {
+			// the bottom node is complete only in the whole taxonomy
+			return getTaxonomy().getNode(elkClass);
+		}
+		// else
+		return node;
+	}
+
 	/**
 	 * Compute the inferred taxonomy of the named classes with instances if this
 	 * has not been done yet.
@@ -662,12 +960,38 @@ public abstract class AbstractReasonerState {
 			final boolean computeInstanceTaxonomy)
 			throws ElkInconsistentOntologyException, ElkException {
 
-		// Load the query
-		classExpressionQueryState_.registerQuery(classExpression);
+		computeQueries(Collections.singleton(classExpression),
+				computeInstanceTaxonomy);
+
+		return classExpressionQueryState_.isIndexed(classExpression);
+	}
+
+	/**
+	 * Indexes all supplied class expressions whose query results are not cached
+	 * yet in one loading pass and computes all of them by one run of the query
+	 * stage, so that the results for the successfully indexed expressions are
+	 * ready in {@link #classExpressionQueryState_}. The class expressions that
+	 * could not be indexed can be recognized using
+	 * {@link ClassExpressionQueryState#isIndexed(ElkClassExpression)}.
+	 * 
+	 * @param classExpressions
+	 * @param computeInstanceTaxonomy
+	 *            if {@code false}, only class taxonomy is computed, if
+	 *            {@code true}, also instance taxonomy is computed.
+	 * @throws ElkInconsistentOntologyException
+	 * @throws ElkException
+	 */
+	private void computeQueries(
+			final Iterable<? extends ElkClassExpression> classExpressions,
+			final boolean computeInstanceTaxonomy)
+			throws ElkInconsistentOntologyException, ElkException {
+
+		// Load the queries
+		classExpressionQueryState_.registerQueries(classExpressions);
 		ensureLoading();
 
-		if (!classExpressionQueryState_.isIndexed(classExpression)) {
-			return false;
+		if (!hasIndexedQueries(classExpressions, false)) {
+			return;
 		}
 
 		// Complete all stages
@@ -682,21 +1006,21 @@ public abstract class AbstractReasonerState {
 		 * stages that clean contexts. These are run, if necessary, by the call
 		 * above.
 		 */
-		if (classExpressionQueryState_.isComputed(classExpression)) {
-			return true;
+		if (!hasIndexedQueries(classExpressions, true)) {
+			return;
 		}
 		stageManager.classExpressionQueryStage.invalidateRecursive();
 		try {
 			complete(stageManager.classExpressionQueryStage);
 		} catch (final ElkInterruptedException e) {
-			if (classExpressionQueryState_.isComputed(classExpression)) {
+			if (!hasIndexedQueries(classExpressions, true)) {
 				/*
-				 * If the stage was interrupted, but the query is already
+				 * If the stage was interrupted, but the queries are already
 				 * computed, completing the stage will not be attempted during
 				 * the next call. We need to call postExecute() manually, so
 				 * that the stage wouldn't stay initialized with computation
 				 * that already processed all its inputs (or at least the
-				 * queried class).
+				 * queried classes).
 				 */
 				stageManager.classExpressionQueryStage.postExecute();
 			} else {
@@ -704,7 +1028,28 @@ public abstract class AbstractReasonerState {
 			}
 		}
 
-		return true;
+	}
+
+	/**
+	 * @param classExpressions
+	 * @param notComputed
+	 *            if {@code true}, only the queries that are not computed yet
+	 *            are taken into account
+	 * @return {@code true} if some of the supplied class expressions was
+	 *         indexed as a query (and, if requested, is not computed yet)
+	 */
+	private boolean hasIndexedQueries(
+			final Iterable<? extends ElkClassExpression> classExpressions,
+			final boolean notComputed) {
+		for (final ElkClassExpression classExpression : classExpressions) {
+			if (classExpressionQueryState_.isIndexed(classExpression)
+					&& !(notComputed && classExpressionQueryState_
+							.isComputed(classExpression))) {
+				return true;
+			}
+		}
+		// else
+		return false;
 	}
 
 	/**
@@ -723,7 +1068,42 @@ public abstract class AbstractReasonerState {
 			final ElkClassExpression classExpression)
 			throws ElkInconsistentOntologyException, ElkException {
 
-		if (computeQuery(classExpression, false)) {
+		computeQuery(classExpression, false);
+		return getQueriedSatisfiability(classExpression);
+	}
+
+	/**
+	 * Decides whether the supplied (possibly complex) class expressions are
+	 * satisfiable. All queries are indexed and computed together. The query
+	 * state is updated accordingly.
+	 * 
+	 * @param classExpressions
+	 *            The queried class expressions.
+	 * @return A map from each queried class expression to whether it is
+	 *         satisfiable.
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the reasoning process cannot be completed successfully
+	 */
+	protected Map<ElkClassExpression, Boolean> querySatisfiability(
+			final Iterable<? extends ElkClassExpression> classExpressions)
+			throws ElkInconsistentOntologyException, ElkException {
+
+		computeQueries(classExpressions, false);
+
+		final Map<ElkClassExpression, Boolean> result = new ArrayHashMap<ElkClassExpression, Boolean>();
+		for (final ElkClassExpression classExpression : classExpressions) {
+			result.put(classExpression,
+					getQueriedSatisfiability(classExpression));
+		}
+		return result;
+	}
+
+	private boolean getQueriedSatisfiability(
+			final ElkClassExpression classExpression) throws ElkException {
+
+		if (classExpressionQueryState_.isIndexed(classExpression)) {
 			return classExpressionQueryState_.isSatisfiable(classExpression);
 		} else {
 			// classExpression couldn't be indexed; pretend it is a fresh class
@@ -749,7 +1129,42 @@ public abstract class AbstractReasonerState {
 			final ElkClassExpression classExpression)
 			throws ElkInconsistentOntologyException, ElkException {
 
-		if (computeQuery(classExpression, false)) {
+		computeQuery(classExpression, false);
+		return getQueriedEquivalentClasses(classExpression);
+	}
+
+	/**
+	 * Computes all atomic classes that are equivalent to each of the supplied
+	 * (possibly complex) class expressions. All queries are indexed and
+	 * computed together. The query state is updated accordingly.
+	 * 
+	 * @param classExpressions
+	 *            The queried class expressions.
+	 * @return A map from each queried class expression to all atomic classes
+	 *         that are equivalent to it.
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the reasoning process cannot be completed successfully
+	 */
+	protected Map<ElkClassExpression, Node<ElkClass>> queryEquivalentClasses(
+			final Iterable<? extends ElkClassExpression> classExpressions)
+			throws ElkInconsistentOntologyException, ElkException {
+
+		computeQueries(classExpressions, false);
+
+		final Map<ElkClassExpression, Node<ElkClass>> result = new ArrayHashMap<ElkClassExpression, Node<ElkClass>>();
+		for (final ElkClassExpression classExpression : classExpressions) {
+			result.put(classExpression,
+					getQueriedEquivalentClasses(classExpression));
+		}
+		return result;
+	}
+
+	private Node<ElkClass> getQueriedEquivalentClasses(
+			final ElkClassExpression classExpression) throws ElkException {
+
+		if (classExpressionQueryState_.isIndexed(classExpression)) {
 
 			final Node<ElkClass> result = classExpressionQueryState_
 					.getEquivalentClasses(classExpression);
@@ -783,7 +1198,42 @@ public abstract class AbstractReasonerState {
 			final ElkClassExpression classExpression)
 			throws ElkInconsistentOntologyException, ElkException {
 
-		if (computeQuery(classExpression, false)) {
+		computeQuery(classExpression, false);
+		return getQueriedDirectSuperClasses(classExpression);
+	}
+
+	/**
+	 * Computes all atomic direct super-classes of each of the supplied
+	 * (possibly complex) class expressions. All queries are indexed and
+	 * computed together. The query state is updated accordingly.
+	 * 
+	 * @param classExpressions
+	 *            The queried class expressions.
+	 * @return A map from each queried class expression to all its atomic
+	 *         direct super-classes.
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the reasoning process cannot be completed successfully
+	 */
+	protected Map<ElkClassExpression, Set<? extends Node<ElkClass>>> queryDirectSuperClasses(
+			final Iterable<? extends ElkClassExpression> classExpressions)
+			throws ElkInconsistentOntologyException, ElkException {
+
+		computeQueries(classExpressions, false);
+
+		final Map<ElkClassExpression, Set<? extends Node<ElkClass>>> result = new ArrayHashMap<ElkClassExpression, Set<? extends Node<ElkClass>>>();
+		for (final ElkClassExpression classExpression : classExpressions) {
+			result.put(classExpression,
+					getQueriedDirectSuperClasses(classExpression));
+		}
+		return result;
+	}
+
+	private Set<? extends Node<ElkClass>> getQueriedDirectSuperClasses(
+			final ElkClassExpression classExpression) throws ElkException {
+
+		if (classExpressionQueryState_.isIndexed(classExpression)) {
 
 			final Set<? extends Node<ElkClass>> result = classExpressionQueryState_
 					.getDirectSuperClasses(classExpression);
@@ -817,9 +1267,44 @@ public abstract class AbstractReasonerState {
 			final ElkClassExpression classExpression)
 			throws ElkInconsistentOntologyException, ElkException {
 
-		if (computeQuery(classExpression, false)) {
+		computeQuery(classExpression, false);
+		return getQueriedDirectSubClasses(classExpression);
+	}
 
-			final Taxonomy<ElkClass> taxonomy = getTaxonomy();
+	/**
+	 * Computes all atomic direct sub-classes of each of the supplied (possibly
+	 * complex) class expressions. All queries are indexed and computed
+	 * together. The query state is updated accordingly.
+	 * 
+	 * @param classExpressions
+	 *            The queried class expressions.
+	 * @return A map from each queried class expression to all its atomic
+	 *         direct sub-classes.
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the reasoning process cannot be completed successfully
+	 */
+	protected Map<ElkClassExpression, Set<? extends Node<ElkClass>>> queryDirectSubClasses(
+			final Iterable<? extends ElkClassExpression> classExpressions)
+			throws ElkInconsistentOntologyException, ElkException {
+
+		computeQueries(classExpressions, false);
+
+		final Map<ElkClassExpression, Set<? extends Node<ElkClass>>> result = new ArrayHashMap<ElkClassExpression, Set<? extends Node<ElkClass>>>();
+		for (final ElkClassExpression classExpression : classExpressions) {
+			result.put(classExpression,
+					getQueriedDirectSubClasses(classExpression));
+		}
+		return result;
+	}
+
+	private Set<? extends Node<ElkClass>> getQueriedDirectSubClasses(
+			final ElkClassExpression classExpression) throws ElkException {
+
+		final Taxonomy<ElkClass> taxonomy = getTaxonomy();
+
+		if (classExpressionQueryState_.isIndexed(classExpression)) {
 
 			final Set<? extends Node<ElkClass>> result = classExpressionQueryState_
 					.getDirectSubClasses(classExpression, taxonomy);
@@ -832,7 +1317,7 @@ public abstract class AbstractReasonerState {
 		} else {
 			// classExpression couldn't be indexed; pretend it is a fresh class
 
-			return Collections.singleton(getTaxonomy().getBottomNode());
+			return Collections.singleton(taxonomy.getBottomNode());
 		}
 
 	}
@@ -858,7 +1343,8 @@ public abstract class AbstractReasonerState {
 			final InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = getInstanceTaxonomy();
 
 			final Set<? extends Node<ElkNamedIndividual>> result = classExpressionQueryState_
-					.getDirectInstances(classExpression, taxonomy);
+					.getDirectInstances(classExpression, taxonomy,
+							instanceTaxonomyState.getRepresentatives());
 			if (result == null) {
 				return taxonomy.getBottomNode().getDirectInstanceNodes();
 			} else {
@@ -910,6 +1396,256 @@ public abstract class AbstractReasonerState {
 		return isEntailed(Collections.singleton(axiom)).get(axiom);
 	}
 
+	/**
+	 * Checks entailment of the supplied {@code axioms} by the currently loaded
+	 * ontology and notifies the given {@link EntailmentCheckingListener} about
+	 * the result for each axiom. The axioms are consumed in batches: the axioms
+	 * of each batch are indexed as queries together, the contexts needed to
+	 * answer them are saturated together, and their derivability is checked
+	 * by concurrent workers. Subsumptions between class expressions that are
+	 * already indexed and saturated, e.g., those of asserted axioms after
+	 * classification, are decided without indexing them as queries. Unlike
+	 * {@link #isEntailed(Iterable)}, no results are kept for the checked
+	 * axioms, so arbitrarily many axioms can be checked with bounded memory.
+	 * 
+	 * The listener is notified in the calling thread. The axioms decided
+	 * without indexing are reported immediately, the axioms of each batch in
+	 * their order once the batch is checked; thus, the results are reported
+	 * in the order of the axioms only within each of these groups. The
+	 * checking stops as soon as the listener returns {@code false}.
+	 * 
+	 * @param axioms
+	 *            the axioms whose entailment is checked
+	 * @param listener
+	 *            the {@link EntailmentCheckingListener} notified about the
+	 *            results
+	 * @return {@code true} if the listener was notified about all axioms and
+	 *         {@code false} if the checking was stopped by the listener
+	 * @throws ElkException
+	 */
+	public synchronized boolean checkEntailment(
+			final Iterable<? extends ElkAxiom> axioms,
+			final EntailmentCheckingListener listener) throws ElkException {
+		return checkEntailment(axioms, false, listener);
+	}
+
+	/**
+	 * Decides whether all supplied {@code axioms} are entailed by the
+	 * currently loaded ontology. The axioms are checked like in
+	 * {@link #checkEntailment(Iterable, EntailmentCheckingListener)}, but the
+	 * checking stops as soon as some axiom is found not to be entailed or its
+	 * entailment cannot be checked.
+	 * 
+	 * @param axioms
+	 *            the axioms whose entailment is checked
+	 * @return {@code true} if all axioms are entailed and {@code false}
+	 *         otherwise
+	 * @throws ElkException
+	 */
+	public synchronized boolean areEntailed(
+			final Iterable<? extends ElkAxiom> axioms) throws ElkException {
+		return checkEntailment(axioms, true, new EntailmentCheckingListener() {
+
+			@Override
+			public boolean notifyEntailed(final ElkAxiom axiom) {
+				return true;
+			}
+
+			@Override
+			public boolean notifyNotEntailed(final ElkAxiom axiom) {
+				return false;
+			}
+
+			@Override
+			public boolean notifyUnsupported(final ElkAxiom axiom) {
+				return false;
+			}
+
+		});
+	}
+
+	private boolean checkEntailment(final Iterable<? extends ElkAxiom> axioms,
+			final boolean stopIfNotEntailed,
+			final EntailmentCheckingListener listener) throws ElkException {
+
+		// the consistency does not change when queries are indexed
+		final boolean isConsistent = !isInconsistent();
+
+		List<ElkAxiom> batch = new ArrayList<ElkAxiom>();
+		for (final ElkAxiom axiom : axioms) {
+			final Boolean entailed = isConsistent
+					? isEntailedWithoutIndexing(axiom)
+					: null;
+			if (entailed == null) {
+				batch.add(axiom);
+				if (batch.size() == entailmentCheckingBatchSize_) {
+					if (!checkEntailment(batch, stopIfNotEntailed, listener)) {
+						return false;
+					}
+					// else
+					batch = new ArrayList<ElkAxiom>();
+				}
+			} else if (entailed) {
+				if (!listener.notifyEntailed(axiom)) {
+					return false;
+				}
+			} else if (!listener.notifyNotEntailed(axiom)
+					|| stopIfNotEntailed) {
+				return false;
+			}
+		}
+
+		return batch.isEmpty()
+				|| checkEntailment(batch, stopIfNotEntailed, listener);
+	}
+
+	private boolean checkEntailment(final List<ElkAxiom> batch,
+			final boolean stopIfNotEntailed,
+			final EntailmentCheckingListener listener) throws ElkException {
+
+		entailmentQueryState_.registerQueries(batch);
+
+		restoreSaturation();
+
+		stageManager.entailmentQueryStage.invalidateRecursive();
+		complete(stageManager.entailmentQueryStage);
+
+		return entailmentQueryState_.checkEntailment(batch, stopIfNotEntailed,
+				listener, getProcessExecutor(), getNumberOfWorkers());
+	}
+
+	/**
+	 * Decides entailment of {@link ElkSubClassOfAxiom}s with a named
+	 * superclass whose subclass is already indexed and saturated, or whose
+	 * superclass is {@code owl:Thing}; the ontology must be consistent and no
+	 * changes must be pending
+	 * 
+	 * @param axiom
+	 * @return whether the given axiom is entailed or {@code null} if this
+	 *         cannot be decided without indexing the axiom as a query
+	 */
+	private Boolean isEntailedWithoutIndexing(final ElkAxiom axiom) {
+		if (!(axiom instanceof ElkSubClassOfAxiom)) {
+			return null;
+		}
+		// else
+		final ElkSubClassOfAxiom subClassOfAxiom = (ElkSubClassOfAxiom) axiom;
+		if (!(subClassOfAxiom
+				.getSuperClassExpression() instanceof ElkClass)) {
+			// other subsumers may be not derived unless indexed negatively
+			return null;
+		}
+		// else
+		if (((ElkClass) subClassOfAxiom.getSuperClassExpression()).getIri()
+				.equals(PredefinedElkIris.OWL_THING)) {
+			// subsumptions by owl:Thing are derived only if it occurs negatively
+			return true;
+		}
+		// else
+		final IndexedClassExpression subClass, superClass;
+		try {
+			subClass = subClassOfAxiom.getSubClassExpression()
+					.accept(expressionConverter_);
+			superClass = subClassOfAxiom.getSuperClassExpression()
+					.accept(expressionConverter_);
+		} catch (final ElkIndexingException e) {
+			return null;
+		}
+		if (subClass == null || superClass == null) {
+			// not indexed
+			return null;
+		}
+		// else
+		final Context context = saturationState.getContext(subClass);
+		if (context == null || !context.isSaturated()) {
+			return null;
+		}
+		// else
+		return context.containsConclusion(factory_.getContradiction(subClass))
+				|| context.containsConclusion(factory_
+						.getSubClassInclusionComposed(subClass, superClass));
+	}
+
+	/**
+	 * Saves the current saturation of the ontology to the given file, from
+	 * which it can be restored using {@link #loadSnapshot(File)} after the
+	 * same ontology is loaded again. The saturation is restored first if the
+	 * ontology has changed. The taxonomies are not saved since they can be
+	 * computed from the saturation without applying inference rules.
+	 *
+	 * @param file
+	 *            the file to which the snapshot is written
+	 * @throws ElkException
+	 *             if the saturation cannot be restored or the snapshot cannot
+	 *             be written
+	 */
+	public synchronized void saveSnapshot(File file) throws ElkException {
+		restoreSaturation();
+		try {
+			OutputStream output = new FileOutputStream(file);
+			try {
+				SaturationSnapshotWriter.write(saturationState, output);
+			} finally {
+				output.close();
+			}
+		} catch (IOException e) {
+			throw new ElkSnapshotException(
+					file + ": cannot write the snapshot", e);
+		}
+	}
+
+	/**
+	 * Replaces the saturation of the loaded ontology with the one saved in the
+	 * given file using {@link #saveSnapshot(File)}. The ontology must be the
+	 * same as the one for which the snapshot was saved. After that, the
+	 * taxonomies and the results of other reasoning tasks are computed from
+	 * the restored saturation, and subsequent changes in the ontology are
+	 * processed incrementally, if possible. The file is memory-mapped for
+	 * reading.
+	 *
+	 * @param file
+	 *            the file from which the snapshot is read
+	 * @throws ElkException
+	 *             if the snapshot cannot be read or it was saved for a
+	 *             different ontology; in this case, the saturation is
+	 *             computed from scratch when needed
+	 */
+	public synchronized void loadSnapshot(File file) throws ElkException {
+		ensureLoading();
+		if (isIncrementalMode()) {
+			// the snapshot contains the saturation of all loaded changes
+			stageManager.propertyInitializationStage.invalidateRecursive();
+			setNonIncrementalMode();
+		}
+		stageManager.contextInitializationStage.invalidateRecursive();
+		stageManager.incrementalCompletionStage.invalidateRecursive();
+		complete(stageManager.contextInitializationStage);
+		boolean restored = false;
+		try {
+			RandomAccessFile input = new RandomAccessFile(file, "r");
+			try {
+				FileChannel channel = input.getChannel();
+				int contextCount = SaturationSnapshotReader.read(
+						saturationState, ontologyIndex, elkFactory_,
+						channel.map(FileChannel.MapMode.READ_ONLY, 0,
+								channel.size()));
+				LOGGER_.debug("{}: {} contexts restored", file, contextCount);
+				restored = true;
+			} finally {
+				input.close();
+			}
+		} catch (IOException e) {
+			throw new ElkSnapshotException(
+					file + ": cannot read the snapshot", e);
+		} finally {
+			if (!restored) {
+				// partially restored contexts must be removed
+				stageManager.contextInitializationStage.invalidateRecursive();
+			}
+		}
+		stageManager.consistencyCheckingStage.invalidateRecursive();
+	}
+
 	/**
 	 * @return all {@link ElkClass}es occurring in the ontology
 	 */
@@ -1001,18 +1737,30 @@ public abstract class AbstractReasonerState {
 	 * TRACING METHODS
 	 *---------------------------------------------------*/
 
-	public TracingProof explainConclusions(
+	public synchronized TracingProof explainConclusions(
 			final Iterable<? extends Conclusion> conclusions)
 			throws ElkException {
+		// the traced inferences should stay within the capacity
+		traceState_.evictTraced();
 		for (final Conclusion conclusion : conclusions) {
 			conclusion.accept(new DummyConclusionVisitor<Void>() {
 				@Override
 				protected Void defaultVisit(final ClassConclusion conclusion) {
-					traceState_.toTrace(conclusion);
+					traceState_.toExplain(conclusion);
 					return null;
 				}
 			});
 		}
+		completeTracing();
+		// trace again the premises that were evicted
+		while (traceState_.toTraceEvicted(conclusions)) {
+			completeTracing();
+		}
+		traceState_.updateCache();
+		return traceState_;
+	}
+
+	private void completeTracing() throws ElkException {
 		if (stageManager.inferenceTracingStage.isCompleted()) {
 			/*
 			 * The tracing stage should be invalidated only when it is not
@@ -1024,7 +1772,95 @@ public abstract class AbstractReasonerState {
 		}
 		getTaxonomyQuietly(); // ensure that classes are saturated
 		complete(stageManager.inferenceTracingStage);
-		return traceState_;
+	}
+
+	/**
+	 * Traces the reasons of the proofs of entailment of all given
+	 * {@code axioms} using one run of the tracing stage, in which the
+	 * conclusions are traced in parallel. Conclusions that were already traced
+	 * for previous queries are not traced again. After this call, the
+	 * conclusions used in the proofs of all given {@code axioms} can be
+	 * explained without running the tracing computation.
+	 * 
+	 * @param axioms
+	 *            the axioms whose proofs should be traced
+	 * @return the {@link TracingProof} containing the inferences of the
+	 *         traced conclusions
+	 * @throws ElkException
+	 */
+	public synchronized TracingProof explainEntailments(
+			final Iterable<? extends ElkAxiom> axioms) throws ElkException {
+		final List<Conclusion> reasons = new ArrayList<Conclusion>();
+		final EntailmentQueryResult.Visitor<Void, ElkException> reasonCollector = new EntailmentQueryResult.Visitor<Void, ElkException>() {
+
+			@Override
+			public Void visit(final ProperEntailmentQueryResult result)
+					throws ElkException {
+				try {
+					collectReasons(result.getEntailment(),
+							result.getEvidence(false), reasons);
+				} finally {
+					result.unlock();
+				}
+				return null;
+			}
+
+			@Override
+			public Void visit(
+					final UnsupportedIndexingEntailmentQueryResult result) {
+				// no proofs
+				return null;
+			}
+
+			@Override
+			public Void visit(
+					final UnsupportedQueryTypeEntailmentQueryResult result) {
+				// no proofs
+				return null;
+			}
+
+		};
+		for (final EntailmentQueryResult result : isEntailed(axioms)
+				.values()) {
+			result.accept(reasonCollector);
+		}
+		LOGGER_.debug("explaining {} conclusions", reasons.size());
+		return explainConclusions(reasons);
+	}
+
+	/**
+	 * Adds to the given {@link Collection} the {@link Conclusion}s that are the
+	 * reasons of the {@link EntailmentInference}s of the given
+	 * {@link EntailmentProof} used for deriving the given goal
+	 * 
+	 * @param goal
+	 * @param evidence
+	 * @param result
+	 */
+	private static void collectReasons(final Entailment goal,
+			final EntailmentProof evidence,
+			final Collection<Conclusion> result) {
+		final Set<Entailment> done = new ArrayHashSet<Entailment>();
+		final Queue<Entailment> toDo = new ArrayDeque<Entailment>();
+		done.add(goal);
+		toDo.add(goal);
+		Entailment entailment;
+		while ((entailment = toDo.poll()) != null) {
+			for (final EntailmentInference inf : evidence
+					.getInferences(entailment)) {
+				if (inf instanceof HasReason) {
+					final Object reason = ((HasReason<?>) inf).getReason();
+					if (reason instanceof Conclusion) {
+						result.add((Conclusion) reason);
+					}
+				}
+				for (final Entailment premise : inf.getPremises()) {
+					if (done.add(premise)) {
+						toDo.add(premise);
+					}
+				}
+			}
+		}
 	}
 
 	public TracingProof explainConclusion(final Conclusion conclusion)
@@ -39,6 +39,7 @@ import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
 import org.semanticweb.elk.owl.predefined.PredefinedElkClassFactory;
 import org.semanticweb.elk.owl.visitors.ElkClassExpressionProcessor;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkIndexingUnsupportedException;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverter;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverterImpl;
@@ -48,6 +49,7 @@ import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedIndividual;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableOntologyIndex;
 import org.semanticweb.elk.reasoner.query.ElkQueryException;
+import org.semanticweb.elk.reasoner.query.QueryCacheStatistics;
 import org.semanticweb.elk.reasoner.query.QueryNode;
 import org.semanticweb.elk.reasoner.reduction.TransitiveReductionOutputEquivalent;
 import org.semanticweb.elk.reasoner.reduction.TransitiveReductionOutputEquivalentDirect;
@@ -65,8 +67,9 @@ import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.TypeNode;
 import org.semanticweb.elk.util.collections.ArrayHashSet;
+import org.semanticweb.elk.util.collections.Condition;
 import org.semanticweb.elk.util.collections.Operations;
-import org.semanticweb.elk.util.collections.RecencyQueue;
+import org.semanticweb.elk.util.collections.TinyLfuCachePolicy;
 import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -82,8 +85,17 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 	private static final Logger LOGGER_ = LoggerFactory
 			.getLogger(ClassExpressionQueryState.class);
 
-	public static final int CACHE_CAPACITY = 512;
-	public static final float EVICTION_FACTOR = 0.5f;
+	/**
+	 * the estimated number of bytes used by a query, not counting the
+	 * subsumers of its context
+	 */
+	private static final long QUERY_BYTES_ = 512;
+
+	/**
+	 * the estimated number of bytes used by a subsumer in the context of a
+	 * query
+	 */
+	private static final long SUBSUMER_BYTES_ = 32;
 
 	/**
 	 * Maps class expressions that were queried to the states of their query.
@@ -106,10 +118,18 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 	private final Map<IndexedClassExpression, QueryState> indexed_ = new ConcurrentHashMap<IndexedClassExpression, QueryState>();
 
 	/**
-	 * Contains the same class expressions as {@link #queried_} in the order in
-	 * which they were queried.
+	 * Contains the same class expressions as {@link #queried_} and decides
+	 * which of them should be evicted when there are too many.
+	 * The bounds from the {@link ReasonerConfiguration} apply to this cache
+	 * alone; {@link EntailmentQueryState} has its own cache with the same bounds.
 	 */
-	private final RecencyQueue<ElkClassExpression> recentlyQueried_ = new RecencyQueue<ElkClassExpression>();
+	private final TinyLfuCachePolicy<ElkClassExpression> cache_;
+
+	/**
+	 * Contains the states of queries that were computed since the last
+	 * loading; their weights in {@link #cache_} should be updated.
+	 */
+	private final Queue<QueryState> toWeigh_ = new ConcurrentLinkedQueue<QueryState>();
 
 	/**
 	 * State of the query of a particular class expression. There are four
@@ -127,6 +147,10 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 	 * @author Peter Skocovsky
 	 */
 	private static class QueryState {
+		/**
+		 * The queried class expression.
+		 */
+		final ElkClassExpression query;
 		/**
 		 * Whether the queried class expression was loaded (whether it was
 		 * attempted to index it). If this is {@code false}, then
@@ -148,6 +172,10 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 		 * this field is {@code null}, the query is unsatisfiable.
 		 */
 		QueryNode<ElkClass> node = null;
+
+		QueryState(final ElkClassExpression query) {
+			this.query = query;
+		}
 	}
 
 	/**
@@ -158,9 +186,17 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 	private final Map<ElkClass, Collection<IndexedClassExpression>> queriesByRelated_ = new ConcurrentHashMap<ElkClass, Collection<IndexedClassExpression>>();
 
 	/**
-	 * The number of class expressions that were queried by the last call.
+	 * The class expressions that were queried by the last call. They are not
+	 * evicted, because their results are going to be retrieved.
 	 */
-	private int lastQuerySize_ = 0;
+	private final Set<ElkClassExpression> lastQueried_ = new ArrayHashSet<ElkClassExpression>();
+
+	private final Condition<ElkClassExpression> isEvictable_ = new Condition<ElkClassExpression>() {
+		@Override
+		public boolean holds(final ElkClassExpression classExpression) {
+			return !lastQueried_.contains(classExpression);
+		}
+	};
 
 	private final SaturationState<? extends Context> saturationState_;
 
@@ -172,8 +208,14 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 			final SaturationState<C> saturationState,
 			final PredefinedElkClassFactory elkFactory,
 			final ModifiableOntologyIndex ontologyIndex,
-			final ClassInconsistency.Factory conclusionFactory) {
+			final ClassInconsistency.Factory conclusionFactory,
+			final ReasonerConfiguration config) {
 		this.saturationState_ = saturationState;
+		this.cache_ = new TinyLfuCachePolicy<ElkClassExpression>(
+				config.getParameterAsInt(
+						ReasonerConfiguration.QUERY_CACHE_SIZE),
+				Long.valueOf(config.getParameter(
+						ReasonerConfiguration.QUERY_CACHE_MAX_BYTES)));
 		this.resolvingExpressionConverter_ = new ElkPolarityExpressionConverterImpl(
 				elkFactory, ontologyIndex);
 		this.conclusionFactory_ = conclusionFactory;
@@ -273,18 +315,46 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 	 *         expression has already been registered.
 	 */
 	boolean registerQuery(final ElkClassExpression classExpression) {
+		lastQueried_.clear();
+		return register(classExpression);
+	}
+
+	/**
+	 * Registers all supplied class expressions for querying, so that they are
+	 * indexed by the same {@link ClassQueryLoader} and their results are
+	 * computed together by the next run of the query stage. None of these
+	 * class expressions is evicted from the cache before the next call of this
+	 * method or {@link #registerQuery(ElkClassExpression)}.
+	 * 
+	 * @param classExpressions
+	 * @return {@code true} if at least one of the class expressions is a new
+	 *         query, {@code false} if all of them have already been
+	 *         registered.
+	 * @see #registerQuery(ElkClassExpression)
+	 */
+	boolean registerQueries(
+			final Iterable<? extends ElkClassExpression> classExpressions) {
+		lastQueried_.clear();
+		boolean result = false;
+		for (final ElkClassExpression classExpression : classExpressions) {
+			result |= register(classExpression);
+		}
+		return result;
+	}
+
+	private boolean register(final ElkClassExpression classExpression) {
 
 		LOGGER_.trace("class expression query registered {}", classExpression);
 
-		recentlyQueried_.offer(classExpression);
-		lastQuerySize_ = 1;
+		cache_.access(classExpression);
+		lastQueried_.add(classExpression);
 
 		QueryState state = queried_.get(classExpression);
 		if (state != null) {
 			return false;
 		}
 		// Create query state.
-		state = new QueryState();
+		state = new QueryState(classExpression);
 		queried_.put(classExpression, state);
 		toLoad_.offer(classExpression);
 
@@ -359,45 +429,50 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 			}
 
 			/*
-			 * If the cache size is exceeded, evict old entries.
+			 * Update the weights of the computed queries and, if the cache
+			 * capacity is exceeded, evict the entries chosen by the cache.
 			 */
-			if (recentlyQueried_.size() > CACHE_CAPACITY) {
-
-				// @formatter:off
-				final int goalCapacity = Math.max(
-						Math.min(
-								(int) (recentlyQueried_.size() * EVICTION_FACTOR),
-								CACHE_CAPACITY),
-						lastQuerySize_);
-				// @formatter:on
-
-				while (recentlyQueried_.size() > goalCapacity) {
-					classExpression = recentlyQueried_.poll();
-					/*
-					 * While desiredCapacity is at least lastQuerySize, at least
-					 * the last lastQuerySize queries will remain cached.
-					 */
-
-					final QueryState state = queried_.remove(classExpression);
-					if (state.isLoaded) {
-						deleter.visit(classExpression);
-						if (state.indexed != null) {
-							if (state.isComputed) {
-								if (state.node != null) {
-									removeAllRelated(state.indexed, state.node);
-									state.node = null;
-								}
+			QueryState computed;
+			while ((computed = toWeigh_.poll()) != null) {
+				if (computed.indexed == null) {
+					continue;
+				}
+				// else
+				final Context context = saturationState_
+						.getContext(computed.indexed);
+				final int subsumerCount = context == null ? 0
+						: context.getComposedSubsumers().size()
+								+ context.getDecomposedSubsumers().size();
+				cache_.setWeight(computed.query,
+						QUERY_BYTES_ + SUBSUMER_BYTES_ * subsumerCount);
+			}
+
+			while (cache_.isOverCapacity()) {
+				classExpression = cache_.evict(isEvictable_);
+				if (classExpression == null) {
+					// only the last queries are cached
+					break;
+				}
+				// else
+
+				final QueryState state = queried_.remove(classExpression);
+				if (state.isLoaded) {
+					deleter.visit(classExpression);
+					if (state.indexed != null) {
+						if (state.isComputed) {
+							if (state.node != null) {
+								removeAllRelated(state.indexed, state.node);
+								state.node = null;
 							}
-							indexed_.remove(state.indexed);
-							state.indexed = null;
 						}
-					}
-
-					if (isInterrupted()) {
-						return;
+						indexed_.remove(state.indexed);
+						state.indexed = null;
 					}
 				}
 
+				if (isInterrupted()) {
+					return;
+				}
 			}
 
 		}
@@ -442,6 +517,7 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 
 			addAllRelated(ice, node);
 			state.node = node;
+			toWeigh_.add(state);
 		}
 
 		@Override
@@ -551,6 +627,14 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 		return Operations.map(indexed_.values(), notComputedIces_);
 	}
 
+	/**
+	 * @return the current values of the counters of the cache of queried
+	 *         class expressions
+	 */
+	QueryCacheStatistics getCacheStatistics() {
+		return new QueryCacheStatistics(cache_);
+	}
+
 	/**
 	 * @param classExpression
 	 * @return whether the supplied class expression was indexed as a query.
@@ -686,10 +770,11 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 				allClasses.size());
 
 		for (final IndexedClass ic : allClasses) {
-			final Set<IndexedClassExpression> subsumers = ic.getContext()
-					.getComposedSubsumers();
-			if (subsumers.contains(state.indexed) && state.indexed.getContext()
-					.getComposedSubsumers().size() != subsumers.size()) {
+			final Set<IndexedClassExpression> subsumers = saturationState_
+					.getContext(ic).getComposedSubsumers();
+			if (subsumers.contains(state.indexed) && saturationState_
+					.getContext(state.indexed).getComposedSubsumers()
+					.size() != subsumers.size()) {
 				// is subclass, but not equivalent
 				strictSubclasses.add(ic);
 			}
@@ -744,6 +829,10 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 	 * 
 	 * @param classExpression
 	 * @param taxonomy
+	 * @param representatives
+	 *            maps the individuals whose types were copied from other
+	 *            individuals during realization to these other individuals;
+	 *            the contexts of the latter are used to check the types
 	 * @return direct instances of the supplied class expression, if it is
 	 *         satisfiable, otherwise <code>null</code>.
 	 * @throws ElkQueryException
@@ -751,7 +840,8 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 	 */
 	Set<? extends Node<ElkNamedIndividual>> getDirectInstances(
 			final ElkClassExpression classExpression,
-			final InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy)
+			final InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy,
+			final Map<IndexedIndividual, IndexedIndividual> representatives)
 			throws ElkQueryException {
 
 		final QueryState state = checkComputed(classExpression);
@@ -778,7 +868,9 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 				allIndividuals.size());
 
 		for (final IndexedIndividual ii : allIndividuals) {
-			final Set<IndexedClassExpression> subsumers = ii.getContext()
+			final IndexedIndividual representative = representatives.get(ii);
+			final Set<IndexedClassExpression> subsumers = saturationState_
+					.getContext(representative == null ? ii : representative)
 					.getComposedSubsumers();
 			if (subsumers.contains(state.indexed)) {
 				instances.add(ii);
@@ -801,11 +893,11 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 				final IndexedClassExpression type = typeNode
 						.getCanonicalMember()
 						.accept(resolvingExpressionConverter_);
-				final Set<IndexedClassExpression> subsumers = type.getContext()
-						.getComposedSubsumers();
-				if (subsumers.contains(state.indexed)
-						&& state.indexed.getContext().getComposedSubsumers()
-								.size() != subsumers.size()) {
+				final Set<IndexedClassExpression> subsumers = saturationState_
+						.getContext(type).getComposedSubsumers();
+				if (subsumers.contains(state.indexed) && saturationState_
+						.getContext(state.indexed).getComposedSubsumers()
+						.size() != subsumers.size()) {
 					// is subclass, but not equivalent
 					isDirect = false;
 					break;
@@ -87,6 +87,7 @@ public class ClassTaxonomyComputationStage extends AbstractReasonerStage {
 							+ " did not add all classes to the taxonomy!");
 		}
 		reasoner.classTaxonomyState.taxonomyComplete();
+		reasoner.publishClassTaxonomySnapshot();
 		reasoner.ontologyIndex.initClassChanges();
 		reasoner.ruleAndConclusionStats
 				.add(computation_.getRuleAndConclusionStatistics());
@@ -21,12 +21,14 @@
  */
 package org.semanticweb.elk.reasoner.stages;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.semanticweb.elk.owl.interfaces.ElkClass;
@@ -36,11 +38,14 @@ import org.semanticweb.elk.reasoner.indexing.classes.OntologyIndexDummyChangeLis
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverter;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverterImpl;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.OntologyIndex;
 import org.semanticweb.elk.reasoner.saturation.SaturationState;
 import org.semanticweb.elk.reasoner.saturation.SaturationStateDummyChangeListener;
+import org.semanticweb.elk.reasoner.saturation.conclusions.classes.SaturationConclusionBaseFactory;
+import org.semanticweb.elk.reasoner.saturation.conclusions.model.SaturationConclusion;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
 import org.semanticweb.elk.reasoner.taxonomy.ConcurrentClassTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.DummyNodeStoreListener;
@@ -51,6 +56,7 @@ import org.semanticweb.elk.reasoner.taxonomy.model.NodeStore;
 import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomy;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
 import org.semanticweb.elk.util.collections.Operations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,6 +90,19 @@ public class ClassTaxonomyState {
 	 */
 	private final Queue<IndexedClass> toRemove_ = new ConcurrentLinkedQueue<IndexedClass>();
 
+	/**
+	 * Contains classes whose nodes together with all their super-nodes
+	 * should be computed without computing the whole taxonomy.
+	 */
+	private final Queue<IndexedClass> toAddLazily_ = new ArrayDeque<IndexedClass>();
+
+	/**
+	 * Contains classes whose nodes have been found complete while processing
+	 * {@link #toAddLazily_}, so that their super-nodes do not need to be
+	 * processed again.
+	 */
+	private final Set<IndexedClass> visitedLazily_ = new ArrayHashSet<IndexedClass>();
+
 	private final ElkObject.Factory elkFactory_;
 
 	private final OntologyIndex ontologyIndex_;
@@ -94,6 +113,17 @@ public class ClassTaxonomyState {
 
 	private final List<Listener> listeners_ = new ArrayList<Listener>();
 
+	/**
+	 * used to check whether the contexts of classes are inconsistent
+	 */
+	private final SaturationConclusion.Factory conclusionFactory_ = new SaturationConclusionBaseFactory();
+
+	/**
+	 * if {@code true}, classes whose subsumers did not change are pruned from
+	 * {@link #toRemove_}, so that their nodes are kept in the taxonomy
+	 */
+	private volatile boolean pruneUnchanged_ = false;
+
 	<C extends Context> ClassTaxonomyState(
 			final SaturationState<C> saturationState,
 			final DifferentialIndex ontologyIndex,
@@ -263,6 +293,83 @@ public class ClassTaxonomyState {
 		return Operations.getCollection(toAdd_, size);
 	}
 
+	/**
+	 * Requests the node of the given class and all its super-nodes to be
+	 * computed by the subsequent calls of {@link #getToAddLazily()}.
+	 * 
+	 * @param cls
+	 */
+	void addToAddLazily(final IndexedClass cls) {
+		toAddLazily_.add(cls);
+	}
+
+	/**
+	 * Returns the classes that must be added to the taxonomy before the nodes
+	 * requested by {@link #addToAddLazily(IndexedClass)} and all their
+	 * super-nodes are complete. Adding these classes to the taxonomy may
+	 * create new incomplete super-nodes, so this method should be called
+	 * repeatedly until it returns an empty collection.
+	 * <p>
+	 * <strong>{@code taxonomy_} must not be {@code null}!</strong>
+	 * 
+	 * @return the classes in ontology whose nodes are not yet complete and
+	 *         which are either requested or are members of super-nodes of
+	 *         requested nodes
+	 */
+	Collection<IndexedClass> getToAddLazily() {
+		final Set<IndexedClass> result = new ArrayHashSet<IndexedClass>();
+		IndexedClass cls;
+		while ((cls = toAddLazily_.poll()) != null) {
+			if (!cls.occurs() || visitedLazily_.contains(cls)) {
+				continue;
+			}
+			// else
+			final Context context = saturationState_.getContext(cls);
+			if (context == null || !context.isInitialized()
+					|| !context.isSaturated()) {
+				result.add(cls);
+				continue;
+			}
+			// else
+			final TaxonomyNode<ElkClass> node = taxonomy_
+					.getNode(cls.getElkEntity());
+			if (node == null) {
+				result.add(cls);
+				continue;
+			}
+			// else
+			if (node.equals(taxonomy_.getBottomNode())) {
+				// super-nodes of the bottom node are not computed lazily
+				visitedLazily_.add(cls);
+				continue;
+			}
+			// else
+			final Collection<? extends TaxonomyNode<ElkClass>> superNodes = node
+					.getDirectSuperNodes();
+			if (superNodes.isEmpty()
+					&& !node.equals(taxonomy_.getTopNode())) {
+				result.add(cls);
+				continue;
+			}
+			// else the node is complete
+			visitedLazily_.add(cls);
+			for (final TaxonomyNode<ElkClass> superNode : superNodes) {
+				final ModifiableIndexedClassExpression converted = superNode
+						.getCanonicalMember().accept(converter_);
+				if (converted instanceof IndexedClass) {
+					toAddLazily_.add((IndexedClass) converted);
+				}
+			}
+		}
+		if (result.isEmpty()) {
+			visitedLazily_.clear();
+		} else {
+			// should be checked again after they are added
+			toAddLazily_.addAll(result);
+		}
+		return result;
+	}
+
 	/**
 	 * Prunes {@link #toRemove_}.
 	 * <p>
@@ -294,11 +401,96 @@ public class ClassTaxonomyState {
 				iter.remove();
 				continue;
 			}
+			// else
+			if (pruneUnchanged_ && hasUnchangedSubsumers(cls, node)) {
+				iter.remove();
+				continue;
+			}
 			size++;
 		}
 		return size;
 	}
 
+	/**
+	 * Checks whether the node of the given class in the taxonomy is still
+	 * correct, i.e., the class is still satisfiable and its saturated context
+	 * contains exactly the classes that are members of this node or its
+	 * super-nodes, not taking {@code owl:Thing} into account. If every class
+	 * whose subsumers changed is removed, such a node and its super-nodes
+	 * remain correct, so the node does not need to be removed.
+	 * <p>
+	 * <strong>{@code taxonomy_} must not be {@code null}!</strong>
+	 * 
+	 * @param cls
+	 * @param node
+	 *            the node of {@code cls} in the taxonomy
+	 * @return {@code true} if the node of the given class does not need to be
+	 *         removed from the taxonomy
+	 */
+	private boolean hasUnchangedSubsumers(final IndexedClass cls,
+			final TaxonomyNode<ElkClass> node) {
+		if (!cls.occurs() || node.equals(taxonomy_.getBottomNode())
+				|| node.equals(taxonomy_.getTopNode())) {
+			return false;
+		}
+		// else
+		final Context context = saturationState_.getContext(cls);
+		if (context == null || !context.isInitialized()
+				|| !context.isSaturated() || context.containsConclusion(
+						conclusionFactory_.getContradiction(cls))) {
+			return false;
+		}
+		// else collect the members of the node and of all its super-nodes
+		final TaxonomyNode<ElkClass> topNode = taxonomy_.getTopNode();
+		final Set<ElkClass> oldSubsumers = new ArrayHashSet<ElkClass>();
+		final Set<TaxonomyNode<ElkClass>> visited = new ArrayHashSet<TaxonomyNode<ElkClass>>();
+		final Queue<TaxonomyNode<ElkClass>> todo = new ArrayDeque<TaxonomyNode<ElkClass>>();
+		visited.add(node);
+		todo.add(node);
+		TaxonomyNode<ElkClass> next;
+		while ((next = todo.poll()) != null) {
+			for (final ElkClass member : next) {
+				oldSubsumers.add(member);
+			}
+			for (final TaxonomyNode<ElkClass> superNode : next
+					.getDirectSuperNodes()) {
+				if (!superNode.equals(topNode) && visited.add(superNode)) {
+					todo.add(superNode);
+				}
+			}
+		}
+		// compare with the derived subsumers
+		final IndexedClass owlThing = ontologyIndex_.getOwlThing();
+		int count = 0;
+		for (final IndexedClassExpression subsumer : context
+				.getComposedSubsumers()) {
+			if (!(subsumer instanceof IndexedClass) || subsumer == owlThing) {
+				continue;
+			}
+			// else
+			if (!oldSubsumers
+					.contains(((IndexedClass) subsumer).getElkEntity())) {
+				return false;
+			}
+			// else
+			count++;
+		}
+		return count == oldSubsumers.size();
+	}
+
+	/**
+	 * Sets whether the classes whose contexts became not saturated, but whose
+	 * subsumers did not change after saturation, should be pruned from the
+	 * classes returned by {@link #getToRemove()}. In this case only the nodes
+	 * of the classes whose subsumers changed and their direct sub-nodes are
+	 * removed from the taxonomy during the incremental taxonomy cleaning.
+	 * 
+	 * @param pruneUnchanged
+	 */
+	void setPruneUnchanged(final boolean pruneUnchanged) {
+		this.pruneUnchanged_ = pruneUnchanged;
+	}
+
 	/**
 	 * Returns collection that contains at least all classes that are in
 	 * taxonomy, but either are removed from ontology or their context became
@@ -336,6 +528,8 @@ public class ClassTaxonomyState {
 		// All classes need to be added to the taxonomy
 		toRemove_.clear();
 		toAdd_.clear();
+		toAddLazily_.clear();
+		visitedLazily_.clear();
 		toAdd_.addAll(ontologyIndex_.getClasses());
 
 	}
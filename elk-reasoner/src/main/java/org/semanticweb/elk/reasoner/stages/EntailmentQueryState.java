@@ -21,19 +21,25 @@
  */
 package org.semanticweb.elk.reasoner.stages;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.liveontologies.puli.InferenceDerivabilityChecker;
+import org.semanticweb.elk.exceptions.ElkRuntimeException;
 import org.semanticweb.elk.loading.AbstractEntailmentQueryLoader;
 import org.semanticweb.elk.loading.ElkLoadingException;
 import org.semanticweb.elk.loading.EntailmentQueryLoader;
 import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owl.visitors.ElkAxiomVisitor;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
 import org.semanticweb.elk.reasoner.consistency.ConsistencyCheckingState;
 import org.semanticweb.elk.reasoner.entailments.EntailmentProofUnion;
 import org.semanticweb.elk.reasoner.entailments.InconsistencyProofWrapper;
@@ -42,6 +48,8 @@ import org.semanticweb.elk.reasoner.entailments.model.EntailmentProof;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.query.AbstractProperEntailmentQueryResult;
 import org.semanticweb.elk.reasoner.query.ElkQueryException;
+import org.semanticweb.elk.reasoner.query.EntailmentCheckingListener;
+import org.semanticweb.elk.reasoner.query.QueryCacheStatistics;
 import org.semanticweb.elk.reasoner.query.EntailmentQueryConverter;
 import org.semanticweb.elk.reasoner.query.EntailmentQueryResult;
 import org.semanticweb.elk.reasoner.query.IndexedEntailmentQuery;
@@ -51,9 +59,14 @@ import org.semanticweb.elk.reasoner.saturation.SaturationState;
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.SaturationConclusion;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
 import org.semanticweb.elk.util.collections.ArrayHashMap;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
 import org.semanticweb.elk.util.collections.Condition;
 import org.semanticweb.elk.util.collections.Operations;
-import org.semanticweb.elk.util.collections.RecencyQueue;
+import org.semanticweb.elk.util.collections.TinyLfuCachePolicy;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentComputationWithInputs;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentExecutor;
+import org.semanticweb.elk.util.concurrent.computation.InputProcessor;
+import org.semanticweb.elk.util.concurrent.computation.InputProcessorFactory;
 import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,8 +81,28 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 	private static final Logger LOGGER_ = LoggerFactory
 			.getLogger(ClassExpressionQueryState.class);
 
-	public static final int CACHE_CAPACITY = 512;
-	public static final float EVICTION_FACTOR = 0.5f;
+	/**
+	 * the estimated number of bytes used by a query, not counting the contexts
+	 * needed to answer it
+	 */
+	private static final long QUERY_BYTES_ = 512;
+
+	/**
+	 * the estimated number of bytes used by a context needed to answer a query
+	 */
+	private static final long ROOT_BYTES_ = 256;
+
+	/**
+	 * the number of queries that a worker checks at once
+	 */
+	private static final int CHECKING_CHUNK_SIZE_ = 64;
+
+	/**
+	 * the results of checking entailment of a query; {@code 0} means that the
+	 * query was not checked
+	 */
+	private static final byte ENTAILED_ = 1, NOT_ENTAILED_ = 2,
+			UNSUPPORTED_ = 3;
 
 	/**
 	 * Maps axioms that were queried to the states of their query.
@@ -82,10 +115,12 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 	private final Queue<ElkAxiom> toLoad_ = new ConcurrentLinkedQueue<ElkAxiom>();
 
 	/**
-	 * Contains the same states as {@link #queried_} in the order in which they
-	 * were queried.
+	 * Contains the same axioms as {@link #queried_} and decides which of them
+	 * should be evicted when there are too many.
+	 * The bounds from the {@link ReasonerConfiguration} apply to this cache
+	 * alone; {@link ClassExpressionQueryState} has its own cache with the same bounds.
 	 */
-	private final RecencyQueue<QueryState> recentlyQueried_ = new RecencyQueue<QueryState>();
+	private final TinyLfuCachePolicy<ElkAxiom> cache_;
 
 	/**
 	 * State of the query of a particular axiom. There are two forbidden states:
@@ -164,6 +199,19 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 					entailmentEvidence);
 		}
 
+		/**
+		 * @return whether the query is derived in the saturation state,
+		 *         without taking the inconsistency of the ontology into
+		 *         account; can be called concurrently
+		 * @throws ElkQueryException
+		 */
+		boolean isDerived() throws ElkQueryException {
+			return new InferenceDerivabilityChecker<Entailment>(
+					indexed.getEvidence(true, saturationState_,
+							conclusionFactory_))
+									.isDerivable(indexed.getQuery());
+		}
+
 		public synchronized boolean lock() {
 			final boolean wasLocked = isLocked();
 			lockedCount_++;
@@ -188,9 +236,18 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 	}
 
 	/**
-	 * The number of axioms that were registered by the last call.
+	 * The axioms that were registered by the last call. They are not evicted,
+	 * because their results are going to be retrieved.
 	 */
-	private int lastQuerySize_ = 0;
+	private final Set<ElkAxiom> lastQueried_ = new ArrayHashSet<ElkAxiom>();
+
+	private final Condition<ElkAxiom> isEvictable_ = new Condition<ElkAxiom>() {
+		@Override
+		public boolean holds(final ElkAxiom axiom) {
+			return !lastQueried_.contains(axiom)
+					&& !queried_.get(axiom).isLocked();
+		}
+	};
 
 	private final SaturationState<? extends Context> saturationState_;
 
@@ -201,8 +258,14 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 	public <C extends Context> EntailmentQueryState(
 			final SaturationState<C> saturationState,
 			final ConsistencyCheckingState consistencyCheckingState,
-			final SaturationConclusion.Factory factory) {
+			final SaturationConclusion.Factory factory,
+			final ReasonerConfiguration config) {
 		this.saturationState_ = saturationState;
+		this.cache_ = new TinyLfuCachePolicy<ElkAxiom>(
+				config.getParameterAsInt(
+						ReasonerConfiguration.QUERY_CACHE_SIZE),
+				Long.valueOf(config.getParameter(
+						ReasonerConfiguration.QUERY_CACHE_MAX_BYTES)));
 		this.consistencyCheckingState_ = consistencyCheckingState;
 		this.conclusionFactory_ = factory;
 	}
@@ -221,28 +284,24 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 	 */
 	void registerQueries(final Iterable<? extends ElkAxiom> axioms) {
 
-		int axiomCount = 0;
+		lastQueried_.clear();
 		for (final ElkAxiom axiom : axioms) {
 
 			LOGGER_.trace("entailment query registered {}", axiom);
 
-			axiomCount++;
-
 			QueryState state = queried_.get(axiom);
+			cache_.access(axiom);
+			lastQueried_.add(axiom);
 			if (state != null) {
-				recentlyQueried_.offer(state);
 				continue;
 			}
 			// Create query state.
 			state = new QueryState(axiom);
 			queried_.put(axiom, state);
-			recentlyQueried_.offer(state);
 			toLoad_.offer(axiom);
 
 		}
 
-		lastQuerySize_ = axiomCount;
-
 	}
 
 	@Override
@@ -276,6 +335,10 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 
 				state.isLoaded = true;
 				state.indexed = axiom.accept(inserter);
+				if (state.indexed != null) {
+					cache_.setWeight(axiom, QUERY_BYTES_ + ROOT_BYTES_
+							* state.indexed.getPositivelyIndexed().size());
+				}
 
 				if (isInterrupted()) {
 					return;
@@ -283,46 +346,27 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 			}
 
 			/*
-			 * If the cache size is exceeded, evict old entries.
+			 * If the cache capacity is exceeded, evict the entries chosen by
+			 * the cache.
 			 */
-			if (recentlyQueried_.size() > CACHE_CAPACITY) {
-
-				// @formatter:off
-				final int goalCapacity = Math.max(
-						Math.min(
-								(int) (recentlyQueried_.size() * EVICTION_FACTOR),
-								CACHE_CAPACITY),
-						lastQuerySize_);
-				// @formatter:on
-
-				final Iterator<QueryState> iter = recentlyQueried_.iterator();
-				while (iter.hasNext()
-						&& recentlyQueried_.size() > goalCapacity) {
-					final QueryState state = iter.next();
-					/*
-					 * While goalCapacity is at least lastQuerySize_, at least
-					 * the last lastQuerySize_ queries will remain cached.
-					 */
-
-					if (state.isLocked()) {
-						// Do not evict.
-						continue;
-					}
-					// else evict
-
-					iter.remove();
-					queried_.remove(state.getQuery());
-					if (state.isLoaded) {
-						state.getQuery().accept(deleter);
-						state.indexed = null;
-						state.isLoaded = false;
-					}
+			while (cache_.isOverCapacity()) {
+				axiom = cache_.evict(isEvictable_);
+				if (axiom == null) {
+					// the remaining queries are locked or queried last
+					break;
+				}
+				// else
 
-					if (isInterrupted()) {
-						return;
-					}
+				final QueryState state = queried_.remove(axiom);
+				if (state.isLoaded) {
+					axiom.accept(deleter);
+					state.indexed = null;
+					state.isLoaded = false;
 				}
 
+				if (isInterrupted()) {
+					return;
+				}
 			}
 
 		}
@@ -373,6 +417,14 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 		return Operations.getCollection(result, sizeUpper);
 	}
 
+	/**
+	 * @return the current values of the counters of the cache of queried
+	 *         axioms
+	 */
+	QueryCacheStatistics getCacheStatistics() {
+		return new QueryCacheStatistics(cache_);
+	}
+
 	/**
 	 * Decides whether the supplied {@code axioms} are entailed. If some of the
 	 * supplied axioms was not registered by {@link #registerQueries(Iterable)}.
@@ -422,4 +474,250 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 		return results;
 	}
 
+	/**
+	 * Checks which of the supplied axioms are entailed and notifies the
+	 * {@link EntailmentCheckingListener} about the results in the order of the
+	 * axioms. The axioms must be registered by
+	 * {@link #registerQueries(Iterable)} and all necessary stages must be run.
+	 * The derivability of the queries is checked by several concurrent
+	 * workers; the listener is notified only in the calling thread. Unlike
+	 * {@link #isEntailed(Iterable)}, this method does not lock the query
+	 * results, so the checked queries can be evicted afterwards.
+	 * 
+	 * @param axioms
+	 *            the axioms whose entailment is checked
+	 * @param stopIfNotEntailed
+	 *            if {@code true}, the checking stops as soon as some axiom is
+	 *            not entailed or cannot be checked; in this case, the listener
+	 *            is not notified about the axioms that come after it
+	 * @param listener
+	 *            the {@link EntailmentCheckingListener} notified about the
+	 *            results
+	 * @param executor
+	 *            used to run the workers
+	 * @param maxWorkers
+	 *            the maximal number of concurrent workers
+	 * @return {@code true} if the listener was notified about all supplied
+	 *         axioms and {@code false} if the checking was stopped
+	 * @throws ElkQueryException
+	 *             When some of the axioms was not registered by
+	 *             {@link #registerQueries(Iterable)}.
+	 */
+	boolean checkEntailment(final List<? extends ElkAxiom> axioms,
+			final boolean stopIfNotEntailed,
+			final EntailmentCheckingListener listener,
+			final ConcurrentExecutor executor, final int maxWorkers)
+			throws ElkQueryException {
+
+		final int size = axioms.size();
+		final QueryState[] states = new QueryState[size];
+		final byte[] results = new byte[size];
+		final boolean isInconsistent = consistencyCheckingState_
+				.isInconsistent();
+		boolean hasUnsupported = false;
+		for (int i = 0; i < size; i++) {
+			final ElkAxiom axiom = axioms.get(i);
+			if (!EntailmentQueryConverter
+					.isEntailmentCheckingSupported(axiom.getClass())) {
+				results[i] = UNSUPPORTED_;
+				hasUnsupported = true;
+				continue;
+			}
+			// else
+			final QueryState state = queried_.get(axiom);
+			if (state == null) {
+				throw new ElkQueryException(
+						"Query was not registered: " + axiom);
+			}
+			// else
+			if (state.indexed == null) {
+				results[i] = UNSUPPORTED_;
+				hasUnsupported = true;
+				continue;
+			}
+			// else
+			if (isInconsistent) {
+				// everything is entailed
+				results[i] = ENTAILED_;
+				continue;
+			}
+			// else
+			states[i] = state;
+		}
+
+		if (!isInconsistent && !(stopIfNotEntailed && hasUnsupported)) {
+			new EntailmentChecking(states, results, stopIfNotEntailed)
+					.process(executor, maxWorkers);
+		}
+
+		for (int i = 0; i < size; i++) {
+			final ElkAxiom axiom = axioms.get(i);
+			switch (results[i]) {
+			case ENTAILED_:
+				if (!listener.notifyEntailed(axiom)) {
+					return false;
+				}
+				break;
+			case NOT_ENTAILED_:
+				if (!listener.notifyNotEntailed(axiom) || stopIfNotEntailed) {
+					return false;
+				}
+				break;
+			case UNSUPPORTED_:
+				if (!listener.notifyUnsupported(axiom) || stopIfNotEntailed) {
+					return false;
+				}
+				break;
+			default:
+				// not checked because the checking was stopped
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Checks derivability of the given queries and stores the results in the
+	 * given array; the queries are split into chunks processed by concurrent
+	 * workers
+	 * 
+	 * @author Yevgeny Kazakov
+	 */
+	private static class EntailmentChecking implements
+			InputProcessorFactory<Integer, InputProcessor<Integer>> {
+
+		/**
+		 * the queries to check; {@code null} if the result is already known
+		 */
+		private final QueryState[] states_;
+
+		private final byte[] results_;
+
+		private final boolean stopIfNotEntailed_;
+
+		/**
+		 * set when the remaining queries should not be checked
+		 */
+		private final AtomicBoolean stop_ = new AtomicBoolean(false);
+
+		/**
+		 * the first exception thrown by workers
+		 */
+		private final AtomicReference<ElkQueryException> exception_ = new AtomicReference<ElkQueryException>();
+
+		EntailmentChecking(final QueryState[] states, final byte[] results,
+				final boolean stopIfNotEntailed) {
+			this.states_ = states;
+			this.results_ = results;
+			this.stopIfNotEntailed_ = stopIfNotEntailed;
+		}
+
+		void process(final ConcurrentExecutor executor, final int maxWorkers)
+				throws ElkQueryException {
+			if (maxWorkers <= 1 || states_.length <= CHECKING_CHUNK_SIZE_) {
+				// not worth starting workers
+				for (int start = 0; start < states_.length
+						&& !stop_.get(); start += CHECKING_CHUNK_SIZE_) {
+					check(start);
+				}
+			} else {
+				final ConcurrentComputationWithInputs<Integer, EntailmentChecking> computation = new ConcurrentComputationWithInputs<Integer, EntailmentChecking>(
+						this, executor, maxWorkers);
+				if (!computation.start()) {
+					throw new ElkRuntimeException(
+							"Could not start workers required for entailment checking!");
+				}
+				try {
+					for (int start = 0; start < states_.length
+							&& !stop_.get(); start += CHECKING_CHUNK_SIZE_) {
+						computation.submit(start);
+					}
+					computation.finish();
+				} catch (InterruptedException e) {
+					// restore interrupt status
+					Thread.currentThread().interrupt();
+					throw new ElkRuntimeException(
+							"Entailment checking interrupted externally!");
+				}
+			}
+			final ElkQueryException e = exception_.get();
+			if (e != null) {
+				throw e;
+			}
+		}
+
+		/**
+		 * Checks the queries of the chunk starting from the given position
+		 * 
+		 * @param start
+		 */
+		void check(final int start) {
+			final int end = Math.min(start + CHECKING_CHUNK_SIZE_,
+					states_.length);
+			for (int i = start; i < end; i++) {
+				if (stop_.get()) {
+					return;
+				}
+				// else
+				final QueryState state = states_[i];
+				if (state == null) {
+					continue;
+				}
+				// else
+				try {
+					if (state.isDerived()) {
+						results_[i] = ENTAILED_;
+					} else {
+						results_[i] = NOT_ENTAILED_;
+						if (stopIfNotEntailed_) {
+							stop_.set(true);
+						}
+					}
+				} catch (final ElkQueryException e) {
+					exception_.compareAndSet(null, e);
+					stop_.set(true);
+				}
+			}
+		}
+
+		@Override
+		public InputProcessor<Integer> getEngine() {
+			return new InputProcessor<Integer>() {
+
+				private final Queue<Integer> todo_ = new ArrayDeque<Integer>();
+
+				@Override
+				public void submit(final Integer start) {
+					todo_.add(start);
+				}
+
+				@Override
+				public void process() {
+					Integer next;
+					while ((next = todo_.poll()) != null) {
+						check(next);
+					}
+				}
+
+				@Override
+				public void finish() {
+					// nothing to do
+				}
+
+			};
+		}
+
+		@Override
+		public boolean isInterrupted() {
+			return stop_.get();
+		}
+
+		@Override
+		public void finish() {
+			// nothing to do
+		}
+
+	}
+
 }
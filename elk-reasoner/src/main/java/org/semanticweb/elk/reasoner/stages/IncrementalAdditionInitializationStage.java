@@ -147,6 +147,12 @@ public class IncrementalAdditionInitializationStage
 
 		changedInitRules = diffIndex.getAddedContextInitRules();
 		changedRulesByCE = diffIndex.getAddedContextRulesByClassExpressions();
+		// the individuals realized or checked without contexts are not
+		// affected otherwise
+		reasoner.instanceTaxonomyState
+				.rulesChanged(changedRulesByCE.keySet());
+		reasoner.consistencyCheckingState
+				.rulesChanged(changedRulesByCE.keySet());
 		changedDefinitions = diffIndex.getAddedDefinitions();
 		changedDefinitionReasons = diffIndex.getAddedDefinitionReasons();
 
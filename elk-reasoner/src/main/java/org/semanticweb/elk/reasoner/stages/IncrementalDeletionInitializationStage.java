@@ -72,6 +72,12 @@ public class IncrementalDeletionInitializationStage
 
 		changedInitRules = diffIndex.getRemovedContextInitRules();
 		changedRulesByCE = diffIndex.getRemovedContextRulesByClassExpressions();
+		// the individuals realized or checked without contexts are not
+		// affected otherwise
+		reasoner.instanceTaxonomyState
+				.rulesChanged(changedRulesByCE.keySet());
+		reasoner.consistencyCheckingState
+				.rulesChanged(changedRulesByCE.keySet());
 		changedDefinitions = diffIndex.getRemovedDefinitions();
 		changedDefinitionReasons = diffIndex.getRemovedDefinitionReasons();
 
@@ -22,10 +22,14 @@
 package org.semanticweb.elk.reasoner.stages;
 
 import java.util.Collection;
+import java.util.Map;
 
 import org.semanticweb.elk.exceptions.ElkRuntimeException;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedIndividual;
 import org.semanticweb.elk.reasoner.taxonomy.InstanceTaxonomyComputation;
+import org.semanticweb.elk.reasoner.taxonomy.InstanceTypeCopying;
+import org.semanticweb.elk.util.collections.Condition;
+import org.semanticweb.elk.util.collections.Operations;
 
 /**
  * Incrementally updates the instance taxonomy by creating nodes for individuals
@@ -41,6 +45,12 @@ public class InstanceTaxonomyComputationStage extends AbstractReasonerStage {
 
 	private InstanceTaxonomyComputation computation_ = null;
 
+	/**
+	 * copies the types of the individuals realized by {@link #computation_}
+	 * to the individuals grouped with them, if any
+	 */
+	private InstanceTypeCopying copying_ = null;
+
 	/**
 	 * @param reasoner
 	 * @param preStages
@@ -62,12 +72,36 @@ public class InstanceTaxonomyComputationStage extends AbstractReasonerStage {
 
 		final Collection<IndexedIndividual> toAdd = reasoner.instanceTaxonomyState
 				.getToAdd();
-
-		this.computation_ = new InstanceTaxonomyComputation(toAdd,
+		final Map<IndexedIndividual, IndexedIndividual> representatives = reasoner.instanceTaxonomyState
+				.groupIndividuals(toAdd);
+
+		if (representatives.isEmpty()) {
+			this.computation_ = new InstanceTaxonomyComputation(toAdd,
+					reasoner.getInterrupter(), reasoner.getProcessExecutor(),
+					workerNo, reasoner.getProgressMonitor(),
+					reasoner.saturationState,
+					reasoner.instanceTaxonomyState.getTaxonomy());
+			return true;
+		}
+		// else realize only the individuals without representatives
+		final Collection<IndexedIndividual> toRealize = Operations
+				.getCollection(Operations.filter(toAdd,
+						new Condition<IndexedIndividual>() {
+							@Override
+							public boolean holds(IndexedIndividual element) {
+								return !representatives.containsKey(element);
+							}
+						}), toAdd.size() - representatives.size());
+		this.computation_ = new InstanceTaxonomyComputation(toRealize,
 				reasoner.getInterrupter(), reasoner.getProcessExecutor(),
 				workerNo, reasoner.getProgressMonitor(),
 				reasoner.saturationState,
 				reasoner.instanceTaxonomyState.getTaxonomy());
+		this.copying_ = new InstanceTypeCopying(representatives.keySet(),
+				representatives, reasoner.getInterrupter(),
+				reasoner.instanceTaxonomyState.getTaxonomy(),
+				reasoner.getProcessExecutor(), workerNo,
+				reasoner.getProgressMonitor());
 
 		return true;
 	}
@@ -75,6 +109,11 @@ public class InstanceTaxonomyComputationStage extends AbstractReasonerStage {
 	@Override
 	public void executeStage() throws ElkInterruptedException {
 		computation_.process();
+		if (copying_ != null) {
+			// the types of all representatives must be computed first
+			checkInterrupt();
+			copying_.process();
+		}
 	}
 
 	@Override
@@ -91,9 +130,11 @@ public class InstanceTaxonomyComputationStage extends AbstractReasonerStage {
 							+ " did not add all individuals to the taxonomy!");
 		}
 		reasoner.instanceTaxonomyState.taxonomyComplete();
+		reasoner.publishInstanceTaxonomySnapshot();
 		reasoner.ontologyIndex.initIndividualChanges();
 		// reasoner.ruleAndConclusionStats.add(computation_.getRuleAndConclusionStatistics());
 		this.computation_ = null;
+		this.copying_ = null;
 
 		return true;
 	}
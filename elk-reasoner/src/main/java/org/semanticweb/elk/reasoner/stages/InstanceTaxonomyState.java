@@ -23,9 +23,14 @@ package org.semanticweb.elk.reasoner.stages;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
@@ -34,6 +39,7 @@ import org.semanticweb.elk.reasoner.indexing.classes.DifferentialIndex;
 import org.semanticweb.elk.reasoner.indexing.classes.OntologyIndexDummyChangeListener;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverter;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverterImpl;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedIndividual;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedClassExpression;
@@ -41,6 +47,7 @@ import org.semanticweb.elk.reasoner.indexing.model.OntologyIndex;
 import org.semanticweb.elk.reasoner.saturation.SaturationState;
 import org.semanticweb.elk.reasoner.saturation.SaturationStateDummyChangeListener;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.reasoner.saturation.rules.subsumers.SuperClassFromSubClassRule;
 import org.semanticweb.elk.reasoner.taxonomy.ConcurrentInstanceTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.DummyInstanceTaxonomyListener;
 import org.semanticweb.elk.reasoner.taxonomy.DummyNodeStoreListener;
@@ -85,6 +92,27 @@ public class InstanceTaxonomyState {
 	 */
 	private final Queue<IndexedIndividual> toRemove_ = new ConcurrentLinkedQueue<IndexedIndividual>();
 
+	/**
+	 * if {@code true}, the individuals with the same told subsumers are
+	 * grouped and only one individual from every group is realized
+	 */
+	private volatile boolean groupIndividuals_ = false;
+
+	/**
+	 * Maps every individual whose types were copied from another individual
+	 * to this other individual, called the representative. Such individuals
+	 * may have no saturated contexts, so the context of the representative is
+	 * used instead.
+	 */
+	private final ConcurrentMap<IndexedIndividual, IndexedIndividual> representatives_ = new ConcurrentHashMap<IndexedIndividual, IndexedIndividual>();
+
+	/**
+	 * Maps every representative to the individuals whose types were copied
+	 * from it; these individuals are removed from the taxonomy whenever the
+	 * context of the representative becomes not saturated.
+	 */
+	private final ConcurrentMap<IndexedIndividual, Set<IndexedIndividual>> groupMembers_ = new ConcurrentHashMap<IndexedIndividual, Set<IndexedIndividual>>();
+
 	private final OntologyIndex ontologyIndex_;
 
 	private final SaturationState<?> saturationState_;
@@ -111,6 +139,8 @@ public class InstanceTaxonomyState {
 			@Override
 			public void individualRemoval(final IndexedIndividual ind) {
 				toRemove_.add(ind);
+				removeGroup(ind);
+				leaveGroup(ind);
 			}
 
 		});
@@ -124,6 +154,7 @@ public class InstanceTaxonomyState {
 						if (root instanceof IndexedIndividual) {
 							final IndexedIndividual ind = (IndexedIndividual) root;
 							toRemove_.add(ind);
+							removeGroupMembers(ind);
 						}
 					}
 
@@ -192,7 +223,10 @@ public class InstanceTaxonomyState {
 				continue;
 			}
 			// else
-			final Context context = saturationState_.getContext(ind);
+			final IndexedIndividual representative = representatives_
+					.get(ind);
+			final Context context = saturationState_.getContext(
+					representative == null ? ind : representative);
 			if (context == null || !context.isInitialized()
 					|| !context.isSaturated()) {
 				// it is not saturated.
@@ -313,7 +347,160 @@ public class InstanceTaxonomyState {
 		toRemove_.clear();
 		toAdd_.clear();
 		toAdd_.addAll(ontologyIndex_.getIndividuals());
+		representatives_.clear();
+		groupMembers_.clear();
+
+	}
+
+	/**
+	 * Sets whether the individuals returned by {@link #getToAdd()} should be
+	 * grouped by {@link #groupIndividuals(Collection)}
+	 * 
+	 * @param groupIndividuals
+	 */
+	void setGroupIndividuals(final boolean groupIndividuals) {
+		this.groupIndividuals_ = groupIndividuals;
+	}
+
+	/**
+	 * @return the map from the individuals whose types were copied from other
+	 *         individuals to these other individuals; the types of the former
+	 *         can be checked using the contexts of the latter
+	 */
+	Map<IndexedIndividual, IndexedIndividual> getRepresentatives() {
+		return Collections.unmodifiableMap(representatives_);
+	}
 
+	/**
+	 * Groups the given individuals, which should be added to the taxonomy, by
+	 * their told subsumers. The types of an individual can be copied from
+	 * another individual if the rules applied to both of them only produce
+	 * the same told subsumers. One individual of every group, the
+	 * representative, should be realized, the other individuals can be added
+	 * to the taxonomy with the types of the representative. The groups are
+	 * remembered, so that the individuals are removed from the taxonomy
+	 * together with their representative.
+	 * 
+	 * @param individuals
+	 *            the individuals to be added to the taxonomy
+	 * @return the map from the individuals that do not need to be realized to
+	 *         their representatives; it is empty if grouping is switched off
+	 */
+	synchronized Map<IndexedIndividual, IndexedIndividual> groupIndividuals(
+			final Collection<IndexedIndividual> individuals) {
+		if (!groupIndividuals_) {
+			return Collections.emptyMap();
+		}
+		// else
+		final Map<Set<IndexedClassExpression>, IndexedIndividual> representativesBySubsumers = new HashMap<Set<IndexedClassExpression>, IndexedIndividual>();
+		final Map<IndexedIndividual, IndexedIndividual> result = new HashMap<IndexedIndividual, IndexedIndividual>();
+		for (final IndexedIndividual ind : individuals) {
+			// the old group is not valid anymore
+			leaveGroup(ind);
+			final Set<IndexedClassExpression> subsumers = SuperClassFromSubClassRule
+					.getAllToldSubsumers(ind);
+			if (subsumers == null) {
+				continue;
+			}
+			// else
+			final IndexedIndividual representative = representativesBySubsumers
+					.get(subsumers);
+			if (representative == null) {
+				representativesBySubsumers.put(subsumers, ind);
+				continue;
+			}
+			// else
+			if (representative == ind) {
+				// the individuals may repeat
+				continue;
+			}
+			// else
+			result.put(ind, representative);
+			joinGroup(ind, representative);
+		}
+		return result;
+	}
+
+	private synchronized void joinGroup(final IndexedIndividual ind,
+			final IndexedIndividual representative) {
+		Set<IndexedIndividual> members = groupMembers_.get(representative);
+		if (members == null) {
+			members = Collections.newSetFromMap(
+					new ConcurrentHashMap<IndexedIndividual, Boolean>());
+			groupMembers_.put(representative, members);
+		}
+		members.add(ind);
+		representatives_.put(ind, representative);
+	}
+
+	private synchronized void leaveGroup(final IndexedIndividual ind) {
+		final IndexedIndividual representative = representatives_.remove(ind);
+		if (representative == null) {
+			return;
+		}
+		// else
+		final Set<IndexedIndividual> members = groupMembers_
+				.get(representative);
+		if (members == null) {
+			return;
+		}
+		// else
+		members.remove(ind);
+		if (members.isEmpty()) {
+			groupMembers_.remove(representative);
+		}
+	}
+
+	private synchronized void removeGroup(
+			final IndexedIndividual representative) {
+		final Set<IndexedIndividual> members = groupMembers_
+				.remove(representative);
+		if (members != null) {
+			toRemove_.addAll(members);
+		}
+	}
+
+	/**
+	 * Schedules the individuals whose types were copied from the given
+	 * representative for removal from the taxonomy
+	 * 
+	 * @param representative
+	 */
+	private void removeGroupMembers(final IndexedIndividual representative) {
+		final Set<IndexedIndividual> members = groupMembers_
+				.get(representative);
+		if (members != null) {
+			toRemove_.addAll(members);
+		}
+	}
+
+	/**
+	 * Notifies this {@link InstanceTaxonomyState} that the rules for the given
+	 * premises were added to or removed from the ontology. The types of the
+	 * individuals copied from the representatives must be recomputed if the
+	 * rules for these individuals or their representatives change, because
+	 * the contexts of these individuals, which would be otherwise modified,
+	 * may not exist.
+	 * 
+	 * @param premises
+	 */
+	void rulesChanged(
+			final Iterable<? extends IndexedClassExpression> premises) {
+		if (representatives_.isEmpty()) {
+			return;
+		}
+		// else
+		for (final IndexedClassExpression premise : premises) {
+			if (!(premise instanceof IndexedIndividual)) {
+				continue;
+			}
+			// else
+			final IndexedIndividual ind = (IndexedIndividual) premise;
+			if (representatives_.containsKey(ind)) {
+				toRemove_.add(ind);
+			}
+			removeGroupMembers(ind);
+		}
 	}
 
 	/**
@@ -0,0 +1,95 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.stages;
+
+import java.util.Collection;
+
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.taxonomy.ClassTaxonomyComputation;
+import org.semanticweb.elk.util.collections.Operations;
+
+/**
+ * Computes the nodes of the class taxonomy only for the classes requested
+ * using {@link ClassTaxonomyState#addToAddLazily(IndexedClass)} together with
+ * all their super-nodes. Only the contexts needed for computing these nodes
+ * are saturated. The nodes are added to the same taxonomy that is computed by
+ * {@link ClassTaxonomyComputationStage}, which then does not recompute them.
+ */
+public class PartialClassTaxonomyComputationStage
+		extends AbstractReasonerStage {
+
+	protected ClassTaxonomyComputation computation_ = null;
+
+	public PartialClassTaxonomyComputationStage(AbstractReasonerState reasoner,
+			AbstractReasonerStage... preStages) {
+		super(reasoner, preStages);
+	}
+
+	@Override
+	public String getName() {
+		return "Partial Taxonomy Construction";
+	}
+
+	@Override
+	public boolean preExecute() {
+		if (!super.preExecute())
+			return false;
+		this.computation_ = createComputation(
+				reasoner.classTaxonomyState.getToAddLazily());
+		return true;
+	}
+
+	@Override
+	public void executeStage() throws ElkInterruptedException {
+		/*
+		 * every computation may produce new super-nodes whose super-nodes
+		 * should be computed next
+		 */
+		while (computation_ != null) {
+			computation_.process();
+			reasoner.ruleAndConclusionStats
+					.add(computation_.getRuleAndConclusionStatistics());
+			this.computation_ = createComputation(
+					reasoner.classTaxonomyState.getToAddLazily());
+		}
+	}
+
+	@Override
+	public void printInfo() {
+		if (computation_ != null)
+			computation_.printStatistics();
+	}
+
+	private ClassTaxonomyComputation createComputation(
+			Collection<IndexedClass> toAdd) {
+		if (toAdd.isEmpty()) {
+			return null;
+		}
+		// else
+		return new ClassTaxonomyComputation(Operations.split(toAdd, 64),
+				reasoner.getInterrupter(), reasoner.getProcessExecutor(),
+				workerNo, reasoner.getProgressMonitor(),
+				reasoner.saturationState,
+				reasoner.classTaxonomyState.getTaxonomy());
+	}
+
+}
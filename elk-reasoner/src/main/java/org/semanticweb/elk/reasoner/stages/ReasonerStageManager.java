@@ -39,6 +39,7 @@ public class ReasonerStageManager {
 			incrementalAdditionInitializationStage, incrementalAdditionStage,
 			incrementalTaxonomyCleaningStage,
 			classTaxonomyComputationStage,
+			partialClassTaxonomyComputationStage,
 			instanceTaxonomyComputationStage, inferenceTracingStage,
 			classExpressionQueryStage, entailmentQueryStage;
 
@@ -101,6 +102,9 @@ public class ReasonerStageManager {
 		this.classTaxonomyComputationStage = new ClassTaxonomyComputationStage(
 				reasoner, consistencyCheckingStage);
 
+		this.partialClassTaxonomyComputationStage = new PartialClassTaxonomyComputationStage(
+				reasoner, consistencyCheckingStage);
+
 		this.instanceTaxonomyComputationStage = new InstanceTaxonomyComputationStage(
 				reasoner, classTaxonomyComputationStage);
 
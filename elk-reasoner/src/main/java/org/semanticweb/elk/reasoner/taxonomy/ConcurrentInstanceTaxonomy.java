@@ -328,6 +328,17 @@ public class ConcurrentInstanceTaxonomy
 		return classTaxonomy_.removeDirectSupernodes(node.getNode());
 	}
 
+	@Override
+	public boolean removeSubnodeSupernodes(
+			final NonBottomTaxonomyNode<ElkClass> superNode) {
+		if (!(superNode instanceof UpdateableTypeNodeWrapper)) {
+			throw new IllegalArgumentException(
+					"The super-node must belong to this taxonomy: " + superNode);
+		}
+		final UpdateableTypeNodeWrapper node = (UpdateableTypeNodeWrapper) superNode;
+		return classTaxonomy_.removeSubnodeSupernodes(node.getNode());
+	}
+
 	@Override
 	public boolean removeNode(final ElkClass member) {
 		final TaxonomyNode<ElkClass> node = classTaxonomy_.getNode(member);
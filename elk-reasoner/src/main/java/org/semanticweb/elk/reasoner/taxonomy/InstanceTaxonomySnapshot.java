@@ -0,0 +1,196 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
+import org.semanticweb.elk.reasoner.taxonomy.model.ComparatorKeyProvider;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TypeNode;
+
+/**
+ * A {@link TaxonomySnapshot} of an {@link InstanceTaxonomy}, which in addition
+ * stores the instance nodes identified by their own {@code int} ids, as well as
+ * the direct type nodes of every instance node and the direct instance nodes
+ * of every type node.
+ * 
+ * @param <T>
+ *            the type of members of the type nodes of this snapshot
+ * @param <I>
+ *            the type of members of the instance nodes of this snapshot
+ */
+public class InstanceTaxonomySnapshot<T extends ElkEntity, I extends ElkEntity>
+		extends TaxonomySnapshot<T> {
+
+	private final ComparatorKeyProvider<? super I> instanceKeyProvider_;
+
+	/**
+	 * the ids of instance nodes indexed by the keys of their members
+	 */
+	private final KeyIdMap instanceNodeIds_;
+
+	private final CsrArray<Object> instanceMembers_;
+
+	private final CsrArray<int[]> directTypeNodes_;
+
+	private final CsrArray<int[]> directInstanceNodes_;
+
+	/**
+	 * Creates a snapshot of the given {@link InstanceTaxonomy}; the
+	 * {@link InstanceTaxonomy} should not be modified while this constructor
+	 * is running
+	 * 
+	 * @param taxonomy
+	 */
+	public InstanceTaxonomySnapshot(InstanceTaxonomy<T, I> taxonomy) {
+		super(taxonomy);
+		this.instanceKeyProvider_ = taxonomy.getInstanceKeyProvider();
+		List<InstanceNode<T, I>> instanceNodes = new ArrayList<InstanceNode<T, I>>(
+				taxonomy.getInstanceNodes());
+		this.instanceNodeIds_ = new KeyIdMap(instanceNodes.size());
+		this.instanceMembers_ = createMembers(instanceNodes,
+				instanceKeyProvider_, instanceNodeIds_);
+		int[][] directTypeNodes = new int[instanceNodes.size()][];
+		for (int i = 0; i < directTypeNodes.length; i++) {
+			directTypeNodes[i] = getNodeIds(
+					instanceNodes.get(i).getDirectTypeNodes());
+		}
+		int[][] directInstanceNodes = new int[getNodeCount()][];
+		for (int i = 0; i < directInstanceNodes.length; i++) {
+			TypeNode<T, I> node = taxonomy.getNode(getCanonicalMember(i));
+			directInstanceNodes[i] = getNodeIds(
+					node.getDirectInstanceNodes(), instanceKeyProvider_,
+					instanceNodeIds_);
+		}
+		this.directTypeNodes_ = CsrArray.create(directTypeNodes);
+		this.directInstanceNodes_ = CsrArray.create(directInstanceNodes);
+	}
+
+	/**
+	 * @return the {@link ComparatorKeyProvider} that identifies the members of
+	 *         the instance nodes of this snapshot
+	 */
+	public ComparatorKeyProvider<? super I> getInstanceKeyProvider() {
+		return instanceKeyProvider_;
+	}
+
+	/**
+	 * @return the number of instance nodes in this snapshot; the instance
+	 *         nodes have ids from {@code 0} to this number minus {@code 1}
+	 */
+	public int getInstanceNodeCount() {
+		return instanceMembers_.getRowCount();
+	}
+
+	/**
+	 * @param instance
+	 * @return the id of the instance node that contains the given instance or
+	 *         {@code -1} if there is no such instance node in this snapshot
+	 */
+	public int getInstanceNodeId(I instance) {
+		return instanceNodeIds_.get(instanceKeyProvider_.getKey(instance));
+	}
+
+	/**
+	 * @param instanceNode
+	 *            the id of an instance node
+	 * @return the canonical member of the instance node with the given id
+	 */
+	@SuppressWarnings("unchecked")
+	public I getCanonicalInstance(int instanceNode) {
+		return (I) instanceMembers_.get(instanceNode, 0);
+	}
+
+	/**
+	 * @param instanceNode
+	 *            the id of an instance node
+	 * @return the unmodifiable list of members of the instance node with the
+	 *         given id; the canonical member is the first in this list
+	 */
+	@SuppressWarnings("unchecked")
+	public List<I> getInstances(int instanceNode) {
+		return (List<I>) instanceMembers_.getRow(instanceNode);
+	}
+
+	/**
+	 * @param instanceNode
+	 *            the id of an instance node
+	 * @return the ids of the direct type nodes of the instance node with the
+	 *         given id in ascending order
+	 */
+	public int[] getDirectTypeNodeIds(int instanceNode) {
+		return directTypeNodes_.copyRow(instanceNode);
+	}
+
+	/**
+	 * @param instanceNode
+	 *            the id of an instance node
+	 * @return the ids of all (not necessarily direct) type nodes of the
+	 *         instance node with the given id in ascending order
+	 */
+	public int[] getAllTypeNodeIds(int instanceNode) {
+		int[] directTypeNodes = directTypeNodes_.copyRow(instanceNode);
+		BitSet result = new BitSet();
+		for (int typeNode : directTypeNodes) {
+			result.set(typeNode);
+		}
+		for (int typeNode : directTypeNodes) {
+			getReachable(getDirectSuperNodes(), typeNode, result);
+		}
+		return toArray(result);
+	}
+
+	/**
+	 * @param typeNode
+	 *            the id of a (type) node
+	 * @return the ids of the direct instance nodes of the node with the given
+	 *         id in ascending order
+	 */
+	public int[] getDirectInstanceNodeIds(int typeNode) {
+		return directInstanceNodes_.copyRow(typeNode);
+	}
+
+	/**
+	 * @param typeNode
+	 *            the id of a (type) node
+	 * @return the ids of all (not necessarily direct) instance nodes of the
+	 *         node with the given id in ascending order
+	 */
+	public int[] getAllInstanceNodeIds(int typeNode) {
+		BitSet typeNodes = getReachable(getDirectSubNodes(), typeNode, null);
+		typeNodes.set(typeNode);
+		BitSet result = new BitSet();
+		for (int i = typeNodes.nextSetBit(0); i >= 0; i = typeNodes
+				.nextSetBit(i + 1)) {
+			for (int j = directInstanceNodes_.getRowStart(
+					i); j < directInstanceNodes_.getRowStart(i + 1); j++) {
+				result.set(directInstanceNodes_.getInt(j));
+			}
+		}
+		return toArray(result);
+	}
+
+}
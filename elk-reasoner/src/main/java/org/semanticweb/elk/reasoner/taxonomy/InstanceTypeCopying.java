@@ -0,0 +1,162 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.semanticweb.elk.exceptions.ElkRuntimeException;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.reasoner.ProgressMonitor;
+import org.semanticweb.elk.reasoner.ReasonerComputationWithInputs;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedIndividual;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.TypeNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableInstanceTaxonomy;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentExecutor;
+import org.semanticweb.elk.util.concurrent.computation.DelegateInterruptMonitor;
+import org.semanticweb.elk.util.concurrent.computation.InputProcessor;
+import org.semanticweb.elk.util.concurrent.computation.InputProcessorFactory;
+import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
+
+/**
+ * Concurrently adds individuals to the instance taxonomy with the direct types
+ * of their representatives, which must be already present in the taxonomy.
+ */
+public class InstanceTypeCopying extends
+		ReasonerComputationWithInputs<IndexedIndividual, InstanceTypeCopyingFactory> {
+
+	/**
+	 * @param inputs
+	 *            the individuals to be added to the taxonomy
+	 * @param representatives
+	 *            the map from every input individual to the individual
+	 *            whose direct types should be copied
+	 * @param interrupter
+	 * @param taxonomy
+	 *            the instance taxonomy in which the nodes are created
+	 * @param executor
+	 * @param maxWorkers
+	 * @param progressMonitor
+	 */
+	public InstanceTypeCopying(final Collection<IndexedIndividual> inputs,
+			final Map<IndexedIndividual, IndexedIndividual> representatives,
+			final InterruptMonitor interrupter,
+			final UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy,
+			final ConcurrentExecutor executor, final int maxWorkers,
+			final ProgressMonitor progressMonitor) {
+		super(inputs, new InstanceTypeCopyingFactory(interrupter,
+				representatives, taxonomy), executor, maxWorkers,
+				progressMonitor);
+	}
+
+}
+
+class InstanceTypeCopyingFactory extends DelegateInterruptMonitor implements
+		InputProcessorFactory<IndexedIndividual, InputProcessor<IndexedIndividual>> {
+
+	private final Map<IndexedIndividual, IndexedIndividual> representatives_;
+
+	private final UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy_;
+
+	/**
+	 * the members of the direct type nodes of the representatives, so that
+	 * they are collected only once for every representative
+	 */
+	private final ConcurrentMap<IndexedIndividual, List<List<ElkClass>>> directTypes_ = new ConcurrentHashMap<IndexedIndividual, List<List<ElkClass>>>();
+
+	InstanceTypeCopyingFactory(final InterruptMonitor interrupter,
+			final Map<IndexedIndividual, IndexedIndividual> representatives,
+			final UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy) {
+		super(interrupter);
+		this.representatives_ = representatives;
+		this.taxonomy_ = taxonomy;
+	}
+
+	private List<List<ElkClass>> getDirectTypes(
+			final IndexedIndividual representative) {
+		List<List<ElkClass>> result = directTypes_.get(representative);
+		if (result != null) {
+			return result;
+		}
+		// else
+		final InstanceNode<ElkClass, ElkNamedIndividual> node = taxonomy_
+				.getInstanceNode(representative.getElkEntity());
+		if (node == null) {
+			throw new ElkRuntimeException("individual " + representative
+					+ " must be in the taxonomy!");
+		}
+		// else
+		result = new ArrayList<List<ElkClass>>();
+		for (final TypeNode<ElkClass, ElkNamedIndividual> typeNode : node
+				.getDirectTypeNodes()) {
+			final List<ElkClass> members = new ArrayList<ElkClass>(
+					typeNode.size());
+			for (final ElkClass member : typeNode) {
+				members.add(member);
+			}
+			result.add(members);
+		}
+		final List<List<ElkClass>> previous = directTypes_
+				.putIfAbsent(representative, result);
+		return previous == null ? result : previous;
+	}
+
+	@Override
+	public InputProcessor<IndexedIndividual> getEngine() {
+		return new InputProcessor<IndexedIndividual>() {
+
+			@Override
+			public void submit(final IndexedIndividual ind) {
+				// only supports singleton individuals
+				final InstanceNode<ElkClass, ElkNamedIndividual> node = taxonomy_
+						.getCreateInstanceNode(
+								Collections.singleton(ind.getElkEntity()));
+				taxonomy_.setCreateDirectTypes(node,
+						getDirectTypes(representatives_.get(ind)));
+			}
+
+			@Override
+			public void process() {
+				// nothing to do, the job is done in submit
+			}
+
+			@Override
+			public void finish() {
+				// nothing to do
+			}
+
+		};
+	}
+
+	@Override
+	public void finish() {
+		// nothing to do
+	}
+
+}
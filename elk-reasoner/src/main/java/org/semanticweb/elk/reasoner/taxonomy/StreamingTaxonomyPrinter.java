@@ -0,0 +1,648 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkIri;
+import org.semanticweb.elk.owl.visitors.AbstractElkEntityVisitor;
+import org.semanticweb.elk.owl.visitors.ElkEntityVisitor;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.NodeHasher;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyHasher;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyNodeHasher;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentExecutor;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentExecutors;
+import org.semanticweb.elk.util.hashing.HashGenerator;
+
+/**
+ * Prints a {@link Taxonomy} in the same format as
+ * {@link TaxonomyPrinter#dumpTaxomomy(Taxonomy, java.io.Writer, boolean)}, but
+ * without creating axiom objects for the printed axioms. The members of the
+ * nodes are sorted concurrently in several chunks, which are then merged while
+ * the output is written to a {@link WritableByteChannel}; the hash of the
+ * taxonomy computed by {@link TaxonomyHasher} is computed during the same
+ * pass.
+ */
+public class StreamingTaxonomyPrinter {
+
+	/**
+	 * the size of the buffers used for writing to the channel
+	 */
+	private static final int BUFFER_SIZE_ = 1 << 16;
+
+	/**
+	 * the minimal number of nodes in a chunk that is sorted by a separate
+	 * worker
+	 */
+	private static final int MIN_CHUNK_SIZE_ = 1 << 10;
+
+	private static final Charset CHARSET_ = Charset.forName("UTF-8");
+
+	/**
+	 * Prints the given {@link Taxonomy} to a file at the given location using
+	 * all available processors.
+	 * 
+	 * @see #dumpTaxonomy(Taxonomy, WritableByteChannel, boolean,
+	 *      ConcurrentExecutor, int)
+	 * 
+	 * @param taxonomy
+	 * @param fileName
+	 * @param addHash
+	 *            if true, a hash string will be added at the end of the output
+	 *            using comment syntax of OWL 2 Functional Style
+	 * @return the hash of the taxonomy computed by {@link TaxonomyHasher}
+	 * @throws IOException
+	 *             If an I/O error occurs
+	 */
+	public static int dumpTaxonomyToFile(
+			final Taxonomy<? extends ElkEntity> taxonomy, final String fileName,
+			final boolean addHash) throws IOException {
+		final FileOutputStream stream = new FileOutputStream(fileName);
+		try {
+			return dumpTaxonomy(taxonomy, stream.getChannel(), addHash,
+					ConcurrentExecutors.getDefault(),
+					Runtime.getRuntime().availableProcessors());
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Prints the contents of the given {@link Taxonomy} to the given
+	 * {@link WritableByteChannel} using UTF-8 encoding. Expressions are
+	 * ordered for generating the output, ensuring that the output is
+	 * deterministic.
+	 * 
+	 * @param taxonomy
+	 * @param channel
+	 *            the channel to which the output is written; it is not closed
+	 *            by this method
+	 * @param addHash
+	 *            if true, a hash string will be added at the end of the output
+	 *            using comment syntax of OWL 2 Functional Style
+	 * @param executor
+	 *            the {@link ConcurrentExecutor} used for sorting the members
+	 * @param maxWorkers
+	 *            the maximal number of workers sorting the members
+	 * @return the hash of the taxonomy computed by {@link TaxonomyHasher}
+	 * @throws IOException
+	 *             If an I/O error occurs
+	 */
+	public static <T extends ElkEntity> int dumpTaxonomy(
+			final Taxonomy<T> taxonomy, final WritableByteChannel channel,
+			final boolean addHash, final ConcurrentExecutor executor,
+			final int maxWorkers) throws IOException {
+		final List<Chunk<T>> chunks = sortChunks(taxonomy, executor,
+				maxWorkers);
+		final Map<TaxonomyNode<T>, NodeEntry<T>> entries = new HashMap<TaxonomyNode<T>, NodeEntry<T>>();
+		final List<List<T>> declarationRuns = new ArrayList<List<T>>(
+				chunks.size());
+		final List<List<NodeEntry<T>>> entryRuns = new ArrayList<List<NodeEntry<T>>>(
+				chunks.size());
+		for (final Chunk<T> chunk : chunks) {
+			declarationRuns.add(chunk.declarations);
+			entryRuns.add(chunk.entries);
+			for (final NodeEntry<T> entry : chunk.entries) {
+				entries.put(entry.node, entry);
+			}
+		}
+		final Comparator<? super T> comparator = taxonomy.getKeyProvider()
+				.getComparator();
+		final ChannelWriter writer = new ChannelWriter(channel);
+
+		writer.append("Ontology(\n");
+
+		// Declarations.
+		final Iterator<T> members = new MergingIterator<T>(declarationRuns,
+				comparator);
+		while (members.hasNext()) {
+			final T member = members.next();
+			writer.append("Declaration(")
+					.append(member.accept(VOCABULARY_PROVIDER_).declaration)
+					.append('(');
+			appendIri(writer, member.getIri());
+			writer.append("))\n");
+		}
+
+		// Relations and the hash.
+		final T topMember = taxonomy.getTopNode().getCanonicalMember();
+		final T bottomMember = taxonomy.getBottomNode().getCanonicalMember();
+		final Iterator<NodeEntry<T>> nodeEntries = new MergingIterator<NodeEntry<T>>(
+				entryRuns, new Comparator<NodeEntry<T>>() {
+					@Override
+					public int compare(final NodeEntry<T> first,
+							final NodeEntry<T> second) {
+						return comparator.compare(first.getCanonicalMember(),
+								second.getCanonicalMember());
+					}
+				});
+		int taxonomyHash = 0;
+		while (nodeEntries.hasNext()) {
+			final NodeEntry<T> entry = nodeEntries.next();
+			taxonomyHash += hash(entry, entries);
+			final T member = entry.getCanonicalMember();
+			final Vocabulary vocabulary = member.accept(VOCABULARY_PROVIDER_);
+			if (entry.members.size() > 1) {
+				writer.append(vocabulary.equivalence).append('(');
+				boolean first = true;
+				for (final T equivalent : entry.members) {
+					if (!first) {
+						writer.append(' ');
+					}
+					first = false;
+					appendIri(writer, equivalent.getIri());
+				}
+				writer.append(")\n");
+			}
+			// TODO: this should exclude implicit axioms as owl:Thing ⊑
+			// owl:Nothing
+			if (member.equals(bottomMember)) {
+				continue;
+			}
+			// else
+			for (final T superMember : entry.superMembers) {
+				if (superMember.equals(topMember)) {
+					continue;
+				}
+				// else
+				writer.append(vocabulary.subsumption).append('(');
+				appendIri(writer, member.getIri());
+				writer.append(' ');
+				appendIri(writer, superMember.getIri());
+				writer.append(")\n");
+			}
+		}
+		taxonomyHash = HashGenerator.combineListHash(taxonomyHash);
+
+		writer.append(")\n");
+
+		if (addHash) {
+			writer.append("\n# Hash code: ")
+					.append(Integer.toHexString(taxonomyHash)).append('\n');
+		}
+		writer.flush();
+
+		return taxonomyHash;
+	}
+
+	/**
+	 * Splits the nodes of the given {@link Taxonomy} into chunks and sorts the
+	 * members of every chunk concurrently
+	 */
+	private static <T extends ElkEntity> List<Chunk<T>> sortChunks(
+			final Taxonomy<T> taxonomy, final ConcurrentExecutor executor,
+			final int maxWorkers) throws IOException {
+		final List<TaxonomyNode<T>> nodes = new ArrayList<TaxonomyNode<T>>(
+				taxonomy.getNodes());
+		final int chunkCount = Math.max(1,
+				Math.min(maxWorkers, nodes.size() / MIN_CHUNK_SIZE_));
+		final List<Chunk<T>> chunks = new ArrayList<Chunk<T>>(chunkCount);
+		for (int i = 0; i < chunkCount; i++) {
+			chunks.add(new Chunk<T>(taxonomy,
+					nodes.subList(i * nodes.size() / chunkCount,
+							(i + 1) * nodes.size() / chunkCount)));
+		}
+		if (chunkCount == 1) {
+			chunks.get(0).sort();
+			return chunks;
+		}
+		// else
+		final AtomicInteger next = new AtomicInteger();
+		final RuntimeException[] failure = new RuntimeException[1];
+		final Runnable job = new Runnable() {
+			@Override
+			public void run() {
+				int i;
+				while ((i = next.getAndIncrement()) < chunkCount) {
+					try {
+						chunks.get(i).sort();
+					} catch (final RuntimeException e) {
+						synchronized (failure) {
+							failure[0] = e;
+						}
+					}
+				}
+			}
+		};
+		try {
+			executor.submit(job, chunkCount).waitDone();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(
+					"Interrupted while sorting the taxonomy");
+		}
+		synchronized (failure) {
+			if (failure[0] != null) {
+				throw failure[0];
+			}
+		}
+		return chunks;
+	}
+
+	/**
+	 * Computes the same hash of the node of the given {@link NodeEntry} as
+	 * {@link TaxonomyNodeHasher}, but using the hashes of members computed for
+	 * the nodes of the taxonomy in advance
+	 */
+	private static <T extends ElkEntity> int hash(final NodeEntry<T> entry,
+			final Map<TaxonomyNode<T>, NodeEntry<T>> entries) {
+		int subClassHash = "subClassOf".hashCode();
+		for (final TaxonomyNode<T> subNode : entry.node.getDirectSubNodes()) {
+			subClassHash += getMemberHash(subNode, entries);
+		}
+		int superClassHash = "superClassOf".hashCode();
+		for (final TaxonomyNode<T> superNode : entry.node
+				.getDirectSuperNodes()) {
+			superClassHash += getMemberHash(superNode, entries);
+		}
+		return HashGenerator.combineListHash(entry.memberHash, subClassHash,
+				superClassHash);
+	}
+
+	private static <T extends ElkEntity> int getMemberHash(
+			final TaxonomyNode<T> node,
+			final Map<TaxonomyNode<T>, NodeEntry<T>> entries) {
+		final NodeEntry<T> entry = entries.get(node);
+		return entry == null ? NodeHasher.INSTANCE.hash(node)
+				: entry.memberHash;
+	}
+
+	/**
+	 * Computes the same hash of the members of the given {@link Node} as
+	 * {@link NodeHasher} without caching, so that it can be called
+	 * concurrently
+	 */
+	private static int getMemberHash(final Node<? extends ElkEntity> node) {
+		int hash = 0;
+		for (final ElkEntity member : node) {
+			hash += member.getIri().hashCode();
+		}
+		return HashGenerator.combineListHash(hash);
+	}
+
+	private static void appendIri(final ChannelWriter writer, final ElkIri iri)
+			throws IOException {
+		writer.append('<').append(iri.getFullIriAsString()).append('>');
+	}
+
+	/**
+	 * The keywords used for printing axioms about entities of some type
+	 */
+	private static class Vocabulary {
+
+		final String declaration;
+
+		final String equivalence;
+
+		final String subsumption;
+
+		Vocabulary(final String declaration, final String equivalence,
+				final String subsumption) {
+			this.declaration = declaration;
+			this.equivalence = equivalence;
+			this.subsumption = subsumption;
+		}
+
+	}
+
+	private static final Vocabulary CLASS_VOCABULARY_ = new Vocabulary("Class",
+			"EquivalentClasses", "SubClassOf");
+
+	private static final Vocabulary OBJECT_PROPERTY_VOCABULARY_ = new Vocabulary(
+			"ObjectProperty", "EquivalentObjectProperties",
+			"SubObjectPropertyOf");
+
+	private static final ElkEntityVisitor<Vocabulary> VOCABULARY_PROVIDER_ = new AbstractElkEntityVisitor<Vocabulary>() {
+
+		@Override
+		protected Vocabulary defaultVisit(final ElkEntity entity) {
+			throw new IllegalArgumentException(
+					"Cannot print taxonomy of " + entity);
+		}
+
+		@Override
+		public Vocabulary visit(final ElkClass cls) {
+			return CLASS_VOCABULARY_;
+		}
+
+		@Override
+		public Vocabulary visit(final ElkObjectProperty prop) {
+			return OBJECT_PROPERTY_VOCABULARY_;
+		}
+
+	};
+
+	/**
+	 * The members of a {@link TaxonomyNode} sorted for printing
+	 * 
+	 * @param <T>
+	 *            the type of members of the node
+	 */
+	private static class NodeEntry<T extends ElkEntity> {
+
+		final TaxonomyNode<T> node;
+
+		/**
+		 * the sorted members of {@link #node}
+		 */
+		final List<T> members;
+
+		/**
+		 * the sorted canonical members of the direct super-nodes of
+		 * {@link #node}
+		 */
+		final List<T> superMembers;
+
+		/**
+		 * the hash of the members of {@link #node} computed by
+		 * {@link NodeHasher}
+		 */
+		final int memberHash;
+
+		NodeEntry(final TaxonomyNode<T> node,
+				final Comparator<? super T> comparator) {
+			this.node = node;
+			this.members = new ArrayList<T>(node.size());
+			for (final T member : node) {
+				members.add(member);
+			}
+			Collections.sort(members, comparator);
+			this.superMembers = new ArrayList<T>();
+			for (final TaxonomyNode<T> superNode : node
+					.getDirectSuperNodes()) {
+				superMembers.add(superNode.getCanonicalMember());
+			}
+			Collections.sort(superMembers, comparator);
+			this.memberHash = getMemberHash(node);
+		}
+
+		T getCanonicalMember() {
+			return node.getCanonicalMember();
+		}
+
+	}
+
+	/**
+	 * A part of the nodes of a {@link Taxonomy} that is sorted by one worker
+	 * 
+	 * @param <T>
+	 *            the type of members of the nodes
+	 */
+	private static class Chunk<T extends ElkEntity> {
+
+		private final Taxonomy<T> taxonomy_;
+
+		private final List<TaxonomyNode<T>> nodes_;
+
+		/**
+		 * the sorted members of {@link #nodes_} that should be declared
+		 */
+		List<T> declarations;
+
+		/**
+		 * the {@link NodeEntry}s for {@link #nodes_} sorted by their canonical
+		 * members
+		 */
+		List<NodeEntry<T>> entries;
+
+		Chunk(final Taxonomy<T> taxonomy, final List<TaxonomyNode<T>> nodes) {
+			this.taxonomy_ = taxonomy;
+			this.nodes_ = nodes;
+		}
+
+		void sort() {
+			final Comparator<? super T> comparator = taxonomy_
+					.getKeyProvider().getComparator();
+			// TODO: this should check whether IRIs are predefined!
+			final ElkIri topIri = taxonomy_.getTopNode().getCanonicalMember()
+					.getIri();
+			final ElkIri bottomIri = taxonomy_.getBottomNode()
+					.getCanonicalMember().getIri();
+			final List<T> declarations = new ArrayList<T>(nodes_.size());
+			final List<NodeEntry<T>> entries = new ArrayList<NodeEntry<T>>(
+					nodes_.size());
+			for (final TaxonomyNode<T> node : nodes_) {
+				final NodeEntry<T> entry = new NodeEntry<T>(node, comparator);
+				entries.add(entry);
+				for (final T member : entry.members) {
+					if (!member.getIri().equals(topIri)
+							&& !member.getIri().equals(bottomIri)) {
+						declarations.add(member);
+					}
+				}
+			}
+			Collections.sort(declarations, comparator);
+			Collections.sort(entries, new Comparator<NodeEntry<T>>() {
+				@Override
+				public int compare(final NodeEntry<T> first,
+						final NodeEntry<T> second) {
+					return comparator.compare(first.getCanonicalMember(),
+							second.getCanonicalMember());
+				}
+			});
+			this.declarations = declarations;
+			this.entries = entries;
+		}
+
+	}
+
+	/**
+	 * Iterates over the elements of several sorted lists in the sorted order
+	 * 
+	 * @param <E>
+	 *            the type of the elements
+	 */
+	private static class MergingIterator<E> implements Iterator<E> {
+
+		private final PriorityQueue<Run<E>> runs_;
+
+		MergingIterator(final List<? extends List<E>> lists,
+				final Comparator<? super E> comparator) {
+			this.runs_ = new PriorityQueue<Run<E>>(
+					Math.max(1, lists.size()), new Comparator<Run<E>>() {
+						@Override
+						public int compare(final Run<E> first,
+								final Run<E> second) {
+							return comparator.compare(first.head,
+									second.head);
+						}
+					});
+			for (final List<E> list : lists) {
+				final Run<E> run = new Run<E>(list.iterator());
+				if (run.advance()) {
+					runs_.add(run);
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !runs_.isEmpty();
+		}
+
+		@Override
+		public E next() {
+			final Run<E> run = runs_.poll();
+			if (run == null) {
+				throw new NoSuchElementException();
+			}
+			// else
+			final E result = run.head;
+			if (run.advance()) {
+				runs_.add(run);
+			}
+			return result;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		private static class Run<E> {
+
+			private final Iterator<E> iterator_;
+
+			E head;
+
+			Run(final Iterator<E> iterator) {
+				this.iterator_ = iterator;
+			}
+
+			boolean advance() {
+				if (!iterator_.hasNext()) {
+					return false;
+				}
+				// else
+				head = iterator_.next();
+				return true;
+			}
+
+		}
+
+	}
+
+	/**
+	 * Encodes the appended characters using UTF-8 and writes them to a
+	 * {@link WritableByteChannel} once the buffers are full
+	 */
+	private static class ChannelWriter {
+
+		private final WritableByteChannel channel_;
+
+		private final CharsetEncoder encoder_ = CHARSET_.newEncoder();
+
+		private final CharBuffer chars_ = CharBuffer.allocate(BUFFER_SIZE_);
+
+		private final ByteBuffer bytes_ = ByteBuffer.allocate(
+				(int) (BUFFER_SIZE_ * encoder_.maxBytesPerChar()));
+
+		ChannelWriter(final WritableByteChannel channel) {
+			this.channel_ = channel;
+		}
+
+		ChannelWriter append(final CharSequence string) throws IOException {
+			final int length = string.length();
+			int start = 0;
+			while (start < length) {
+				if (!chars_.hasRemaining()) {
+					encode(false);
+				}
+				final int end = Math.min(length,
+						start + chars_.remaining());
+				chars_.append(string, start, end);
+				start = end;
+			}
+			return this;
+		}
+
+		ChannelWriter append(final char c) throws IOException {
+			if (!chars_.hasRemaining()) {
+				encode(false);
+			}
+			chars_.put(c);
+			return this;
+		}
+
+		void flush() throws IOException {
+			encode(true);
+			bytes_.clear();
+			CoderResult result = encoder_.flush(bytes_);
+			if (result.isError()) {
+				result.throwException();
+			}
+			write();
+			encoder_.reset();
+		}
+
+		/**
+		 * Encodes the buffered characters and writes the encoded bytes to the
+		 * channel; the characters that cannot be encoded yet (e.g., the first
+		 * half of a surrogate pair) remain in the buffer unless
+		 * {@code endOfInput} is {@code true}
+		 */
+		private void encode(final boolean endOfInput) throws IOException {
+			chars_.flip();
+			bytes_.clear();
+			final CoderResult result = encoder_.encode(chars_, bytes_,
+					endOfInput);
+			if (result.isError()) {
+				result.throwException();
+			}
+			write();
+			chars_.compact();
+		}
+
+		private void write() throws IOException {
+			bytes_.flip();
+			while (bytes_.hasRemaining()) {
+				channel_.write(bytes_);
+			}
+		}
+
+	}
+
+}
@@ -21,7 +21,6 @@
  */
 package org.semanticweb.elk.reasoner.taxonomy;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
@@ -144,14 +143,7 @@ class TaxonomyCleaningFactory extends DelegateInterruptMonitor
 				classTaxonomy_.removeDirectSupernodes(node);
 
 				// add all its direct satisfiable sub-nodes to the queue
-				final List<NonBottomTaxonomyNode<ElkClass>> subNodes;
-				synchronized (node) {
-					subNodes = new ArrayList<NonBottomTaxonomyNode<ElkClass>>(
-							node.getDirectNonBottomSubNodes());
-				}
-				for (NonBottomTaxonomyNode<ElkClass> subNode : subNodes) {
-					classTaxonomy_.removeDirectSupernodes(subNode);
-				}
+				classTaxonomy_.removeSubnodeSupernodes(node);
 
 				/*
 				 * delete all direct instance nodes of the type node being
@@ -62,9 +62,12 @@ public class TaxonomyPrinter {
 
 	/**
 	 * Convenience method for printing a {@link Taxonomy} to a file at the given
-	 * location.
+	 * location. The output is the same as of
+	 * {@link #dumpTaxomomy(Taxonomy, Writer, boolean)}, but it is produced by
+	 * {@link StreamingTaxonomyPrinter}, which does not create axiom objects.
 	 * 
-	 * @see #dumpTaxomomy(Taxonomy, Writer, boolean)
+	 * @see StreamingTaxonomyPrinter#dumpTaxonomyToFile(Taxonomy, String,
+	 *      boolean)
 	 * 
 	 * @param taxonomy
 	 * @param fileName
@@ -77,13 +80,8 @@ public class TaxonomyPrinter {
 	public static void dumpTaxomomyToFile(
 			final Taxonomy<? extends ElkEntity> taxonomy, final String fileName,
 			final boolean addHash) throws IOException {
-		final FileWriter fstream = new FileWriter(fileName);
-		final BufferedWriter writer = new BufferedWriter(fstream);
-		try {
-			dumpTaxomomy(taxonomy, writer, addHash);
-		} finally {
-			writer.close();
-		}
+		StreamingTaxonomyPrinter.dumpTaxonomyToFile(taxonomy, fileName,
+				addHash);
 	}
 
 	/**
@@ -0,0 +1,514 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
+import org.semanticweb.elk.reasoner.taxonomy.model.ComparatorKeyProvider;
+import org.semanticweb.elk.reasoner.taxonomy.model.KeyProvider;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+
+/**
+ * An immutable copy of a {@link Taxonomy} optimized for reading. The nodes of
+ * the {@link Taxonomy} are identified by consecutive {@code int} ids starting
+ * from {@code 0}; the direct super-nodes and the direct sub-nodes of every node
+ * are stored in arrays in the compressed sparse row format. Since the snapshot
+ * is never modified after construction, it can be queried from many threads
+ * without any synchronization, even while the {@link Taxonomy} from which it
+ * was created is modified.
+ * 
+ * @param <T>
+ *            the type of members of the nodes of this snapshot
+ */
+public class TaxonomySnapshot<T extends ElkEntity> {
+
+	private final ComparatorKeyProvider<? super T> keyProvider_;
+
+	/**
+	 * the ids of nodes indexed by the keys of their members
+	 */
+	private final KeyIdMap nodeIds_;
+
+	/**
+	 * the members of every node; the canonical member is stored first
+	 */
+	private final CsrArray<Object> members_;
+
+	private final CsrArray<int[]> directSuperNodes_;
+
+	private final CsrArray<int[]> directSubNodes_;
+
+	private final int topNode_, bottomNode_;
+
+	/**
+	 * Creates a snapshot of the given {@link Taxonomy}; the {@link Taxonomy}
+	 * should not be modified while this constructor is running
+	 * 
+	 * @param taxonomy
+	 */
+	public TaxonomySnapshot(Taxonomy<T> taxonomy) {
+		this.keyProvider_ = taxonomy.getKeyProvider();
+		List<TaxonomyNode<T>> nodes = new ArrayList<TaxonomyNode<T>>(
+				taxonomy.getNodes());
+		TaxonomyNode<T> top = taxonomy.getTopNode();
+		TaxonomyNode<T> bottom = taxonomy.getBottomNode();
+		if (!nodes.contains(top)) {
+			nodes.add(top);
+		}
+		if (!nodes.contains(bottom)) {
+			nodes.add(bottom);
+		}
+		this.nodeIds_ = new KeyIdMap(nodes.size());
+		this.members_ = createMembers(nodes, keyProvider_, nodeIds_);
+		this.topNode_ = getNodeId(top.getCanonicalMember());
+		this.bottomNode_ = getNodeId(bottom.getCanonicalMember());
+		int[][] directSuperNodes = new int[nodes.size()][];
+		int[][] directSubNodes = new int[nodes.size()][];
+		for (int i = 0; i < directSuperNodes.length; i++) {
+			TaxonomyNode<T> node = nodes.get(i);
+			directSuperNodes[i] = getNodeIds(node.getDirectSuperNodes());
+			directSubNodes[i] = getNodeIds(node.getDirectSubNodes());
+		}
+		this.directSuperNodes_ = CsrArray.create(directSuperNodes);
+		this.directSubNodes_ = CsrArray.create(directSubNodes);
+	}
+
+	/**
+	 * @return the {@link ComparatorKeyProvider} that identifies the members of
+	 *         the nodes of this snapshot
+	 */
+	public ComparatorKeyProvider<? super T> getKeyProvider() {
+		return keyProvider_;
+	}
+
+	/**
+	 * @return the number of nodes in this snapshot; the nodes have ids from
+	 *         {@code 0} to this number minus {@code 1}
+	 */
+	public int getNodeCount() {
+		return members_.getRowCount();
+	}
+
+	/**
+	 * @param member
+	 * @return the id of the node that contains the given member or {@code -1}
+	 *         if there is no such node in this snapshot
+	 */
+	public int getNodeId(T member) {
+		return nodeIds_.get(keyProvider_.getKey(member));
+	}
+
+	/**
+	 * @return the id of the node containing the top entity
+	 */
+	public int getTopNodeId() {
+		return topNode_;
+	}
+
+	/**
+	 * @return the id of the node containing the bottom entity
+	 */
+	public int getBottomNodeId() {
+		return bottomNode_;
+	}
+
+	/**
+	 * @param node
+	 *            the id of a node
+	 * @return the canonical member of the node with the given id
+	 * @see Node#getCanonicalMember()
+	 */
+	@SuppressWarnings("unchecked")
+	public T getCanonicalMember(int node) {
+		return (T) members_.get(node, 0);
+	}
+
+	/**
+	 * @param node
+	 *            the id of a node
+	 * @return the unmodifiable list of members of the node with the given id;
+	 *         the canonical member is the first in this list
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> getMembers(int node) {
+		return (List<T>) members_.getRow(node);
+	}
+
+	/**
+	 * @param node
+	 *            the id of a node
+	 * @return the ids of the direct super-nodes of the node with the given id
+	 *         in ascending order
+	 */
+	public int[] getDirectSuperNodeIds(int node) {
+		return directSuperNodes_.copyRow(node);
+	}
+
+	/**
+	 * @param node
+	 *            the id of a node
+	 * @return the ids of the direct sub-nodes of the node with the given id in
+	 *         ascending order
+	 */
+	public int[] getDirectSubNodeIds(int node) {
+		return directSubNodes_.copyRow(node);
+	}
+
+	/**
+	 * @param node
+	 *            the id of a node
+	 * @return the ids of all (not necessarily direct) super-nodes of the node
+	 *         with the given id, excluding this node, in ascending order
+	 */
+	public int[] getAllSuperNodeIds(int node) {
+		return toArray(getReachable(directSuperNodes_, node, null));
+	}
+
+	/**
+	 * @param node
+	 *            the id of a node
+	 * @return the ids of all (not necessarily direct) sub-nodes of the node
+	 *         with the given id, excluding this node, in ascending order
+	 */
+	public int[] getAllSubNodeIds(int node) {
+		return toArray(getReachable(directSubNodes_, node, null));
+	}
+
+	/**
+	 * @param subNode
+	 *            the id of a node
+	 * @param superNode
+	 *            the id of a node
+	 * @return {@code true} if the node with id {@code superNode} is the same
+	 *         as or a (not necessarily direct) super-node of the node with id
+	 *         {@code subNode}
+	 */
+	public boolean isSubNodeOf(int subNode, int superNode) {
+		if (subNode == superNode || superNode == topNode_
+				|| subNode == bottomNode_) {
+			return true;
+		}
+		// else
+		return getReachable(directSuperNodes_, subNode, null).get(superNode);
+	}
+
+	CsrArray<int[]> getDirectSuperNodes() {
+		return directSuperNodes_;
+	}
+
+	CsrArray<int[]> getDirectSubNodes() {
+		return directSubNodes_;
+	}
+
+	/**
+	 * @param nodes
+	 * @return the sorted ids of the given nodes of the taxonomy from which
+	 *         this snapshot was created
+	 */
+	int[] getNodeIds(Collection<? extends Node<T>> nodes) {
+		return getNodeIds(nodes, keyProvider_, nodeIds_);
+	}
+
+	/**
+	 * Collects the nodes reachable from the given node by following the edges
+	 * of the given {@link CsrArray}
+	 * 
+	 * @param edges
+	 * @param node
+	 *            the node from which the search starts; it is not included in
+	 *            the result unless reachable by a cycle
+	 * @param result
+	 *            the {@link BitSet} to which the reachable nodes are added or
+	 *            {@code null} if a new one should be created; the nodes that
+	 *            are already in this {@link BitSet} are not expanded
+	 * @return the {@link BitSet} with the reachable nodes
+	 */
+	static BitSet getReachable(CsrArray<int[]> edges, int node,
+			BitSet result) {
+		if (result == null) {
+			result = new BitSet();
+		}
+		int[] todo = new int[8];
+		int todoSize = 0;
+		todo[todoSize++] = node;
+		while (todoSize > 0) {
+			int next = todo[--todoSize];
+			for (int i = edges.getRowStart(next); i < edges
+					.getRowStart(next + 1); i++) {
+				int successor = edges.getInt(i);
+				if (result.get(successor)) {
+					continue;
+				}
+				result.set(successor);
+				if (todoSize == todo.length) {
+					todo = Arrays.copyOf(todo, todoSize * 2);
+				}
+				todo[todoSize++] = successor;
+			}
+		}
+		return result;
+	}
+
+	static int[] toArray(BitSet set) {
+		int[] result = new int[set.cardinality()];
+		int pos = 0;
+		for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+			result[pos++] = i;
+		}
+		return result;
+	}
+
+	/**
+	 * Assigns ids to the given nodes in the order of the list and stores them
+	 * for the keys of their members
+	 * 
+	 * @param nodes
+	 * @param keyProvider
+	 * @param nodeIds
+	 *            the map to which the ids are added
+	 * @return the members of the nodes, with the canonical members first
+	 */
+	static <M> CsrArray<Object> createMembers(List<? extends Node<M>> nodes,
+			KeyProvider<? super M> keyProvider, KeyIdMap nodeIds) {
+		Object[][] result = new Object[nodes.size()][];
+		for (int i = 0; i < result.length; i++) {
+			Node<M> node = nodes.get(i);
+			M canonical = node.getCanonicalMember();
+			Object[] members = new Object[node.size()];
+			int pos = 0;
+			members[pos++] = canonical;
+			for (M member : node) {
+				nodeIds.put(keyProvider.getKey(member), i);
+				if (member != canonical) {
+					members[pos++] = member;
+				}
+			}
+			result[i] = members;
+		}
+		return CsrArray.create(result);
+	}
+
+	/**
+	 * @param nodes
+	 * @param keyProvider
+	 * @param nodeIds
+	 * @return the sorted ids of the given nodes according to the given map
+	 *         from the keys of their canonical members
+	 */
+	static <M> int[] getNodeIds(Collection<? extends Node<M>> nodes,
+			KeyProvider<? super M> keyProvider, KeyIdMap nodeIds) {
+		int[] result = new int[nodes.size()];
+		int pos = 0;
+		for (Node<M> node : nodes) {
+			result[pos++] = nodeIds
+					.get(keyProvider.getKey(node.getCanonicalMember()));
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * An open addressing hash map from keys to non-negative ids; the ids are
+	 * stored in an {@code int} array so that lookups do not create or
+	 * dereference boxed values
+	 */
+	static final class KeyIdMap {
+
+		private Object[] keys_;
+
+		private int[] ids_;
+
+		private int size_ = 0;
+
+		KeyIdMap(int expectedSize) {
+			int capacity = 16;
+			while (capacity < expectedSize << 1) {
+				capacity <<= 1;
+			}
+			this.keys_ = new Object[capacity];
+			this.ids_ = new int[capacity];
+		}
+
+		private static int getIndex(Object key, int length) {
+			int h = key.hashCode();
+			h ^= (h >>> 16);
+			return h & (length - 1);
+		}
+
+		/**
+		 * Associates the given id with the given key, replacing the previous
+		 * id, if any
+		 * 
+		 * @param key
+		 * @param id
+		 */
+		void put(Object key, int id) {
+			int i = getIndex(key, keys_.length);
+			for (;;) {
+				Object probe = keys_[i];
+				if (probe == null) {
+					break;
+				}
+				if (probe.equals(key)) {
+					ids_[i] = id;
+					return;
+				}
+				i = (i + 1) & (keys_.length - 1);
+			}
+			keys_[i] = key;
+			ids_[i] = id;
+			if (++size_ << 1 > keys_.length) {
+				enlarge();
+			}
+		}
+
+		/**
+		 * @param key
+		 * @return the id associated with the given key or {@code -1} if there
+		 *         is no such id
+		 */
+		int get(Object key) {
+			int i = getIndex(key, keys_.length);
+			for (;;) {
+				Object probe = keys_[i];
+				if (probe == null) {
+					return -1;
+				}
+				if (probe.equals(key)) {
+					return ids_[i];
+				}
+				i = (i + 1) & (keys_.length - 1);
+			}
+		}
+
+		private void enlarge() {
+			Object[] oldKeys = keys_;
+			int[] oldIds = ids_;
+			keys_ = new Object[oldKeys.length << 1];
+			ids_ = new int[oldKeys.length << 1];
+			for (int j = 0; j < oldKeys.length; j++) {
+				Object key = oldKeys[j];
+				if (key == null) {
+					continue;
+				}
+				int i = getIndex(key, keys_.length);
+				while (keys_[i] != null) {
+					i = (i + 1) & (keys_.length - 1);
+				}
+				keys_[i] = key;
+				ids_[i] = oldIds[j];
+			}
+		}
+
+	}
+
+	/**
+	 * A sequence of rows stored in one array; the rows are delimited by an
+	 * array of offsets, i.e., row {@code i} occupies the positions from
+	 * {@code offsets[i]} (inclusive) to {@code offsets[i + 1]} (exclusive)
+	 * 
+	 * @param <A>
+	 *            the type of the array storing the values of the rows, either
+	 *            {@code int[]} or {@code Object[]}
+	 */
+	static final class CsrArray<A> {
+
+		private final int[] offsets_;
+
+		private final int[] ints_;
+
+		private final Object[] objects_;
+
+		private CsrArray(int[] offsets, int[] ints, Object[] objects) {
+			this.offsets_ = offsets;
+			this.ints_ = ints;
+			this.objects_ = objects;
+		}
+
+		static CsrArray<int[]> create(int[][] rows) {
+			int[] offsets = new int[rows.length + 1];
+			int size = 0;
+			for (int i = 0; i < rows.length; i++) {
+				offsets[i] = size;
+				size += rows[i].length;
+			}
+			offsets[rows.length] = size;
+			int[] values = new int[size];
+			for (int i = 0; i < rows.length; i++) {
+				System.arraycopy(rows[i], 0, values, offsets[i],
+						rows[i].length);
+			}
+			return new CsrArray<int[]>(offsets, values, null);
+		}
+
+		static CsrArray<Object> create(Object[][] rows) {
+			int[] offsets = new int[rows.length + 1];
+			int size = 0;
+			for (int i = 0; i < rows.length; i++) {
+				offsets[i] = size;
+				size += rows[i].length;
+			}
+			offsets[rows.length] = size;
+			Object[] values = new Object[size];
+			for (int i = 0; i < rows.length; i++) {
+				System.arraycopy(rows[i], 0, values, offsets[i],
+						rows[i].length);
+			}
+			return new CsrArray<Object>(offsets, null, values);
+		}
+
+		int getRowCount() {
+			return offsets_.length - 1;
+		}
+
+		int getRowStart(int row) {
+			return offsets_[row];
+		}
+
+		int getInt(int pos) {
+			return ints_[pos];
+		}
+
+		Object get(int row, int column) {
+			return objects_[offsets_[row] + column];
+		}
+
+		int[] copyRow(int row) {
+			return Arrays.copyOfRange(ints_, offsets_[row], offsets_[row + 1]);
+		}
+
+		List<?> getRow(int row) {
+			return Collections.unmodifiableList(Arrays.asList(objects_)
+					.subList(offsets_[row], offsets_[row + 1]));
+		}
+
+	}
+
+}
@@ -59,9 +59,39 @@ public abstract class AbstractDistinctBottomTaxonomy<
 	/** The number of nodes which have non-bottom sub-classes. */
 	final AtomicInteger countNodesWithSubClasses_;
 
+	/**
+	 * The number of locks guarding the direct super-nodes and sub-nodes of the
+	 * non-bottom nodes; must be a power of two.
+	 */
+	private static final int NODE_LOCK_COUNT_ = 64;
+
+	/**
+	 * The locks guarding the direct super-nodes and sub-nodes of the
+	 * non-bottom nodes; every node is guarded by the lock selected by its hash
+	 * code, so that nodes do not need to be used as monitors.
+	 */
+	private final Object[] nodeLocks_;
+
 	public AbstractDistinctBottomTaxonomy() {
 		this.unsatisfiableClasses_ = new ConcurrentHashMap<Object, T>();
 		this.countNodesWithSubClasses_ = new AtomicInteger(0);
+		this.nodeLocks_ = new Object[NODE_LOCK_COUNT_];
+		for (int i = 0; i < NODE_LOCK_COUNT_; i++) {
+			nodeLocks_[i] = new Object();
+		}
+	}
+
+	/**
+	 * Returns the lock that guards the direct super-nodes and sub-nodes of a
+	 * non-bottom node of this taxonomy with the given hash code. No other lock
+	 * may be acquired while holding this lock.
+	 * 
+	 * @param hash
+	 *            The hash code of the node.
+	 * @return The lock guarding the node with the given hash code.
+	 */
+	Object getNodeLock(final int hash) {
+		return nodeLocks_[(hash ^ (hash >>> 16)) & (NODE_LOCK_COUNT_ - 1)];
 	}
 
 	@Override
@@ -199,7 +199,7 @@ public abstract class AbstractUpdateableGenericTaxonomy<
 		final List<UN> superNodes = new ArrayList<UN>();
 
 		// remove all super-class links
-		synchronized (node) {
+		synchronized (getNodeLock(node.hashCode())) {
 			superNodes.addAll(node.getDirectNonBottomSuperNodes());
 			if (superNodes.isEmpty()) {
 				return true;
@@ -210,9 +210,7 @@ public abstract class AbstractUpdateableGenericTaxonomy<
 		}
 
 		for (final UN superNode : superNodes) {
-			synchronized (superNode) {
-				superNode.removeDirectSubNode(node);
-			}
+			superNode.removeDirectSubNode(node);
 		}
 
 		fireDirectSupernodeRemoval(subNode, superNodes);
@@ -220,6 +218,25 @@ public abstract class AbstractUpdateableGenericTaxonomy<
 		return true;
 	}
 
+	@Override
+	public boolean removeSubnodeSupernodes(
+			final NonBottomTaxonomyNode<T> superNode) {
+
+		final UN node = toInternalNode(superNode);
+
+		final List<UN> subNodes;
+		synchronized (getNodeLock(node.hashCode())) {
+			subNodes = new ArrayList<UN>(node.getDirectNonBottomSubNodes());
+		}
+
+		boolean changed = false;
+		for (final UN subNode : subNodes) {
+			changed |= removeDirectSupernodes(subNode);
+		}
+
+		return changed;
+	}
+
 	@Override
 	public boolean removeNode(final T member) {
 		if (nodeStore_.removeNode(member)) {
@@ -72,6 +72,12 @@ public abstract class NonBottomGenericTaxonomyNode<
 	 * sub-classes of the members of this node.
 	 */
 	protected final Set<UN> directSubNodes_;
+
+	/**
+	 * The lock guarding {@link #directSuperNodes_} and {@link #directSubNodes_}
+	 * shared with other nodes of the taxonomy.
+	 */
+	private final Object lock_;
 	
 	/**
 	 * Constructs the node for the supplied equivalent members.
@@ -90,6 +96,7 @@ public abstract class NonBottomGenericTaxonomyNode<
 		this.taxonomy_ = taxonomy;
 		this.directSubNodes_ = new ArrayHashSet<UN>();
 		this.directSuperNodes_ = new ArrayHashSet<UN>();
+		this.lock_ = taxonomy.getNodeLock(hashCode_);
 	}
 
 	@Override
@@ -134,40 +141,52 @@ public abstract class NonBottomGenericTaxonomyNode<
 	}
 
 	@Override
-	public synchronized void addDirectSuperNode(final UN superNode) {
+	public void addDirectSuperNode(final UN superNode) {
 		LOGGER_.trace("{}: new direct super-node {}", this, superNode);
 
-		directSuperNodes_.add(superNode);
+		synchronized (lock_) {
+			directSuperNodes_.add(superNode);
+		}
 	}
 
 	@Override
-	public synchronized void addDirectSubNode(final UN subNode) {
+	public void addDirectSubNode(final UN subNode) {
 		LOGGER_.trace("{}: new direct sub-node {}", this, subNode);
 
-		if (directSubNodes_.isEmpty()) {
-			taxonomy_.countNodesWithSubClasses_.incrementAndGet();
-		}
+		synchronized (lock_) {
+			if (directSubNodes_.isEmpty()) {
+				taxonomy_.countNodesWithSubClasses_.incrementAndGet();
+			}
 
-		directSubNodes_.add(subNode);
+			directSubNodes_.add(subNode);
+		}
 	}
 
 	@Override
-	public synchronized boolean removeDirectSubNode(final UN subNode) {
-		boolean changed = directSubNodes_.remove(subNode);
+	public boolean removeDirectSubNode(final UN subNode) {
+		boolean changed;
 
-		if (changed)
-			LOGGER_.trace("{}: removed direct sub-node {}", this, subNode);
+		synchronized (lock_) {
+			changed = directSubNodes_.remove(subNode);
 
-		if (directSubNodes_.isEmpty()) {
-			taxonomy_.countNodesWithSubClasses_.decrementAndGet();
+			if (directSubNodes_.isEmpty()) {
+				taxonomy_.countNodesWithSubClasses_.decrementAndGet();
+			}
 		}
 
+		if (changed)
+			LOGGER_.trace("{}: removed direct sub-node {}", this, subNode);
+
 		return changed;
 	}
 
 	@Override
-	public synchronized boolean removeDirectSuperNode(final UN superNode) {
-		boolean changed = directSuperNodes_.remove(superNode);
+	public boolean removeDirectSuperNode(final UN superNode) {
+		boolean changed;
+
+		synchronized (lock_) {
+			changed = directSuperNodes_.remove(superNode);
+		}
 
 		LOGGER_.trace("{}: removed direct super-node {}", this, superNode);
 
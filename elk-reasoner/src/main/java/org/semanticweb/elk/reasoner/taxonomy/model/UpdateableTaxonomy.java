@@ -107,6 +107,19 @@ public interface UpdateableTaxonomy<T extends ElkEntity> extends Taxonomy<T> {
 	 */
 	boolean removeDirectSupernodes(NonBottomTaxonomyNode<T> subNode);
 
+	/**
+	 * Removes the association between each direct non-bottom sub-node of the
+	 * supplied node and all super-nodes of this sub-node, as by
+	 * {@link #removeDirectSupernodes(NonBottomTaxonomyNode)}.
+	 * 
+	 * @param superNode
+	 *            The node whose direct sub-nodes should be disassociated from
+	 *            their super-nodes.
+	 * @return <code>true</code> iff the job was successfully finished by the
+	 *         current thread for some sub-node.
+	 */
+	boolean removeSubnodeSupernodes(NonBottomTaxonomyNode<T> superNode);
+
 	/**
 	 * Removes the node containing the specified member from the taxonomy.
 	 * 
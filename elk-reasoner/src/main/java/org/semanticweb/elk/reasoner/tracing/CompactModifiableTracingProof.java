@@ -0,0 +1,412 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.tracing;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link RemovableTracingProof} that stores inferences compactly in arrays.
+ * The inferences are appended to one array and the inferences with the same
+ * conclusion are linked using the integer indexes of the next inferences in
+ * a primitive array. The conclusions are not stored: they are located using
+ * an open addressing hash table of integers, which keeps the index of the
+ * first and the last inference for every conclusion together with the hash
+ * of this conclusion. Compared to {@link ConcurrentModifiableTracingProof},
+ * this does not require any objects per conclusion or per inference except
+ * for the inferences themselves. The inferences of a conclusion are returned
+ * as a view that follows the links when iterated.
+ * 
+ * The modifications are synchronized. The views returned by
+ * {@link #getInferences(Conclusion)} can be iterated concurrently with the
+ * modifications: they return only the inferences stored at the time the view
+ * was created, since the stored entries are never changed except for the
+ * links of the last inferences, and the arrays are always copied when the
+ * entries are rearranged.
+ * 
+ * @param <I>
+ *            the type of inferences stored in this
+ *            {@link ModifiableTracingProof}
+ */
+public class CompactModifiableTracingProof<I extends TracingInference>
+		implements RemovableTracingProof<I> {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(CompactModifiableTracingProof.class);
+
+	private static final int INITIAL_CAPACITY_ = 16;
+
+	/**
+	 * the value of an index meaning that there is no element
+	 */
+	private static final int NONE_ = -1;
+
+	/**
+	 * the value of {@link #firsts_} for slots of removed conclusions
+	 */
+	private static final int REMOVED_ = -2;
+
+	/**
+	 * the stored inferences in the order of their production
+	 */
+	private Object[] inferences_;
+
+	/**
+	 * for every stored inference, the index of the next inference with the
+	 * same conclusion or {@link #NONE_} if there is no such inference
+	 */
+	private int[] nexts_;
+
+	/**
+	 * the number of stored inferences, including the inferences of removed
+	 * conclusions
+	 */
+	private int size_;
+
+	/**
+	 * the number of stored inferences of removed conclusions
+	 */
+	private int removedSize_;
+
+	/**
+	 * the hash table slots: the index of the first inference of the
+	 * conclusion, {@link #NONE_} for empty slots and {@link #REMOVED_} for
+	 * the slots of removed conclusions
+	 */
+	private int[] firsts_;
+
+	/**
+	 * the index of the last inference of the conclusion in every slot
+	 */
+	private int[] lasts_;
+
+	/**
+	 * the hash of the conclusion in every slot
+	 */
+	private int[] hashes_;
+
+	/**
+	 * the number of slots that are not empty, including the slots of removed
+	 * conclusions
+	 */
+	private int usedSlots_;
+
+	public CompactModifiableTracingProof() {
+		init();
+	}
+
+	private void init() {
+		inferences_ = new Object[INITIAL_CAPACITY_];
+		nexts_ = new int[INITIAL_CAPACITY_];
+		size_ = 0;
+		removedSize_ = 0;
+		initTable(INITIAL_CAPACITY_);
+	}
+
+	private void initTable(int capacity) {
+		firsts_ = new int[capacity];
+		Arrays.fill(firsts_, NONE_);
+		lasts_ = new int[capacity];
+		hashes_ = new int[capacity];
+		usedSlots_ = 0;
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	@SuppressWarnings("unchecked")
+	private I getInference(int index) {
+		return (I) inferences_[index];
+	}
+
+	/**
+	 * @param conclusion
+	 * @param hash
+	 *            the hash of the {@link Conclusion}
+	 * @return the slot for the given {@link Conclusion} or the empty slot
+	 *         where it should be inserted
+	 */
+	private int findSlot(Conclusion conclusion, int hash) {
+		int mask = firsts_.length - 1;
+		int slot = spread(hash) & mask;
+		for (;;) {
+			int first = firsts_[slot];
+			if (first == NONE_) {
+				return slot;
+			}
+			// else
+			if (first != REMOVED_ && hashes_[slot] == hash
+					&& ConclusionEquality.equals(conclusion,
+							new TracingInferenceConclusion(
+									getInference(first)))) {
+				return slot;
+			}
+			// else
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	@Override
+	public synchronized void produce(I inference) {
+		LOGGER_.trace("{}: inference produced", inference);
+		int hash = ConclusionHash
+				.hashCode(new TracingInferenceConclusion(inference));
+		if (size_ == inferences_.length) {
+			// new arrays, so that the previously created views are not affected
+			inferences_ = Arrays.copyOf(inferences_, size_ << 1);
+			nexts_ = Arrays.copyOf(nexts_, size_ << 1);
+		}
+		int index = size_++;
+		inferences_[index] = inference;
+		nexts_[index] = NONE_;
+		Conclusion conclusion = new TracingInferenceConclusion(inference);
+		int slot = findSlot(conclusion, hash);
+		if (firsts_[slot] == NONE_) {
+			firsts_[slot] = index;
+			lasts_[slot] = index;
+			hashes_[slot] = hash;
+			if (++usedSlots_ > (firsts_.length >> 1) + (firsts_.length >> 2)) {
+				rehash();
+			}
+		} else {
+			nexts_[lasts_[slot]] = index;
+			lasts_[slot] = index;
+		}
+	}
+
+	@Override
+	public synchronized Collection<? extends I> getInferences(
+			Conclusion conclusion) {
+		// assumes structural equality and hash of conclusions
+		int slot = findSlot(conclusion, conclusion.hashCode());
+		int first = firsts_[slot];
+		if (first == NONE_) {
+			return Collections.emptyList();
+		}
+		// else
+		return new InferenceView<I>(inferences_, nexts_, first, size_);
+	}
+
+	@Override
+	public synchronized int removeInferences(Conclusion conclusion) {
+		int slot = findSlot(conclusion, conclusion.hashCode());
+		int index = firsts_[slot];
+		if (index == NONE_) {
+			return 0;
+		}
+		// else
+		firsts_[slot] = REMOVED_;
+		int removed = 0;
+		while (index != NONE_) {
+			removed++;
+			index = nexts_[index];
+		}
+		removedSize_ += removed;
+		if (removedSize_ > size_ >> 1) {
+			compact();
+		}
+		return removed;
+	}
+
+	/**
+	 * Rebuilds the hash table in new arrays of the same or larger size
+	 */
+	private void rehash() {
+		int[] oldFirsts = firsts_;
+		int[] oldLasts = lasts_;
+		int[] oldHashes = hashes_;
+		int liveSlots = 0;
+		for (int first : oldFirsts) {
+			if (first >= 0) {
+				liveSlots++;
+			}
+		}
+		int capacity = oldFirsts.length;
+		if (liveSlots > capacity >> 2) {
+			capacity <<= 1;
+		}
+		initTable(capacity);
+		for (int slot = 0; slot < oldFirsts.length; slot++) {
+			if (oldFirsts[slot] >= 0) {
+				insertSlot(oldFirsts[slot], oldLasts[slot], oldHashes[slot]);
+			}
+		}
+	}
+
+	private void insertSlot(int first, int last, int hash) {
+		int mask = firsts_.length - 1;
+		int slot = spread(hash) & mask;
+		while (firsts_[slot] != NONE_) {
+			slot = (slot + 1) & mask;
+		}
+		firsts_[slot] = first;
+		lasts_[slot] = last;
+		hashes_[slot] = hash;
+		usedSlots_++;
+	}
+
+	/**
+	 * Copies the inferences of conclusions that are not removed to new
+	 * arrays
+	 */
+	private void compact() {
+		Object[] oldInferences = inferences_;
+		int[] oldNexts = nexts_;
+		int[] oldFirsts = firsts_;
+		int[] oldHashes = hashes_;
+		int capacity = INITIAL_CAPACITY_;
+		while (capacity < size_ - removedSize_) {
+			capacity <<= 1;
+		}
+		inferences_ = new Object[capacity];
+		nexts_ = new int[capacity];
+		size_ = 0;
+		removedSize_ = 0;
+		int tableCapacity = INITIAL_CAPACITY_;
+		while (tableCapacity >> 1 < usedSlots_) {
+			tableCapacity <<= 1;
+		}
+		initTable(tableCapacity);
+		for (int slot = 0; slot < oldFirsts.length; slot++) {
+			int index = oldFirsts[slot];
+			if (index < 0) {
+				continue;
+			}
+			// else
+			int first = size_;
+			while (index != NONE_) {
+				inferences_[size_] = oldInferences[index];
+				nexts_[size_] = size_ + 1;
+				size_++;
+				index = oldNexts[index];
+			}
+			nexts_[size_ - 1] = NONE_;
+			insertSlot(first, size_ - 1, oldHashes[slot]);
+		}
+	}
+
+	@Override
+	public synchronized void clear() {
+		// new arrays, so that the previously created views are not affected
+		init();
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int slot = 0; slot < firsts_.length; slot++) {
+			for (int index = firsts_[slot]; index >= 0; index = nexts_[index]) {
+				sb.append(inferences_[index].toString());
+				sb.append('\n');
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * The inferences of one conclusion stored at the time of creation of this
+	 * view
+	 */
+	private static class InferenceView<I> extends AbstractCollection<I> {
+
+		private final Object[] inferences_;
+
+		private final int[] nexts_;
+
+		private final int first_;
+
+		/**
+		 * the inferences with this or larger index were added after creation
+		 * of this view
+		 */
+		private final int limit_;
+
+		InferenceView(Object[] inferences, int[] nexts, int first,
+				int limit) {
+			this.inferences_ = inferences;
+			this.nexts_ = nexts;
+			this.first_ = first;
+			this.limit_ = limit;
+		}
+
+		private int next(int index) {
+			int next = nexts_[index];
+			return next < limit_ ? next : NONE_;
+		}
+
+		@Override
+		public Iterator<I> iterator() {
+			return new Iterator<I>() {
+
+				private int next_ = first_;
+
+				@Override
+				public boolean hasNext() {
+					return next_ != NONE_;
+				}
+
+				@SuppressWarnings("unchecked")
+				@Override
+				public I next() {
+					if (next_ == NONE_) {
+						throw new NoSuchElementException();
+					}
+					// else
+					I result = (I) inferences_[next_];
+					next_ = InferenceView.this.next(next_);
+					return result;
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+
+			};
+		}
+
+		@Override
+		public int size() {
+			int result = 0;
+			for (int index = first_; index != NONE_; index = next(index)) {
+				result++;
+			}
+			return result;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return false;
+		}
+
+	}
+
+}
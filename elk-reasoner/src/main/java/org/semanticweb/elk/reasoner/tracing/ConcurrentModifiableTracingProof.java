@@ -0,0 +1,102 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.tracing;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ModifiableTracingProof} that can be modified and accessed
+ * concurrently without locking. Inferences for different conclusions can be
+ * produced by several workers at the same time, which makes it suitable for
+ * storing the inferences obtained when tracing many conclusions in parallel.
+ * 
+ * @param <I>
+ *            the type of inferences stored in this
+ *            {@link ModifiableTracingProof}
+ */
+public class ConcurrentModifiableTracingProof<I extends TracingInference>
+		implements RemovableTracingProof<I> {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(ConcurrentModifiableTracingProof.class);
+
+	private final ConcurrentMap<Conclusion, Queue<I>> inferenceMap_ = new ConcurrentHashMap<Conclusion, Queue<I>>();
+
+	@Override
+	public void produce(I inference) {
+		LOGGER_.trace("{}: inference produced", inference);
+		Conclusion conclusion = new TracingInferenceConclusion(inference);
+		Queue<I> inferences = inferenceMap_.get(conclusion);
+		if (inferences == null) {
+			Queue<I> newInferences = new ConcurrentLinkedQueue<I>();
+			inferences = inferenceMap_.putIfAbsent(conclusion, newInferences);
+			if (inferences == null) {
+				inferences = newInferences;
+			}
+		}
+		inferences.add(inference);
+	}
+
+	@Override
+	public int removeInferences(Conclusion conclusion) {
+		Queue<I> inferences = inferenceMap_.remove(conclusion);
+		return inferences == null ? 0 : inferences.size();
+	}
+
+	@Override
+	public void clear() {
+		inferenceMap_.clear();
+	}
+
+	@Override
+	public Collection<? extends I> getInferences(Conclusion conclusion) {
+		// assumes structural equality and hash of conclusions
+		Queue<I> inferences = inferenceMap_.get(conclusion);
+		if (inferences == null) {
+			return Collections.emptyList();
+		}
+		// else
+		return inferences;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (Queue<I> inferences : inferenceMap_.values()) {
+			for (I inf : inferences) {
+				sb.append(inf.toString());
+				sb.append('\n');
+			}
+		}
+		return sb.toString();
+	}
+
+}
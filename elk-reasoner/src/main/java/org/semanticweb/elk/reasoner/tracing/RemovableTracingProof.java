@@ -0,0 +1,44 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.tracing;
+
+/**
+ * A {@link ModifiableTracingProof} from which the inferences of individual
+ * {@link Conclusion}s can be removed
+ * 
+ * @param <I>
+ *            the type of inferences stored in this
+ *            {@link ModifiableTracingProof}
+ */
+public interface RemovableTracingProof<I extends TracingInference>
+		extends ModifiableTracingProof<I> {
+
+	/**
+	 * Removes all inferences of the given {@link Conclusion} from this
+	 * {@link RemovableTracingProof}
+	 * 
+	 * @param conclusion
+	 * @return the number of removed inferences
+	 */
+	int removeInferences(Conclusion conclusion);
+
+}
@@ -21,16 +21,19 @@
  */
 package org.semanticweb.elk.reasoner.tracing;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.liveontologies.puli.Producer;
 import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.visitors.DummyElkAxiomVisitor;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
 import org.semanticweb.elk.reasoner.indexing.classes.ResolvingModifiableIndexedObjectFactory;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverter;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverterImpl;
@@ -38,6 +41,7 @@ import org.semanticweb.elk.reasoner.indexing.model.IndexedAxiom;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedAxiomInference;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedPropertyChain;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableOntologyIndex;
+import org.semanticweb.elk.reasoner.query.QueryCacheStatistics;
 import org.semanticweb.elk.reasoner.saturation.SaturationState;
 import org.semanticweb.elk.reasoner.saturation.SaturationStateDummyChangeListener;
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.ClassConclusion;
@@ -50,6 +54,8 @@ import org.semanticweb.elk.reasoner.saturation.properties.inferences.ObjectPrope
 import org.semanticweb.elk.reasoner.saturation.properties.inferences.SubPropertyChainTautology;
 import org.semanticweb.elk.reasoner.stages.PropertyHierarchyCompositionState;
 import org.semanticweb.elk.util.collections.ArrayHashSet;
+import org.semanticweb.elk.util.collections.Conditions;
+import org.semanticweb.elk.util.collections.TinyLfuCachePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -71,15 +77,59 @@ public class TraceState implements Producer<SaturationInference>, TracingProof {
 	private static final Logger LOGGER_ = LoggerFactory
 			.getLogger(TraceState.class);
 
+	/**
+	 * the estimated number of bytes used by a traced conclusion, not counting
+	 * its inferences
+	 */
+	private static final long CONCLUSION_BYTES_ = 128;
+
+	/**
+	 * the estimated number of bytes used by a traced inference
+	 */
+	private static final long INFERENCE_BYTES_ = 96;
+
 	private final Queue<ClassConclusion> toTrace_ = new ConcurrentLinkedQueue<ClassConclusion>();
 
-	private final Set<ClassConclusion> traced_ = new HashSet<ClassConclusion>();
+	/**
+	 * the conclusions submitted for tracing; can be modified concurrently by
+	 * the workers tracing the conclusions
+	 */
+	private final Set<ClassConclusion> traced_ = Collections
+			.newSetFromMap(new ConcurrentHashMap<ClassConclusion, Boolean>());
+
+	/**
+	 * the conclusions submitted for tracing since the last call of
+	 * {@link #updateCache()}
+	 */
+	private final Queue<ClassConclusion> newlyTraced_ = new ConcurrentLinkedQueue<ClassConclusion>();
+
+	/**
+	 * decides which traced conclusions should be evicted when the traced
+	 * inferences take too much space; {@code null} if the traced inferences
+	 * are never evicted
+	 */
+	private final TinyLfuCachePolicy<ClassConclusion> cache_;
+
+	/**
+	 * the estimated number of bytes used by the traced conclusions and their
+	 * inferences
+	 */
+	private long weight_ = 0;
+
+	private long hitCount_ = 0, missCount_ = 0, evictionCount_ = 0;
+
+	/**
+	 * {@code true} if some traced conclusions were evicted since the traced
+	 * inferences were cleared; the premises of the traced conclusions may be
+	 * then not traced
+	 */
+	private boolean evicted_ = false;
 
 	private final Set<ElkAxiom> indexedAxioms_ = new ArrayHashSet<ElkAxiom>();
 
-	private final ModifiableTracingProof<ClassInference> classInferences_ = new SynchronizedModifiableTracingProof<ClassInference>();
+	private final RemovableTracingProof<ClassInference> classInferences_;
 
-	private final ModifiableTracingProof<ObjectPropertyInference> objectPropertyInferences_ = new SynchronizedModifiableTracingProof<ObjectPropertyInference>();
+	private final ModifiableTracingProof<ObjectPropertyInference> objectPropertyInferences_ = new ConcurrentModifiableTracingProof<ObjectPropertyInference>();
 
 	private final ModifiableTracingProof<IndexedAxiomInference> indexedAxiomInferences_ = new SynchronizedModifiableTracingProof<IndexedAxiomInference>();
 
@@ -92,7 +142,19 @@ public class TraceState implements Producer<SaturationInference>, TracingProof {
 	public <C extends Context> TraceState(
 			final SaturationState<C> saturationState,
 			final PropertyHierarchyCompositionState propertySaturationState,
-			ElkObject.Factory elkFactory, ModifiableOntologyIndex index) {
+			ElkObject.Factory elkFactory, ModifiableOntologyIndex index,
+			final ReasonerConfiguration config) {
+		final int cacheSize = config
+				.getParameterAsInt(ReasonerConfiguration.TRACE_CACHE_SIZE);
+		this.cache_ = cacheSize > 0
+				? new TinyLfuCachePolicy<ClassConclusion>(cacheSize,
+						Long.valueOf(config.getParameter(
+								ReasonerConfiguration.TRACE_CACHE_MAX_BYTES)))
+				: null;
+		this.classInferences_ = config
+				.getParameterAsBoolean(ReasonerConfiguration.TRACE_COMPACT)
+						? new CompactModifiableTracingProof<ClassInference>()
+						: new ConcurrentModifiableTracingProof<ClassInference>();
 		// the axiom converter that resolves indexed axioms from the given cache
 		// and additionally saves the inferences that produced them
 		this.elkAxiomConverter_ = new ElkAxiomConverterImpl(elkFactory,
@@ -134,20 +196,127 @@ public class TraceState implements Producer<SaturationInference>, TracingProof {
 				});
 	}
 
-	public synchronized void toTrace(ClassConclusion conclusion) {
+	public void toTrace(ClassConclusion conclusion) {
 		if (traced_.add(conclusion)) {
 			LOGGER_.trace("{}: to trace", conclusion);
 			toTrace_.add(conclusion);
+			newlyTraced_.add(conclusion);
+		}
+	}
+
+	/**
+	 * Submits the given {@link ClassConclusion} for tracing if it has not
+	 * been traced yet; unlike {@link #toTrace(ClassConclusion)}, the request
+	 * is counted in the statistics of this {@link TraceState}
+	 * 
+	 * @param conclusion
+	 *            the {@link ClassConclusion} that should be explained
+	 */
+	public synchronized void toExplain(ClassConclusion conclusion) {
+		if (traced_.contains(conclusion)) {
+			hitCount_++;
+			if (cache_ != null) {
+				cache_.access(conclusion);
+			}
+		} else {
+			missCount_++;
+			toTrace(conclusion);
+		}
+	}
+
+	/**
+	 * Submits for tracing the premises used in the traced inferences for the
+	 * given {@link Conclusion}s which are not traced because they were
+	 * evicted.
+	 * 
+	 * @param conclusions
+	 * @return {@code true} if some premises were submitted for tracing and
+	 *         {@code false} if all (recursively used) premises are traced
+	 */
+	public synchronized boolean toTraceEvicted(
+			Iterable<? extends Conclusion> conclusions) {
+		if (!evicted_) {
+			// nothing was evicted
+			return false;
+		}
+		// else
+		EvictedConclusionCollector collector = new EvictedConclusionCollector();
+		for (Conclusion conclusion : conclusions) {
+			conclusion.accept(collector);
+		}
+		return collector.process();
+	}
+
+	/**
+	 * Records in the cache the weights of the conclusions traced since the
+	 * last call of this method; should be called when the tracing of these
+	 * conclusions is finished
+	 */
+	public synchronized void updateCache() {
+		ClassConclusion conclusion;
+		while ((conclusion = newlyTraced_.poll()) != null) {
+			long weight = getWeight(
+					classInferences_.getInferences(conclusion).size());
+			weight_ += weight;
+			if (cache_ != null) {
+				cache_.access(conclusion);
+				cache_.setWeight(conclusion, weight);
+			}
+		}
+	}
+
+	/**
+	 * Evicts the traced conclusions together with their inferences until the
+	 * capacity of the cache is no longer exceeded; the evicted conclusions
+	 * will be traced again if needed
+	 */
+	public synchronized void evictTraced() {
+		if (cache_ == null) {
+			return;
+		}
+		// else
+		while (cache_.isOverCapacity()) {
+			ClassConclusion conclusion = cache_
+					.evict(Conditions.<ClassConclusion> trueCondition());
+			if (conclusion == null) {
+				break;
+			}
+			// else
+			LOGGER_.trace("{}: evicted", conclusion);
+			traced_.remove(conclusion);
+			weight_ -= getWeight(classInferences_.removeInferences(conclusion));
+			evictionCount_++;
+			evicted_ = true;
 		}
 	}
 
+	/**
+	 * @return the statistics of the traced conclusions, where the hits and
+	 *         misses are counted for the conclusions requested using
+	 *         {@link #toExplain(ClassConclusion)}
+	 */
+	public synchronized QueryCacheStatistics getCacheStatistics() {
+		return new QueryCacheStatistics(traced_.size(), weight_, hitCount_,
+				missCount_, evictionCount_);
+	}
+
+	private static long getWeight(int inferenceCount) {
+		return CONCLUSION_BYTES_ + INFERENCE_BYTES_ * inferenceCount;
+	}
+
 	public ClassConclusion pollToTrace() {
 		return toTrace_.poll();
 	}
 
-	private void clearClassInferences() {
+	private synchronized void clearClassInferences() {
 		classInferences_.clear();
 		traced_.clear();
+		newlyTraced_.clear();
+		if (cache_ != null) {
+			cache_.clear();
+		}
+		weight_ = 0;
+		evicted_ = false;
 	}
 
 	private void clearObjectPropertyInferences() {
@@ -232,6 +401,52 @@ public class TraceState implements Producer<SaturationInference>, TracingProof {
 
 	}
 
+	/**
+	 * Collects the premises of the traced inferences that are not traced and
+	 * submits them for tracing
+	 * 
+	 * @author Yevgeny Kazakov
+	 */
+	private class EvictedConclusionCollector
+			extends DummyConclusionVisitor<Void> {
+
+		private final Set<ClassConclusion> visited_ = new ArrayHashSet<ClassConclusion>();
+
+		private final Queue<ClassConclusion> toDo_ = new ArrayDeque<ClassConclusion>();
+
+		private final TracingInference.Visitor<Void> premiseVisitor_ = new TracingInferencePremiseVisitor<Void>(
+				this, new DummyElkAxiomVisitor<Void>());
+
+		private boolean submitted_ = false;
+
+		@Override
+		protected Void defaultVisit(ClassConclusion conclusion) {
+			if (!visited_.add(conclusion)) {
+				return null;
+			}
+			// else
+			if (traced_.contains(conclusion)) {
+				toDo_.add(conclusion);
+			} else {
+				toTrace(conclusion);
+				submitted_ = true;
+			}
+			return null;
+		}
+
+		boolean process() {
+			ClassConclusion conclusion;
+			while ((conclusion = toDo_.poll()) != null) {
+				for (ClassInference inference : classInferences_
+						.getInferences(conclusion)) {
+					inference.accept(premiseVisitor_);
+				}
+			}
+			return submitted_;
+		}
+
+	}
+
 	/**
 	 * Delegates saving inferences to the corresponding proof
 	 * 
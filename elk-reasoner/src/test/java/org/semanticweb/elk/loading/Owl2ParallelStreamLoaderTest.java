@@ -0,0 +1,301 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.io.MappedUtf8Reader;
+import org.semanticweb.elk.owl.implementation.ElkObjectBaseFactory;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.parsing.Owl2ParserFactory;
+import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.owl.printers.OwlFunctionalStylePrinter;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.reasoner.ElkInconsistentOntologyException;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyHasher;
+import org.semanticweb.elk.util.concurrent.computation.DummyInterruptMonitor;
+import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
+
+/**
+ * Tests that {@link Owl2ParallelStreamLoader} loads the same axioms as
+ * {@link Owl2ParserLoader}
+ */
+public class Owl2ParallelStreamLoaderTest {
+
+	private static final String INPUT_DIR_ = "test_input/classification";
+
+	private static final Charset UTF_8_ = Charset.forName("UTF-8");
+
+	private final Owl2ParserFactory parserFactory_ = new Owl2FunctionalStyleParserFactory(
+			new ElkObjectBaseFactory());
+
+	private static List<String> load(AxiomLoader loader)
+			throws ElkLoadingException {
+		final List<String> result = new ArrayList<String>();
+		ElkAxiomProcessor collector = new ElkAxiomProcessor() {
+
+			@Override
+			public void visit(ElkAxiom elkAxiom) {
+				result.add(OwlFunctionalStylePrinter.toString(elkAxiom, true));
+			}
+
+		};
+		try {
+			loader.load(collector, collector);
+		} finally {
+			loader.dispose();
+		}
+		assertTrue(loader.isLoadingFinished());
+		Collections.sort(result);
+		return result;
+	}
+
+	private List<String> loadSequentially(Reader reader)
+			throws ElkLoadingException {
+		return load(new Owl2ParserLoader(DummyInterruptMonitor.INSTANCE,
+				parserFactory_.getParser(reader)));
+	}
+
+	private List<String> loadInParallel(Reader reader, int parserCount,
+			int chunkLength) throws ElkLoadingException {
+		return load(new Owl2ParallelStreamLoader(DummyInterruptMonitor.INSTANCE,
+				parserFactory_, reader, parserCount, chunkLength));
+	}
+
+	private void checkSameAxioms(String ontology) throws ElkLoadingException {
+		List<String> expected = loadSequentially(new StringReader(ontology));
+		for (int chunkLength : new int[] { 1, 50,
+				Owl2ParallelStreamLoader.DEFAULT_CHUNK_LENGTH }) {
+			assertEquals(expected, loadInParallel(new StringReader(ontology), 3,
+					chunkLength));
+		}
+	}
+
+	@Test
+	public void testTestInputs() throws Exception {
+		File[] inputs = getInputDir().listFiles();
+		int tested = 0;
+		for (File input : inputs) {
+			if (!input.getName().endsWith(".owl")) {
+				continue;
+			}
+			List<String> expected = loadSequentially(new InputStreamReader(
+					new FileInputStream(input), UTF_8_));
+			assertEquals(input.getName(), expected,
+					loadInParallel(new InputStreamReader(
+							new FileInputStream(input), UTF_8_), 4, 1));
+			// loading from files
+			assertEquals(input.getName(), expected,
+					load(new Owl2ParallelStreamLoader.Factory(parserFactory_,
+							input, 4)
+									.getAxiomLoader(
+											DummyInterruptMonitor.INSTANCE)));
+			assertEquals(input.getName(), expected,
+					load(new Owl2StreamLoader.Factory(parserFactory_, input)
+							.getAxiomLoader(DummyInterruptMonitor.INSTANCE)));
+			// loading from memory-mapped files
+			assertEquals(input.getName(), expected,
+					load(new Owl2ParallelStreamLoader.Factory(parserFactory_,
+							new MappedUtf8Reader(input), 4)
+									.getAxiomLoader(
+											DummyInterruptMonitor.INSTANCE)));
+			assertEquals(input.getName(), expected,
+					load(new Owl2StreamLoader.Factory(parserFactory_,
+							new MappedUtf8Reader(input))
+									.getAxiomLoader(
+											DummyInterruptMonitor.INSTANCE)));
+			tested++;
+		}
+		assertTrue(tested > 0);
+	}
+
+	@Test
+	public void testClassificationOfTestInputs() throws Exception {
+		File[] inputs = getInputDir().listFiles();
+		int tested = 0;
+		for (final File input : inputs) {
+			if (!input.getName().endsWith(".owl")) {
+				continue;
+			}
+			assertEquals(input.getName(),
+					classify(new Owl2StreamLoader.Factory(parserFactory_,
+							input)),
+					classify(new AxiomLoader.Factory() {
+						@Override
+						public AxiomLoader getAxiomLoader(
+								InterruptMonitor interrupter) {
+							try {
+								return new Owl2ParallelStreamLoader(
+										interrupter, parserFactory_,
+										new InputStreamReader(
+												new FileInputStream(input),
+												UTF_8_),
+										4, 1);
+							} catch (FileNotFoundException e) {
+								throw new RuntimeException(e);
+							}
+						}
+					}));
+			tested++;
+		}
+		assertTrue(tested > 0);
+	}
+
+	/**
+	 * @param loaderFactory
+	 * @return the hash of the class taxonomy of the ontology loaded by the
+	 *         reasoner using the given {@link AxiomLoader.Factory} or
+	 *         {@code null} if the ontology is inconsistent
+	 * @throws ElkException
+	 * @throws InterruptedException
+	 */
+	private static Integer classify(AxiomLoader.Factory loaderFactory)
+			throws ElkException, InterruptedException {
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loaderFactory);
+		try {
+			return TaxonomyHasher.hash(reasoner.getTaxonomy());
+		} catch (ElkInconsistentOntologyException e) {
+			return null;
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testBracketsInLiteralsIrisAndComments() throws Exception {
+		String ontology = ""//
+				+ "Prefix( : = <http://example.org/> ) # Ontology(\n"//
+				+ "Prefix( a: = <http://example.org/a(> )\n"//
+				+ "Prefix( rdfs: = <http://www.w3.org/2000/01/rdf-schema#> )\n"//
+				+ "Ontology(<http://example.org/ontology> # (\n"//
+				+ "Annotation(rdfs:label \"ontology ( \\\" )\")\n"//
+				+ "SubClassOf(:A ObjectSomeValuesFrom(:R :B))\n"//
+				+ "SubClassOf(<http://example.org/C(> a:D) # )\n"//
+				+ "AnnotationAssertion(rdfs:label :A \"(((\")\n"//
+				+ "SubClassOf(:B ObjectIntersectionOf(:C :D))\n"//
+				+ "EquivalentClasses(:E :F)\n"//
+				+ ")";
+
+		checkSameAxioms(ontology);
+		assertEquals(5, loadInParallel(new StringReader(ontology), 2, 1).size());
+	}
+
+	@Test
+	public void testLoadingResumedAfterInterrupt() throws Exception {
+		StringBuilder ontology = new StringBuilder(
+				"Prefix( : = <http://example.org/> ) Ontology(");
+		for (int i = 0; i < 1000; i++) {
+			ontology.append("SubClassOf(:A" + i + " :B" + i + ")\n");
+		}
+		ontology.append(")");
+		final AtomicBoolean interrupted = new AtomicBoolean(true);
+		AxiomLoader loader = new Owl2ParallelStreamLoader(
+				new InterruptMonitor() {
+					@Override
+					public boolean isInterrupted() {
+						return interrupted.get();
+					}
+				}, parserFactory_, new StringReader(ontology.toString()), 3,
+				1);
+		ElkAxiomProcessor failingProcessor = new ElkAxiomProcessor() {
+
+			@Override
+			public void visit(ElkAxiom elkAxiom) {
+				fail("axiom inserted after interrupt: " + elkAxiom);
+			}
+
+		};
+		loader.load(failingProcessor, failingProcessor);
+		assertFalse(loader.isLoadingFinished());
+		// the parsers wait for the next call
+		Thread.sleep(50);
+		interrupted.set(false);
+		assertEquals(loadSequentially(new StringReader(ontology.toString())),
+				load(loader));
+	}
+
+	@Test(expected = ElkLoadingException.class)
+	public void expectedLoadingExceptionOnSyntaxError()
+			throws ElkLoadingException {
+		String ontology = ""//
+				+ "Prefix( : = <http://example.org/> )"//
+				+ "Ontology((((()("//
+				+ "EquivalentClasses(:B :C)"//
+				+ "SubClassOf(:A ObjectSomeValuesFrom(:R :B))"//
+				+ "))";
+
+		loadInParallel(new StringReader(ontology), 2, 1);
+	}
+
+	@Test(expected = ElkLoadingException.class)
+	public void expectedLoadingExceptionOnLexicalError()
+			throws ElkLoadingException {
+		String ontology = ""//
+				+ "Prefix( : = <http://example.org/> )"//
+				+ "Ontology-LEXICAL-ERROR("//
+				+ "EquivalentClasses(:B :C)"//
+				+ "SubClassOf(:A ObjectSomeValuesFrom(:R :B))"//
+				+ ")";
+
+		loadInParallel(new StringReader(ontology), 2, 1);
+	}
+
+	@Test(expected = ElkLoadingException.class)
+	public void expectedLoadingExceptionOnMissingOntology()
+			throws ElkLoadingException {
+		loadInParallel(new StringReader("Prefix( : = <http://example.org/> )"),
+				2, 1);
+	}
+
+	private File getInputDir() throws URISyntaxException {
+		return new File(getClass().getClassLoader().getResource(INPUT_DIR_)
+				.toURI());
+	}
+
+	@SuppressWarnings("static-method")
+	@After
+	public void cleanUp() {
+		Thread.interrupted();
+	}
+
+}
@@ -25,11 +25,17 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.Test;
 import org.semanticweb.elk.exceptions.ElkException;
 import org.semanticweb.elk.loading.EmptyAxiomLoader;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
 import org.semanticweb.elk.loading.TestLoader;
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
@@ -37,6 +43,8 @@ import org.semanticweb.elk.owl.interfaces.ElkObject;
 import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
 import org.semanticweb.elk.owl.iris.ElkFullIri;
 import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.query.QueryCacheStatistics;
 import org.semanticweb.elk.reasoner.taxonomy.model.Node;
 
 public class ComplexClassQueryTest {
@@ -174,4 +182,131 @@ public class ComplexClassQueryTest {
 		}
 	}
 
+	@Test
+	public void testQueryCache() throws ElkException {
+		TestLoader loader = new TestLoader();
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.QUERY_CACHE_SIZE, "2");
+		Reasoner reasoner = TestReasonerUtils
+				.createTestReasoner(new TestAxiomLoaderFactory(loader), config);
+
+		final int count = 5;
+		ElkClass[] classes = new ElkClass[count];
+		ElkClassExpression[] queries = new ElkClassExpression[count];
+		for (int i = 0; i < count; i++) {
+			classes[i] = objectFactory.getClass(new ElkFullIri(":A" + i));
+			queries[i] = objectFactory.getObjectIntersectionOf(classes[i],
+					classes[i]);
+			if (i > 0) {
+				loader.add(objectFactory.getSubClassOfAxiom(classes[i - 1],
+						classes[i]));
+			}
+		}
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < count; i++) {
+				Node<ElkClass> equivalent = reasoner
+						.getEquivalentClasses(queries[i]);
+				assertTrue(equivalent.contains(classes[i]));
+				assertEquals(count - 1 - i,
+						reasoner.getSuperClasses(queries[i], false).size()
+								- 1);
+			}
+		}
+		QueryCacheStatistics statistics = reasoner
+				.getClassExpressionQueryCacheStatistics();
+		assertTrue(statistics.getSize() <= 2);
+		assertTrue(statistics.getEvictionCount() > 0);
+		assertTrue(statistics.getHitCount() > 0);
+		assertTrue(statistics.getMissCount() >= count);
+	}
+
+	@Test
+	public void testBulkQueries() throws ElkException {
+		TestLoader loader = new TestLoader();
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		// smaller than the number of queries
+		config.setParameter(ReasonerConfiguration.QUERY_CACHE_SIZE, "2");
+		Reasoner reasoner = TestReasonerUtils
+				.createTestReasoner(new TestAxiomLoaderFactory(loader), config);
+
+		final int count = 5;
+		ElkClass[] classes = new ElkClass[count];
+		List<ElkClassExpression> queries = new ArrayList<ElkClassExpression>();
+		for (int i = 0; i < count; i++) {
+			classes[i] = objectFactory.getClass(new ElkFullIri(":A" + i));
+			queries.add(objectFactory.getObjectIntersectionOf(classes[i],
+					classes[i]));
+			if (i > 0) {
+				loader.add(objectFactory.getSubClassOfAxiom(classes[i - 1],
+						classes[i]));
+			}
+		}
+		queries.add(classes[0]);
+		queries.add(objectFactory.getObjectIntersectionOf(classes[0],
+				objectFactory.getOwlNothing()));
+
+		Map<ElkClassExpression, Boolean> satisfiable = reasoner
+				.isSatisfiable(queries);
+		Map<ElkClassExpression, Node<ElkClass>> equivalent = reasoner
+				.getEquivalentClasses(queries);
+		Map<ElkClassExpression, Set<? extends Node<ElkClass>>> superClasses = reasoner
+				.getSuperClasses(queries, false);
+		Map<ElkClassExpression, Set<? extends Node<ElkClass>>> subClasses = reasoner
+				.getSubClasses(queries, true);
+		assertEquals(queries.size(), satisfiable.size());
+		for (ElkClassExpression query : queries) {
+			assertEquals(reasoner.isSatisfiable(query),
+					satisfiable.get(query));
+			assertEquals(reasoner.getEquivalentClasses(query).size(),
+					equivalent.get(query).size());
+			assertEquals(reasoner.getSuperClasses(query, false).size(),
+					superClasses.get(query).size());
+			assertEquals(reasoner.getSubClasses(query, true).size(),
+					subClasses.get(query).size());
+		}
+		assertFalse(satisfiable.get(queries.get(count + 1)));
+		for (int i = 0; i < count; i++) {
+			assertTrue(equivalent.get(queries.get(i)).contains(classes[i]));
+			assertEquals(count - i, superClasses.get(queries.get(i)).size());
+		}
+	}
+
+	/**
+	 * Checks entailment of subsumptions that are decided without indexing
+	 * them as queries because their subclasses are already saturated after
+	 * classification; {@code owl:Thing} does not occur negatively, so its
+	 * subsumptions are not derived.
+	 * 
+	 * @throws ElkException
+	 */
+	@Test
+	public void testEntailmentWithoutIndexing() throws ElkException {
+		TestLoader loader = new TestLoader();
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+		loader.add(objectFactory.getSubClassOfAxiom(A, B))
+				.add(objectFactory.getSubClassOfAxiom(B, C));
+		reasoner.getTaxonomyQuietly();
+
+		assertTrue(reasoner.areEntailed(Collections.singleton(objectFactory
+				.getSubClassOfAxiom(A, objectFactory.getOwlThing()))));
+		assertTrue(reasoner.areEntailed(
+				Collections.singleton(objectFactory.getSubClassOfAxiom(A, C))));
+		assertFalse(reasoner.areEntailed(
+				Collections.singleton(objectFactory.getSubClassOfAxiom(C, A))));
+		assertFalse(reasoner.areEntailed(
+				Collections.singleton(objectFactory.getSubClassOfAxiom(A, D))));
+		assertTrue(reasoner.areEntailed(Arrays.asList(
+				objectFactory.getSubClassOfAxiom(A, objectFactory.getOwlThing()),
+				objectFactory.getSubClassOfAxiom(B, C),
+				objectFactory.getSubClassOfAxiom(D,
+						objectFactory.getOwlThing()))));
+	}
+
 }
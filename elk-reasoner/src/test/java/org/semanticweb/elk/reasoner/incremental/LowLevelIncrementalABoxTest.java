@@ -21,10 +21,12 @@
  */
 package org.semanticweb.elk.reasoner.incremental;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.Set;
 
 import org.junit.Test;
 import org.semanticweb.elk.exceptions.ElkException;
@@ -39,6 +41,7 @@ import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
 import org.semanticweb.elk.reasoner.Reasoner;
 import org.semanticweb.elk.reasoner.TestReasonerUtils;
 import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
 
 /**
  * @author Pavel Klinov
@@ -207,4 +210,117 @@ public class LowLevelIncrementalABoxTest {
 		assertTrue(taxonomy.getNode(B).getAllInstanceNodes().contains(taxonomy.getInstanceNode(ind)));
 		assertTrue(taxonomy.getNode(B).getDirectInstanceNodes().contains(taxonomy.getInstanceNode(newInd)));
 	}	
+
+	@Test
+	public void testRealizationGrouping() throws ElkException, IOException {
+		TestChangesLoader loader = new TestChangesLoader();
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+
+		reasoner.setAllowIncrementalMode(false);
+		reasoner.setRealizationGrouping(true);
+
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+		ElkNamedIndividual ind1 = objectFactory.getNamedIndividual(new ElkFullIri(":in1"));
+		ElkNamedIndividual ind2 = objectFactory.getNamedIndividual(new ElkFullIri(":in2"));
+		ElkNamedIndividual ind3 = objectFactory.getNamedIndividual(new ElkFullIri(":in3"));
+		ElkAxiom axASubB = objectFactory.getSubClassOfAxiom(A, B);
+
+		// all individuals have the same told types
+		loader.add(axASubB).add(objectFactory.getSubClassOfAxiom(D, B))
+				.add(objectFactory.getClassAssertionAxiom(A, ind1))
+				.add(objectFactory.getClassAssertionAxiom(A, ind2))
+				.add(objectFactory.getClassAssertionAxiom(A, ind3));
+
+		InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = reasoner.getInstanceTaxonomyQuietly();
+
+		assertEquals(3, taxonomy.getNode(A).getDirectInstanceNodes().size());
+		assertEquals(3, taxonomy.getNode(B).getAllInstanceNodes().size());
+
+		reasoner.setAllowIncrementalMode(true);
+
+		TestChangesLoader changeLoader = new TestChangesLoader();
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changeLoader));
+
+		// the second individual must leave the group
+		changeLoader.add(objectFactory.getClassAssertionAxiom(C, ind2));
+
+		taxonomy = reasoner.getInstanceTaxonomyQuietly();
+
+		assertEquals(1, taxonomy.getNode(C).getDirectInstanceNodes().size());
+		assertTrue(taxonomy.getNode(C).getDirectInstanceNodes()
+				.contains(taxonomy.getInstanceNode(ind2)));
+		assertEquals(3, taxonomy.getNode(A).getDirectInstanceNodes().size());
+
+		// the types of complex expressions are checked using the contexts
+		Set<? extends Node<ElkNamedIndividual>> instances = reasoner
+				.getInstancesQuietly(
+						objectFactory.getObjectIntersectionOf(A, C), true);
+		assertEquals(1, instances.size());
+
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changeLoader));
+
+		// all individuals lose B
+		changeLoader.remove(axASubB);
+
+		taxonomy = reasoner.getInstanceTaxonomyQuietly();
+
+		assertTrue(taxonomy.getNode(B).getAllInstanceNodes().isEmpty());
+		assertEquals(3, taxonomy.getNode(A).getDirectInstanceNodes().size());
+	}
+
+	@Test
+	public void testConsistencyCheckingGrouping()
+			throws ElkException, IOException {
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+		ElkNamedIndividual[] individuals = new ElkNamedIndividual[] {
+				objectFactory.getNamedIndividual(new ElkFullIri(":in1")),
+				objectFactory.getNamedIndividual(new ElkFullIri(":in2")),
+				objectFactory.getNamedIndividual(new ElkFullIri(":in3")) };
+
+		// only one individual is checked, so the others must be checked when
+		// their axioms change
+		for (ElkNamedIndividual changed : individuals) {
+			TestChangesLoader loader = new TestChangesLoader();
+			Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+
+			reasoner.setAllowIncrementalMode(false);
+			reasoner.setRealizationGrouping(true);
+
+			// owl:Nothing occurs positively, so the individuals are checked;
+			// C occurs positively, so that the rules for B do not change
+			loader.add(objectFactory.getSubClassOfAxiom(A, B))
+					.add(objectFactory.getSubClassOfAxiom(D, C))
+					.add(objectFactory.getSubClassOfAxiom(
+							objectFactory.getObjectIntersectionOf(B, C),
+							objectFactory.getOwlNothing()));
+			for (ElkNamedIndividual ind : individuals) {
+				loader.add(objectFactory.getClassAssertionAxiom(A, ind));
+			}
+
+			assertFalse(reasoner.isInconsistent());
+
+			reasoner.setAllowIncrementalMode(true);
+
+			ElkAxiom axiInstC = objectFactory.getClassAssertionAxiom(C,
+					changed);
+			TestChangesLoader changeLoader = new TestChangesLoader();
+			reasoner.registerAxiomLoader(
+					new TestAxiomLoaderFactory(changeLoader));
+			changeLoader.add(axiInstC);
+
+			assertTrue(reasoner.isInconsistent());
+
+			reasoner.registerAxiomLoader(
+					new TestAxiomLoaderFactory(changeLoader));
+			changeLoader.remove(axiInstC);
+
+			assertFalse(reasoner.isInconsistent());
+		}
+	}
 }
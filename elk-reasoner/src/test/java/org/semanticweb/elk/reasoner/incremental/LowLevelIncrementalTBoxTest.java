@@ -60,6 +60,7 @@ import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
 import org.semanticweb.elk.reasoner.Reasoner;
 import org.semanticweb.elk.reasoner.TestReasonerUtils;
 import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -344,6 +345,65 @@ public class LowLevelIncrementalTBoxTest {
 
 	}
 
+	@Test
+	public void testFineTaxonomyCleaning() throws ElkException {
+		TestChangesLoader loader = new TestChangesLoader();
+
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+
+		reasoner.setAllowIncrementalMode(false);
+		reasoner.setFineTaxonomyCleaning(true);
+
+		ElkClass a = createElkClass("A");
+		ElkClass b = createElkClass("B");
+		ElkClass c = createElkClass("C");
+		ElkClass z = createElkClass("Z");
+		ElkObjectProperty r = createElkObjectProperty("R");
+
+		ElkAxiom axAsubB = objectFactory.getSubClassOfAxiom(a, b);
+		ElkAxiom axRCsubB = objectFactory.getSubClassOfAxiom(
+				objectFactory.getObjectSomeValuesFrom(r, c), b);
+
+		loader.add(axAsubB).add(axRCsubB)
+				.add(objectFactory.getSubClassOfAxiom(a,
+						objectFactory.getObjectSomeValuesFrom(r, c)))
+				.add(objectFactory.getSubClassOfAxiom(z, a))
+				.add(objectFactory.getSubClassOfAxiom(b, c));
+
+		Taxonomy<ElkClass> taxonomy = reasoner.getTaxonomy();
+
+		TaxonomyNode<ElkClass> aNode = taxonomy.getNode(a);
+		TaxonomyNode<ElkClass> zNode = taxonomy.getNode(z);
+
+		reasoner.setAllowIncrementalMode(true);
+
+		TestChangesLoader changeLoader = new TestChangesLoader();
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changeLoader));
+
+		// A and Z are re-saturated, but their subsumers do not change
+		changeLoader.remove(axAsubB);
+
+		taxonomy = reasoner.getTaxonomy();
+
+		assertSame(aNode, taxonomy.getNode(a));
+		assertSame(zNode, taxonomy.getNode(z));
+		assertTrue(taxonomy.getNode(a).getDirectSuperNodes()
+				.contains(taxonomy.getNode(b)));
+
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changeLoader));
+
+		// now A and Z lose B
+		changeLoader.remove(axRCsubB);
+
+		taxonomy = reasoner.getTaxonomy();
+
+		assertNotSame(aNode, taxonomy.getNode(a));
+		assertFalse(taxonomy.getNode(a).getDirectSuperNodes()
+				.contains(taxonomy.getNode(b)));
+		assertTrue(taxonomy.getNode(z).getDirectSuperNodes()
+				.contains(taxonomy.getNode(a)));
+	}
+
 	@Test
 	public void testNewClassUnsatisfiable() throws ElkException {
 		TestChangesLoader loader = new TestChangesLoader();
@@ -0,0 +1,117 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.query;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.runner.RunWith;
+import org.semanticweb.elk.ElkTestUtils;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.reasoner.ElkReasoningTestDelegate;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.testing.PolySuite;
+import org.semanticweb.elk.testing.PolySuite.Config;
+import org.semanticweb.elk.testing.PolySuite.Configuration;
+import org.semanticweb.elk.testing.TestUtils;
+
+/**
+ * Checks the results of
+ * {@link Reasoner#checkEntailment(Iterable, EntailmentCheckingListener)} and
+ * {@link Reasoner#areEntailed(Iterable)} on the inputs of
+ * {@link ElkEntailmentQueryTest}, both before and after classification.
+ */
+@RunWith(PolySuite.class)
+public class ElkEntailmentCheckingTest extends
+		BaseQueryTest<Collection<ElkAxiom>, EntailmentQueryTestOutput<ElkAxiom>> {
+
+	@Override
+	protected boolean ignore(final QueryTestInput<Collection<ElkAxiom>> input) {
+		return super.ignore(input) || TestUtils.ignore(input,
+				ElkTestUtils.TEST_INPUT_LOCATION,
+				ElkEntailmentQueryTest.IGNORE_LIST);
+	}
+
+	public ElkEntailmentCheckingTest(
+			final QueryTestManifest<Collection<ElkAxiom>, EntailmentQueryTestOutput<ElkAxiom>> manifest) {
+		super(manifest,
+				new ElkReasoningTestDelegate<EntailmentQueryTestOutput<ElkAxiom>>(
+						manifest) {
+
+					@Override
+					public EntailmentQueryTestOutput<ElkAxiom> getActualOutput()
+							throws Exception {
+						final Reasoner reasoner = getReasoner();
+						final Collection<ElkAxiom> query = manifest.getInput()
+								.getQuery();
+						final Map<ElkAxiom, Boolean> output = checkEntailment(
+								reasoner, query);
+						assertEquals(!output.containsValue(false),
+								reasoner.areEntailed(query));
+						// now the subsumptions can be checked without indexing
+						reasoner.getTaxonomyQuietly();
+						assertEquals(output, checkEntailment(reasoner, query));
+						return new EntailmentQueryTestOutput<ElkAxiom>(output);
+					}
+
+				});
+	}
+
+	static Map<ElkAxiom, Boolean> checkEntailment(final Reasoner reasoner,
+			final Collection<ElkAxiom> query) throws Exception {
+		final Map<ElkAxiom, Boolean> output = new HashMap<ElkAxiom, Boolean>();
+		reasoner.checkEntailment(query, new EntailmentCheckingListener() {
+
+			@Override
+			public boolean notifyEntailed(final ElkAxiom axiom) {
+				output.put(axiom, true);
+				return true;
+			}
+
+			@Override
+			public boolean notifyNotEntailed(final ElkAxiom axiom) {
+				output.put(axiom, false);
+				return true;
+			}
+
+			@Override
+			public boolean notifyUnsupported(final ElkAxiom axiom) {
+				output.put(axiom, false);
+				return true;
+			}
+
+		});
+		return output;
+	}
+
+	@Config
+	public static Configuration getConfig()
+			throws IOException, URISyntaxException {
+		return ElkEntailmentQueryTest.getConfig();
+	}
+
+}
@@ -0,0 +1,122 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+
+/**
+ * Tests for implementations of {@link ActiveContextScheduler}
+ */
+public class ActiveContextSchedulerTest {
+
+	private static final int WORKERS_ = 8;
+
+	private static final int CONTEXTS_PER_WORKER_ = 10000;
+
+	@Test
+	public void testWorkStealing() {
+		ActiveContextScheduler scheduler = new WorkStealingActiveContextScheduler(
+				2);
+		ActiveContextScheduler.Worker first = scheduler.getWorker();
+		ActiveContextScheduler.Worker second = scheduler.getWorker();
+		Context context = new ContextImpl(null);
+		first.add(context);
+		// the context is stolen from the queue of the first worker
+		assertSame(context, second.poll());
+		assertNull(first.poll());
+		assertNull(second.poll());
+		first.add(context);
+		scheduler.clear();
+		assertNull(first.poll());
+	}
+
+	@Test
+	public void testSharedConcurrent() throws InterruptedException {
+		testConcurrent(new SharedActiveContextScheduler());
+	}
+
+	@Test
+	public void testWorkStealingConcurrent() throws InterruptedException {
+		testConcurrent(new WorkStealingActiveContextScheduler(WORKERS_ / 2));
+	}
+
+	/**
+	 * Checks that every {@link Context} added to the given
+	 * {@link ActiveContextScheduler} by concurrent workers is retrieved
+	 * exactly once
+	 */
+	private static void testConcurrent(final ActiveContextScheduler scheduler)
+			throws InterruptedException {
+		final Map<Context, Context> polled = Collections
+				.synchronizedMap(new IdentityHashMap<Context, Context>());
+		List<Thread> threads = new ArrayList<Thread>(WORKERS_);
+		for (int i = 0; i < WORKERS_; i++) {
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					ActiveContextScheduler.Worker worker = scheduler
+							.getWorker();
+					for (int j = 0; j < CONTEXTS_PER_WORKER_; j++) {
+						worker.add(new ContextImpl(null));
+						if (j % 3 == 0) {
+							poll(worker);
+						}
+					}
+					while (poll(worker)) {
+						// continue
+					}
+				}
+
+				boolean poll(ActiveContextScheduler.Worker worker) {
+					Context next = worker.poll();
+					if (next == null) {
+						return false;
+					}
+					if (polled.put(next, next) != null) {
+						throw new AssertionError(next + ": polled twice");
+					}
+					return true;
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(WORKERS_ * CONTEXTS_PER_WORKER_, polled.size());
+		assertNull(scheduler.getWorker().poll());
+	}
+
+}
@@ -32,6 +32,8 @@ import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
 import org.semanticweb.elk.owl.iris.ElkFullIri;
 import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
 import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.config.SaturationStorage;
 import org.semanticweb.elk.reasoner.indexing.classes.ChangeIndexingProcessor;
 import org.semanticweb.elk.reasoner.indexing.classes.DirectIndex;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverterImpl;
@@ -119,6 +121,23 @@ public class ConcurrentSaturatorTest extends TestCase {
 	@Test
 	public void testConjunctions() throws InterruptedException,
 			ExecutionException {
+		checkConjunctions(SaturationStorage.OBJECTS);
+	}
+
+	@Test
+	public void testConjunctionsArrays() throws InterruptedException,
+			ExecutionException {
+		checkConjunctions(SaturationStorage.ARRAYS);
+	}
+
+	@Test
+	public void testConjunctionsOffHeapArrays() throws InterruptedException,
+			ExecutionException {
+		checkConjunctions(SaturationStorage.OFF_HEAP_ARRAYS);
+	}
+
+	private void checkConjunctions(SaturationStorage storage)
+			throws InterruptedException, ExecutionException {
 		ElkClass a = objectFactory.getClass(new ElkFullIri(":A"));
 		ElkClass b = objectFactory.getClass(new ElkFullIri(":B"));
 		ElkClass c = objectFactory.getClass(new ElkFullIri(":C"));
@@ -146,8 +165,12 @@ public class ConcurrentSaturatorTest extends TestCase {
 		IndexedClassExpression I = objectFactory.getObjectIntersectionOf(b, c)
 				.accept(converter);
 
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.SATURATION_STORAGE,
+				storage.name());
 		SaturationState<?> saturationState = SaturationStateFactory
-				.createSaturationState(index);
+				.createSaturationState(index, config);
 		final TestClassExpressionSaturation<SaturationJob<IndexedClassExpression>> classExpressionSaturation = new TestClassExpressionSaturation<SaturationJob<IndexedClassExpression>>(
 				DummyInterruptMonitor.INSTANCE, executor, 16, saturationState);
 
@@ -162,6 +185,8 @@ public class ConcurrentSaturatorTest extends TestCase {
 		assertTrue("A contains C", context.getComposedSubsumers().contains(C));
 		assertTrue("A contains I", context.getComposedSubsumers().contains(I));
 		assertTrue("A contains D", context.getComposedSubsumers().contains(D));
+		assertEquals(5, context.getComposedSubsumers().size());
+		assertTrue(saturationState.getContexts().contains(context));
 	}
 
 }
@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
+import org.semanticweb.elk.loading.TestChangesLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.config.SubsumerStorage;
+import org.semanticweb.elk.reasoner.incremental.IncrementalChangeType;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyHasher;
+
+/**
+ * Tests that storing subsumers by the ids of indexed class expressions, see
+ * {@link SubsumerStorage#IDS}, produces the same reasoning results as
+ * storing the objects, also after incremental changes that remove indexed
+ * class expressions and add them again.
+ */
+public class SubsumerStorageTest {
+
+	private static final String INPUT_DIR_ = "test_input/classification";
+
+	/**
+	 * every axiom with the index divisible by this number is removed and
+	 * added again
+	 */
+	private static final int CHANGE_STEP_ = 3;
+
+	private static Reasoner load(List<ElkAxiom> ontology,
+			SubsumerStorage storage) {
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.SUBSUMER_STORAGE,
+				storage.name());
+		return TestReasonerUtils.createTestReasoner(
+				new TestAxiomLoaderFactory(new TestChangesLoader(ontology,
+						IncrementalChangeType.ADD)),
+				config);
+	}
+
+	private static String getResults(Reasoner reasoner) throws ElkException {
+		return TaxonomyHasher.hash(reasoner.getTaxonomyQuietly()) + " "
+				+ TaxonomyHasher
+						.hash(reasoner.getObjectPropertyTaxonomyQuietly());
+	}
+
+	private static void change(Reasoner reasoner, List<ElkAxiom> axioms,
+			IncrementalChangeType type) {
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(
+				new TestChangesLoader(axioms, type)));
+	}
+
+	private File getInputDir() throws URISyntaxException {
+		return new File(getClass().getClassLoader().getResource(INPUT_DIR_)
+				.toURI());
+	}
+
+	@Test
+	public void testIncrementalChanges() throws Exception {
+		int tested = 0;
+		for (File input : getInputDir().listFiles()) {
+			if (!input.getName().endsWith(".owl")) {
+				continue;
+			}
+			List<ElkAxiom> ontology = new ArrayList<ElkAxiom>(
+					TestReasonerUtils.loadAxioms(input));
+			List<ElkAxiom> changes = new ArrayList<ElkAxiom>();
+			for (int i = 0; i < ontology.size(); i += CHANGE_STEP_) {
+				changes.add(ontology.get(i));
+			}
+			Reasoner expected = load(ontology, SubsumerStorage.OBJECTS);
+			Reasoner actual = load(ontology, SubsumerStorage.IDS);
+			try {
+				assertEquals(input.getName(), getResults(expected),
+						getResults(actual));
+				change(expected, changes, IncrementalChangeType.DELETE);
+				change(actual, changes, IncrementalChangeType.DELETE);
+				assertEquals(input.getName(), getResults(expected),
+						getResults(actual));
+				change(expected, changes, IncrementalChangeType.ADD);
+				change(actual, changes, IncrementalChangeType.ADD);
+				assertEquals(input.getName(), getResults(expected),
+						getResults(actual));
+			} finally {
+				expected.shutdown();
+				actual.shutdown();
+			}
+			tested++;
+		}
+		assertTrue(tested > 0);
+	}
+
+}
@@ -0,0 +1,234 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.saturation.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
+import org.semanticweb.elk.loading.TestChangesLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.incremental.IncrementalChangeType;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.InstanceTaxonomyHasher;
+import org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyHasher;
+
+/**
+ * Tests that the saturation saved by {@link Reasoner#saveSnapshot(File)} is
+ * restored by {@link Reasoner#loadSnapshot(File)} so that the same results
+ * are computed, also after incremental changes.
+ */
+public class SaturationSnapshotTest {
+
+	private static final String PREFIX_ = "http://example.org/snapshot#";
+
+	private static final String ONTOLOGY_ = "Prefix(:=<" + PREFIX_ + ">)"
+			+ "Prefix(xsd:=<http://www.w3.org/2001/XMLSchema#>)"
+			+ "Ontology("
+			+ "SubClassOf(:A ObjectSomeValuesFrom(:R :B))"
+			+ "SubClassOf(:B :C)"
+			+ "SubClassOf(ObjectSomeValuesFrom(:S :C) :D)"
+			+ "SubObjectPropertyOf(:R :S)"
+			+ "TransitiveObjectProperty(:S)"
+			+ "SubObjectPropertyOf(ObjectPropertyChain(:R :T) :R)"
+			+ "SubClassOf(:C ObjectSomeValuesFrom(:T :E))"
+			+ "EquivalentClasses(:F ObjectIntersectionOf(:C ObjectSomeValuesFrom(:T :E)))"
+			+ "ObjectPropertyRange(:T :K)"
+			+ "DisjointClasses(:E :G)"
+			+ "SubClassOf(:H ObjectIntersectionOf(:E :G))"
+			+ "SubClassOf(:L ObjectHasSelf(:R))"
+			+ "SubClassOf(:M DataHasValue(:d \"1\"^^xsd:integer))"
+			+ "SubClassOf(DataHasValue(:d \"1\"^^xsd:integer) :N)"
+			+ "SubClassOf(ObjectUnionOf(:N :P) :Q)"
+			+ "SubClassOf(:P ObjectComplementOf(:C))"
+			+ "ClassAssertion(:A :a)"
+			+ "ObjectPropertyAssertion(:R :a :b)"
+			+ "ClassAssertion(:B :b)"
+			+ ")";
+
+	private final ElkObject.Factory factory_ = new ElkObjectEntityRecyclingFactory();
+
+	private Set<ElkAxiom> ontology_;
+
+	private File snapshot_;
+
+	@Before
+	public void setUp() throws Exception {
+		ontology_ = TestReasonerUtils
+				.loadAxioms(new StringReader(ONTOLOGY_));
+		snapshot_ = File.createTempFile("elk", ".snapshot");
+		snapshot_.deleteOnExit();
+	}
+
+	@After
+	public void tearDown() {
+		snapshot_.delete();
+	}
+
+	private ElkClass getClass(String name) {
+		return factory_.getClass(new ElkFullIri(PREFIX_ + name));
+	}
+
+	private static Reasoner load(Iterable<ElkAxiom> axioms) {
+		return TestReasonerUtils.createTestReasoner(
+				new TestChangesLoader(axioms, IncrementalChangeType.ADD));
+	}
+
+	private static void assertSameResults(Reasoner expected, Reasoner actual)
+			throws ElkException {
+		assertEquals(TaxonomyHasher.hash(expected.getTaxonomy()),
+				TaxonomyHasher.hash(actual.getTaxonomy()));
+		assertEquals(
+				InstanceTaxonomyHasher.hash(expected.getInstanceTaxonomy()),
+				InstanceTaxonomyHasher.hash(actual.getInstanceTaxonomy()));
+		assertEquals(
+				TaxonomyHasher.hash(expected.getObjectPropertyTaxonomy()),
+				TaxonomyHasher.hash(actual.getObjectPropertyTaxonomy()));
+	}
+
+	private static void change(Reasoner reasoner, ElkAxiom addition,
+			ElkAxiom deletion) {
+		TestChangesLoader changes = new TestChangesLoader();
+		changes.add(addition).remove(deletion);
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changes));
+	}
+
+	@Test
+	public void testRestore() throws Exception {
+		Reasoner original = load(ontology_);
+		original.getInstanceTaxonomy();
+		original.saveSnapshot(snapshot_);
+		Reasoner restored = load(ontology_);
+		restored.loadSnapshot(snapshot_);
+		try {
+			assertSameResults(original, restored);
+		} finally {
+			original.shutdown();
+			restored.shutdown();
+		}
+	}
+
+	@Test
+	public void testIncrementalChangesAfterRestore() throws Exception {
+		Reasoner original = load(ontology_);
+		original.getTaxonomy();
+		original.saveSnapshot(snapshot_);
+		Reasoner restored = load(ontology_);
+		restored.loadSnapshot(snapshot_);
+		try {
+			ElkAxiom addition = factory_.getSubClassOfAxiom(getClass("K"),
+					getClass("A"));
+			ElkAxiom deletion = factory_.getSubClassOfAxiom(getClass("B"),
+					getClass("C"));
+			change(original, addition, deletion);
+			change(restored, addition, deletion);
+			assertSameResults(original, restored);
+		} finally {
+			original.shutdown();
+			restored.shutdown();
+		}
+	}
+
+	@Test
+	public void testRestoreForDifferentOntology() throws Exception {
+		Reasoner original = load(ontology_);
+		original.getTaxonomy();
+		original.saveSnapshot(snapshot_);
+		TestChangesLoader loader = new TestChangesLoader(ontology_,
+				IncrementalChangeType.ADD);
+		loader.add(factory_.getSubClassOfAxiom(getClass("X"),
+				getClass("A")));
+		Reasoner restored = TestReasonerUtils.createTestReasoner(loader);
+		try {
+			restored.loadSnapshot(snapshot_);
+			fail("the snapshot is saved for a different ontology");
+		} catch (ElkSnapshotException e) {
+			// expected
+		}
+		Reasoner expected = TestReasonerUtils.createTestReasoner(
+				new TestChangesLoader(ontology_, IncrementalChangeType.ADD)
+						.add(factory_.getSubClassOfAxiom(getClass("X"),
+								getClass("A"))));
+		try {
+			// the saturation is computed from scratch
+			assertSameResults(expected, restored);
+		} finally {
+			original.shutdown();
+			restored.shutdown();
+			expected.shutdown();
+		}
+	}
+
+	@Test
+	public void testRestoreForDifferentAxioms() throws Exception {
+		Reasoner original = load(ontology_);
+		original.getTaxonomy();
+		original.saveSnapshot(snapshot_);
+		// the same class expressions and property chains are indexed
+		Set<ElkAxiom> changed = new HashSet<ElkAxiom>(ontology_);
+		assertTrue(changed.remove(
+				factory_.getSubClassOfAxiom(getClass("B"), getClass("C"))));
+		changed.add(factory_.getSubClassOfAxiom(getClass("A"), getClass("C")));
+		Reasoner restored = load(changed);
+		try {
+			restored.loadSnapshot(snapshot_);
+			fail("the snapshot is saved for different axioms");
+		} catch (ElkSnapshotException e) {
+			// expected
+		}
+		Reasoner expected = load(changed);
+		try {
+			// the saturation is computed from scratch
+			assertSameResults(expected, restored);
+		} finally {
+			original.shutdown();
+			restored.shutdown();
+			expected.shutdown();
+		}
+	}
+
+	@Test(expected = ElkSnapshotException.class)
+	public void testRestoreCorrupted() throws Exception {
+		Reasoner reasoner = load(ontology_);
+		try {
+			reasoner.loadSnapshot(snapshot_); // empty file
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+}
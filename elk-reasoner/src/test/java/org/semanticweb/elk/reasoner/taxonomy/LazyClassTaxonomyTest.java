@@ -0,0 +1,149 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
+import org.semanticweb.elk.loading.TestChangesLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.reasoner.ElkInconsistentOntologyException;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.incremental.IncrementalChangeType;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+
+/**
+ * Tests that the queries about named classes answered using the lazy class
+ * taxonomy return the same results as the ones answered using the whole class
+ * taxonomy, and that the whole class taxonomy computed after such queries is
+ * correct.
+ */
+public class LazyClassTaxonomyTest {
+
+	private static Reasoner load(File input, boolean lazy) throws Exception {
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.LAZY_CLASS_TAXONOMY,
+				String.valueOf(lazy));
+		return TestReasonerUtils.createTestReasoner(
+				new TestAxiomLoaderFactory(new TestChangesLoader(
+						new ArrayList<ElkAxiom>(
+								TestReasonerUtils.loadAxioms(input)),
+						IncrementalChangeType.ADD)),
+				config);
+	}
+
+	private File[] getInputs(String dir) throws URISyntaxException {
+		return new File(getClass().getClassLoader().getResource(dir).toURI())
+				.listFiles();
+	}
+
+	@Test
+	public void testLazyClassTaxonomy() throws Exception {
+		int tested = 0;
+		for (File input : getInputs("test_input/classification")) {
+			if (!input.getName().endsWith(".owl")) {
+				continue;
+			}
+			String name = input.getName();
+			Reasoner expected = load(input, false);
+			Reasoner lazy = load(input, true);
+			try {
+				Taxonomy<ElkClass> taxonomy;
+				try {
+					taxonomy = expected.getTaxonomy();
+				} catch (ElkInconsistentOntologyException e) {
+					continue;
+				}
+				for (TaxonomyNode<ElkClass> node : taxonomy.getNodes()) {
+					for (ElkClass member : node) {
+						assertEquals(name, toSet(node),
+								toSet(lazy.getEquivalentClasses(member)));
+						assertEquals(name,
+								getCanonicalMembers(node.getDirectSuperNodes()),
+								getCanonicalMembers(
+										lazy.getSuperClasses(member, true)));
+						assertEquals(name,
+								getCanonicalMembers(node.getAllSuperNodes()),
+								getCanonicalMembers(
+										lazy.getSuperClasses(member, false)));
+						assertEquals(name,
+								expected.isSatisfiable(member),
+								lazy.isSatisfiable(member));
+					}
+				}
+				// the remaining nodes should be computed now
+				Taxonomy<ElkClass> completed = lazy.getTaxonomy();
+				assertEquals(name, taxonomy.getNodes().size(),
+						completed.getNodes().size());
+				for (TaxonomyNode<ElkClass> node : taxonomy.getNodes()) {
+					TaxonomyNode<ElkClass> other = completed
+							.getNode(node.getCanonicalMember());
+					assertEquals(name, toSet(node), toSet(other));
+					assertEquals(name,
+							getCanonicalMembers(node.getDirectSuperNodes()),
+							getCanonicalMembers(other.getDirectSuperNodes()));
+					assertEquals(name,
+							getCanonicalMembers(node.getDirectSubNodes()),
+							getCanonicalMembers(other.getDirectSubNodes()));
+				}
+				tested++;
+			} finally {
+				expected.shutdown();
+				lazy.shutdown();
+			}
+		}
+		assertTrue(tested > 0);
+	}
+
+	private static <M> Set<M> toSet(Node<M> node) {
+		Set<M> result = new HashSet<M>();
+		for (M member : node) {
+			result.add(member);
+		}
+		return result;
+	}
+
+	private static <M> Set<M> getCanonicalMembers(
+			Collection<? extends Node<M>> nodes) {
+		Set<M> result = new HashSet<M>();
+		for (Node<M> node : nodes) {
+			result.add(node.getCanonicalMember());
+		}
+		return result;
+	}
+
+}
@@ -29,19 +29,23 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.channels.Channels;
 
 import org.junit.Test;
 import org.semanticweb.elk.exceptions.ElkException;
 import org.semanticweb.elk.io.IOUtils;
+import org.semanticweb.elk.loading.TestChangesLoader;
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkEntity;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
 import org.semanticweb.elk.owl.interfaces.ElkObject;
 import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
 import org.semanticweb.elk.owl.iris.ElkIri;
 import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
 import org.semanticweb.elk.owl.parsing.Owl2ParseException;
@@ -55,6 +59,7 @@ import org.semanticweb.elk.reasoner.taxonomy.hashing.InstanceTaxonomyHasher;
 import org.semanticweb.elk.reasoner.taxonomy.hashing.TaxonomyHasher;
 import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentExecutors;
 
 /**
  * Tests loading/dumping of taxonomies.
@@ -172,6 +177,61 @@ public class TaxonomyIOTest {
 		// @formatter:on
 	}
 
+	@Test
+	public void classTaxonomyStreaming() throws IOException,
+			Owl2ParseException, ElkInconsistentOntologyException, ElkException {
+		checkStreaming(loadAndClassify("io/taxonomy.owl"));
+	}
+
+	@Test
+	public void objectPropertyTaxonomyStreaming() throws IOException,
+			Owl2ParseException, ElkInconsistentOntologyException, ElkException {
+		checkStreaming(loadAndClassifyObjectProperties(
+				"io/property_taxonomy.owl"));
+	}
+
+	@Test
+	public void largeClassTaxonomyStreaming()
+			throws IOException, ElkInconsistentOntologyException, ElkException {
+		// enough classes to be sorted in several chunks
+		final TestChangesLoader loader = new TestChangesLoader();
+		final int size = 5000;
+		for (int i = 1; i < size; i++) {
+			loader.add(objectFactory.getSubClassOfAxiom(getElkClass(i),
+					getElkClass((i - 1) / 3)));
+			if (i % 7 == 0) {
+				loader.add(objectFactory.getEquivalentClassesAxiom(
+						getElkClass(i), getElkClass(size + i)));
+			}
+			if (i % 11 == 0) {
+				loader.add(objectFactory.getSubClassOfAxiom(getElkClass(i),
+						getElkClass(i / 2)));
+			}
+		}
+		final Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+		checkStreaming(reasoner.getTaxonomy());
+	}
+
+	private ElkClass getElkClass(int index) {
+		// non-ASCII characters should be encoded correctly
+		return objectFactory.getClass(
+				new ElkFullIri("http://example.org/\u00c4\u4e2d#C" + index));
+	}
+
+	private static void checkStreaming(
+			final Taxonomy<? extends ElkEntity> taxonomy) throws IOException {
+		final StringWriter writer = new StringWriter();
+		TaxonomyPrinter.dumpTaxomomy(taxonomy, writer, true);
+
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final int hash = StreamingTaxonomyPrinter.dumpTaxonomy(taxonomy,
+				Channels.newChannel(output), true,
+				ConcurrentExecutors.getDefault(), 4);
+
+		assertEquals(TaxonomyHasher.hash(taxonomy), hash);
+		assertEquals(writer.toString(), output.toString("UTF-8"));
+	}
+
 	/*
 	 * Test that reordering classes in EquivalentClasses axioms and replacing a
 	 * class name by an equivalent one in SubClassOf axioms does not break class
@@ -0,0 +1,289 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
+import org.semanticweb.elk.loading.TestChangesLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.ElkInconsistentOntologyException;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.incremental.IncrementalChangeType;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.TypeNode;
+
+/**
+ * Tests that {@link TaxonomySnapshot}s and {@link InstanceTaxonomySnapshot}s
+ * published by the reasoner represent the same taxonomies as the ones from
+ * which they were created.
+ */
+public class TaxonomySnapshotTest {
+
+	private static Reasoner load(File input) throws Exception {
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.TAXONOMY_SNAPSHOTS, "true");
+		return TestReasonerUtils.createTestReasoner(
+				new TestAxiomLoaderFactory(new TestChangesLoader(
+						new ArrayList<ElkAxiom>(
+								TestReasonerUtils.loadAxioms(input)),
+						IncrementalChangeType.ADD)),
+				config);
+	}
+
+	private File[] getInputs(String dir) throws URISyntaxException {
+		return new File(getClass().getClassLoader().getResource(dir).toURI())
+				.listFiles();
+	}
+
+	@Test
+	public void testClassTaxonomySnapshots() throws Exception {
+		int tested = 0;
+		for (File input : getInputs("test_input/classification")) {
+			if (!input.getName().endsWith(".owl")) {
+				continue;
+			}
+			Reasoner reasoner = load(input);
+			try {
+				assertNull(reasoner.getClassTaxonomySnapshot());
+				Taxonomy<ElkClass> taxonomy = reasoner.getTaxonomy();
+				TaxonomySnapshot<ElkClass> snapshot = reasoner
+						.getClassTaxonomySnapshot();
+				assertNotNull(input.getName(), snapshot);
+				checkSnapshot(input.getName(), taxonomy, snapshot);
+				tested++;
+			} catch (ElkInconsistentOntologyException e) {
+				assertNull(reasoner.getClassTaxonomySnapshot());
+			} finally {
+				reasoner.shutdown();
+			}
+		}
+		assertTrue(tested > 0);
+	}
+
+	@Test
+	public void testInstanceTaxonomySnapshots() throws Exception {
+		int tested = 0;
+		for (File input : getInputs("test_input/realization")) {
+			if (!input.getName().endsWith(".owl")) {
+				continue;
+			}
+			Reasoner reasoner = load(input);
+			try {
+				InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = reasoner
+						.getInstanceTaxonomy();
+				InstanceTaxonomySnapshot<ElkClass, ElkNamedIndividual> snapshot = reasoner
+						.getInstanceTaxonomySnapshot();
+				assertNotNull(input.getName(), snapshot);
+				checkSnapshot(input.getName(), taxonomy, snapshot);
+				checkInstances(input.getName(), taxonomy, snapshot);
+				tested++;
+			} catch (ElkInconsistentOntologyException e) {
+				assertNull(reasoner.getInstanceTaxonomySnapshot());
+			} finally {
+				reasoner.shutdown();
+			}
+		}
+		assertTrue(tested > 0);
+	}
+
+	@Test
+	public void testSnapshotsClearedAfterChanges() throws Exception {
+		ElkObject.Factory factory = new ElkObjectEntityRecyclingFactory();
+		ElkClass a = factory.getClass(new ElkFullIri(":A"));
+		ElkClass b = factory.getClass(new ElkFullIri(":B"));
+		ElkClass c = factory.getClass(new ElkFullIri(":C"));
+		TestChangesLoader loader = new TestChangesLoader();
+		loader.add(factory.getSubClassOfAxiom(a, b));
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.TAXONOMY_SNAPSHOTS, "true");
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(
+				new TestAxiomLoaderFactory(loader), config);
+		try {
+			reasoner.getTaxonomy();
+			assertNotNull(reasoner.getClassTaxonomySnapshot());
+			assertEquals(-1,
+					reasoner.getClassTaxonomySnapshot().getNodeId(c));
+			// the snapshot is removed when the changes are applied
+			loader.add(factory.getSubClassOfAxiom(b, c));
+			reasoner.isInconsistent();
+			assertNull(reasoner.getClassTaxonomySnapshot());
+			checkSnapshot("changed", reasoner.getTaxonomy(),
+					reasoner.getClassTaxonomySnapshot());
+			// the snapshot is removed when the ontology becomes inconsistent
+			loader.add(factory.getSubClassOfAxiom(factory.getOwlThing(),
+					factory.getOwlNothing()));
+			assertTrue(reasoner.isInconsistent());
+			assertNull(reasoner.getClassTaxonomySnapshot());
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testNoSnapshotsForLazyClassTaxonomy() throws Exception {
+		ElkObject.Factory factory = new ElkObjectEntityRecyclingFactory();
+		ElkClass a = factory.getClass(new ElkFullIri(":A"));
+		ElkClass b = factory.getClass(new ElkFullIri(":B"));
+		TestChangesLoader loader = new TestChangesLoader();
+		loader.add(factory.getSubClassOfAxiom(a, b));
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.TAXONOMY_SNAPSHOTS, "true");
+		config.setParameter(ReasonerConfiguration.LAZY_CLASS_TAXONOMY,
+				"true");
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(
+				new TestAxiomLoaderFactory(loader), config);
+		try {
+			reasoner.getEquivalentClasses(a);
+			assertNull(reasoner.getClassTaxonomySnapshot());
+			checkSnapshot("lazy", reasoner.getTaxonomy(),
+					reasoner.getClassTaxonomySnapshot());
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	private static <T extends ElkEntity> void checkSnapshot(String name,
+			Taxonomy<T> taxonomy, TaxonomySnapshot<T> snapshot) {
+		assertEquals(name, taxonomy.getNodes().size(), snapshot.getNodeCount());
+		assertEquals(name,
+				snapshot.getNodeId(
+						taxonomy.getTopNode().getCanonicalMember()),
+				snapshot.getTopNodeId());
+		assertEquals(name,
+				snapshot.getNodeId(
+						taxonomy.getBottomNode().getCanonicalMember()),
+				snapshot.getBottomNodeId());
+		for (TaxonomyNode<T> node : taxonomy.getNodes()) {
+			int id = snapshot.getNodeId(node.getCanonicalMember());
+			assertEquals(name, node.getCanonicalMember(),
+					snapshot.getCanonicalMember(id));
+			assertEquals(name, toSet(node),
+					new HashSet<T>(snapshot.getMembers(id)));
+			assertEquals(name, getCanonicalMembers(node.getDirectSuperNodes()),
+					getCanonicalMembers(snapshot,
+							snapshot.getDirectSuperNodeIds(id)));
+			assertEquals(name, getCanonicalMembers(node.getDirectSubNodes()),
+					getCanonicalMembers(snapshot,
+							snapshot.getDirectSubNodeIds(id)));
+			assertEquals(name, getCanonicalMembers(node.getAllSuperNodes()),
+					getCanonicalMembers(snapshot,
+							snapshot.getAllSuperNodeIds(id)));
+			assertEquals(name, getCanonicalMembers(node.getAllSubNodes()),
+					getCanonicalMembers(snapshot,
+							snapshot.getAllSubNodeIds(id)));
+			for (int superNode : snapshot.getAllSuperNodeIds(id)) {
+				assertTrue(name, snapshot.isSubNodeOf(id, superNode));
+			}
+			assertTrue(name, snapshot.isSubNodeOf(id, id));
+		}
+	}
+
+	private static <T extends ElkEntity, I extends ElkEntity> void checkInstances(
+			String name, InstanceTaxonomy<T, I> taxonomy,
+			InstanceTaxonomySnapshot<T, I> snapshot) {
+		assertEquals(name, taxonomy.getInstanceNodes().size(),
+				snapshot.getInstanceNodeCount());
+		for (InstanceNode<T, I> node : taxonomy.getInstanceNodes()) {
+			int id = snapshot.getInstanceNodeId(node.getCanonicalMember());
+			assertEquals(name, node.getCanonicalMember(),
+					snapshot.getCanonicalInstance(id));
+			assertEquals(name, toSet(node),
+					new HashSet<I>(snapshot.getInstances(id)));
+			assertEquals(name, getCanonicalMembers(node.getDirectTypeNodes()),
+					getCanonicalMembers(snapshot,
+							snapshot.getDirectTypeNodeIds(id)));
+			assertEquals(name, getCanonicalMembers(node.getAllTypeNodes()),
+					getCanonicalMembers(snapshot,
+							snapshot.getAllTypeNodeIds(id)));
+		}
+		for (TypeNode<T, I> node : taxonomy.getNodes()) {
+			int id = snapshot.getNodeId(node.getCanonicalMember());
+			Set<I> expected = getCanonicalMembers(
+					node.getDirectInstanceNodes());
+			Set<I> actual = new HashSet<I>();
+			for (int instanceNode : snapshot.getDirectInstanceNodeIds(id)) {
+				actual.add(snapshot.getCanonicalInstance(instanceNode));
+			}
+			assertEquals(name, expected, actual);
+			expected = getCanonicalMembers(node.getAllInstanceNodes());
+			actual.clear();
+			for (int instanceNode : snapshot.getAllInstanceNodeIds(id)) {
+				actual.add(snapshot.getCanonicalInstance(instanceNode));
+			}
+			assertEquals(name, expected, actual);
+		}
+	}
+
+	private static <M> Set<M> toSet(Node<M> node) {
+		Set<M> result = new HashSet<M>();
+		for (M member : node) {
+			result.add(member);
+		}
+		return result;
+	}
+
+	private static <M> Set<M> getCanonicalMembers(
+			Collection<? extends Node<M>> nodes) {
+		Set<M> result = new HashSet<M>();
+		for (Node<M> node : nodes) {
+			result.add(node.getCanonicalMember());
+		}
+		return result;
+	}
+
+	private static <T extends ElkEntity> Set<T> getCanonicalMembers(
+			TaxonomySnapshot<T> snapshot, int[] nodes) {
+		Set<T> result = new HashSet<T>();
+		for (int node : nodes) {
+			result.add(snapshot.getCanonicalMember(node));
+		}
+		return result;
+	}
+
+}
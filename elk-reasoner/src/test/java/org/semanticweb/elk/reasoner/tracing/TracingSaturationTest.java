@@ -21,6 +21,10 @@
  */
 package org.semanticweb.elk.reasoner.tracing;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -41,6 +45,8 @@ import org.semanticweb.elk.owl.iris.ElkFullIri;
 import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
 import org.semanticweb.elk.reasoner.Reasoner;
 import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.query.QueryCacheStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -119,6 +125,113 @@ public class TracingSaturationTest {
 		TracingTestUtils.checkTracingCompleteness(e, d, reasoner);
 	}
 
+	@Test
+	@SuppressWarnings("static-method")
+	public void testBulkTracing() throws Exception {
+		Reasoner reasoner = TestReasonerUtils
+				.loadAndClassify(TestReasonerUtils.loadAxioms("tracing/DuplicateExistential.owl"));
+		ElkObject.Factory factory = new ElkObjectEntityRecyclingFactory();
+
+		ElkClass a = factory.getClass(new ElkFullIri("http://example.org/A"));
+		ElkClass d = factory.getClass(new ElkFullIri("http://example.org/D"));
+		ElkClass e = factory.getClass(new ElkFullIri("http://example.org/E"));
+		reasoner.explainEntailments(Arrays.asList(
+				factory.getSubClassOfAxiom(a, d),
+				factory.getSubClassOfAxiom(e, d)));
+		// all conclusions should be traced by the previous call
+		TracingTestUtils.checkTracingCompleteness(TracingTestUtils
+				.getDerivedConclusionsForSubsumption(a, d, reasoner), reasoner);
+		TracingTestUtils.checkTracingCompleteness(TracingTestUtils
+				.getDerivedConclusionsForSubsumption(e, d, reasoner), reasoner);
+	}
+
+	@Test
+	@SuppressWarnings("static-method")
+	public void testTracingCacheEviction() throws Exception {
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		// smaller than the number of traced conclusions
+		config.setParameter(ReasonerConfiguration.TRACE_CACHE_SIZE, "2");
+		TestChangesLoader loader = new TestChangesLoader();
+		Reasoner reasoner = TestReasonerUtils
+				.createTestReasoner(new TestAxiomLoaderFactory(loader), config);
+		for (ElkAxiom axiom : TestReasonerUtils
+				.loadAxioms("tracing/DuplicateExistential.owl")) {
+			loader.add(axiom);
+		}
+		reasoner.getTaxonomy();
+		ElkObject.Factory factory = new ElkObjectEntityRecyclingFactory();
+
+		ElkClass a = factory.getClass(new ElkFullIri("http://example.org/A"));
+		ElkClass d = factory.getClass(new ElkFullIri("http://example.org/D"));
+		ElkClass e = factory.getClass(new ElkFullIri("http://example.org/E"));
+		// the evicted conclusions should be traced again when needed
+		TracingTestUtils.checkTracingCompleteness(a, d, reasoner);
+		TracingTestUtils.checkTracingCompleteness(e, d, reasoner);
+		TracingTestUtils.checkTracingCompleteness(a, d, reasoner);
+		QueryCacheStatistics statistics = reasoner
+				.getTracingCacheStatistics();
+		assertTrue(statistics.getEvictionCount() > 0);
+		assertTrue(statistics.getMissCount() > 0);
+		assertTrue(statistics.getWeight() > 0);
+	}
+
+	@Test
+	@SuppressWarnings("static-method")
+	public void testCompactTracing() throws Exception {
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.TRACE_COMPACT, "true");
+		// to test also removal of inferences
+		config.setParameter(ReasonerConfiguration.TRACE_CACHE_SIZE, "2");
+		TestChangesLoader loader = new TestChangesLoader();
+		Reasoner reasoner = TestReasonerUtils
+				.createTestReasoner(new TestAxiomLoaderFactory(loader), config);
+		for (ElkAxiom axiom : TestReasonerUtils
+				.loadAxioms("tracing/DuplicateComposition.owl")) {
+			loader.add(axiom);
+		}
+		reasoner.getTaxonomy();
+		ElkObject.Factory factory = new ElkObjectEntityRecyclingFactory();
+
+		ElkClass a = factory.getClass(new ElkFullIri("http://example.org/A"));
+		ElkClass b = factory.getClass(new ElkFullIri("http://example.org/B"));
+		ElkObjectProperty r = factory
+				.getObjectProperty(new ElkFullIri("http://example.org/R"));
+		ElkClass c = factory.getClass(new ElkFullIri("http://example.org/C"));
+		ElkClassExpression rSomeC = factory.getObjectSomeValuesFrom(r, c);
+
+		for (int i = 0; i < 3; i++) {
+			TracingTestUtils.checkTracingCompleteness(b, b, reasoner);
+			TracingTestUtils.checkTracingCompleteness(a, rSomeC, reasoner);
+		}
+		assertTrue(reasoner.getTracingCacheStatistics()
+				.getEvictionCount() > 0);
+	}
+
+	@Test
+	@SuppressWarnings("static-method")
+	public void testTracingCacheHits() throws Exception {
+		Reasoner reasoner = TestReasonerUtils
+				.loadAndClassify(TestReasonerUtils.loadAxioms("tracing/DuplicateExistential.owl"));
+		ElkObject.Factory factory = new ElkObjectEntityRecyclingFactory();
+
+		ElkClass a = factory.getClass(new ElkFullIri("http://example.org/A"));
+		ElkClass d = factory.getClass(new ElkFullIri("http://example.org/D"));
+		TracingTestUtils.checkTracingCompleteness(a, d, reasoner);
+		QueryCacheStatistics statistics = reasoner
+				.getTracingCacheStatistics();
+		assertEquals(0, statistics.getHitCount());
+		long missCount = statistics.getMissCount();
+		assertTrue(missCount > 0);
+		// the conclusions are already traced
+		TracingTestUtils.checkTracingCompleteness(a, d, reasoner);
+		statistics = reasoner.getTracingCacheStatistics();
+		assertTrue(statistics.getHitCount() > 0);
+		assertEquals(missCount, statistics.getMissCount());
+		assertEquals(0, statistics.getEvictionCount());
+	}
+
 	@Test
 	@SuppressWarnings("static-method")	
 	public void testDuplicateInferenceViaComposition() throws Exception {
@@ -211,6 +211,22 @@ public class TracingTestUtils {
 		}
 	}
 
+	/*
+	 * checking that the given conclusions have been traced, without tracing
+	 * them again
+	 */
+	public static void checkTracingCompleteness(
+			final Collection<? extends Conclusion> conclusions,
+			final Reasoner reasoner) {
+		TraceState traceState = ReasonerStateAccessor.getTraceState(reasoner);
+		TracingInference.Visitor<Boolean> checker = new DummyInferenceChecker();
+		TestTraceUnwinder explorer = new TestTraceUnwinder(traceState,
+				UNTRACED_LISTENER);
+		for (final Conclusion conclusion : conclusions) {
+			explorer.accept(conclusion, checker);
+		}
+	}
+
 	public static void checkTracingCompleteness(ClassConclusion conclusion,
 			Reasoner reasoner) {
 		final AtomicInteger conclusionCount = new AtomicInteger(0);
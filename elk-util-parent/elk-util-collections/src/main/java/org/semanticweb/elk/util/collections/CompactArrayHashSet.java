@@ -0,0 +1,290 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A hash set optimized for storing few elements. A single element is stored
+ * directly in a field of this set; a table with linear probing, like in
+ * {@link ArrayHashSet}, is allocated only when a second element is added and
+ * released when the set again contains at most one element. Since most sets
+ * created during saturation contain only one element, this saves the memory
+ * required for the table.
+ * 
+ * @param <E>
+ *            the type of the elements in this set
+ * 
+ */
+public class CompactArrayHashSet<E> extends AbstractSet<E> {
+
+	/**
+	 * The capacity of the table allocated when the second element is added -
+	 * MUST be a power of two.
+	 */
+	static final int INITIAL_TABLE_CAPACITY = 4;
+
+	/**
+	 * The only element of this set if {@link #data_} is {@code null}
+	 */
+	private E element_;
+
+	/**
+	 * The table for the elements if this set contains more than one element,
+	 * or {@code null}; the length MUST always be a power of two.
+	 */
+	private E[] data_;
+
+	/**
+	 * The number of elements contained in this set.
+	 */
+	private int size_;
+
+	public CompactArrayHashSet() {
+		this.element_ = null;
+		this.data_ = null;
+		this.size_ = 0;
+	}
+
+	@Override
+	public int size() {
+		return size_;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size_ == 0;
+	}
+
+	/**
+	 * Changes the capacity of the table to the given value
+	 * 
+	 * @param newCapacity
+	 */
+	private void resize(int newCapacity) {
+		E[] oldData = data_;
+		@SuppressWarnings("unchecked")
+		E[] newData = (E[]) new Object[newCapacity];
+		for (int i = 0; i < oldData.length; i++) {
+			E e = oldData[i];
+			if (e != null)
+				LinearProbing.add(newData, e);
+		}
+		this.data_ = newData;
+	}
+
+	/**
+	 * Increasing the capacity of the table
+	 */
+	private void enlarge() {
+		int oldCapacity = data_.length;
+		if (oldCapacity == LinearProbing.MAXIMUM_CAPACITY)
+			throw new IllegalArgumentException(
+					"The set cannot grow beyond the capacity: "
+							+ LinearProbing.MAXIMUM_CAPACITY);
+		resize(oldCapacity << 1);
+	}
+
+	/**
+	 * Decreasing the capacity of the table, or releasing the table if at most
+	 * one element is left
+	 */
+	private void shrink() {
+		if (size_ > 1) {
+			int oldCapacity = data_.length;
+			if (oldCapacity > INITIAL_TABLE_CAPACITY)
+				resize(oldCapacity >> 1);
+			return;
+		}
+		// else move the remaining element, if any, to the field
+		for (E e : data_) {
+			if (e != null) {
+				element_ = e;
+				break;
+			}
+		}
+		data_ = null;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (o == null)
+			throw new NullPointerException();
+		if (data_ != null)
+			return LinearProbing.contains(data_, o);
+		// else
+		return size_ == 1 && o.equals(element_);
+	}
+
+	@Override
+	public boolean add(E e) {
+		if (e == null)
+			throw new NullPointerException();
+		if (data_ != null) {
+			boolean added = LinearProbing.add(data_, e);
+			if (added && ++size_ == LinearProbing.getUpperSize(data_.length))
+				enlarge();
+			return added;
+		}
+		// else
+		if (size_ == 0) {
+			element_ = e;
+			size_ = 1;
+			return true;
+		}
+		// else
+		if (e.equals(element_))
+			return false;
+		// else allocate the table for both elements
+		@SuppressWarnings("unchecked")
+		E[] data = (E[]) new Object[INITIAL_TABLE_CAPACITY];
+		LinearProbing.add(data, element_);
+		LinearProbing.add(data, e);
+		this.data_ = data;
+		this.element_ = null;
+		size_ = 2;
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (o == null)
+			throw new NullPointerException();
+		if (data_ != null) {
+			boolean removed = LinearProbing.remove(data_, o);
+			if (removed && (--size_ <= 1
+					|| size_ == LinearProbing.getLowerSize(data_.length)))
+				shrink();
+			return removed;
+		}
+		// else
+		if (size_ == 1 && o.equals(element_)) {
+			element_ = null;
+			size_ = 0;
+			return true;
+		}
+		// else
+		return false;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		if (data_ != null)
+			return new TableIterator();
+		// else
+		return new ElementIterator();
+	}
+
+	@Override
+	public void clear() {
+		element_ = null;
+		data_ = null;
+		size_ = 0;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	/**
+	 * Iterates over the element stored in the field of this set
+	 */
+	private class ElementIterator implements Iterator<E> {
+
+		// the element to be returned, or null if there is no such element
+		private E next_;
+
+		// the element that was returned last, or null if it was removed
+		private E current_;
+
+		ElementIterator() {
+			this.next_ = element_;
+			this.current_ = null;
+		}
+
+		private void checkModification(E expected) {
+			if (data_ != null || element_ != expected)
+				throw new ConcurrentModificationException();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next_ != null;
+		}
+
+		@Override
+		public E next() {
+			if (next_ == null)
+				throw new NoSuchElementException();
+			checkModification(next_);
+			current_ = next_;
+			next_ = null;
+			return current_;
+		}
+
+		@Override
+		public void remove() {
+			if (current_ == null)
+				throw new IllegalStateException();
+			checkModification(current_);
+			element_ = null;
+			size_ = 0;
+			current_ = null;
+		}
+
+	}
+
+	/**
+	 * Iterates over the elements stored in the table of this set; the table
+	 * is not released when elements are removed using this iterator
+	 */
+	private class TableIterator extends LinearProbingIterator<E, E> {
+
+		TableIterator() {
+			super(data_, size_);
+			init();
+		}
+
+		@Override
+		void checkSize(int expectedSize) {
+			if (expectedSize != size_ || dataSnapshot != data_)
+				throw new ConcurrentModificationException();
+		}
+
+		@Override
+		void remove(int pos) {
+			LinearProbing.remove(dataSnapshot, pos);
+			size_--;
+		}
+
+		@Override
+		E getValue(E element, int pos) {
+			return element;
+		}
+	}
+
+}
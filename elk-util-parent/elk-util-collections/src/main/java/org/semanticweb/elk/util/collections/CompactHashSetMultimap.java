@@ -0,0 +1,343 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * A {@link Multimap} optimized for storing few keys with few values for each
+ * key. The keys are stored in a table with linear probing, like in
+ * {@link ArrayHashMap}, which starts small and is expanded only when needed. A
+ * single value for a key is stored in the table of values directly; a set of
+ * values is allocated only when the second value for this key is added. Unlike
+ * {@link HashSetMultimap}, this avoids creating a separate set for every key,
+ * which for most keys contains just one value.
+ * 
+ * @param <K>
+ *            the type of the keys of this multimap
+ * @param <V>
+ *            the type of the values of this multimap
+ */
+public class CompactHashSetMultimap<K, V> implements Multimap<K, V> {
+
+	/**
+	 * The default initial capacity of the table for keys - MUST be a power of
+	 * two.
+	 */
+	static final int DEFAULT_INITIAL_CAPACITY = 2;
+
+	/**
+	 * The table for the keys; the length MUST always be a power of two.
+	 */
+	private K[] keys_;
+
+	/**
+	 * The table for the values of the keys at the corresponding positions;
+	 * every element is either a value or {@link ValueSet} containing at least
+	 * two values
+	 */
+	private Object[] values_;
+
+	/**
+	 * The number of keys contained in this multimap.
+	 */
+	private int size_;
+
+	public CompactHashSetMultimap(int initialCapacity) {
+		allocate(LinearProbing.getInitialCapacity(initialCapacity));
+	}
+
+	public CompactHashSetMultimap() {
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void allocate(int capacity) {
+		this.keys_ = (K[]) new Object[capacity];
+		this.values_ = new Object[capacity];
+		this.size_ = 0;
+	}
+
+	private void resize(int newCapacity) {
+		K[] oldKeys = keys_;
+		Object[] oldValues = values_;
+		@SuppressWarnings("unchecked")
+		K[] newKeys = (K[]) new Object[newCapacity];
+		Object[] newValues = new Object[newCapacity];
+		for (int i = 0; i < oldKeys.length; i++) {
+			K key = oldKeys[i];
+			if (key == null)
+				continue;
+			// else
+			int pos = LinearProbing.getPosition(newKeys, key);
+			newKeys[pos] = key;
+			newValues[pos] = oldValues[i];
+		}
+		this.keys_ = newKeys;
+		this.values_ = newValues;
+	}
+
+	/**
+	 * Increasing the capacity of the tables
+	 */
+	private void enlarge() {
+		int oldCapacity = keys_.length;
+		if (oldCapacity == LinearProbing.MAXIMUM_CAPACITY)
+			throw new IllegalArgumentException(
+					"Multimap cannot grow beyond capacity: "
+							+ LinearProbing.MAXIMUM_CAPACITY);
+		resize(oldCapacity << 1);
+	}
+
+	/**
+	 * Decreasing the capacity of the tables
+	 */
+	private void shrink() {
+		int oldCapacity = keys_.length;
+		if (oldCapacity <= DEFAULT_INITIAL_CAPACITY)
+			return;
+		resize(oldCapacity >> 1);
+	}
+
+	private void removeKey(int pos) {
+		LinearProbing.remove(keys_, values_, pos);
+		if (--size_ == LinearProbing.getLowerSize(keys_.length))
+			shrink();
+	}
+
+	/**
+	 * @param record
+	 *            an element of {@link #values_}
+	 * @return the collection of values represented by this element
+	 */
+	@SuppressWarnings("unchecked")
+	private static <V> Collection<V> getValues(Object record) {
+		if (record instanceof ValueSet)
+			return (ValueSet<V>) record;
+		// else
+		return Collections.singleton((V) record);
+	}
+
+	@Override
+	public boolean contains(K key, V value) {
+		if (key == null || value == null)
+			throw new NullPointerException();
+		int pos = LinearProbing.getPosition(keys_, key);
+		if (keys_[pos] == null)
+			return false;
+		// else
+		Object record = values_[pos];
+		if (record instanceof ValueSet)
+			return ((ValueSet<?>) record).contains(value);
+		// else
+		return record.equals(value);
+	}
+
+	@Override
+	public boolean add(K key, V value) {
+		if (key == null || value == null)
+			throw new NullPointerException();
+		int pos = LinearProbing.getPosition(keys_, key);
+		if (keys_[pos] == null) {
+			keys_[pos] = key;
+			values_[pos] = value;
+			if (++size_ == LinearProbing.getUpperSize(keys_.length))
+				enlarge();
+			return true;
+		}
+		// else
+		Object record = values_[pos];
+		if (record instanceof ValueSet) {
+			@SuppressWarnings("unchecked")
+			ValueSet<V> values = (ValueSet<V>) record;
+			return values.add(value);
+		}
+		// else
+		if (record.equals(value))
+			return false;
+		// else create the set for both values
+		ValueSet<V> values = new ValueSet<V>();
+		@SuppressWarnings("unchecked")
+		V previous = (V) record;
+		values.add(previous);
+		values.add(value);
+		values_[pos] = values;
+		return true;
+	}
+
+	@Override
+	public Collection<V> get(K key) {
+		int pos = LinearProbing.getPosition(keys_, key);
+		if (keys_[pos] == null)
+			return Collections.emptyList();
+		// else
+		return getValues(values_[pos]);
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		if (key == null || value == null)
+			throw new NullPointerException();
+		int pos = LinearProbing.getPosition(keys_, key);
+		if (keys_[pos] == null)
+			return false;
+		// else
+		Object record = values_[pos];
+		if (record instanceof ValueSet) {
+			ValueSet<?> values = (ValueSet<?>) record;
+			if (!values.remove(value))
+				return false;
+			// else
+			if (values.size() == 1)
+				// store the remaining value directly
+				values_[pos] = values.iterator().next();
+			return true;
+		}
+		// else
+		if (!record.equals(value))
+			return false;
+		// else
+		removeKey(pos);
+		return true;
+	}
+
+	@Override
+	public Collection<V> remove(Object key) {
+		if (key == null)
+			throw new NullPointerException();
+		int pos = LinearProbing.getPosition(keys_, key);
+		if (keys_[pos] == null)
+			return null;
+		// else
+		Collection<V> result = getValues(values_[pos]);
+		removeKey(pos);
+		return result;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size_ == 0;
+	}
+
+	@Override
+	public Set<K> keySet() {
+		return new KeySet();
+	}
+
+	@Override
+	public void clear() {
+		allocate(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("{");
+		boolean first = true;
+		for (int i = 0; i < keys_.length; i++) {
+			K key = keys_[i];
+			if (key == null)
+				continue;
+			// else
+			if (!first)
+				result.append(", ");
+			first = false;
+			result.append(key).append('=').append(getValues(values_[i]));
+		}
+		return result.append('}').toString();
+	}
+
+	/**
+	 * The set of values associated with a key; used only if there are at least
+	 * two such values
+	 * 
+	 * @param <V>
+	 *            the type of the values
+	 */
+	private static class ValueSet<V> extends ArrayHashSet<V> {
+
+		ValueSet() {
+			super(CompactArrayHashSet.INITIAL_TABLE_CAPACITY);
+		}
+
+	}
+
+	private class KeyIterator extends LinearProbingIterator<K, K> {
+
+		KeyIterator() {
+			super(keys_, size_);
+			init();
+		}
+
+		@Override
+		void checkSize(int expectedSize) {
+			if (expectedSize != size_ || dataSnapshot != keys_)
+				throw new ConcurrentModificationException();
+		}
+
+		@Override
+		void remove(int pos) {
+			LinearProbing.remove(dataSnapshot, values_, pos);
+			size_--;
+		}
+
+		@Override
+		K getValue(K element, int pos) {
+			return element;
+		}
+
+	}
+
+	private final class KeySet extends AbstractSet<K> {
+
+		@Override
+		public Iterator<K> iterator() {
+			return new KeyIterator();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return keys_[LinearProbing.getPosition(keys_, o)] != null;
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			return CompactHashSetMultimap.this.remove(o) != null;
+		}
+
+		@Override
+		public int size() {
+			return size_;
+		}
+
+		@Override
+		public void clear() {
+			CompactHashSetMultimap.this.clear();
+		}
+
+	}
+
+}
@@ -0,0 +1,159 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+/**
+ * A probabilistic estimate of how often elements have been recently seen. The
+ * frequencies are kept in a count-min sketch of 4-bit counters, i.e., the
+ * estimated frequency of an element is the minimum of four counters
+ * determined by different hashes of the element, and is never smaller than
+ * the number of times the element was seen (up to the maximal value of
+ * {@value #MAX_FREQUENCY}). To give preference to the recent history, all
+ * counters are halved after a number of increments proportional to the
+ * capacity of the sketch.
+ * <p>
+ * This implementation is <strong>not</strong> thread safe.
+ * 
+ * @param <E>
+ *            the type of elements whose frequencies are estimated
+ */
+public class FrequencySketch<E> {
+
+	/**
+	 * the maximal frequency that can be estimated
+	 */
+	public static final int MAX_FREQUENCY = 15;
+
+	/**
+	 * the multipliers for computing the four hashes of elements
+	 */
+	private static final int[] SEEDS_ = { 0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35,
+			0x27D4EB2F };
+
+	/**
+	 * the counters, sixteen 4-bit counters per {@code long}; the length MUST
+	 * always be a power of two
+	 */
+	private final long[] table_;
+
+	/**
+	 * the number of increments after which the counters are halved
+	 */
+	private final int sampleSize_;
+
+	/**
+	 * the number of increments since the counters were halved the last time
+	 */
+	private int incrementCount_ = 0;
+
+	/**
+	 * Creates a new {@link FrequencySketch} suitable for estimating
+	 * frequencies of about the given number of distinct elements
+	 * 
+	 * @param capacity
+	 */
+	public FrequencySketch(int capacity) {
+		int length = 1;
+		while (length < capacity && length < (1 << 30)) {
+			length <<= 1;
+		}
+		this.table_ = new long[length];
+		this.sampleSize_ = 10 * Math.max(capacity, 1);
+	}
+
+	/**
+	 * @param element
+	 * @return the estimated number of times the given element was seen,
+	 *         between {@code 0} and {@value #MAX_FREQUENCY}
+	 */
+	public int getFrequency(E element) {
+		int hash = spread(element.hashCode());
+		int result = MAX_FREQUENCY;
+		for (int i = 0; i < SEEDS_.length; i++) {
+			int counter = (int) (table_[getIndex(hash, i)] >>> getShift(hash,
+					i)) & MAX_FREQUENCY;
+			if (counter < result) {
+				result = counter;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Records that the given element was seen once more
+	 * 
+	 * @param element
+	 */
+	public void increment(E element) {
+		int hash = spread(element.hashCode());
+		boolean incremented = false;
+		for (int i = 0; i < SEEDS_.length; i++) {
+			int index = getIndex(hash, i);
+			int shift = getShift(hash, i);
+			if (((table_[index] >>> shift) & MAX_FREQUENCY) < MAX_FREQUENCY) {
+				table_[index] += 1L << shift;
+				incremented = true;
+			}
+		}
+		if (incremented && ++incrementCount_ >= sampleSize_) {
+			age();
+		}
+	}
+
+	/**
+	 * Halves all counters
+	 */
+	void age() {
+		for (int i = 0; i < table_.length; i++) {
+			table_[i] = (table_[i] >>> 1) & 0x7777777777777777L;
+		}
+		incrementCount_ >>>= 1;
+	}
+
+	public void clear() {
+		for (int i = 0; i < table_.length; i++) {
+			table_[i] = 0;
+		}
+		incrementCount_ = 0;
+	}
+
+	private static int spread(int hash) {
+		hash ^= hash >>> 16;
+		hash *= 0x45D9F3B;
+		return hash ^ (hash >>> 16);
+	}
+
+	private int getIndex(int hash, int i) {
+		int h = hash * SEEDS_[i];
+		return (h ^ (h >>> 15)) & (table_.length - 1);
+	}
+
+	/**
+	 * @return the position of the first bit of the counter within the
+	 *         {@code long}; every hash uses different 4 bits of the given hash
+	 *         to choose one of 16 counters
+	 */
+	private static int getShift(int hash, int i) {
+		return ((hash >>> (i << 2)) & 15) << 2;
+	}
+
+}
@@ -0,0 +1,261 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * A growable storage of {@code int} values shared by many small tables, e.g.,
+ * by many {@link IntArenaHashSet}s. The values are kept in large chunks, which
+ * are allocated only when needed, either on the heap or, optionally, outside
+ * of the heap using direct buffers. Tables are represented by slices of
+ * chunks, whose length is a power of two; a slice is identified by a
+ * {@code long} value that encodes the chunk and the offset of the slice in
+ * this chunk. Slices that are no longer used can be freed and reused for
+ * tables of the same length.
+ * <p>
+ * Compared to storing every table in its own array, this saves the header of
+ * the array for every table and reduces the number of objects the garbage
+ * collector needs to trace. Slices can be allocated and freed concurrently;
+ * the values of a slice can be concurrently accessed only if they are not
+ * modified.
+ */
+public class IntArena {
+
+	/**
+	 * The default length of chunks - MUST be a power of two.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+	/**
+	 * the number of different lengths of slices, which are powers of two
+	 */
+	private static final int SIZE_CLASS_COUNT_ = 31;
+
+	/**
+	 * {@code true} if the chunks are allocated outside of the heap
+	 */
+	private final boolean direct_;
+
+	/**
+	 * the length of the chunks from which slices are allocated; longer slices
+	 * are allocated in chunks of their own
+	 */
+	private final int chunkSize_;
+
+	/**
+	 * the chunks allocated so far, the array may have unused elements at the
+	 * end
+	 */
+	private volatile IntBuffer[] chunks_;
+
+	/**
+	 * the number of chunks allocated so far
+	 */
+	private int chunkCount_ = 0;
+
+	/**
+	 * the chunk from which the next slices are allocated, or {@code -1} if no
+	 * such chunk was allocated yet
+	 */
+	private int currentChunk_ = -1;
+
+	/**
+	 * the offset in {@link #currentChunk_} of the next allocated slice
+	 */
+	private int currentOffset_ = 0;
+
+	/**
+	 * the freed slices indexed by the binary logarithm of their lengths
+	 */
+	private final long[][] freeSlices_ = new long[SIZE_CLASS_COUNT_][];
+
+	/**
+	 * the number of freed slices in the corresponding element of
+	 * {@link #freeSlices_}
+	 */
+	private final int[] freeSliceCounts_ = new int[SIZE_CLASS_COUNT_];
+
+	/**
+	 * the total number of {@code int} values in the allocated chunks
+	 */
+	private long capacity_ = 0;
+
+	/**
+	 * @param chunkSize
+	 *            the length of chunks from which slices are allocated; it will
+	 *            be rounded up to a power of two
+	 * @param direct
+	 *            if {@code true}, the chunks are allocated outside of the
+	 *            heap
+	 */
+	public IntArena(int chunkSize, boolean direct) {
+		this.chunkSize_ = LinearProbing.getInitialCapacity(chunkSize);
+		this.direct_ = direct;
+		this.chunks_ = new IntBuffer[16];
+	}
+
+	/**
+	 * @param direct
+	 *            if {@code true}, the chunks are allocated outside of the
+	 *            heap
+	 */
+	public IntArena(boolean direct) {
+		this(DEFAULT_CHUNK_SIZE, direct);
+	}
+
+	public IntArena() {
+		this(false);
+	}
+
+	/**
+	 * @return {@code true} if the values are stored outside of the heap
+	 */
+	public boolean isDirect() {
+		return direct_;
+	}
+
+	/**
+	 * @return the total number of {@code int} values in the chunks allocated
+	 *         by this {@link IntArena}
+	 */
+	public synchronized long getCapacity() {
+		return capacity_;
+	}
+
+	/**
+	 * Allocates a slice of the given length with all values set to {@code 0}
+	 * 
+	 * @param length
+	 *            the length of the slice; MUST be a power of two
+	 * @return the identifier of the allocated slice
+	 * @see #getChunk(long)
+	 * @see #getOffset(long)
+	 */
+	public synchronized long allocate(int length) {
+		if (length <= 0 || (length & (length - 1)) != 0)
+			throw new IllegalArgumentException(
+					"The length must be a power of two: " + length);
+		int sizeClass = Integer.numberOfTrailingZeros(length);
+		int freeCount = freeSliceCounts_[sizeClass];
+		if (freeCount > 0) {
+			freeSliceCounts_[sizeClass] = --freeCount;
+			return freeSlices_[sizeClass][freeCount];
+		}
+		// else
+		if (length >= chunkSize_)
+			// the slice occupies a chunk of its own
+			return getSlice(addChunk(length), 0);
+		// else
+		if (currentChunk_ < 0 || currentOffset_ + length > chunkSize_) {
+			// the rest of the current chunk is not used since all slices are
+			// powers of two and allocated in the order of their offsets
+			currentChunk_ = addChunk(chunkSize_);
+			currentOffset_ = 0;
+		}
+		long result = getSlice(currentChunk_, currentOffset_);
+		currentOffset_ += length;
+		return result;
+	}
+
+	/**
+	 * Makes the given slice available for future allocations; the slice
+	 * should not be used after this operation
+	 * 
+	 * @param slice
+	 *            the identifier of the slice returned by
+	 *            {@link #allocate(int)}
+	 * @param length
+	 *            the length of the slice with which it was allocated
+	 */
+	public void free(long slice, int length) {
+		IntBuffer chunk = getChunk(slice);
+		int offset = getOffset(slice);
+		// the slices must be filled with 0 when they are allocated
+		for (int i = 0; i < length; i++) {
+			chunk.put(offset + i, 0);
+		}
+		int sizeClass = Integer.numberOfTrailingZeros(length);
+		synchronized (this) {
+			long[] free = freeSlices_[sizeClass];
+			int freeCount = freeSliceCounts_[sizeClass];
+			if (free == null)
+				freeSlices_[sizeClass] = free = new long[16];
+			else if (freeCount == free.length)
+				freeSlices_[sizeClass] = free = Arrays.copyOf(free,
+						freeCount << 1);
+			free[freeCount] = slice;
+			freeSliceCounts_[sizeClass] = freeCount + 1;
+		}
+	}
+
+	/**
+	 * @param slice
+	 *            the identifier of the slice returned by
+	 *            {@link #allocate(int)}
+	 * @return the {@link IntBuffer} in which the values of the given slice are
+	 *         stored starting from {@link #getOffset(long)}
+	 */
+	public IntBuffer getChunk(long slice) {
+		return chunks_[(int) (slice >>> 32)];
+	}
+
+	/**
+	 * @param slice
+	 *            the identifier of the slice returned by
+	 *            {@link #allocate(int)}
+	 * @return the position of the first value of the given slice in
+	 *         {@link #getChunk(long)}
+	 */
+	public static int getOffset(long slice) {
+		return (int) slice;
+	}
+
+	private static long getSlice(int chunk, int offset) {
+		return ((long) chunk << 32) | offset;
+	}
+
+	/**
+	 * Allocates a new chunk of the given length
+	 * 
+	 * @param length
+	 * @return the index of the new chunk
+	 */
+	private int addChunk(int length) {
+		IntBuffer chunk = direct_
+				? ByteBuffer.allocateDirect(length << 2)
+						.order(ByteOrder.nativeOrder()).asIntBuffer()
+				: IntBuffer.allocate(length);
+		IntBuffer[] chunks = chunks_;
+		if (chunkCount_ == chunks.length)
+			chunks = Arrays.copyOf(chunks, chunkCount_ << 1);
+		chunks[chunkCount_] = chunk;
+		// publish the new chunk
+		chunks_ = chunks;
+		capacity_ += length;
+		return chunkCount_++;
+	}
+
+}
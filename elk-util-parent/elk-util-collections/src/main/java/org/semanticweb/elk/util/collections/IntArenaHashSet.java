@@ -0,0 +1,278 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.nio.IntBuffer;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link IntSet} that, like {@link IntArrayHashSet}, uses a table with
+ * linear probing for resolving hash collisions, but allocates this table in a
+ * slice of an {@link IntArena} shared with other sets. No table is allocated
+ * while the set is empty; when the table is resized or the set is cleared, the
+ * previous slice is returned to the {@link IntArena}.
+ */
+public class IntArenaHashSet implements IntSet {
+
+	/**
+	 * The length of the table allocated for the first element - MUST be a
+	 * power of two.
+	 */
+	static final int INITIAL_CAPACITY = 4;
+
+	private final IntArena arena_;
+
+	/**
+	 * the chunk of {@link #arena_} containing the table, or {@code null} if
+	 * the table is not allocated
+	 */
+	private IntBuffer chunk_ = null;
+
+	/**
+	 * the identifier of the slice of {@link #arena_} containing the table
+	 */
+	private long slice_;
+
+	/**
+	 * the position of the table in {@link #chunk_}
+	 */
+	private int offset_;
+
+	/**
+	 * the length of the table; MUST always be a power of two or {@code 0}
+	 */
+	private int capacity_ = 0;
+
+	/**
+	 * The number of elements contained in this set.
+	 */
+	private int size_ = 0;
+
+	public IntArenaHashSet(IntArena arena) {
+		this.arena_ = arena;
+	}
+
+	@Override
+	public int size() {
+		return size_;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size_ == 0;
+	}
+
+	/**
+	 * @return the position of the given key in the table or the position of
+	 *         the empty slot where the search for the key has stopped
+	 */
+	private static int getPosition(IntBuffer chunk, int offset, int capacity,
+			int key) {
+		int i = IntArrayHashSet.getIndex(key, capacity);
+		for (;;) {
+			int probe = chunk.get(offset + i);
+			if (probe == 0 || probe == key)
+				return i;
+			if (++i == capacity)
+				i = 0;
+		}
+	}
+
+	@Override
+	public boolean contains(int element) {
+		int key = IntArrayHashSet.getKey(element);
+		if (size_ == 0)
+			return false;
+		// else
+		return chunk_.get(offset_
+				+ getPosition(chunk_, offset_, capacity_, key)) == key;
+	}
+
+	@Override
+	public boolean add(int element) {
+		int key = IntArrayHashSet.getKey(element);
+		if (chunk_ == null)
+			resize(INITIAL_CAPACITY);
+		int pos = offset_ + getPosition(chunk_, offset_, capacity_, key);
+		if (chunk_.get(pos) == key)
+			return false;
+		// else
+		chunk_.put(pos, key);
+		if (++size_ == LinearProbing.getUpperSize(capacity_))
+			resize(capacity_ << 1);
+		return true;
+	}
+
+	@Override
+	public boolean remove(int element) {
+		int key = IntArrayHashSet.getKey(element);
+		if (size_ == 0)
+			return false;
+		// else
+		int pos = getPosition(chunk_, offset_, capacity_, key);
+		if (chunk_.get(offset_ + pos) != key)
+			return false;
+		// else
+		removeAt(pos);
+		if (--size_ == 0)
+			clear();
+		else if (size_ == LinearProbing.getLowerSize(capacity_)
+				&& capacity_ > INITIAL_CAPACITY)
+			resize(capacity_ >> 1);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		if (chunk_ != null) {
+			arena_.free(slice_, capacity_);
+			chunk_ = null;
+			capacity_ = 0;
+		}
+		size_ = 0;
+	}
+
+	@Override
+	public IntIterator iterator() {
+		return new ElementIterator();
+	}
+
+	private void resize(int newCapacity) {
+		if (newCapacity > LinearProbing.MAXIMUM_CAPACITY)
+			throw new IllegalArgumentException(
+					"The set cannot grow beyond the capacity: "
+							+ LinearProbing.MAXIMUM_CAPACITY);
+		long newSlice = arena_.allocate(newCapacity);
+		IntBuffer newChunk = arena_.getChunk(newSlice);
+		int newOffset = IntArena.getOffset(newSlice);
+		if (chunk_ != null) {
+			for (int i = 0; i < capacity_; i++) {
+				int key = chunk_.get(offset_ + i);
+				if (key != 0)
+					newChunk.put(newOffset + getPosition(newChunk, newOffset,
+							newCapacity, key), key);
+			}
+			arena_.free(slice_, capacity_);
+		}
+		this.chunk_ = newChunk;
+		this.slice_ = newSlice;
+		this.offset_ = newOffset;
+		this.capacity_ = newCapacity;
+	}
+
+	/**
+	 * Removes the key at the given position of the table shifting, if
+	 * necessary, other keys so that all keys can be found by linear probing.
+	 * 
+	 * @see LinearProbing#remove(Object[], int)
+	 */
+	private void removeAt(int pos) {
+		for (;;) {
+			int next = getMovedPosition(pos);
+			int moved = chunk_.get(offset_ + next);
+			chunk_.put(offset_ + pos, moved);
+			if (moved == 0)
+				return;
+			// else
+			pos = next;
+		}
+	}
+
+	/**
+	 * @see LinearProbing#getMovedPosition(Object[], int)
+	 */
+	private int getMovedPosition(int del) {
+		int j = del;
+		for (;;) {
+			if (++j == capacity_)
+				j = 0;
+			int test = chunk_.get(offset_ + j);
+			if (test == 0)
+				return j;
+			int k = IntArrayHashSet.getIndex(test, capacity_);
+			// check if k is in ]del, j] (this interval can wrap over)
+			if ((del < j) ? (del < k) && (k <= j) : (del < k) || (k <= j))
+				// the test element should not be shifted
+				continue;
+			// else it should be shifted
+			return j;
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("[");
+		IntIterator iterator = iterator();
+		while (iterator.hasNext()) {
+			result.append(iterator.next());
+			if (iterator.hasNext())
+				result.append(", ");
+		}
+		return result.append(']').toString();
+	}
+
+	private class ElementIterator implements IntIterator {
+
+		private final IntBuffer chunkSnapshot_ = chunk_;
+
+		private final int offsetSnapshot_ = offset_;
+
+		private final int capacitySnapshot_ = capacity_;
+
+		private final int expectedSize_ = size_;
+
+		/**
+		 * the position of the next element
+		 */
+		private int cursor_ = 0;
+
+		ElementIterator() {
+			seekNext();
+		}
+
+		private void seekNext() {
+			while (cursor_ < capacitySnapshot_
+					&& chunkSnapshot_.get(offsetSnapshot_ + cursor_) == 0)
+				cursor_++;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return cursor_ < capacitySnapshot_;
+		}
+
+		@Override
+		public int next() {
+			if (expectedSize_ != size_ || chunkSnapshot_ != chunk_
+					|| offsetSnapshot_ != offset_)
+				throw new ConcurrentModificationException();
+			if (!hasNext())
+				throw new NoSuchElementException();
+			int result = chunkSnapshot_.get(offsetSnapshot_ + cursor_++) - 1;
+			seekNext();
+			return result;
+		}
+
+	}
+
+}
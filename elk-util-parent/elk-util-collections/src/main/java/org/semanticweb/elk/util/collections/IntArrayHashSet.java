@@ -0,0 +1,275 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of non-negative {@code int} values using an array and linear probing
+ * for resolving hash collisions, similarly to {@link ArrayHashSet}. The
+ * elements are stored in the array directly, without boxing, so this set
+ * requires 4 bytes for each slot of the table regardless of the size of object
+ * references.
+ */
+public class IntArrayHashSet implements IntSet {
+
+	/**
+	 * The table for the elements shifted by one so that {@code 0} represents
+	 * an empty slot; the length MUST always be a power of two.
+	 */
+	private int[] data_;
+
+	/**
+	 * The number of elements contained in this set.
+	 */
+	private int size_;
+
+	public IntArrayHashSet(int initialCapacity) {
+		this.data_ = new int[LinearProbing.getInitialCapacity(initialCapacity)];
+		this.size_ = 0;
+	}
+
+	public IntArrayHashSet() {
+		this(LinearProbing.DEFAULT_INITIAL_CAPACITY);
+	}
+
+	@Override
+	public int size() {
+		return size_;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size_ == 0;
+	}
+
+	/**
+	 * Computes the position from which the element with the given key should
+	 * be searched in the table of the given length
+	 */
+	static int getIndex(int key, int length) {
+		// spreading the keys since they are usually consecutive numbers
+		int h = key * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & (length - 1);
+	}
+
+	/**
+	 * @return the position of the given key in the given table or the position
+	 *         of the empty slot where the search for the key has stopped
+	 */
+	private static int getPosition(int[] d, int key) {
+		int i = getIndex(key, d.length);
+		for (;;) {
+			int probe = d[i];
+			if (probe == 0 || probe == key)
+				return i;
+			if (++i == d.length)
+				i = 0;
+		}
+	}
+
+	static int getKey(int element) {
+		if (element < 0)
+			throw new IllegalArgumentException(
+					"Elements cannot be negative: " + element);
+		return element + 1;
+	}
+
+	/**
+	 * @param element
+	 *            a non-negative value
+	 * @return {@code true} if this set contains the given element
+	 */
+	@Override
+	public boolean contains(int element) {
+		int key = getKey(element);
+		return data_[getPosition(data_, key)] == key;
+	}
+
+	/**
+	 * Adds the given element to this set
+	 * 
+	 * @param element
+	 *            a non-negative value
+	 * @return {@code true} if this set did not already contain the element
+	 */
+	@Override
+	public boolean add(int element) {
+		int key = getKey(element);
+		int pos = getPosition(data_, key);
+		if (data_[pos] == key)
+			return false;
+		// else
+		data_[pos] = key;
+		if (++size_ == LinearProbing.getUpperSize(data_.length))
+			resize(data_.length << 1);
+		return true;
+	}
+
+	/**
+	 * Removes the given element from this set
+	 * 
+	 * @param element
+	 *            a non-negative value
+	 * @return {@code true} if this set contained the element
+	 */
+	@Override
+	public boolean remove(int element) {
+		int key = getKey(element);
+		int pos = getPosition(data_, key);
+		if (data_[pos] != key)
+			return false;
+		// else
+		remove(data_, pos);
+		if (--size_ == LinearProbing.getLowerSize(data_.length)
+				&& data_.length > 1)
+			resize(data_.length >> 1);
+		return true;
+	}
+
+	/**
+	 * Removes all elements from this set
+	 */
+	@Override
+	public void clear() {
+		int capacity = data_.length >> 2;
+		if (capacity == 0)
+			capacity = 1;
+		size_ = 0;
+		this.data_ = new int[capacity];
+	}
+
+	/**
+	 * @return a new {@link IntIterator} over the elements of this set; the set
+	 *         should not be modified during the iteration
+	 */
+	@Override
+	public IntIterator iterator() {
+		return new ElementIterator();
+	}
+
+	private void resize(int newCapacity) {
+		if (newCapacity > LinearProbing.MAXIMUM_CAPACITY)
+			throw new IllegalArgumentException(
+					"The set cannot grow beyond the capacity: "
+							+ LinearProbing.MAXIMUM_CAPACITY);
+		int[] oldData = data_;
+		int[] newData = new int[newCapacity];
+		for (int i = 0; i < oldData.length; i++) {
+			int key = oldData[i];
+			if (key != 0)
+				newData[getPosition(newData, key)] = key;
+		}
+		this.data_ = newData;
+	}
+
+	/**
+	 * Removes the key at the given position of the table shifting, if
+	 * necessary, other keys so that all keys can be found by linear probing.
+	 * 
+	 * @see LinearProbing#remove(Object[], int)
+	 */
+	private static void remove(int[] d, int pos) {
+		for (;;) {
+			int next = getMovedPosition(d, pos);
+			int moved = d[pos] = d[next];
+			if (moved == 0)
+				return;
+			// else
+			pos = next;
+		}
+	}
+
+	/**
+	 * @see LinearProbing#getMovedPosition(Object[], int)
+	 */
+	private static int getMovedPosition(int[] d, int del) {
+		int j = del;
+		for (;;) {
+			if (++j == d.length)
+				j = 0;
+			int test = d[j];
+			if (test == 0)
+				return j;
+			int k = getIndex(test, d.length);
+			// check if k is in ]del, j] (this interval can wrap over)
+			if ((del < j) ? (del < k) && (k <= j) : (del < k) || (k <= j))
+				// the test element should not be shifted
+				continue;
+			// else it should be shifted
+			return j;
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("[");
+		IntIterator iterator = iterator();
+		while (iterator.hasNext()) {
+			result.append(iterator.next());
+			if (iterator.hasNext())
+				result.append(", ");
+		}
+		return result.append(']').toString();
+	}
+
+	private class ElementIterator implements IntIterator {
+
+		private final int[] dataSnapshot_ = data_;
+
+		private final int expectedSize_ = size_;
+
+		/**
+		 * the position of the next element
+		 */
+		private int cursor_ = 0;
+
+		ElementIterator() {
+			seekNext();
+		}
+
+		private void seekNext() {
+			while (cursor_ < dataSnapshot_.length
+					&& dataSnapshot_[cursor_] == 0)
+				cursor_++;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return cursor_ < dataSnapshot_.length;
+		}
+
+		@Override
+		public int next() {
+			if (expectedSize_ != size_ || dataSnapshot_ != data_)
+				throw new ConcurrentModificationException();
+			if (!hasNext())
+				throw new NoSuchElementException();
+			int result = dataSnapshot_[cursor_++] - 1;
+			seekNext();
+			return result;
+		}
+
+	}
+
+}
@@ -0,0 +1,44 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.util.Iterator;
+
+/**
+ * An iterator over primitive {@code int} values, which, unlike
+ * {@link Iterator}, does not require boxing of the values
+ */
+public interface IntIterator {
+
+	/**
+	 * @return {@code true} if the iteration has more elements
+	 */
+	boolean hasNext();
+
+	/**
+	 * @return the next element in the iteration
+	 * @throws java.util.NoSuchElementException
+	 *             if the iteration has no more elements
+	 */
+	int next();
+
+}
@@ -0,0 +1,76 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+/**
+ * A set of non-negative {@code int} values that, unlike
+ * {@link java.util.Set}, does not require boxing of the values
+ */
+public interface IntSet {
+
+	/**
+	 * @return the number of elements in this set
+	 */
+	int size();
+
+	/**
+	 * @return {@code true} if this set contains no elements
+	 */
+	boolean isEmpty();
+
+	/**
+	 * @param element
+	 *            a non-negative value
+	 * @return {@code true} if this set contains the given element
+	 */
+	boolean contains(int element);
+
+	/**
+	 * Adds the given element to this set
+	 * 
+	 * @param element
+	 *            a non-negative value
+	 * @return {@code true} if this set did not already contain the element
+	 */
+	boolean add(int element);
+
+	/**
+	 * Removes the given element from this set
+	 * 
+	 * @param element
+	 *            a non-negative value
+	 * @return {@code true} if this set contained the element
+	 */
+	boolean remove(int element);
+
+	/**
+	 * Removes all elements from this set
+	 */
+	void clear();
+
+	/**
+	 * @return a new {@link IntIterator} over the elements of this set; the set
+	 *         should not be modified during the iteration
+	 */
+	IntIterator iterator();
+
+}
@@ -0,0 +1,352 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.util.Map;
+
+/**
+ * Keeps track of the elements stored in a bounded cache and decides which of
+ * them should be evicted when the cache exceeds its capacity. The decisions
+ * follow the W-TinyLFU policy: new elements enter a small admission window
+ * ordered by recency; the remaining elements are kept in the main space,
+ * which is split into a probation segment and a protected segment for
+ * elements accessed at least twice. When an element leaves the window while
+ * the cache is full, it is admitted into the main space only if it is
+ * estimated to be accessed more often than the element that would be evicted
+ * from the main space in its place; the frequencies of elements, including
+ * those that are no longer cached, are estimated using a
+ * {@link FrequencySketch}. This way, a burst of elements that are accessed
+ * only once cannot replace the elements that are accessed frequently.
+ * <p>
+ * The capacity of the cache is given by the maximal number of elements and,
+ * optionally, by the maximal total weight of elements, where the weight of
+ * every element can be set using {@link #setWeight(Object, long)}, e.g., to
+ * the estimated number of bytes used by the cached values.
+ * <p>
+ * This implementation is <strong>not</strong> thread safe.
+ * 
+ * @param <E>
+ *            the type of elements of the cache
+ */
+public class TinyLfuCachePolicy<E> {
+
+	private static final byte WINDOW_ = 0, PROBATION_ = 1, PROTECTED_ = 2;
+
+	/**
+	 * the maximal number of elements in the cache
+	 */
+	private final int maximumSize_;
+
+	/**
+	 * the maximal total weight of elements in the cache, or a non-positive
+	 * number if the weight is not bounded
+	 */
+	private final long maximumWeight_;
+
+	/**
+	 * the number of elements that are kept in the window
+	 */
+	private final int windowCapacity_;
+
+	/**
+	 * the maximal number of elements in the protected segment
+	 */
+	private final int protectedCapacity_;
+
+	private final RecencyQueue<E> windowQueue_ = new RecencyQueue<E>();
+
+	private final RecencyQueue<E> probationQueue_ = new RecencyQueue<E>();
+
+	private final RecencyQueue<E> protectedQueue_ = new RecencyQueue<E>();
+
+	/**
+	 * the segments and the weights of the elements in the cache
+	 */
+	private final Map<E, Entry> entries_ = new ArrayHashMap<E, Entry>();
+
+	private final FrequencySketch<E> sketch_;
+
+	/**
+	 * the total weight of the elements in the cache
+	 */
+	private long weight_ = 0;
+
+	private long hitCount_ = 0, missCount_ = 0, evictionCount_ = 0;
+
+	/**
+	 * @param maximumSize
+	 *            the maximal number of elements in the cache, must be
+	 *            positive
+	 * @param maximumWeight
+	 *            the maximal total weight of elements in the cache; if not
+	 *            positive, the weight is not bounded
+	 */
+	public TinyLfuCachePolicy(int maximumSize, long maximumWeight) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException(
+					"The maximal size must be positive: " + maximumSize);
+		}
+		this.maximumSize_ = maximumSize;
+		this.maximumWeight_ = maximumWeight;
+		this.windowCapacity_ = Math.max(1, maximumSize / 100);
+		this.protectedCapacity_ = (maximumSize - windowCapacity_) / 5 * 4;
+		this.sketch_ = new FrequencySketch<E>(maximumSize);
+	}
+
+	/**
+	 * Creates a policy for a cache whose weight is not bounded
+	 * 
+	 * @param maximumSize
+	 *            the maximal number of elements in the cache, must be
+	 *            positive
+	 */
+	public TinyLfuCachePolicy(int maximumSize) {
+		this(maximumSize, 0);
+	}
+
+	/**
+	 * Records an access to the given element; if the element is not in the
+	 * cache, it is added to the cache
+	 * 
+	 * @param element
+	 * @return {@code true} if the element was in the cache before the call
+	 *         (a hit) and {@code false} otherwise (a miss)
+	 */
+	public boolean access(E element) {
+		sketch_.increment(element);
+		Entry entry = entries_.get(element);
+		if (entry == null) {
+			missCount_++;
+			entries_.put(element, new Entry());
+			windowQueue_.offer(element);
+			return false;
+		}
+		// else
+		hitCount_++;
+		switch (entry.segment) {
+		case WINDOW_:
+			windowQueue_.offer(element);
+			break;
+		case PROBATION_:
+			probationQueue_.remove(element);
+			entry.segment = PROTECTED_;
+			protectedQueue_.offer(element);
+			if (protectedQueue_.size() > protectedCapacity_) {
+				moveToProbation(protectedQueue_.poll());
+			}
+			break;
+		default:
+			protectedQueue_.offer(element);
+		}
+		return true;
+	}
+
+	/**
+	 * @param element
+	 * @return {@code true} if the given element is in the cache
+	 */
+	public boolean contains(E element) {
+		return entries_.containsKey(element);
+	}
+
+	/**
+	 * Sets the weight of the given element if it is in the cache; the weight
+	 * of a newly added element is {@code 0}
+	 * 
+	 * @param element
+	 * @param weight
+	 *            a non-negative number
+	 */
+	public void setWeight(E element, long weight) {
+		Entry entry = entries_.get(element);
+		if (entry == null) {
+			return;
+		}
+		weight_ += weight - entry.weight;
+		entry.weight = weight;
+	}
+
+	/**
+	 * @return {@code true} if the number or the total weight of elements in
+	 *         the cache exceed the maximal values
+	 */
+	public boolean isOverCapacity() {
+		return entries_.size() > maximumSize_
+				|| (maximumWeight_ > 0 && weight_ > maximumWeight_);
+	}
+
+	/**
+	 * Removes from the cache the element that should be evicted according to
+	 * this policy among the elements satisfying the given {@link Condition}
+	 * 
+	 * @param evictable
+	 *            the {@link Condition} satisfied by the elements that can be
+	 *            evicted
+	 * @return the removed element or {@code null} if no element satisfies
+	 *         the {@link Condition}
+	 */
+	public E evict(Condition<? super E> evictable) {
+		// the main space is filled with the elements leaving the window
+		while (windowQueue_.size() > windowCapacity_
+				&& probationQueue_.size()
+						+ protectedQueue_.size() < maximumSize_
+								- windowCapacity_) {
+			moveToProbation(windowQueue_.poll());
+		}
+		E candidate = windowQueue_.size() > windowCapacity_
+				? findFirst(windowQueue_, evictable)
+				: null;
+		E victim = findFirst(probationQueue_, evictable);
+		if (victim == null) {
+			victim = findFirst(protectedQueue_, evictable);
+		}
+		E result;
+		if (candidate == null) {
+			result = victim == null ? findFirst(windowQueue_, evictable)
+					: victim;
+		} else if (victim == null) {
+			result = candidate;
+		} else if (sketch_.getFrequency(candidate) > sketch_
+				.getFrequency(victim)) {
+			// the candidate is admitted to the main space
+			windowQueue_.remove(candidate);
+			moveToProbation(candidate);
+			result = victim;
+		} else {
+			result = candidate;
+		}
+		if (result != null) {
+			remove(result);
+			evictionCount_++;
+		}
+		return result;
+	}
+
+	/**
+	 * Removes the given element from the cache; this is not counted as an
+	 * eviction
+	 * 
+	 * @param element
+	 * @return {@code true} if the element was in the cache
+	 */
+	public boolean remove(E element) {
+		Entry entry = entries_.remove(element);
+		if (entry == null) {
+			return false;
+		}
+		// else
+		weight_ -= entry.weight;
+		switch (entry.segment) {
+		case WINDOW_:
+			windowQueue_.remove(element);
+			break;
+		case PROBATION_:
+			probationQueue_.remove(element);
+			break;
+		default:
+			protectedQueue_.remove(element);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes all elements from the cache; the statistics and the frequency
+	 * estimates are not reset
+	 */
+	public void clear() {
+		entries_.clear();
+		windowQueue_.clear();
+		probationQueue_.clear();
+		protectedQueue_.clear();
+		weight_ = 0;
+	}
+
+	/**
+	 * @return the number of elements in the cache
+	 */
+	public int size() {
+		return entries_.size();
+	}
+
+	/**
+	 * @return the total weight of elements in the cache
+	 */
+	public long getWeight() {
+		return weight_;
+	}
+
+	public int getMaximumSize() {
+		return maximumSize_;
+	}
+
+	public long getMaximumWeight() {
+		return maximumWeight_;
+	}
+
+	/**
+	 * @return the number of calls of {@link #access(Object)} for elements
+	 *         that were in the cache
+	 */
+	public long getHitCount() {
+		return hitCount_;
+	}
+
+	/**
+	 * @return the number of calls of {@link #access(Object)} for elements
+	 *         that were not in the cache
+	 */
+	public long getMissCount() {
+		return missCount_;
+	}
+
+	/**
+	 * @return the number of elements removed by
+	 *         {@link #evict(Condition)}
+	 */
+	public long getEvictionCount() {
+		return evictionCount_;
+	}
+
+	private void moveToProbation(E element) {
+		entries_.get(element).segment = PROBATION_;
+		probationQueue_.offer(element);
+	}
+
+	private static <E> E findFirst(Iterable<E> elements,
+			Condition<? super E> condition) {
+		for (E element : elements) {
+			if (condition.holds(element)) {
+				return element;
+			}
+		}
+		return null;
+	}
+
+	private static class Entry {
+
+		byte segment = WINDOW_;
+
+		long weight = 0;
+
+	}
+
+}
@@ -0,0 +1,113 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class CompactArrayHashSetTest {
+
+	@Test
+	public void testAddRemoveContains() {
+		// random number generator for elements
+		Random generator = new Random(123);
+		// number of test iterations
+		final int noIterations = 45;
+		// number of elements to generate in each iteration; will vary
+		int noElements = 1;
+
+		boolean expected, actual;
+
+		for (int j = 0; j < noIterations; j++) {
+			// doubling the number of elements every 4 iteration
+			if ((j & 3) == 3)
+				noElements <<= 1;
+			// small sets are stored without tables
+			int range = noElements / 2 + 1;
+
+			Set<Integer> testSet = new CompactArrayHashSet<Integer>();
+			Set<Integer> referenceSet = new HashSet<Integer>(noElements);
+
+			// adding random elements
+			for (int i = 0; i < noElements; i++) {
+				int element = generator.nextInt(range);
+				expected = referenceSet.add(element);
+				assertEquals(expected, !testSet.contains(element));
+				actual = testSet.add(element);
+				assertEquals(expected, actual);
+				assertEquals(referenceSet.size(), testSet.size());
+			}
+			ArrayHashSetTest.testSetEquality(referenceSet, testSet);
+
+			// removing through iterator
+			Iterator<Integer> iterator = testSet.iterator();
+			while (iterator.hasNext()) {
+				Integer element = iterator.next();
+				assertTrue(referenceSet.contains(element));
+				if (generator.nextBoolean()) {
+					iterator.remove();
+					referenceSet.remove(element);
+					assertFalse(testSet.contains(element));
+					// the second removal attempt should fail
+					try {
+						iterator.remove();
+						fail();
+					} catch (IllegalStateException e) {
+						// this exception should always takes place
+					}
+				}
+			}
+			ArrayHashSetTest.testSetEquality(referenceSet, testSet);
+
+			// randomly adding and removing
+			for (int i = 0; i < 2 * noElements; i++) {
+				int element = generator.nextInt(range);
+				if (generator.nextBoolean()) {
+					expected = referenceSet.add(element);
+					assertEquals(expected, !testSet.contains(element));
+					actual = testSet.add(element);
+				} else {
+					expected = referenceSet.remove(element);
+					assertEquals(expected, testSet.contains(element));
+					actual = testSet.remove(element);
+				}
+				assertEquals(expected, actual);
+				assertEquals(referenceSet.size(), testSet.size());
+			}
+			ArrayHashSetTest.testSetEquality(referenceSet, testSet);
+
+			testSet.clear();
+			referenceSet.clear();
+			ArrayHashSetTest.testSetEquality(referenceSet, testSet);
+		}
+	}
+
+}
@@ -0,0 +1,131 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Compares {@link CompactHashSetMultimap} with {@link HashSetMultimap} on
+ * random operations
+ */
+public class CompactHashSetMultimapTest {
+
+	static <K, V> void testMultimapEquality(
+			HashSetMultimap<K, V> referenceMultimap,
+			CompactHashSetMultimap<K, V> testMultimap) {
+		assertEquals(referenceMultimap.keySet(), testMultimap.keySet());
+		assertEquals(referenceMultimap.keySet().size(),
+				testMultimap.keySet().size());
+		assertEquals(referenceMultimap.isEmpty(), testMultimap.isEmpty());
+		for (K key : testMultimap.keySet()) {
+			Collection<V> values = testMultimap.get(key);
+			assertFalse(values.isEmpty());
+			assertEquals(new HashSet<V>(referenceMultimap.get(key)),
+					new HashSet<V>(values));
+			assertEquals(referenceMultimap.get(key).size(), values.size());
+			for (V value : values) {
+				assertTrue(testMultimap.contains(key, value));
+			}
+		}
+	}
+
+	@Test
+	public void testAddRemoveContains() {
+		// random number generator for keys and values
+		Random generator = new Random(123);
+		// number of test iterations
+		final int noIterations = 40;
+		// number of pairs to generate in each iteration; will vary
+		int noPairs = 1;
+
+		boolean expected, actual;
+
+		for (int j = 0; j < noIterations; j++) {
+			// doubling the number of pairs every 4 iteration
+			if ((j & 3) == 3)
+				noPairs <<= 1;
+			int noKeys = noPairs / 4 + 1;
+			int noValues = noPairs / 8 + 2;
+
+			CompactHashSetMultimap<Integer, Integer> testMultimap = new CompactHashSetMultimap<Integer, Integer>();
+			HashSetMultimap<Integer, Integer> referenceMultimap = new HashSetMultimap<Integer, Integer>();
+
+			// randomly adding and removing
+			for (int i = 0; i < 4 * noPairs; i++) {
+				int key = generator.nextInt(noKeys);
+				int value = generator.nextInt(noValues);
+				expected = referenceMultimap.contains(key, value);
+				assertEquals(expected, testMultimap.contains(key, value));
+				if (generator.nextInt(3) > 0) {
+					actual = testMultimap.add(key, value);
+					assertEquals(referenceMultimap.add(key, value), actual);
+				} else {
+					actual = testMultimap.remove(key, value);
+					assertEquals(referenceMultimap.remove(key, value),
+							actual);
+				}
+			}
+			testMultimapEquality(referenceMultimap, testMultimap);
+
+			// removing keys through iterator
+			Iterator<Integer> iterator = testMultimap.keySet().iterator();
+			while (iterator.hasNext()) {
+				Integer key = iterator.next();
+				if (generator.nextBoolean()) {
+					iterator.remove();
+					referenceMultimap.remove(key);
+					assertTrue(testMultimap.get(key).isEmpty());
+				}
+			}
+			testMultimapEquality(referenceMultimap, testMultimap);
+
+			// removing all values of keys
+			for (int i = 0; i < noKeys; i++) {
+				int key = generator.nextInt(noKeys);
+				Collection<Integer> expectedValues = referenceMultimap
+						.remove(key);
+				Collection<Integer> actualValues = testMultimap.remove(key);
+				if (expectedValues == null) {
+					assertEquals(null, actualValues);
+				} else {
+					assertEquals(new HashSet<Integer>(expectedValues),
+							new HashSet<Integer>(actualValues));
+				}
+			}
+			testMultimapEquality(referenceMultimap, testMultimap);
+
+			testMultimap.clear();
+			referenceMultimap.clear();
+			testMultimapEquality(referenceMultimap, testMultimap);
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link IntArenaHashSet}s sharing the same {@link IntArena}
+ */
+public class IntArenaHashSetTest {
+
+	/**
+	 * the number of sets sharing the same {@link IntArena}
+	 */
+	private static final int NO_SETS_ = 8;
+
+	void testAddRemoveContains(IntArena arena) {
+		// random number generator for elements
+		Random generator = new Random(123);
+		// number of test iterations
+		final int noIterations = 40;
+		// number of elements to generate in each iteration; will vary
+		int noElements = 10;
+
+		IntSet[] testSets = new IntSet[NO_SETS_];
+		@SuppressWarnings("unchecked")
+		Set<Integer>[] referenceSets = new Set[NO_SETS_];
+
+		for (int j = 0; j < noIterations; j++) {
+			// doubling the number of elements every 4 iteration
+			if ((j & 3) == 3)
+				noElements <<= 1;
+
+			for (int k = 0; k < NO_SETS_; k++) {
+				testSets[k] = new IntArenaHashSet(arena);
+				referenceSets[k] = new HashSet<Integer>();
+			}
+
+			// adding random elements to random sets
+			for (int i = 0; i < noElements; i++) {
+				int k = generator.nextInt(NO_SETS_);
+				int element = generator.nextInt(noElements / 2);
+				boolean expected = referenceSets[k].add(element);
+				assertEquals(expected, !testSets[k].contains(element));
+				assertEquals(expected, testSets[k].add(element));
+				assertEquals(referenceSets[k].size(), testSets[k].size());
+			}
+			for (int k = 0; k < NO_SETS_; k++) {
+				IntArrayHashSetTest.testSetEquality(referenceSets[k],
+						testSets[k]);
+			}
+
+			// randomly adding and removing
+			for (int i = 0; i < 2 * noElements; i++) {
+				int k = generator.nextInt(NO_SETS_);
+				int element = generator.nextInt(noElements / 2);
+				if (generator.nextBoolean()) {
+					assertEquals(referenceSets[k].add(element),
+							testSets[k].add(element));
+				} else {
+					assertEquals(referenceSets[k].remove(element),
+							testSets[k].remove(element));
+				}
+				assertEquals(referenceSets[k].size(), testSets[k].size());
+			}
+			for (int k = 0; k < NO_SETS_; k++) {
+				IntArrayHashSetTest.testSetEquality(referenceSets[k],
+						testSets[k]);
+			}
+
+			// clearing half of the sets; their slices should be reused
+			for (int k = 0; k < NO_SETS_; k += 2) {
+				testSets[k].clear();
+				referenceSets[k].clear();
+				assertTrue(testSets[k].isEmpty());
+				assertFalse(testSets[k].iterator().hasNext());
+			}
+			for (int k = 0; k < NO_SETS_; k++) {
+				IntArrayHashSetTest.testSetEquality(referenceSets[k],
+						testSets[k]);
+			}
+		}
+	}
+
+	@Test
+	public void testAddRemoveContainsHeap() {
+		testAddRemoveContains(new IntArena(64, false));
+	}
+
+	@Test
+	public void testAddRemoveContainsDirect() {
+		testAddRemoveContains(new IntArena(64, true));
+	}
+
+	@Test
+	public void testSliceReuse() {
+		IntArena arena = new IntArena(64, false);
+		IntSet set = new IntArenaHashSet(arena);
+		for (int i = 0; i < 1000; i++) {
+			set.add(i);
+		}
+		long capacity = arena.getCapacity();
+		// the same slices should be reused for the same elements
+		for (int j = 0; j < 10; j++) {
+			set.clear();
+			for (int i = 0; i < 1000; i++) {
+				set.add(i);
+			}
+		}
+		assertEquals(capacity, arena.getCapacity());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegative() {
+		new IntArenaHashSet(new IntArena()).add(-1);
+	}
+
+}
@@ -0,0 +1,119 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class IntArrayHashSetTest {
+
+	/**
+	 * Checking if the given sets contain the same elements
+	 * 
+	 * @param referenceSet
+	 * @param testSet
+	 */
+	static void testSetEquality(Set<Integer> referenceSet,
+			IntSet testSet) {
+		for (int e : referenceSet) {
+			assertTrue(testSet.contains(e));
+		}
+		assertEquals(referenceSet.size(), testSet.size());
+		int i = 0;
+		IntIterator iterator = testSet.iterator();
+		while (iterator.hasNext()) {
+			assertTrue(referenceSet.contains(iterator.next()));
+			i++;
+		}
+		assertEquals(referenceSet.size(), i);
+	}
+
+	@Test
+	public void testAddRemoveContains() {
+		// random number generator for elements
+		Random generator = new Random(123);
+		// number of test iterations
+		final int noIterations = 55;
+		// number of elements to generate in each iteration; will vary
+		int noElements = 10;
+
+		for (int j = 0; j < noIterations; j++) {
+			// doubling the number of elements every 4 iteration
+			if ((j & 3) == 3)
+				noElements <<= 1;
+
+			IntArrayHashSet testSet = new IntArrayHashSet(
+					generator.nextInt(noElements));
+			Set<Integer> referenceSet = new HashSet<Integer>(noElements);
+
+			// adding random elements
+			for (int i = 0; i < noElements; i++) {
+				int element = generator.nextInt(noElements / 2);
+				boolean expected = referenceSet.add(element);
+				assertEquals(expected, !testSet.contains(element));
+				assertEquals(expected, testSet.add(element));
+				assertEquals(referenceSet.size(), testSet.size());
+			}
+			testSetEquality(referenceSet, testSet);
+
+			// removing random elements
+			for (int i = 0; i < noElements; i++) {
+				int element = generator.nextInt(noElements / 2);
+				boolean expected = referenceSet.remove(element);
+				assertEquals(expected, testSet.contains(element));
+				assertEquals(expected, testSet.remove(element));
+				assertEquals(referenceSet.size(), testSet.size());
+			}
+			testSetEquality(referenceSet, testSet);
+
+			// randomly adding and removing
+			for (int i = 0; i < noElements; i++) {
+				int element = generator.nextInt(noElements / 2);
+				if (generator.nextBoolean()) {
+					assertEquals(referenceSet.add(element),
+							testSet.add(element));
+				} else {
+					assertEquals(referenceSet.remove(element),
+							testSet.remove(element));
+				}
+			}
+			testSetEquality(referenceSet, testSet);
+
+			testSet.clear();
+			assertTrue(testSet.isEmpty());
+			assertFalse(testSet.iterator().hasNext());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegative() {
+		new IntArrayHashSet().add(-1);
+	}
+
+}
@@ -0,0 +1,169 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TinyLfuCachePolicyTest {
+
+	private static final Condition<Object> ANY = new Condition<Object>() {
+		@Override
+		public boolean holds(Object element) {
+			return true;
+		}
+	};
+
+	private static <E> Set<E> evictOverCapacity(TinyLfuCachePolicy<E> cache,
+			Condition<? super E> evictable) {
+		Set<E> result = new HashSet<E>();
+		while (cache.isOverCapacity()) {
+			E evicted = cache.evict(evictable);
+			if (evicted == null) {
+				break;
+			}
+			Assert.assertFalse(cache.contains(evicted));
+			result.add(evicted);
+		}
+		return result;
+	}
+
+	@Test
+	public void testStatistics() {
+		final TinyLfuCachePolicy<Integer> cache = new TinyLfuCachePolicy<Integer>(
+				10);
+		for (int i = 0; i < 20; i++) {
+			Assert.assertFalse(cache.access(i));
+			Assert.assertTrue(cache.access(i));
+		}
+		Assert.assertEquals(20, cache.getHitCount());
+		Assert.assertEquals(20, cache.getMissCount());
+		Assert.assertEquals(20, cache.size());
+		Assert.assertTrue(cache.isOverCapacity());
+		Assert.assertEquals(10, evictOverCapacity(cache, ANY).size());
+		Assert.assertEquals(10, cache.size());
+		Assert.assertEquals(10, cache.getEvictionCount());
+		Assert.assertFalse(cache.isOverCapacity());
+	}
+
+	@Test
+	public void testFrequentElementsRetained() {
+		final int capacity = 100;
+		final TinyLfuCachePolicy<Integer> cache = new TinyLfuCachePolicy<Integer>(
+				capacity);
+		// the frequently accessed elements
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < capacity / 2; i++) {
+				cache.access(i);
+			}
+		}
+		// a scan of elements accessed only once
+		for (int i = capacity; i < 10 * capacity; i++) {
+			cache.access(i);
+			evictOverCapacity(cache, ANY);
+		}
+		for (int i = 0; i < capacity / 2; i++) {
+			Assert.assertTrue(cache.contains(i));
+		}
+	}
+
+	@Test
+	public void testNonEvictable() {
+		final TinyLfuCachePolicy<Integer> cache = new TinyLfuCachePolicy<Integer>(
+				5);
+		for (int i = 0; i < 10; i++) {
+			cache.access(i);
+		}
+		final Condition<Integer> odd = new Condition<Integer>() {
+			@Override
+			public boolean holds(Integer element) {
+				return element % 2 == 1;
+			}
+		};
+		Set<Integer> evicted = evictOverCapacity(cache, odd);
+		Assert.assertEquals(5, evicted.size());
+		for (int i = 0; i < 10; i++) {
+			Assert.assertEquals(i % 2 == 0, cache.contains(i));
+		}
+		// nothing more to evict
+		cache.access(10);
+		Assert.assertTrue(evictOverCapacity(cache, odd).isEmpty());
+		Assert.assertTrue(cache.isOverCapacity());
+	}
+
+	@Test
+	public void testWeight() {
+		final TinyLfuCachePolicy<Integer> cache = new TinyLfuCachePolicy<Integer>(
+				100, 50);
+		for (int i = 0; i < 10; i++) {
+			cache.access(i);
+			cache.setWeight(i, 10);
+		}
+		Assert.assertEquals(100, cache.getWeight());
+		Assert.assertEquals(5, evictOverCapacity(cache, ANY).size());
+		Assert.assertEquals(50, cache.getWeight());
+		cache.remove(cache.contains(0) ? 0 : 9);
+		Assert.assertEquals(40, cache.getWeight());
+	}
+
+	@Test
+	public void testRandomAccess() {
+		final Random random = new Random(42);
+		final TinyLfuCachePolicy<Integer> cache = new TinyLfuCachePolicy<Integer>(
+				64);
+		final Set<Integer> expected = new HashSet<Integer>();
+		for (int i = 0; i < 10000; i++) {
+			// skewed distribution
+			Integer element = random.nextInt(1 + random.nextInt(1000));
+			Assert.assertEquals(expected.contains(element),
+					cache.access(element));
+			expected.add(element);
+			expected.removeAll(evictOverCapacity(cache, ANY));
+			Assert.assertEquals(expected.size(), cache.size());
+			Assert.assertTrue(cache.size() <= 64);
+		}
+	}
+
+	@Test
+	public void testFrequencySketch() {
+		final FrequencySketch<Integer> sketch = new FrequencySketch<Integer>(
+				512);
+		for (int i = 0; i < 100; i++) {
+			for (int j = 0; j <= i % 10; j++) {
+				sketch.increment(i);
+			}
+		}
+		for (int i = 0; i < 100; i++) {
+			// never underestimates
+			Assert.assertTrue(sketch.getFrequency(i) >= 1 + i % 10);
+		}
+		sketch.age();
+		Assert.assertTrue(sketch.getFrequency(9) >= 5);
+		sketch.clear();
+		Assert.assertEquals(0, sketch.getFrequency(9));
+	}
+
+}
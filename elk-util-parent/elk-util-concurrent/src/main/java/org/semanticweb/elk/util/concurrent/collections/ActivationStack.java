@@ -65,4 +65,19 @@ public interface ActivationStack<E> {
 	 */
 	public E peek();
 
+	/**
+	 * Creates new {@link ActivationStack}s
+	 * 
+	 * @author "Yevgeny Kazakov"
+	 *
+	 */
+	public interface Factory {
+
+		/**
+		 * @return a new empty {@link ActivationStack}
+		 */
+		<E> ActivationStack<E> createStack();
+
+	}
+
 }
@@ -0,0 +1,61 @@
+package org.semanticweb.elk.util.concurrent.collections;
+
+/*
+ * #%L
+ * ELK Utilities for Concurrency
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * The available implementations of {@link ActivationStack}, which can be used
+ * as {@link ActivationStack.Factory} for the respective stacks
+ */
+public enum ActivationStackType implements ActivationStack.Factory {
+
+	/**
+	 * creates {@link SynchronizedArrayListActivationStack}s
+	 */
+	SYNCHRONIZED_ARRAY_LIST {
+		@Override
+		public <E> ActivationStack<E> createStack() {
+			return new SynchronizedArrayListActivationStack<E>();
+		}
+	},
+
+	/**
+	 * creates {@link ConcurrentLinkedActivationStack}s
+	 */
+	CONCURRENT_LINKED {
+		@Override
+		public <E> ActivationStack<E> createStack() {
+			return new ConcurrentLinkedActivationStack<E>();
+		}
+	},
+
+	/**
+	 * creates {@link ConcurrentChunkedActivationStack}s
+	 */
+	CONCURRENT_CHUNKED {
+		@Override
+		public <E> ActivationStack<E> createStack() {
+			return new ConcurrentChunkedActivationStack<E>();
+		}
+	};
+
+}
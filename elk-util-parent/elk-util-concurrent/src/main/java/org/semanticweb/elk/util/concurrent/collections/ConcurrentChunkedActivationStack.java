@@ -0,0 +1,261 @@
+package org.semanticweb.elk.util.concurrent.collections;
+
+/*
+ * #%L
+ * ELK Utilities for Concurrency
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A non-blocking implementation of {@link ActivationStack} that stores
+ * elements in a linked list of array chunks. Elements are pushed by reserving a
+ * slot in the top chunk using an atomic counter; a new chunk is linked to the
+ * top using compare-and-set only when the top chunk is full. Thus, unlike
+ * {@link ConcurrentLinkedActivationStack}, most insertions do not allocate
+ * new objects, and, unlike {@link SynchronizedArrayListActivationStack}, no
+ * insertion is blocked by other insertions or removals.
+ * <p>
+ * Elements can be pushed concurrently from any number of threads, but
+ * {@link #pop()} and {@link #peek()} should not be called concurrently with
+ * each other. This is the case when the stack is processed only by the thread
+ * that has activated it (or received it from such a thread) until
+ * {@link #pop()} returns {@code null}. The consumer takes all chunks from the
+ * stack at once, and then retrieves their elements in the reverse order of
+ * their slots. An element may be retrieved only after the thread that has
+ * reserved its slot has written it, so the consumer may need to wait for such
+ * a write to complete.
+ * 
+ * @param <E>
+ *            the type of elements in the stack
+ */
+public class ConcurrentChunkedActivationStack<E> implements ActivationStack<E> {
+
+	/**
+	 * the number of elements in the first chunk after the stack is cleared
+	 */
+	private static final int MIN_CHUNK_SIZE_ = 4;
+
+	/**
+	 * the maximal number of elements in one chunk; every next chunk is twice
+	 * as large as the previous one until this value is reached
+	 */
+	private static final int MAX_CHUNK_SIZE_ = 128;
+
+	/**
+	 * a special chunk used to mark the top of the stack whose chunks have been
+	 * taken by the consumer, i.e., the stack which is activated, but may be
+	 * empty
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final Chunk TAKEN_ = new Chunk<Object>(0, null, null);
+
+	/**
+	 * the top chunk of the stack, {@link #TAKEN_}, or {@code null} if the stack
+	 * has been cleared
+	 */
+	private final AtomicReference<Chunk<E>> top_ = new AtomicReference<Chunk<E>>();
+
+	/**
+	 * the chunks taken from the stack by the consumer whose elements are not
+	 * yet all retrieved; accessed only by the consumer
+	 */
+	private Chunk<E> taken_ = null;
+
+	/**
+	 * the number of elements in the first chunk of {@link #taken_} that are
+	 * not yet retrieved; accessed only by the consumer
+	 */
+	private int takenSize_ = 0;
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean push(E element) {
+		if (element == null)
+			throw new IllegalArgumentException(
+					"Elements in the stack cannot be null");
+		for (;;) {
+			Chunk<E> top = top_.get();
+			Chunk<E> next = null;
+			int size = MIN_CHUNK_SIZE_;
+			if (top != null && top != TAKEN_) {
+				int pos = top.reserve();
+				if (pos >= 0) {
+					top.set(pos, element);
+					return false;
+				}
+				// else the top chunk is full
+				next = top;
+				size = Math.min(2 * top.capacity(), MAX_CHUNK_SIZE_);
+			}
+			if (top_.compareAndSet(top,
+					new Chunk<E>(size, next, element)))
+				return top == null;
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E pop() {
+		for (;;) {
+			if (takenSize_ > 0)
+				return taken_.take(--takenSize_);
+			// else
+			if (taken_ != null) {
+				taken_ = taken_.next;
+				if (taken_ != null)
+					takenSize_ = taken_.seal();
+				continue;
+			}
+			// else
+			Chunk<E> top = top_.get();
+			if (top == null)
+				return null;
+			if (top == TAKEN_) {
+				if (top_.compareAndSet(top, null))
+					// cleared
+					return null;
+				continue;
+			}
+			// else
+			if (top_.compareAndSet(top, TAKEN_)) {
+				taken_ = top;
+				takenSize_ = top.seal();
+			}
+		}
+	}
+
+	@Override
+	public E peek() {
+		if (takenSize_ > 0)
+			return taken_.get(takenSize_ - 1);
+		if (taken_ != null && taken_.next != null)
+			// the next chunks are full
+			return taken_.next.get(taken_.next.capacity() - 1);
+		// else
+		Chunk<E> top = top_.get();
+		if (top == null || top == TAKEN_)
+			return null;
+		// else
+		return top.get(top.size() - 1);
+	}
+
+	/**
+	 * A fixed-size array of elements with the counter of reserved positions
+	 * 
+	 * @param <E>
+	 *            the type of elements in the chunk
+	 */
+	private static class Chunk<E> {
+
+		private final AtomicReferenceArray<E> elements_;
+
+		/**
+		 * the number of reserved positions; can exceed the capacity of the
+		 * chunk if reservation was not successful
+		 */
+		private final AtomicInteger reserved_;
+
+		/**
+		 * the chunk that was on the top of the stack when this chunk was
+		 * pushed; it is always full
+		 */
+		final Chunk<E> next;
+
+		/**
+		 * Creates a new chunk of the given size that contains the given
+		 * element
+		 */
+		Chunk(int capacity, Chunk<E> next, E first) {
+			this.elements_ = new AtomicReferenceArray<E>(capacity);
+			this.next = next;
+			if (first == null) {
+				this.reserved_ = new AtomicInteger(capacity);
+			} else {
+				elements_.set(0, first);
+				this.reserved_ = new AtomicInteger(1);
+			}
+		}
+
+		int capacity() {
+			return elements_.length();
+		}
+
+		/**
+		 * @return the number of positions that have been reserved
+		 */
+		int size() {
+			return Math.min(reserved_.get(), capacity());
+		}
+
+		/**
+		 * Reserves the next free position in this chunk
+		 * 
+		 * @return the reserved position or {@code -1} if the chunk is full
+		 */
+		int reserve() {
+			int pos = reserved_.getAndIncrement();
+			return pos < capacity() ? pos : -1;
+		}
+
+		/**
+		 * Prevents further reservations of positions in this chunk
+		 * 
+		 * @return the number of positions that have been reserved before
+		 */
+		int seal() {
+			return Math.min(reserved_.getAndSet(capacity()), capacity());
+		}
+
+		void set(int pos, E element) {
+			elements_.set(pos, element);
+		}
+
+		/**
+		 * @return the element at the given reserved position; waits until the
+		 *         element is written if necessary
+		 */
+		E get(int pos) {
+			for (;;) {
+				E result = elements_.get(pos);
+				if (result != null)
+					return result;
+				// else the element is not yet written
+				Thread.yield();
+			}
+		}
+
+		/**
+		 * Retrieves and removes the element at the given reserved position
+		 * 
+		 * @see #get(int)
+		 */
+		E take(int pos) {
+			E result = get(pos);
+			// to release the reference
+			elements_.lazySet(pos, null);
+			return result;
+		}
+
+	}
+
+}
@@ -0,0 +1,130 @@
+package org.semanticweb.elk.util.concurrent.collections;
+
+/*
+ * #%L
+ * ELK Utilities for Concurrency
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ConcurrentChunkedActivationStackTest {
+
+	/**
+	 * the number of threads pushing elements to the stack
+	 */
+	private static final int PRODUCER_COUNT_ = 8;
+
+	/**
+	 * the number of elements pushed by every producer
+	 */
+	private static final int ELEMENTS_PER_PRODUCER_ = 100000;
+
+	@Test
+	public void testSequential() {
+		ActivationStack<Integer> stack = new ConcurrentChunkedActivationStack<Integer>();
+		assertNull(stack.peek());
+		assertNull(stack.pop());
+		int count = 1000;
+		for (int i = 0; i < count; i++) {
+			// only the first element activates the stack
+			assertEquals(i == 0, stack.push(i));
+			assertEquals(Integer.valueOf(i), stack.peek());
+		}
+		for (int i = count - 1; i >= 0; i--) {
+			assertEquals(Integer.valueOf(i), stack.peek());
+			assertEquals(Integer.valueOf(i), stack.pop());
+		}
+		// the stack is now empty, but not cleared
+		assertNull(stack.peek());
+		assertFalse(stack.push(count));
+		assertEquals(Integer.valueOf(count), stack.pop());
+		// clearing the stack
+		assertNull(stack.pop());
+		assertTrue(stack.push(count));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNull() {
+		new ConcurrentChunkedActivationStack<Integer>().push(null);
+	}
+
+	/**
+	 * Several producers push elements to the stack while one consumer pops
+	 * them; every pushed element must be popped exactly once and the stack
+	 * must be activated exactly once after every clearing
+	 */
+	@Test
+	public void testConcurrent() throws InterruptedException {
+		final ActivationStack<Integer> stack = new ConcurrentChunkedActivationStack<Integer>();
+		final AtomicInteger activations = new AtomicInteger();
+		final AtomicInteger producing = new AtomicInteger(PRODUCER_COUNT_);
+		List<Thread> producers = new ArrayList<Thread>(PRODUCER_COUNT_);
+		for (int i = 0; i < PRODUCER_COUNT_; i++) {
+			final int first = i * ELEMENTS_PER_PRODUCER_;
+			producers.add(new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < ELEMENTS_PER_PRODUCER_; j++) {
+						if (stack.push(first + j))
+							activations.incrementAndGet();
+					}
+					producing.decrementAndGet();
+				}
+			});
+		}
+		for (Thread producer : producers) {
+			producer.start();
+		}
+		boolean[] popped = new boolean[PRODUCER_COUNT_ * ELEMENTS_PER_PRODUCER_];
+		int poppedCount = 0;
+		int clearings = 0;
+		for (;;) {
+			boolean finished = producing.get() == 0;
+			Integer next = stack.pop();
+			if (next == null) {
+				clearings++;
+				if (finished)
+					break;
+				// else
+				continue;
+			}
+			assertFalse("Popped twice: " + next, popped[next]);
+			popped[next] = true;
+			poppedCount++;
+		}
+		for (Thread producer : producers) {
+			producer.join();
+		}
+		assertEquals(popped.length, poppedCount);
+		assertNull(stack.pop());
+		// every activation is followed by a clearing
+		assertTrue(activations.get() <= clearings);
+	}
+
+}
@@ -0,0 +1,261 @@
+/*-
+ * #%L
+ * ELK Utilities for Input-Output
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.io;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A {@link Reader} of characters from a UTF-8 encoded file, which is
+ * memory-mapped instead of being read through intermediate byte buffers. The
+ * bytes of the file are decoded directly into the character arrays passed to
+ * {@link #read(char[], int, int)}, with a fast path for ASCII characters. Large
+ * files are mapped in windows of a bounded size, so files larger than 2 GB can
+ * be read as well. The byte order mark at the beginning of the file, if
+ * present, is skipped. Malformed input is replaced by the character
+ * {@code U+FFFD}.
+ * 
+ * The file is opened when the reader is created, but mapped only when the
+ * first characters are read. Java provides no way to unmap a file explicitly,
+ * so a mapped window stays in the address space until it is garbage
+ * collected, also after the reader is closed. This reader is not thread-safe.
+ */
+public class MappedUtf8Reader extends Reader {
+
+	/**
+	 * the default maximal number of bytes of the file mapped at once
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+
+	/**
+	 * the maximal number of bytes in one UTF-8 encoded character
+	 */
+	private static final int MAX_CHAR_LENGTH_ = 4;
+
+	private static final char REPLACEMENT_CHAR_ = '\uFFFD';
+
+	private final RandomAccessFile file_;
+
+	private final FileChannel channel_;
+
+	private final int windowSize_;
+
+	/**
+	 * the size of the file in bytes or {@code -1} if not yet known
+	 */
+	private long size_ = -1;
+
+	/**
+	 * the currently mapped part of the file, or {@code null} if nothing is
+	 * mapped yet
+	 */
+	private MappedByteBuffer window_ = null;
+
+	/**
+	 * the position in the file at which {@link #window_} starts
+	 */
+	private long windowStart_ = 0;
+
+	/**
+	 * the low surrogate of the last decoded character that did not fit into
+	 * the output array, or {@code 0} if there is no such character
+	 */
+	private char pendingLowSurrogate_ = 0;
+
+	private boolean closed_ = false;
+
+	/**
+	 * Creates a new {@link MappedUtf8Reader} for the given file
+	 * 
+	 * @param file
+	 *            the file to be read
+	 * @param windowSize
+	 *            the maximal number of bytes of the file mapped at once; it
+	 *            should be at least 4
+	 * @throws FileNotFoundException
+	 *             if the file cannot be opened for reading
+	 */
+	public MappedUtf8Reader(File file, int windowSize)
+			throws FileNotFoundException {
+		if (windowSize < MAX_CHAR_LENGTH_)
+			throw new IllegalArgumentException(
+					"Illegal window size: " + windowSize);
+		this.file_ = new RandomAccessFile(file, "r");
+		this.channel_ = file_.getChannel();
+		this.windowSize_ = windowSize;
+	}
+
+	/**
+	 * Creates a new {@link MappedUtf8Reader} for the given file using the
+	 * default window size ({@value #DEFAULT_WINDOW_SIZE} bytes)
+	 * 
+	 * @param file
+	 *            the file to be read
+	 * @throws FileNotFoundException
+	 *             if the file cannot be opened for reading
+	 */
+	public MappedUtf8Reader(File file) throws FileNotFoundException {
+		this(file, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Makes sure that the mapped window contains the next complete character
+	 * unless the end of the file is reached, remapping the window if
+	 * necessary.
+	 * 
+	 * @return the number of bytes left in the window, which is smaller than
+	 *         {@value #MAX_CHAR_LENGTH_} only when the window reaches the end
+	 *         of the file
+	 * @throws IOException
+	 */
+	private int available() throws IOException {
+		int remaining = window_ == null ? 0 : window_.remaining();
+		if (remaining >= MAX_CHAR_LENGTH_)
+			return remaining;
+		// else
+		long position = window_ == null ? 0
+				: windowStart_ + window_.position();
+		if (size_ < 0)
+			size_ = channel_.size();
+		long fileRemaining = size_ - position;
+		if (fileRemaining == remaining)
+			// the end of the file is already mapped
+			return remaining;
+		// else map the next window starting from the current position
+		windowStart_ = position;
+		window_ = channel_.map(FileChannel.MapMode.READ_ONLY, position,
+				Math.min(windowSize_, fileRemaining));
+		if (position == 0 && window_.remaining() >= 3
+				&& (window_.get(0) & 0xFF) == 0xEF
+				&& (window_.get(1) & 0xFF) == 0xBB
+				&& (window_.get(2) & 0xFF) == 0xBF) {
+			// skip the byte order mark
+			window_.position(3);
+		}
+		return window_.remaining();
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		if (closed_)
+			throw new IOException("Stream closed");
+		if (off < 0 || len < 0 || len > cbuf.length - off)
+			throw new IndexOutOfBoundsException();
+		if (len == 0)
+			return 0;
+		int n = 0;
+		if (pendingLowSurrogate_ != 0) {
+			cbuf[off + n++] = pendingLowSurrogate_;
+			pendingLowSurrogate_ = 0;
+		}
+		while (n < len) {
+			int available = available();
+			if (available == 0)
+				break;
+			MappedByteBuffer window = window_;
+			int pos = window.position();
+			// fast path for ASCII characters
+			int end = pos + Math.min(available, len - n);
+			byte b;
+			while (pos < end && (b = window.get(pos)) >= 0) {
+				cbuf[off + n++] = (char) b;
+				pos++;
+			}
+			window.position(pos);
+			if (pos == end)
+				continue;
+			// else decode a multi-byte sequence
+			available = available();
+			window = window_;
+			pos = window.position();
+			int b0 = window.get(pos) & 0xFF;
+			int length;
+			int code;
+			if (b0 >= 0xC2 && b0 <= 0xDF) {
+				length = 2;
+				code = b0 & 0x1F;
+			} else if (b0 >= 0xE0 && b0 <= 0xEF) {
+				length = 3;
+				code = b0 & 0x0F;
+			} else if (b0 >= 0xF0 && b0 <= 0xF4) {
+				length = 4;
+				code = b0 & 0x07;
+			} else {
+				// not a valid leading byte
+				window.position(pos + 1);
+				cbuf[off + n++] = REPLACEMENT_CHAR_;
+				continue;
+			}
+			int i = 1;
+			for (; i < length && i < available; i++) {
+				int bi = window.get(pos + i) & 0xFF;
+				if ((bi & 0xC0) != 0x80)
+					break;
+				code = (code << 6) | (bi & 0x3F);
+			}
+			window.position(pos + i);
+			if (i < length || (length == 3 && (code < 0x800
+					|| (code >= 0xD800 && code <= 0xDFFF)))
+					|| (length == 4 && (code < 0x10000 || code > 0x10FFFF))) {
+				// truncated, overlong, or out of range
+				cbuf[off + n++] = REPLACEMENT_CHAR_;
+				continue;
+			}
+			if (code < 0x10000) {
+				cbuf[off + n++] = (char) code;
+				continue;
+			}
+			// else a supplementary character
+			code -= 0x10000;
+			cbuf[off + n++] = (char) (0xD800 + (code >>> 10));
+			char low = (char) (0xDC00 + (code & 0x3FF));
+			if (n < len) {
+				cbuf[off + n++] = low;
+			} else {
+				pendingLowSurrogate_ = low;
+			}
+		}
+		return n == 0 ? -1 : n;
+	}
+
+	@Override
+	public boolean ready() throws IOException {
+		if (closed_)
+			throw new IOException("Stream closed");
+		return pendingLowSurrogate_ != 0 || available() > 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed_)
+			return;
+		closed_ = true;
+		window_ = null;
+		file_.close();
+	}
+
+}
@@ -0,0 +1,123 @@
+/*-
+ * #%L
+ * ELK Utilities for Input-Output
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2017 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedUtf8ReaderTest {
+
+	private static final Charset UTF_8_ = Charset.forName("UTF-8");
+
+	/**
+	 * characters encoded using 1, 2, 3, and 4 bytes, respectively
+	 */
+	private static final String[] SAMPLES_ = { "a", "(", "\u00e9", "\u00df",
+			"\u20ac", "\u4e2d", "\ud83d\ude00", "\ud800\udf48" };
+
+	private File file_;
+
+	@Before
+	public void setUp() throws IOException {
+		file_ = File.createTempFile("elk", ".txt");
+		file_.deleteOnExit();
+	}
+
+	@After
+	public void tearDown() {
+		file_.delete();
+	}
+
+	private void write(byte[] bytes) throws IOException {
+		OutputStream out = new FileOutputStream(file_);
+		try {
+			out.write(bytes);
+		} finally {
+			out.close();
+		}
+	}
+
+	private String read(int windowSize, int bufferSize) throws IOException {
+		Reader reader = new MappedUtf8Reader(file_, windowSize);
+		try {
+			StringBuilder result = new StringBuilder();
+			char[] buffer = new char[bufferSize];
+			int n;
+			while ((n = reader.read(buffer)) >= 0) {
+				result.append(buffer, 0, n);
+			}
+			return result.toString();
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testRandomText() throws IOException {
+		Random random = new Random(123);
+		for (int length : new int[] { 0, 1, 10, 1000, 100000 }) {
+			StringBuilder text = new StringBuilder();
+			for (int i = 0; i < length; i++) {
+				text.append(SAMPLES_[random.nextInt(SAMPLES_.length)]);
+			}
+			String expected = text.toString();
+			write(expected.getBytes(UTF_8_));
+			for (int windowSize : new int[] { 4, 5, 7, 64, 4096,
+					MappedUtf8Reader.DEFAULT_WINDOW_SIZE }) {
+				if (windowSize < 64 && length > 1000) {
+					// too many mappings
+					continue;
+				}
+				for (int bufferSize : new int[] { 1, 2, 3, 1000 }) {
+					assertEquals(expected, read(windowSize, bufferSize));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testByteOrderMark() throws IOException {
+		write(new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'a', 'b' });
+		assertEquals("ab", read(4, 10));
+		assertEquals("ab", read(MappedUtf8Reader.DEFAULT_WINDOW_SIZE, 1));
+	}
+
+	@Test
+	public void testMalformed() throws IOException {
+		write(new byte[] { 'a', (byte) 0xFF, 'b', (byte) 0xC3, 'c',
+				(byte) 0xE2, (byte) 0x82 });
+		assertEquals("a\ufffdb\ufffdc\ufffd", read(4, 10));
+		assertEquals("a\ufffdb\ufffdc\ufffd", read(64, 1));
+	}
+
+}